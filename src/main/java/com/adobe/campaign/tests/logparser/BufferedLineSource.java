@@ -0,0 +1,96 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+/**
+ * The default {@link LineSource}. Lines are read through a large buffer, and
+ * the bytes are decoded directly with the given charset. Lines are terminated
+ * by a line feed, a carriage return, or a carriage return followed by a line
+ * feed.
+ *
+ * The factories created by {@link #factory(Charset, int)} also read gzip
+ * compressed files.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class BufferedLineSource implements LineSource {
+
+    /**
+     * The default buffer size in characters
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The default charset used for decoding the files
+     */
+    public static final Charset DEFAULT_CHARSET = Charset.defaultCharset();
+
+    private final BufferedReader reader;
+
+    /**
+     * Creates a line source for the given stream
+     *
+     * @param in_inputStream
+     *        The stream we want to read the lines of
+     * @param in_charset
+     *        The charset with which the stream is decoded
+     * @param in_bufferSize
+     *        The size of the buffer in characters
+     */
+    public BufferedLineSource(InputStream in_inputStream, Charset in_charset, int in_bufferSize) {
+        if (in_bufferSize <= 0) {
+            throw new IllegalArgumentException("The buffer size needs to be a positive number.");
+        }
+        this.reader = new BufferedReader(new InputStreamReader(in_inputStream, in_charset), in_bufferSize);
+    }
+
+    @Override
+    public String nextLine() throws IOException {
+        return reader.readLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Creates a factory for buffered line sources with the given settings.
+     * Files compressed with gzip are detected by their first bytes, and are
+     * decompressed in a separate thread while their lines are read.
+     *
+     * Author : gandomi
+     *
+     * @param in_charset
+     *        The charset with which the files are decoded
+     * @param in_bufferSize
+     *        The size of the buffer in characters
+     * @return A LineSourceFactory creating BufferedLineSources
+     *
+     */
+    public static LineSourceFactory factory(Charset in_charset, int in_bufferSize) {
+        if (in_bufferSize <= 0) {
+            throw new IllegalArgumentException("The buffer size needs to be a positive number.");
+        }
+
+        return l_filePath -> new BufferedLineSource(CompressedFiles.open(l_filePath), in_charset, in_bufferSize);
+    }
+
+}
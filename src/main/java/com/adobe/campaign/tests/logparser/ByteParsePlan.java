@@ -0,0 +1,378 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A version of the {@link CompiledParsePlan} that works directly on the bytes
+ * of a line. The start and end markers are encoded once, and are searched as
+ * byte sequences. Only the values that are preserved are decoded into Strings.
+ *
+ * This only works for charsets where the ASCII characters are encoded as
+ * single bytes, such as UTF-8 or ISO-8859-1. Case insensitive searches are
+ * done on ASCII letters only. If a case insensitive marker contains non-ASCII
+ * characters, the plan is flagged as not byte parsable, and the lines need to
+ * be decoded before parsing.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class ByteParsePlan {
+
+    private static final String ASCII_CHARACTERS;
+
+    static {
+        StringBuilder l_asciiCharacters = new StringBuilder();
+        for (char c = 0; c < 128; c++) {
+            l_asciiCharacters.append(c);
+        }
+        ASCII_CHARACTERS = l_asciiCharacters.toString();
+    }
+
+    private final Charset charset;
+    private final ParseDefinitionEntry[] steps;
+    private final String[] titles;
+    private final byte[][] startMarkers;
+    private final byte[][] endMarkers;
+    private final boolean byteParsable;
+    private final byte[] anchorMarker;
+    private final boolean anchorIgnoreCase;
+
+    private byte[] decodingBuffer = new byte[256];
+
+    /**
+     * @param in_steps
+     *        The parse definition entries of the plan
+     * @param in_anchorMarkerIndex
+     *        The index of the marker that is searched before parsing a line,
+     *        as returned by {@link LinePrefilter#getAnchorMarkerIndex()}. -1 if
+     *        there is no anchor
+     * @param in_charset
+     *        The charset of the lines
+     */
+    ByteParsePlan(ParseDefinitionEntry[] in_steps, int in_anchorMarkerIndex, Charset in_charset) {
+        if (!isASCIICompatible(in_charset)) {
+            throw new IllegalArgumentException("The charset " + in_charset
+                    + " is not supported for byte level parsing. Only charsets that encode ASCII characters as single bytes can be used.");
+        }
+
+        this.charset = in_charset;
+        this.steps = in_steps;
+        this.titles = new String[in_steps.length];
+        this.startMarkers = new byte[in_steps.length][];
+        this.endMarkers = new byte[in_steps.length][];
+
+        boolean l_byteParsable = true;
+        for (int i = 0; i < in_steps.length; i++) {
+            final ParseDefinitionEntry lt_step = in_steps[i];
+            titles[i] = lt_step.getTitle();
+            startMarkers[i] = encodeMarker(lt_step.getStart(), lt_step.isCaseSensitive());
+            endMarkers[i] = encodeMarker(lt_step.getEnd(), lt_step.isCaseSensitive());
+
+            if (!lt_step.isCaseSensitive() && !(isASCII(lt_step.getStart()) && isASCII(lt_step.getEnd()))) {
+                l_byteParsable = false;
+            }
+        }
+        this.byteParsable = l_byteParsable;
+
+        if (in_anchorMarkerIndex < 0) {
+            this.anchorMarker = null;
+            this.anchorIgnoreCase = false;
+        } else {
+            final int l_anchorStep = in_anchorMarkerIndex / 2;
+            this.anchorMarker = (in_anchorMarkerIndex % 2 == 0) ? startMarkers[l_anchorStep]
+                    : endMarkers[l_anchorStep];
+            this.anchorIgnoreCase = !in_steps[l_anchorStep].isCaseSensitive();
+        }
+    }
+
+    /**
+     * @return false if the lines need to be decoded before they are parsed.
+     *         This happens if a case insensitive marker is not in ASCII.
+     */
+    boolean isByteParsable() {
+        return byteParsable;
+    }
+
+    /**
+     * Calculates the start and end offsets of each parse definition entry in
+     * the given line. This follows the same rules as
+     * {@link CompiledParsePlan#fetchOffsets(String)}.
+     *
+     * @param in_buffer
+     *        A buffer containing the line
+     * @param in_lineStart
+     *        The index of the first byte of the line in the buffer
+     * @param in_lineEnd
+     *        The index following the last byte of the line in the buffer
+     * @return An array with the start and end offsets, in the buffer, of each
+     *         entry. null if the line is not compliant with the parse
+     *         definition
+     */
+    int[] fetchOffsets(ByteBuffer in_buffer, int in_lineStart, int in_lineEnd) {
+        //Lines without the anchor of the prefilter can not be compliant
+        if (anchorMarker != null
+                && indexOf(in_buffer, anchorMarker, anchorIgnoreCase, in_lineStart, in_lineEnd) < 0) {
+            return null;
+        }
+
+        return CompiledParsePlan.fetchOffsets(steps, in_lineStart, new CompiledParsePlan.StepLocator() {
+            @Override
+            public int fetchStartPosition(int in_step, int in_cursor) {
+                return ByteParsePlan.this.fetchStartPosition(in_buffer, in_step, in_cursor, in_lineEnd);
+            }
+
+            @Override
+            public int fetchEndPosition(int in_step, int in_startPosition) {
+                return ByteParsePlan.this.fetchEndPosition(in_buffer, in_step, in_startPosition, in_lineEnd);
+            }
+        }, false);
+    }
+
+    /**
+     * Searches the start of the value of a step in a line. This follows the
+     * same rules as {@link ParseDefinitionEntry#fetchStartPosition(String, int)}
+     *
+     * @param in_buffer
+     *        A buffer containing the line
+     * @param in_step
+     *        The index of the step
+     * @param in_cursor
+     *        The index from which the start marker is searched
+     * @param in_lineEnd
+     *        The index following the last byte of the line in the buffer
+     * @return The index at which the value starts. -1 if the start marker was
+     *         not found
+     */
+    private int fetchStartPosition(ByteBuffer in_buffer, int in_step, int in_cursor, int in_lineEnd) {
+        final ParseDefinitionEntry l_step = steps[in_step];
+
+        if (l_step.isStartStartOfLine()) {
+            return in_cursor;
+        }
+
+        int lr_startPosition = indexOf(in_buffer, startMarkers[in_step], !l_step.isCaseSensitive(), in_cursor,
+                in_lineEnd);
+
+        if (lr_startPosition < 0) {
+            return -1;
+        }
+        lr_startPosition += startMarkers[in_step].length;
+
+        if (l_step.isTrimQuotes()) {
+            while (lr_startPosition < in_lineEnd && in_buffer.get(lr_startPosition) == '"') {
+                lr_startPosition++;
+            }
+        }
+        return lr_startPosition;
+    }
+
+    /**
+     * Searches the end of the value of a step in a line. This follows the same
+     * rules as {@link ParseDefinitionEntry#fetchEndPosition(String, int)}
+     *
+     * @param in_buffer
+     *        A buffer containing the line
+     * @param in_step
+     *        The index of the step
+     * @param in_startPosition
+     *        The index at which the value starts
+     * @param in_lineEnd
+     *        The index following the last byte of the line in the buffer
+     * @return The index at which the value ends. -1 if the end marker was not
+     *         found
+     */
+    private int fetchEndPosition(ByteBuffer in_buffer, int in_step, int in_startPosition, int in_lineEnd) {
+        final ParseDefinitionEntry l_step = steps[in_step];
+
+        if (l_step.isEndEOL()) {
+            return in_lineEnd;
+        }
+
+        int lr_endPosition = indexOf(in_buffer, endMarkers[in_step], !l_step.isCaseSensitive(), in_startPosition,
+                in_lineEnd);
+
+        if (lr_endPosition < 0) {
+            return -1;
+        }
+
+        if (l_step.isTrimQuotes()) {
+            while (lr_endPosition > in_startPosition && in_buffer.get(lr_endPosition - 1) == '"') {
+                lr_endPosition--;
+            }
+        }
+        return lr_endPosition;
+    }
+
+    /**
+     * Decodes the preserved values of a line whose offsets have been
+     * calculated with {@link #fetchOffsets(ByteBuffer, int, int)}
+     *
+     * @param in_buffer
+     *        A buffer containing the line
+     * @param in_offsets
+     *        The offsets of the entries in the buffer
+     * @return A map of the trimmed values of the preserved entries
+     */
+    Map<String, String> fetchValues(ByteBuffer in_buffer, int[] in_offsets) {
+        Map<String, String> lr_values = new HashMap<>();
+
+        for (int i = 0; i < steps.length; i++) {
+            if (steps[i].isToPreserve()) {
+                lr_values.put(titles[i], fetchValue(in_buffer, in_offsets, i));
+            }
+        }
+        return lr_values;
+    }
+
+    /**
+     * Decodes the trimmed value of the entry with the given index
+     *
+     * @param in_buffer
+     *        A buffer containing the line
+     * @param in_offsets
+     *        The offsets of the entries in the buffer
+     * @param in_entryIndex
+     *        The index of the parse definition entry
+     * @return The value of the entry as a String
+     */
+    String fetchValue(ByteBuffer in_buffer, int[] in_offsets, int in_entryIndex) {
+        int l_start = in_offsets[in_entryIndex * 2];
+        int l_end = in_offsets[in_entryIndex * 2 + 1];
+
+        //Same behavior as String.trim(). Characters below space are single bytes in ASCII compatible charsets
+        while (l_start < l_end && (in_buffer.get(l_start) & 0xFF) <= ' ') {
+            l_start++;
+        }
+        while (l_end > l_start && (in_buffer.get(l_end - 1) & 0xFF) <= ' ') {
+            l_end--;
+        }
+
+        return decode(in_buffer, l_start, l_end);
+    }
+
+    /**
+     * Decodes the given region of the buffer with the charset of the plan
+     *
+     * @param in_buffer
+     *        A buffer containing the bytes
+     * @param in_start
+     *        The index of the first byte
+     * @param in_end
+     *        The index following the last byte
+     * @return The decoded String
+     */
+    String decode(ByteBuffer in_buffer, int in_start, int in_end) {
+        final int l_length = in_end - in_start;
+
+        if (decodingBuffer.length < l_length) {
+            decodingBuffer = new byte[Math.max(l_length, decodingBuffer.length * 2)];
+        }
+
+        for (int i = 0; i < l_length; i++) {
+            decodingBuffer[i] = in_buffer.get(in_start + i);
+        }
+        return new String(decodingBuffer, 0, l_length, charset);
+    }
+
+    /**
+     * Searches for the given bytes in the buffer between the given indexes.
+     *
+     * @param in_buffer
+     *        The buffer to search in
+     * @param in_search
+     *        The bytes we are looking for. If in_ignoreCase is true the ASCII
+     *        letters are expected to be in lower case
+     * @param in_ignoreCase
+     *        true if the ASCII letters should be compared without their case
+     * @param in_from
+     *        The index from which we start searching
+     * @param in_to
+     *        The index at which we stop searching (exclusive)
+     * @return The index of the first occurrence of the searched bytes. -1 if
+     *         not found
+     */
+    static int indexOf(ByteBuffer in_buffer, byte[] in_search, boolean in_ignoreCase, int in_from, int in_to) {
+        if (in_search.length == 0) {
+            return in_from;
+        }
+
+        final byte l_first = in_search[0];
+        final int l_lastCandidate = in_to - in_search.length;
+
+        for (int i = in_from; i <= l_lastCandidate; i++) {
+            if (fetchByte(in_buffer, i, in_ignoreCase) != l_first) {
+                continue;
+            }
+
+            int j = 1;
+            while (j < in_search.length && fetchByte(in_buffer, i + j, in_ignoreCase) == in_search[j]) {
+                j++;
+            }
+
+            if (j == in_search.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte fetchByte(ByteBuffer in_buffer, int in_index, boolean in_ignoreCase) {
+        final byte lr_byte = in_buffer.get(in_index);
+
+        return (in_ignoreCase && lr_byte >= 'A' && lr_byte <= 'Z') ? (byte) (lr_byte + ('a' - 'A')) : lr_byte;
+    }
+
+    private byte[] encodeMarker(String in_marker, boolean in_caseSensitive) {
+        if (in_marker == null) {
+            return null;
+        }
+
+        return (in_caseSensitive ? in_marker : toASCIILowerCase(in_marker)).getBytes(charset);
+    }
+
+    private static String toASCIILowerCase(String in_string) {
+        char[] lr_chars = in_string.toCharArray();
+
+        for (int i = 0; i < lr_chars.length; i++) {
+            if (lr_chars[i] >= 'A' && lr_chars[i] <= 'Z') {
+                lr_chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(lr_chars);
+    }
+
+    private static boolean isASCII(String in_string) {
+        return in_string == null || in_string.chars().allMatch(c -> c < 128);
+    }
+
+    /**
+     * Lets us know if the given charset encodes the ASCII characters as single
+     * bytes with the same value
+     *
+     * @param in_charset
+     *        A charset
+     * @return true if the ASCII characters are encoded as themselves
+     */
+    static boolean isASCIICompatible(Charset in_charset) {
+        return Arrays.equals(ASCII_CHARACTERS.getBytes(in_charset),
+                ASCII_CHARACTERS.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
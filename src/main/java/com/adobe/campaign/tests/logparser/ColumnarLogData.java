@@ -0,0 +1,865 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.adobe.campaign.tests.logparser.exceptions.IncorrectParseDefinitionException;
+
+/**
+ * A column based version of {@link LogData}. Instead of storing one
+ * {@link StdLogEntry} per key, with its own map of values, we store one column
+ * per header of the ParseDefinition, and one column for the frequences. The
+ * entries are only created as {@link GenericEntry} objects when they are
+ * requested.
+ *
+ * The columns are dictionary encoded. Each distinct value of a header is
+ * stored once in a dictionary, and the column only contains the int codes of
+ * the values. Filtering and grouping compare the codes instead of the values.
+ *
+ * The created entries are copies of the stored rows. Changing them does not
+ * change the stored data. Use {@link #put(String, String, Object)} for that.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class ColumnarLogData {
+
+    protected static Logger log = LogManager.getLogger();
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ParseDefinition parseDefinition;
+    private final String[] headers;
+    private final Map<String, Integer> headerIndexes = new HashMap<>();
+
+    private final Map<String, Integer> rowIndexes = new HashMap<>();
+    private final ValueDictionary[] dictionaries;
+    private int[][] columns;
+    private long[] frequences;
+    private int size = 0;
+
+    //Used when parsing lines. Lines with the same key codes have the same row
+    private final int[] keyColumns;
+    private final Map<CodeTuple, Integer> keyCodeRows = new HashMap<>();
+    private final CodeTuple keyCodeProbe;
+    private CompiledParsePlan linePlan = null;
+    private int[] linePlanIndexes = null;
+
+    /**
+     * Creates an empty columnar log data for the given parse definition. There
+     * is one column per header of the definition.
+     *
+     * @param in_parseDefinition
+     *        The parse definition of the stored data
+     */
+    public ColumnarLogData(ParseDefinition in_parseDefinition) {
+        this(in_parseDefinition, null);
+    }
+
+    /**
+     * Creates an empty columnar log data using the given dictionaries
+     *
+     * @param in_parseDefinition
+     *        The parse definition of the stored data
+     * @param in_dictionaries
+     *        The dictionaries of the headers. If null new dictionaries are
+     *        created
+     */
+    private ColumnarLogData(ParseDefinition in_parseDefinition, ValueDictionary[] in_dictionaries) {
+        this.parseDefinition = in_parseDefinition;
+        this.headers = in_parseDefinition.fetchHeaders().toArray(new String[0]);
+
+        for (int i = 0; i < headers.length; i++) {
+            headerIndexes.put(headers[i], i);
+        }
+
+        if (in_dictionaries == null) {
+            this.dictionaries = new ValueDictionary[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                dictionaries[i] = new ValueDictionary();
+            }
+        } else {
+            this.dictionaries = in_dictionaries;
+        }
+
+        this.columns = new int[headers.length][INITIAL_CAPACITY];
+        this.frequences = new long[INITIAL_CAPACITY];
+
+        this.keyColumns = fetchKeyColumns();
+        this.keyCodeProbe = keyColumns == null ? null : new CodeTuple(new int[keyColumns.length]);
+    }
+
+    /**
+     * @return The columns of the key fields. null if a key field is not a
+     *         header
+     */
+    private int[] fetchKeyColumns() {
+        final List<String> l_keyOrder = parseDefinition.fetchKeyOrder();
+        int[] lr_keyColumns = new int[l_keyOrder.size()];
+
+        for (int i = 0; i < lr_keyColumns.length; i++) {
+            final Integer lt_headerIndex = headerIndexes.get(l_keyOrder.get(i));
+
+            if (lt_headerIndex == null) {
+                return null;
+            }
+            lr_keyColumns[i] = lt_headerIndex;
+        }
+        return lr_keyColumns;
+    }
+
+    /**
+     * Creates a columnar log data containing the entries of the given LogData
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinition
+     *        The parse definition of the entries
+     * @param in_logData
+     *        A LogData object
+     * @return A columnar version of the given LogData
+     *
+     */
+    public static ColumnarLogData from(ParseDefinition in_parseDefinition,
+            LogData<? extends StdLogEntry> in_logData) {
+        ColumnarLogData lr_columnarLogData = new ColumnarLogData(in_parseDefinition);
+
+        for (Map.Entry<String, ? extends StdLogEntry> lt_entry : in_logData.getEntries().entrySet()) {
+            lr_columnarLogData.addRow(lt_entry.getKey(), lt_entry.getValue().fetchValueMap(),
+                    lt_entry.getValue().fetchFrequence());
+        }
+        return lr_columnarLogData;
+    }
+
+    /**
+     * @return The parse definition of the stored data
+     */
+    public ParseDefinition getParseDefinition() {
+        return parseDefinition;
+    }
+
+    /**
+     * @return The number of stored entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The keys of the stored entries
+     */
+    public Set<String> fetchKeys() {
+        return Collections.unmodifiableSet(rowIndexes.keySet());
+    }
+
+    /**
+     * This method adds an entry to the log data. If the entry already exists we
+     * just increment the frequence
+     *
+     * Author : gandomi
+     *
+     * @param in_entry
+     *        An object of the type {@link StdLogEntry}
+     *
+     */
+    public void addEntry(StdLogEntry in_entry) {
+        addRow(in_entry.makeKey(), in_entry.fetchValueMap(), in_entry.fetchFrequence());
+    }
+
+    /**
+     * Adds the given values with the given key. If the key already exists we
+     * just increment its frequence.
+     *
+     * Author : gandomi
+     *
+     * @param in_key
+     *        The key of the entry
+     * @param in_values
+     *        The values of the entry. Only the values of the headers are
+     *        stored
+     * @param in_frequence
+     *        The frequence of the entry
+     *
+     */
+    void addRow(String in_key, Map<String, ?> in_values, long in_frequence) {
+        final Integer l_existingRow = rowIndexes.get(in_key);
+
+        if (l_existingRow != null) {
+            frequences[l_existingRow] += in_frequence;
+            return;
+        }
+
+        ensureCapacity(size + 1);
+
+        for (int i = 0; i < headers.length; i++) {
+            columns[i][size] = dictionaries[i].encode(in_values.get(headers[i]));
+        }
+        frequences[size] = in_frequence;
+        rowIndexes.put(in_key, size);
+        size++;
+    }
+
+    /**
+     * Adds a row whose values are already encoded with the dictionaries of
+     * this object. The key is expected to be new.
+     *
+     * @param in_key
+     *        The key of the entry
+     * @param in_codes
+     *        The codes of the values, one per header
+     * @param in_frequence
+     *        The frequence of the entry
+     */
+    void addEncodedRow(String in_key, int[] in_codes, long in_frequence) {
+        ensureCapacity(size + 1);
+
+        for (int i = 0; i < headers.length; i++) {
+            columns[i][size] = in_codes[i];
+        }
+        frequences[size] = in_frequence;
+        rowIndexes.put(in_key, size);
+        size++;
+    }
+
+    /**
+     * @return The headers, in the order of the columns
+     */
+    String[] fetchColumnHeaders() {
+        return headers.clone();
+    }
+
+    /**
+     * @param in_column
+     *        The index of a column
+     * @return The dictionary of the column
+     */
+    ValueDictionary fetchDictionary(int in_column) {
+        return dictionaries[in_column];
+    }
+
+    /**
+     * @param in_column
+     *        The index of a column
+     * @param in_row
+     *        The index of a row
+     * @return The code of the value stored in the given cell
+     */
+    int fetchCode(int in_column, int in_row) {
+        return columns[in_column][in_row];
+    }
+
+    /**
+     * @param in_row
+     *        The index of a row
+     * @return The frequence of the row
+     */
+    long fetchFrequence(int in_row) {
+        return frequences[in_row];
+    }
+
+    /**
+     * @return The keys of the rows, in the order of the rows
+     */
+    String[] fetchRowKeys() {
+        final String[] lr_keys = new String[size];
+        for (Map.Entry<String, Integer> lt_rowIndex : rowIndexes.entrySet()) {
+            lr_keys[lt_rowIndex.getValue()] = lt_rowIndex.getKey();
+        }
+        return lr_keys;
+    }
+
+    /**
+     * Adds a line parsed with the given plan. The values of the line are
+     * encoded from their offsets in the line, so a String is only created for
+     * values that have not been seen before. The key of the line is only
+     * created when its key values have not been seen before.
+     *
+     * Author : gandomi
+     *
+     * @param in_parsePlan
+     *        The plan with which the line was parsed. It needs to be compiled
+     *        from the parse definition of this object
+     * @param in_line
+     *        A log line
+     * @param in_offsets
+     *        The offsets of the values in the line, as returned by
+     *        {@link CompiledParsePlan#fetchOffsets(String)}
+     *
+     */
+    void addParsedLine(CompiledParsePlan in_parsePlan, String in_line, int[] in_offsets) {
+        if (keyColumns == null) {
+            //The key can not be computed from the columns, so we let the entry create it
+            ParsedLine l_parsedLine = new ParsedLine(in_parsePlan, in_line, in_offsets);
+            GenericEntry l_entry = new GenericEntry(parseDefinition);
+            l_entry.setValuesFromMap(l_parsedLine);
+            addRow(l_entry.makeKey(), l_parsedLine, 1);
+            return;
+        }
+
+        if (linePlan != in_parsePlan) {
+            linePlanIndexes = new int[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                linePlanIndexes[i] = in_parsePlan.fetchPreservedIndex(headers[i]);
+            }
+            linePlan = in_parsePlan;
+        }
+
+        for (int i = 0; i < keyColumns.length; i++) {
+            keyCodeProbe.codes[i] = encodeLineValue(keyColumns[i], in_line, in_offsets);
+        }
+        keyCodeProbe.updateHash();
+
+        final Integer l_existingRow = keyCodeRows.get(keyCodeProbe);
+        if (l_existingRow != null) {
+            frequences[l_existingRow]++;
+            return;
+        }
+
+        final String l_keyPadding = parseDefinition.getKeyPadding();
+        StringBuilder l_key = new StringBuilder();
+        for (int i = 0; i < keyColumns.length; i++) {
+            if (i > 0) {
+                l_key.append(l_keyPadding);
+            }
+            l_key.append(dictionaries[keyColumns[i]].decode(keyCodeProbe.codes[i]));
+        }
+
+        Integer l_row = rowIndexes.get(l_key.toString());
+        if (l_row != null) {
+            frequences[l_row]++;
+        } else {
+            ensureCapacity(size + 1);
+
+            for (int i = 0; i < headers.length; i++) {
+                columns[i][size] = encodeLineValue(i, in_line, in_offsets);
+            }
+            frequences[size] = 1;
+            l_row = size++;
+            rowIndexes.put(l_key.toString(), l_row);
+        }
+
+        keyCodeRows.put(new CodeTuple(keyCodeProbe.codes.clone()), l_row);
+    }
+
+    private int encodeLineValue(int in_column, String in_line, int[] in_offsets) {
+        final int l_planIndex = linePlanIndexes[in_column];
+
+        return dictionaries[in_column].encode(in_line, in_offsets[l_planIndex * 2],
+                in_offsets[l_planIndex * 2 + 1]);
+    }
+
+    /**
+     * Increments the frequence of the entry with the given key
+     *
+     * @param in_key
+     *        The key of the entry
+     * @return false if there is no entry with that key
+     */
+    boolean incrementRow(String in_key) {
+        final Integer l_existingRow = rowIndexes.get(in_key);
+
+        if (l_existingRow == null) {
+            return false;
+        }
+
+        frequences[l_existingRow]++;
+        return true;
+    }
+
+    private void ensureCapacity(int in_capacity) {
+        if (in_capacity <= frequences.length) {
+            return;
+        }
+
+        final int l_newCapacity = Math.max(in_capacity, frequences.length * 2);
+
+        for (int i = 0; i < headers.length; i++) {
+            columns[i] = Arrays.copyOf(columns[i], l_newCapacity);
+        }
+        frequences = Arrays.copyOf(frequences, l_newCapacity);
+    }
+
+    /**
+     * Creates an entry with the values of the given row
+     *
+     * @param in_row
+     *        The index of a row
+     * @return A GenericEntry containing the values of the row
+     */
+    private GenericEntry fetchEntry(int in_row) {
+        GenericEntry lr_entry = new GenericEntry(parseDefinition);
+
+        for (int i = 0; i < headers.length; i++) {
+            lr_entry.valuesMap.put(headers[i], dictionaries[i].decode(columns[i][in_row]));
+        }
+        lr_entry.setFrequence(frequences[in_row]);
+        return lr_entry;
+    }
+
+    /**
+     * This method allows you to access an entry in the log data. For this you
+     * need the key of the Data. The entry is created from the stored values.
+     *
+     * Author : gandomi
+     *
+     * @param in_dataEntryKey
+     *        The key with which the data has been stored
+     * @return A GenericEntry for the given key. null if not found
+     *
+     */
+    public GenericEntry get(String in_dataEntryKey) {
+        final Integer l_row = rowIndexes.get(in_dataEntryKey);
+
+        return l_row == null ? null : fetchEntry(l_row);
+    }
+
+    /**
+     * This method allows you to access a value within the log data. For this
+     * you need the key of the Data and the title of the value
+     *
+     * Author : gandomi
+     *
+     * @param in_dataEntryKey
+     *        The key with which the data has been stored
+     * @param in_valueKey
+     *        The identity of the value.
+     * @return The key value for the given entry. null if not found
+     * @throws IncorrectParseDefinitionException
+     *         If the given valueKey was not found in the definition
+     *
+     */
+    public Object get(String in_dataEntryKey, String in_valueKey) throws IncorrectParseDefinitionException {
+        final Integer l_row = rowIndexes.get(in_dataEntryKey);
+
+        if (l_row == null) {
+            return null;
+        }
+
+        final int l_headerIndex = fetchHeaderIndex(in_valueKey);
+
+        return dictionaries[l_headerIndex].decode(columns[l_headerIndex][l_row]);
+    }
+
+    /**
+     * This method allows you to change a specific value in the log data. For
+     * this, you need the key and the parse definition title to find the value.
+     * When the key of the entries is made of their values, changing a key
+     * value also changes the key of the entry.
+     *
+     * Author : gandomi
+     *
+     * @param in_dataEntryKey
+     *        The key with which the data has been stored
+     * @param in_valueKey
+     *        The identity of the value.
+     * @param in_newValue
+     *        The new value of the entry value
+     * @throws IncorrectParseDefinitionException
+     *         When there is no entry for the given in_dataEntryKey and
+     *         in_valueKey
+     * @throws IllegalArgumentException
+     *         When the change of a key value would give the entry the key of
+     *         another entry
+     *
+     */
+    public void put(String in_dataEntryKey, String in_valueKey, Object in_newValue)
+            throws IncorrectParseDefinitionException {
+        if (get(in_dataEntryKey, in_valueKey) == null) {
+            throw new IncorrectParseDefinitionException("The given parse definition entry for key "
+                    + in_dataEntryKey + " and the ParsedefinitionEntry title " + in_valueKey
+                    + " could not be found. Operation failed.");
+        }
+
+        final int l_headerIndex = fetchHeaderIndex(in_valueKey);
+        final int l_row = rowIndexes.get(in_dataEntryKey);
+        final int l_newCode = dictionaries[l_headerIndex].encode(in_newValue);
+
+        if (l_newCode != columns[l_headerIndex][l_row]) {
+            updateRowKey(in_dataEntryKey, l_row, l_headerIndex, l_newCode);
+        }
+        columns[l_headerIndex][l_row] = l_newCode;
+    }
+
+    /**
+     * Updates the key of a row whose value is about to change, when the key is
+     * made of the values of the row. The row is then found with its new key
+     * values, both by its key and by the lines that are parsed later on.
+     *
+     * @param in_key
+     *        The current key of the row
+     * @param in_row
+     *        The index of the row
+     * @param in_column
+     *        The column whose value changes
+     * @param in_newCode
+     *        The code of the new value
+     */
+    private void updateRowKey(String in_key, int in_row, int in_column, int in_newCode) {
+        if (keyColumns == null) {
+            return;
+        }
+
+        int[] l_newKeyCodes = new int[keyColumns.length];
+        boolean l_isKeyColumn = false;
+
+        for (int i = 0; i < keyColumns.length; i++) {
+            l_isKeyColumn |= keyColumns[i] == in_column;
+            l_newKeyCodes[i] = keyColumns[i] == in_column ? in_newCode : columns[keyColumns[i]][in_row];
+        }
+
+        if (!l_isKeyColumn) {
+            return;
+        }
+
+        final String l_keyPadding = parseDefinition.getKeyPadding();
+        StringBuilder l_newKey = new StringBuilder();
+        for (int i = 0; i < keyColumns.length; i++) {
+            if (i > 0) {
+                l_newKey.append(l_keyPadding);
+            }
+            l_newKey.append(dictionaries[keyColumns[i]].decode(l_newKeyCodes[i]));
+        }
+
+        final Integer l_existingRow = rowIndexes.get(l_newKey.toString());
+        if (l_existingRow != null && l_existingRow != in_row) {
+            throw new IllegalArgumentException("The entry " + in_key + " can not be given the key " + l_newKey
+                    + ", which is the key of another entry.");
+        }
+
+        rowIndexes.remove(in_key);
+        rowIndexes.put(l_newKey.toString(), in_row);
+        keyCodeRows.values().removeIf(lt_row -> lt_row == in_row);
+        keyCodeRows.put(new CodeTuple(l_newKeyCodes), in_row);
+    }
+
+    private int fetchHeaderIndex(String in_valueKey) throws IncorrectParseDefinitionException {
+        final Integer l_headerIndex = headerIndexes.get(in_valueKey);
+
+        if (l_headerIndex == null) {
+            throw new IncorrectParseDefinitionException("The key " + in_valueKey
+                    + " was not defined in the parse definition for the ParseDefinition "
+                    + parseDefinition.getTitle() + " you have configured.");
+        }
+        return l_headerIndex;
+    }
+
+    /**
+     * Finds the rows matching all the given values
+     *
+     * @param in_filterKeyValues
+     *        A map of the values we want to find
+     * @param in_firstOnly
+     *        If true we stop at the first matching row
+     * @return The indexes of the matching rows
+     */
+    private int[] fetchMatchingRows(Map<String, Object> in_filterKeyValues, boolean in_firstOnly) {
+        int[] l_filterColumns = new int[in_filterKeyValues.size()];
+        int[] l_filterCodes = new int[in_filterKeyValues.size()];
+        boolean l_foundAllValues = true;
+        int i = 0;
+
+        for (Map.Entry<String, Object> lt_filter : in_filterKeyValues.entrySet()) {
+            final Integer lt_headerIndex = headerIndexes.get(lt_filter.getKey());
+
+            if (lt_headerIndex == null) {
+                log.warn("The filter key {} could not be found among the log entry headers.", lt_filter.getKey());
+                return new int[0];
+            }
+            l_filterColumns[i] = lt_headerIndex;
+            l_filterCodes[i] = dictionaries[lt_headerIndex].fetchCode(lt_filter.getValue());
+            l_foundAllValues &= l_filterCodes[i] != ValueDictionary.NO_CODE;
+            i++;
+        }
+
+        //A value that is not in the dictionary is not in the column
+        if (!l_foundAllValues) {
+            return new int[0];
+        }
+
+        int[] lr_rows = new int[in_firstOnly ? 1 : size];
+        int l_nrOfRows = 0;
+
+        for (int lt_row = 0; lt_row < size && !(in_firstOnly && l_nrOfRows > 0); lt_row++) {
+            boolean lt_matches = true;
+
+            for (int j = 0; j < l_filterColumns.length && lt_matches; j++) {
+                lt_matches = columns[l_filterColumns[j]][lt_row] == l_filterCodes[j];
+            }
+
+            if (lt_matches) {
+                lr_rows[l_nrOfRows++] = lt_row;
+            }
+        }
+        return Arrays.copyOf(lr_rows, l_nrOfRows);
+    }
+
+    /**
+     * Creates a new columnar log data with the given rows
+     */
+    private ColumnarLogData copyRows(int[] in_rows) {
+        ColumnarLogData lr_logData = new ColumnarLogData(parseDefinition, dictionaries);
+        lr_logData.ensureCapacity(in_rows.length);
+
+        final String[] l_keys = fetchRowKeys();
+
+        for (int lt_row : in_rows) {
+            for (int i = 0; i < headers.length; i++) {
+                lr_logData.columns[i][lr_logData.size] = columns[i][lt_row];
+            }
+            lr_logData.frequences[lr_logData.size] = frequences[lt_row];
+            lr_logData.rowIndexes.put(l_keys[lt_row], lr_logData.size);
+            lr_logData.size++;
+        }
+        return lr_logData;
+    }
+
+    /**
+     * This method filters the LogData with the given properties
+     *
+     * Author : gandomi
+     *
+     * @param in_filterKeyValues
+     *        A map of &lt;String,Object&gt; representation the values we want
+     *        to find
+     * @return a new ColumnarLogData containing only the filtered values
+     *
+     */
+    public ColumnarLogData filterBy(Map<String, Object> in_filterKeyValues) {
+        return copyRows(fetchMatchingRows(in_filterKeyValues, false));
+    }
+
+    /**
+     * This method searches the LogData for an enry with a specific value for a
+     * parse definition entry name
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionName
+     *        The name of the parse definition entry under which we search for a
+     *        value
+     * @param in_searchValue
+     *        The search value
+     * @return a new ColumnarLogData containing only the searched values
+     *
+     */
+    public ColumnarLogData searchEntries(String in_parseDefinitionName, String in_searchValue) {
+        Map<String, Object> l_filterProperties = new HashMap<>();
+        l_filterProperties.put(in_parseDefinitionName, in_searchValue);
+
+        return filterBy(l_filterProperties);
+    }
+
+    /**
+     * This method searches the LogData for an enry with a specific values
+     *
+     * Author : gandomi
+     *
+     * @param in_searchKeyValues
+     *        A map of &lt;String,Object&gt; representation the values we want
+     *        to find
+     * @return a new ColumnarLogData containing only the searched values
+     *
+     */
+    public ColumnarLogData searchEntries(Map<String, Object> in_searchKeyValues) {
+        return filterBy(in_searchKeyValues);
+    }
+
+    /**
+     * This method lets us know if there is an entry with the given value for
+     * the given parse definition entry name
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionName
+     *        The name of the parse definition entry under which we search for a
+     *        value
+     * @param in_searchValue
+     *        The search value
+     * @return true if there is an entry with the given value
+     *
+     */
+    public boolean isEntryPresent(String in_parseDefinitionName, String in_searchValue) {
+        Map<String, Object> l_searchProperties = new HashMap<>();
+        l_searchProperties.put(in_parseDefinitionName, in_searchValue);
+
+        return isEntryPresent(l_searchProperties);
+    }
+
+    /**
+     * This method lets us know if there is an entry with the given values. We
+     * stop searching at the first matching entry.
+     *
+     * Author : gandomi
+     *
+     * @param in_searchKeyValues
+     *        A map of &lt;String,Object&gt; representation the values we want
+     *        to find
+     * @return true if there is an entry with the given values
+     *
+     */
+    public boolean isEntryPresent(Map<String, Object> in_searchKeyValues) {
+        return fetchMatchingRows(in_searchKeyValues, true).length > 0;
+    }
+
+    /**
+     * Here we create a new ColumnarLogData with the given ParseDefinitionEntry.
+     * This method performs a groupby for the given value. The frequence will
+     * also take into account the original frequence
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKey
+     *        The key name of the parse definition perform the GroupBy on
+     * @return a new ColumnarLogData containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     *
+     */
+    public ColumnarLogData groupBy(String in_parseDefinitionEntryKey) throws IncorrectParseDefinitionException {
+        return groupBy(Arrays.asList(in_parseDefinitionEntryKey));
+    }
+
+    /**
+     * Here we create a new ColumnarLogData with the given ParseDefinitionEntry.
+     * This method performs a groupby for the given values. The frequence will
+     * also take into account the original frequence. No entries are created
+     * during the group by.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @return a new ColumnarLogData containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     *
+     */
+    public ColumnarLogData groupBy(List<String> in_parseDefinitionEntryKeyList)
+            throws IncorrectParseDefinitionException {
+        final ParseDefinition l_cubeDefinition = LogData.createCubeDefinition(in_parseDefinitionEntryKeyList);
+        ColumnarLogData lr_cubeData = new ColumnarLogData(l_cubeDefinition);
+
+        if (size == 0) {
+            return lr_cubeData;
+        }
+
+        int[] l_groupColumns = new int[in_parseDefinitionEntryKeyList.size()];
+        for (int i = 0; i < l_groupColumns.length; i++) {
+            final Integer lt_headerIndex = headerIndexes.get(in_parseDefinitionEntryKeyList.get(i));
+
+            if (lt_headerIndex == null) {
+                throw new IncorrectParseDefinitionException("The given header name "
+                        + in_parseDefinitionEntryKeyList.get(i) + " was not among the stored data");
+            }
+            l_groupColumns[i] = lt_headerIndex;
+        }
+
+        final String l_keyPadding = l_cubeDefinition.getKeyPadding();
+        Map<CodeTuple, Integer> l_cubeRows = new HashMap<>();
+        CodeTuple lt_groupCodes = new CodeTuple(new int[l_groupColumns.length]);
+
+        for (int lt_row = 0; lt_row < size; lt_row++) {
+            for (int i = 0; i < l_groupColumns.length; i++) {
+                lt_groupCodes.codes[i] = columns[l_groupColumns[i]][lt_row];
+            }
+            lt_groupCodes.updateHash();
+
+            final Integer lt_cubeRow = l_cubeRows.get(lt_groupCodes);
+            if (lt_cubeRow != null) {
+                lr_cubeData.frequences[lt_cubeRow] += frequences[lt_row];
+                continue;
+            }
+
+            //The values and the key are only created for new groups
+            Map<String, Object> lt_cubeValues = new HashMap<>();
+            StringBuilder lt_cubeKey = new StringBuilder();
+
+            for (int i = 0; i < l_groupColumns.length; i++) {
+                final String lt_value = dictionaries[l_groupColumns[i]].decode(lt_groupCodes.codes[i]).toString();
+
+                if (i > 0) {
+                    lt_cubeKey.append(l_keyPadding);
+                }
+                lt_cubeKey.append(lt_value);
+                lt_cubeValues.put(in_parseDefinitionEntryKeyList.get(i), lt_value);
+            }
+
+            lr_cubeData.addRow(lt_cubeKey.toString(), lt_cubeValues, frequences[lt_row]);
+            l_cubeRows.put(new CodeTuple(lt_groupCodes.codes.clone()),
+                    lr_cubeData.rowIndexes.get(lt_cubeKey.toString()));
+        }
+        return lr_cubeData;
+    }
+
+    /**
+     * Creates a LogData object with the stored entries. The entries are
+     * created from the stored values.
+     *
+     * Author : gandomi
+     *
+     * @return A LogData containing GenericEntries
+     *
+     */
+    public LogData<GenericEntry> toLogData() {
+        Map<String, GenericEntry> l_entries = new HashMap<>();
+
+        for (Map.Entry<String, Integer> lt_rowIndex : rowIndexes.entrySet()) {
+            l_entries.put(lt_rowIndex.getKey(), fetchEntry(lt_rowIndex.getValue()));
+        }
+        return new LogData<>(l_entries);
+    }
+
+    /**
+     * The codes of the values of a row for a set of columns
+     */
+    private static final class CodeTuple {
+
+        private final int[] codes;
+        private int hash;
+
+        private CodeTuple(int[] in_codes) {
+            this.codes = in_codes;
+            updateHash();
+        }
+
+        private void updateHash() {
+            hash = Arrays.hashCode(codes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof CodeTuple))
+                return false;
+            CodeTuple other = (CodeTuple) obj;
+            return hash == other.hash && Arrays.equals(codes, other.codes);
+        }
+    }
+
+}
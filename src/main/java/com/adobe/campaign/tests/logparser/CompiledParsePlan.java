@@ -0,0 +1,340 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, pre-processed version of a {@link ParseDefinition}. The plan
+ * checks if a line is compliant and extracts its values in a single forward
+ * pass over the line, instead of checking the compliance first and then
+ * parsing the line a second time.
+ *
+ * The plan is a snapshot of the definition at the time of compilation. Changes
+ * made to the ParseDefinition afterwards are not reflected in the plan.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public final class CompiledParsePlan {
+
+    private final ParseDefinition parseDefinition;
+    private final ParseDefinitionEntry[] steps;
+    private final Map<String, Integer> preservedIndexes;
+    private final LinePrefilter prefilter;
+
+    /**
+     * Creates a plan for the given ParseDefinition. Use
+     * {@link ParseDefinition#compile()} to create a plan.
+     *
+     * @param in_parseDefinition
+     *        The parse definition we are compiling
+     */
+    CompiledParsePlan(ParseDefinition in_parseDefinition) {
+        this(in_parseDefinition, in_parseDefinition.getDefinitionEntries());
+    }
+
+    /**
+     * Creates a plan for the given entries
+     *
+     * @param in_parseDefinition
+     *        The parse definition we are compiling. null if the entries do not
+     *        belong to a parse definition
+     * @param in_entries
+     *        The parse definition entries
+     */
+    CompiledParsePlan(ParseDefinition in_parseDefinition, List<ParseDefinitionEntry> in_entries) {
+        this.parseDefinition = in_parseDefinition;
+
+        final List<ParseDefinitionEntry> l_entries = in_entries;
+        this.steps = new ParseDefinitionEntry[l_entries.size()];
+        Map<String, Integer> l_preservedIndexes = new LinkedHashMap<>();
+
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = new ParseDefinitionEntry(l_entries.get(i));
+
+            if (steps[i].isToPreserve()) {
+                l_preservedIndexes.put(steps[i].getTitle(), i);
+            }
+        }
+        this.preservedIndexes = Collections.unmodifiableMap(l_preservedIndexes);
+        this.prefilter = new LinePrefilter(steps);
+    }
+
+    /**
+     * Lets us know if this plan still reflects the given entries. The steps
+     * are copies of the entries, so we compare them one by one.
+     *
+     * @param in_entries
+     *        The current entries of a parse definition
+     * @return true if the entries have not changed since this plan was
+     *         compiled
+     */
+    boolean isCompiledFrom(List<ParseDefinitionEntry> in_entries) {
+        if (in_entries.size() != steps.length) {
+            return false;
+        }
+
+        for (int i = 0; i < steps.length; i++) {
+            if (!steps[i].equals(in_entries.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The ParseDefinition from which this plan was compiled
+     */
+    public ParseDefinition getParseDefinition() {
+        return parseDefinition;
+    }
+
+    /**
+     * Checks and parses the given line in one pass. If the line is not
+     * compliant with the ParseDefinition we return null.
+     *
+     * The parsing is done by moving a cursor over the line. We only store the
+     * start and end offsets of each value. The values themselves are created
+     * when they are read from the returned {@link ParsedLine}.
+     *
+     * Author : gandomi
+     *
+     * @param in_logLine
+     *        A string/log line which we want to parse
+     * @return A map of the values of the preserved parse definition entries.
+     *         null if the line is not compliant with the parse definition
+     *
+     */
+    public ParsedLine parse(String in_logLine) {
+        final int[] l_offsets = fetchOffsets(in_logLine);
+
+        return l_offsets == null ? null : new ParsedLine(this, in_logLine, l_offsets);
+    }
+
+    /**
+     * Calculates the start and end offsets of each parse definition entry in
+     * the given line. The start offset of entry i is stored at the index 2*i,
+     * and its end offset at 2*i+1. Lines that do not contain the anchor of the
+     * {@link LinePrefilter} are rejected before searching the entries.
+     *
+     * Author : gandomi
+     *
+     * @param in_logLine
+     *        A string/log line which we want to parse
+     * @return An array with the start and end offsets of each entry. null if
+     *         the line is not compliant with the parse definition
+     *
+     */
+    public int[] fetchOffsets(String in_logLine) {
+        if (!prefilter.mayMatch(in_logLine)) {
+            return null;
+        }
+
+        return fetchOffsets(steps, 0, fetchLocator(in_logLine), false);
+    }
+
+    /**
+     * Calculates the offsets of the entries like {@link #fetchOffsets(String)},
+     * but accepts empty values for the preserved entries, and does not stop
+     * at the first missing marker. The start or end offset of the entry whose
+     * marker is missing is -1, and the following entries are not searched.
+     * This is the behavior of
+     * {@link StringParseFactory#parseString(String, ParseDefinition)}.
+     *
+     * @param in_logLine
+     *        A string/log line which we want to parse
+     * @return An array with the start and end offsets of each entry
+     */
+    int[] fetchLenientOffsets(String in_logLine) {
+        return fetchOffsets(steps, 0, fetchLocator(in_logLine), true);
+    }
+
+    /**
+     * @param in_logLine
+     *        A string/log line which we want to parse
+     * @return A locator searching the markers of the steps in the given line
+     */
+    private StepLocator fetchLocator(String in_logLine) {
+        return new StepLocator() {
+            @Override
+            public int fetchStartPosition(int in_step, int in_cursor) {
+                return steps[in_step].fetchStartPosition(in_logLine, in_cursor);
+            }
+
+            @Override
+            public int fetchEndPosition(int in_step, int in_startPosition) {
+                return steps[in_step].fetchEndPosition(in_logLine, in_startPosition);
+            }
+        };
+    }
+
+    /**
+     * Applies the parsing rules to a line, by moving a cursor over it. This is
+     * the only implementation of the rules, and is shared by the plans working
+     * on Strings and on bytes. They only differ by how the markers are
+     * searched.
+     *
+     * Author : gandomi
+     *
+     * @param in_steps
+     *        The parse definition entries of the plan
+     * @param in_lineStart
+     *        The position of the start of the line
+     * @param in_locator
+     *        Searches the markers of the steps in the line
+     * @param in_lenient
+     *        If true, empty preserved values are accepted, and a missing
+     *        marker is stored as the offset -1 instead of rejecting the line
+     * @return An array with the start and end offsets of each entry. null if
+     *         the line is not compliant with the parse definition, and we are
+     *         not lenient
+     *
+     */
+    static int[] fetchOffsets(ParseDefinitionEntry[] in_steps, int in_lineStart, StepLocator in_locator,
+            boolean in_lenient) {
+        int[] lr_offsets = new int[in_steps.length * 2];
+        int l_cursor = in_lineStart;
+
+        for (int i = 0; i < in_steps.length; i++) {
+            final int lt_startPosition = in_locator.fetchStartPosition(i, l_cursor);
+
+            if (lt_startPosition < 0) {
+                return in_lenient ? markMissing(lr_offsets, i * 2) : null;
+            }
+
+            final int lt_endPosition = in_locator.fetchEndPosition(i, lt_startPosition);
+
+            if (lt_endPosition < 0) {
+                lr_offsets[i * 2] = lt_startPosition;
+                return in_lenient ? markMissing(lr_offsets, i * 2 + 1) : null;
+            }
+
+            //The delta is only relevant if we are preserving the value
+            if (!in_lenient && (lt_startPosition >= lt_endPosition) && in_steps[i].isToPreserve()) {
+                return null;
+            }
+
+            lr_offsets[i * 2] = lt_startPosition;
+            lr_offsets[i * 2 + 1] = lt_endPosition;
+
+            //The following entry is searched from the end position of this one
+            l_cursor = lt_endPosition;
+        }
+
+        return lr_offsets;
+    }
+
+    /**
+     * @param in_offsets
+     *        The offsets of the entries
+     * @param in_index
+     *        The index of the offset whose marker is missing
+     * @return The given offsets
+     */
+    private static int[] markMissing(int[] in_offsets, int in_index) {
+        in_offsets[in_index] = -1;
+        return in_offsets;
+    }
+
+    /**
+     * Searches the values of the steps of a plan in a line
+     */
+    interface StepLocator {
+
+        /**
+         * @param in_step
+         *        The index of the step
+         * @param in_cursor
+         *        The position from which the start marker is searched
+         * @return The position at which the value of the step starts. -1 if
+         *         the start marker was not found
+         */
+        int fetchStartPosition(int in_step, int in_cursor);
+
+        /**
+         * @param in_step
+         *        The index of the step
+         * @param in_startPosition
+         *        The position at which the value of the step starts
+         * @return The position at which the value of the step ends. -1 if the
+         *         end marker was not found
+         */
+        int fetchEndPosition(int in_step, int in_startPosition);
+    }
+
+    /**
+     * Lets us know if the given line is compliant with the compiled parse
+     * definition
+     *
+     * Author : gandomi
+     *
+     * @param in_logLine
+     *        A string/log line which we want to check
+     * @return true if the Parse Definition rules can be applied to the given
+     *         string
+     *
+     */
+    public boolean isStringCompliant(String in_logLine) {
+        return fetchOffsets(in_logLine) != null;
+    }
+
+    /**
+     * Creates a version of this plan that parses the bytes of a line encoded
+     * with the given charset
+     *
+     * @param in_charset
+     *        The charset of the lines. The ASCII characters need to be encoded
+     *        as single bytes
+     * @return A plan working on bytes
+     */
+    ByteParsePlan compileForBytes(Charset in_charset) {
+        return new ByteParsePlan(steps, prefilter.getAnchorMarkerIndex(), in_charset);
+    }
+
+    /**
+     * @return The prefilter used for rejecting the lines that can not be
+     *         compliant
+     */
+    LinePrefilter getPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     * Returns the index of the preserved parse definition entry with the given
+     * title
+     *
+     * @param in_title
+     *        The title of a parse definition entry
+     * @return the index of the entry in the plan. -1 if there is no preserved
+     *         entry with that title
+     */
+    int fetchPreservedIndex(Object in_title) {
+        final Integer l_index = preservedIndexes.get(in_title);
+        return l_index == null ? -1 : l_index;
+    }
+
+    /**
+     * @return The titles of the preserved entries in the order of the
+     *         definition
+     */
+    Set<String> fetchPreservedTitles() {
+        return preservedIndexes.keySet();
+    }
+
+}
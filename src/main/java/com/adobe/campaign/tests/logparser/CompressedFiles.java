@@ -0,0 +1,155 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Detects compressed log files by their magic bytes, and opens them as a
+ * stream of decompressed bytes. The decompression is done in a separate
+ * thread, so that it is pipelined with the parsing of the lines.
+ *
+ * Only gzip is decompressed. Files compressed with bzip2 or zstd are detected,
+ * but they can not be read, since this would require a library that is not a
+ * dependency of the log parser.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class CompressedFiles {
+
+    /**
+     * The compression formats that can be detected
+     */
+    enum Format {
+        NONE, GZIP, BZIP2, ZSTD
+    }
+
+    static final int MAGIC_BYTES_LENGTH = 4;
+
+    private CompressedFiles() {
+    }
+
+    /**
+     * Detects the compression format from the first bytes of a file
+     *
+     * @param in_header
+     *        The first bytes of a file
+     * @param in_length
+     *        The number of bytes that were read into the header
+     * @return The format of the file. NONE if no compression was detected
+     */
+    static Format fetchFormat(byte[] in_header, int in_length) {
+        if (in_length >= 2 && (in_header[0] & 0xFF) == 0x1F && (in_header[1] & 0xFF) == 0x8B) {
+            return Format.GZIP;
+        }
+
+        if (in_length >= 3 && in_header[0] == 'B' && in_header[1] == 'Z' && in_header[2] == 'h') {
+            return Format.BZIP2;
+        }
+
+        if (in_length >= 4 && (in_header[0] & 0xFF) == 0x28 && (in_header[1] & 0xFF) == 0xB5
+                && (in_header[2] & 0xFF) == 0x2F && (in_header[3] & 0xFF) == 0xFD) {
+            return Format.ZSTD;
+        }
+
+        return Format.NONE;
+    }
+
+    /**
+     * Detects the compression format of the given file
+     *
+     * @param in_filePath
+     *        The path of a file
+     * @return The format of the file. NONE if no compression was detected
+     * @throws IOException
+     *         When the file could not be read. A
+     *         {@link java.io.FileNotFoundException} is thrown if the file does
+     *         not exist
+     */
+    static Format fetchFormat(String in_filePath) throws IOException {
+        try (InputStream l_inputStream = new FileInputStream(in_filePath)) {
+            return fetchFormat(l_inputStream);
+        }
+    }
+
+    /**
+     * Reads the magic bytes of the given stream
+     *
+     * @param in_inputStream
+     *        A stream positioned at the start of a file
+     * @return The format of the stream
+     * @throws IOException
+     *         When the stream could not be read
+     */
+    private static Format fetchFormat(InputStream in_inputStream) throws IOException {
+        byte[] l_header = new byte[MAGIC_BYTES_LENGTH];
+        int l_length = 0;
+        int l_read;
+
+        while (l_length < l_header.length
+                && (l_read = in_inputStream.read(l_header, l_length, l_header.length - l_length)) >= 0) {
+            l_length += l_read;
+        }
+        return fetchFormat(l_header, l_length);
+    }
+
+    /**
+     * Opens the given file. If the file is compressed with gzip, the returned
+     * stream contains the decompressed bytes, which are decompressed in a
+     * separate thread.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePath
+     *        The path of the file to read
+     * @return A stream of the, possibly decompressed, contents of the file
+     * @throws IOException
+     *         When the file could not be opened, or if it is compressed with an
+     *         unsupported format. A {@link java.io.FileNotFoundException} is
+     *         thrown if the file does not exist
+     *
+     */
+    static InputStream open(String in_filePath) throws IOException {
+        final BufferedInputStream l_inputStream = new BufferedInputStream(new FileInputStream(in_filePath),
+                PipelinedInputStream.DEFAULT_BLOCK_SIZE);
+
+        try {
+            l_inputStream.mark(MAGIC_BYTES_LENGTH);
+            final Format l_format = fetchFormat(l_inputStream);
+            l_inputStream.reset();
+
+            switch (l_format) {
+            case GZIP:
+                return new PipelinedInputStream(
+                        new GZIPInputStream(l_inputStream, PipelinedInputStream.DEFAULT_BLOCK_SIZE),
+                        "log-parser-gunzip-" + in_filePath, PipelinedInputStream.DEFAULT_BLOCK_SIZE,
+                        PipelinedInputStream.DEFAULT_QUEUE_SIZE);
+            case BZIP2:
+            case ZSTD:
+                throw new IOException("The file " + in_filePath + " is compressed with " + l_format
+                        + ", which is not supported. Only gzip compressed files can be read.");
+            default:
+                return l_inputStream;
+            }
+        } catch (IOException | RuntimeException e) {
+            l_inputStream.close();
+            throw e;
+        }
+    }
+
+}
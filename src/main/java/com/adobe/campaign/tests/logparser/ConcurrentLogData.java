@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A version of {@link LogData} that can be shared between threads. The entries
+ * are stored in a {@link ConcurrentHashMap}, and the frequences of existing
+ * entries are added atomically. Several threads, for example one per log file,
+ * can add entries or parse files into the same object at the same time,
+ * without having to merge their results afterwards.
+ *
+ * The query methods, such as groupBy or filterBy, return a standard LogData.
+ * They should be called once all the threads have finished adding entries.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class ConcurrentLogData<T extends StdLogEntry> extends LogData<T> {
+
+    public ConcurrentLogData() {
+        super(new ConcurrentHashMap<>());
+    }
+
+    public ConcurrentLogData(T in_stdLogEnDataData) {
+        this();
+        this.addEntry(in_stdLogEnDataData);
+    }
+
+    public ConcurrentLogData(Map<String, T> in_logMap) {
+        super(in_logMap);
+    }
+
+    @Override
+    public ConcurrentMap<String, T> getEntries() {
+        return (ConcurrentMap<String, T>) super.getEntries();
+    }
+
+    /**
+     * Sets the entries of the log data. If the given map is not a
+     * {@link ConcurrentMap}, its entries are copied into a
+     * {@link ConcurrentHashMap}.
+     *
+     * @param in_logMap
+     *        A map of String keys and entries
+     */
+    @Override
+    public void setEntries(Map<String, T> in_logMap) {
+        super.setEntries(in_logMap instanceof ConcurrentMap ? in_logMap : new ConcurrentHashMap<>(in_logMap));
+    }
+
+    /**
+     * Indexes are not supported by the concurrent log data, as they can not be
+     * maintained while several threads add entries.
+     *
+     * @param in_header
+     *        The header whose values we want to index
+     * @throws UnsupportedOperationException
+     *         always
+     */
+    @Override
+    public void createIndex(String in_header) {
+        throw new UnsupportedOperationException(
+                "Indexes are not supported by ConcurrentLogData. Create them on a LogData.");
+    }
+
+    /**
+     * This method adds an entry to the log data. If the entry already exists we
+     * just increment the frequence. This method can be called by several
+     * threads at the same time.
+     *
+     * Author : gandomi
+     *
+     * @param lt_cubeEntry
+     *        An object of the type {@link StdLogEntry}
+     *
+     */
+    @Override
+    public void addEntry(T lt_cubeEntry) {
+        final T l_existingEntry = getEntries().putIfAbsent(lt_cubeEntry.makeKey(), lt_cubeEntry);
+
+        if (l_existingEntry != null) {
+            l_existingEntry.addFrequence(lt_cubeEntry.fetchFrequence());
+            l_existingEntry.mergeAggregates(lt_cubeEntry);
+        }
+    }
+
+    /**
+     * Parses the given log files, and adds the found entries directly to this
+     * log data. This method can be called by several threads at the same time.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    public void addLogFiles(Collection<String> in_logFiles, ParseDefinition in_parseDefinition,
+            LogEntryFactory<T> in_entryFactory) throws InstantiationException, IllegalAccessException {
+        addLogFiles(in_logFiles, in_parseDefinition, in_entryFactory, LineSourceFactory.defaultFactory(),
+                new ParseStatistics());
+    }
+
+    /**
+     * Parses the given log files, and adds the found entries directly to this
+     * log data. This method can be called by several threads at the same time.
+     * However, the given statistics object should not be shared between
+     * threads.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    public void addLogFiles(Collection<String> in_logFiles, ParseDefinition in_parseDefinition,
+            LogEntryFactory<T> in_entryFactory, LineSourceFactory in_lineSourceFactory,
+            ParseStatistics in_statistics) throws InstantiationException, IllegalAccessException {
+
+        StringParseFactory.updateEntryMapWithFiles(in_logFiles, in_parseDefinition.compile(), getEntries(),
+                in_entryFactory, in_lineSourceFactory, in_statistics);
+    }
+
+}
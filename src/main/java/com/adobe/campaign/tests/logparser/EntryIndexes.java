@@ -0,0 +1,307 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The indexes of the header values of a {@link LogData}. Each entry is given a
+ * row id when it is indexed, and each indexed header has a {@link ValueIndex}
+ * storing the row ids per value. A search on several indexed headers is the
+ * intersection of the bitmaps of the searched values.
+ *
+ * The indexes have their own value version. Each indexed entry increments it
+ * when its values change (see {@link StdLogEntry#watchValues(AtomicLong)}),
+ * so creating or changing entries that are not indexed here has no effect on
+ * these indexes. The indexes remember the map of entries they were built for,
+ * its size, and the value version at that time. If any of them differ, or if
+ * the indexes were invalidated, the indexes are rebuilt before being used. The
+ * indexes only answer for {@link GenericEntry} objects, whose value changes are
+ * all counted. For other entries the searches go through all the entries.
+ *
+ * The methods are synchronized so that concurrent searches can rebuild the
+ * indexes safely.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class EntryIndexes {
+
+    protected static Logger log = LogManager.getLogger();
+
+    private final Map<String, ValueIndex> valueIndexes = new LinkedHashMap<>();
+    private final List<String> rowKeys = new ArrayList<>();
+    private final Map<String, Integer> rowIds = new HashMap<>();
+
+    private Map<String, ? extends StdLogEntry> indexedEntries = null;
+    private int indexedSize = 0;
+    private final AtomicLong valueVersion = new AtomicLong();
+    private long indexedVersion = -1;
+
+    //false if an indexed entry can change its values without it being counted
+    private boolean trusted = true;
+
+    /**
+     * @return The headers that are currently indexed
+     */
+    synchronized Set<String> fetchHeaders() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(valueIndexes.keySet()));
+    }
+
+    /**
+     * @return true if no header is indexed
+     */
+    synchronized boolean isEmpty() {
+        return valueIndexes.isEmpty();
+    }
+
+    /**
+     * @param in_entries
+     *        The current entries of the log data
+     * @return true if the indexes reflect the given entries
+     */
+    synchronized boolean isUpToDate(Map<String, ? extends StdLogEntry> in_entries) {
+        return indexedEntries == in_entries && indexedSize == in_entries.size()
+                && indexedVersion == valueVersion.get();
+    }
+
+    /**
+     * @return The number of value changes made to the indexed entries
+     */
+    long fetchValueVersion() {
+        return valueVersion.get();
+    }
+
+    /**
+     * Creates an index for the given header
+     *
+     * @param in_header
+     *        The header whose values we want to index
+     * @param in_entries
+     *        The current entries of the log data
+     */
+    synchronized void createIndex(String in_header, Map<String, ? extends StdLogEntry> in_entries) {
+        synchronize(in_entries);
+
+        ValueIndex l_index = new ValueIndex(in_header);
+        for (int i = 0; i < rowKeys.size(); i++) {
+            l_index.add(i, in_entries.get(rowKeys.get(i)));
+        }
+        valueIndexes.put(in_header, l_index);
+    }
+
+    /**
+     * Removes all the indexes
+     */
+    synchronized void clear() {
+        valueIndexes.clear();
+        invalidate();
+    }
+
+    /**
+     * Forces the indexes to be rebuilt before they are used again
+     */
+    synchronized void invalidate() {
+        rowKeys.clear();
+        rowIds.clear();
+        indexedEntries = null;
+    }
+
+    /**
+     * Rebuilds the row ids and the indexes if the entries have changed since
+     * they were last updated
+     *
+     * @param in_entries
+     *        The current entries of the log data
+     */
+    private void synchronize(Map<String, ? extends StdLogEntry> in_entries) {
+        if (isUpToDate(in_entries)) {
+            return;
+        }
+
+        if (!valueIndexes.isEmpty()) {
+            log.debug("Rebuilding the indexes of the headers {}.", valueIndexes.keySet());
+        }
+
+        rowKeys.clear();
+        rowIds.clear();
+        for (String lt_header : valueIndexes.keySet()) {
+            valueIndexes.put(lt_header, new ValueIndex(lt_header));
+        }
+        indexedEntries = in_entries;
+        indexedSize = 0;
+        indexedVersion = valueVersion.get();
+        trusted = true;
+
+        for (Map.Entry<String, ? extends StdLogEntry> lt_entry : in_entries.entrySet()) {
+            addRow(lt_entry.getKey(), lt_entry.getValue());
+        }
+    }
+
+    /**
+     * Gives a row id to an entry that has just been added to the entries, and
+     * indexes its values. The indexes should be up to date before the entry
+     * was added.
+     *
+     * @param in_key
+     *        The key of the new entry
+     * @param in_entry
+     *        The new entry
+     */
+    synchronized void addRow(String in_key, StdLogEntry in_entry) {
+        final int l_row = rowKeys.size();
+        rowKeys.add(in_key);
+        rowIds.put(in_key, l_row);
+        trusted &= in_entry.getClass() == GenericEntry.class;
+        in_entry.watchValues(valueVersion);
+
+        for (ValueIndex lt_index : valueIndexes.values()) {
+            lt_index.add(l_row, in_entry);
+        }
+        indexedSize++;
+    }
+
+    /**
+     * Updates the index of the given header after a value change. The index is
+     * only updated if that change is the only one made since the indexes were
+     * up to date. Otherwise the indexes are left to be rebuilt.
+     *
+     * @param in_key
+     *        The key of the changed entry
+     * @param in_header
+     *        The header whose value changed
+     * @param in_oldValue
+     *        The value before the change
+     * @param in_entry
+     *        The changed entry
+     * @param in_versionBefore
+     *        The value version before the change
+     */
+    synchronized void updateValue(String in_key, String in_header, Object in_oldValue, StdLogEntry in_entry,
+            long in_versionBefore) {
+        if (indexedVersion != in_versionBefore || valueVersion.get() != in_versionBefore + 1) {
+            return;
+        }
+        indexedVersion++;
+
+        final ValueIndex l_index = valueIndexes.get(in_header);
+        final Integer l_row = rowIds.get(in_key);
+
+        if (l_index != null && l_row != null) {
+            l_index.remove(l_row, in_oldValue);
+            l_index.add(l_row, in_entry);
+        }
+    }
+
+    /**
+     * Returns the keys of the entries having the given values for all the
+     * indexed keys of the given filter. The bitmaps are intersected starting
+     * with the smallest one, and we stop as soon as the intersection is empty.
+     * The keys that are not indexed are not taken into account.
+     *
+     * @param in_filterKeyValues
+     *        A map of &lt;String,Object&gt; representation the values we want
+     *        to find
+     * @param in_entries
+     *        The current entries of the log data
+     * @return The keys of the candidate entries. null if none of the filter
+     *         keys are indexed, or if the indexes can not be trusted
+     */
+    synchronized List<String> fetchKeys(Map<String, Object> in_filterKeyValues,
+            Map<String, ? extends StdLogEntry> in_entries) {
+        if (in_filterKeyValues.keySet().stream().noneMatch(valueIndexes::containsKey)) {
+            return null;
+        }
+        synchronize(in_entries);
+        if (!trusted) {
+            return null;
+        }
+
+        List<RowBitmap> l_bitmaps = new ArrayList<>();
+        for (Map.Entry<String, Object> lt_filter : in_filterKeyValues.entrySet()) {
+            final ValueIndex lt_index = valueIndexes.get(lt_filter.getKey());
+
+            if (lt_index != null) {
+                l_bitmaps.add(lt_index.fetchRows(lt_filter.getValue()));
+            }
+        }
+
+        l_bitmaps.sort(Comparator.comparingInt(RowBitmap::cardinality));
+        RowBitmap l_rows = l_bitmaps.get(0);
+        for (int i = 1; i < l_bitmaps.size() && l_rows.cardinality() > 0; i++) {
+            l_rows = l_rows.and(l_bitmaps.get(i));
+        }
+        return fetchKeys(l_rows);
+    }
+
+    /**
+     * Returns the keys of the entries that may fulfill the given query, using
+     * the indexes
+     *
+     * @param in_query
+     *        An optimized query
+     * @param in_entries
+     *        The current entries of the log data
+     * @return The keys of the candidate entries. null if the query can not be
+     *         answered with the indexes
+     */
+    synchronized List<String> fetchKeys(LogQuery in_query, Map<String, ? extends StdLogEntry> in_entries) {
+        if (in_query.fetchHeaders().stream().noneMatch(valueIndexes::containsKey)) {
+            return null;
+        }
+        synchronize(in_entries);
+        if (!trusted) {
+            return null;
+        }
+
+        final RowBitmap l_rows = in_query.fetchRows(this);
+        return l_rows == null ? null : fetchKeys(l_rows);
+    }
+
+    /**
+     * @param in_header
+     *        A header
+     * @return The index of the header. null if the header is not indexed
+     */
+    ValueIndex fetchIndex(String in_header) {
+        return valueIndexes.get(in_header);
+    }
+
+    /**
+     * @param in_rows
+     *        Row ids
+     * @return The keys of the entries with these row ids
+     */
+    private List<String> fetchKeys(RowBitmap in_rows) {
+        List<String> lr_keys = new ArrayList<>(in_rows.cardinality());
+
+        for (PrimitiveIterator.OfInt lt_rows = in_rows.iterator(); lt_rows.hasNext();) {
+            lr_keys.add(rowKeys.get(lt_rows.nextInt()));
+        }
+        return lr_keys;
+    }
+
+}
@@ -0,0 +1,248 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.List;
+
+/**
+ * An index of the entries extracted from log lines, where the entries are
+ * found using the offsets of the key values in a line. This allows us to find
+ * the entry of a line without creating any String, as long as the entry
+ * already exists.
+ *
+ * The index can only be used when the key of an entry only depends on the
+ * values of the key fields, i.e. {@link ParseDefinition#fetchKeyOrder()}. Two
+ * lines with the same key values are then guaranteed to have the same entry.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class EntryKeyIndex<T extends StdLogEntry> {
+
+    private static final int INITIAL_CAPACITY = 1 << 6;
+
+    private final int[] keyIndexes;
+
+    private int[] slotHashes;
+    private String[][] slotKeys;
+    private Object[] slotEntries;
+    private int size = 0;
+
+    /**
+     * Creates an index for the given key fields
+     *
+     * @param in_keyIndexes
+     *        The indexes, in the parse plan, of the key fields
+     */
+    private EntryKeyIndex(int[] in_keyIndexes) {
+        this.keyIndexes = in_keyIndexes;
+        this.slotHashes = new int[INITIAL_CAPACITY];
+        this.slotKeys = new String[INITIAL_CAPACITY][];
+        this.slotEntries = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates an index for the given plan, if the plan allows it. This is the
+     * case when all the key fields are preserved entries of the plan.
+     *
+     * Author : gandomi
+     *
+     * @param in_parsePlan
+     *        The plan with which the lines are parsed
+     * @param in_keyOrder
+     *        The titles of the key fields
+     * @param <T>
+     *        The type of the indexed entries
+     * @return An index for the key fields. null if they can not be indexed
+     *
+     */
+    static <T extends StdLogEntry> EntryKeyIndex<T> create(CompiledParsePlan in_parsePlan,
+            List<String> in_keyOrder) {
+        if (in_keyOrder.isEmpty()) {
+            return null;
+        }
+
+        int[] l_keyIndexes = new int[in_keyOrder.size()];
+
+        for (int i = 0; i < l_keyIndexes.length; i++) {
+            l_keyIndexes[i] = in_parsePlan.fetchPreservedIndex(in_keyOrder.get(i));
+
+            if (l_keyIndexes[i] < 0) {
+                return null;
+            }
+        }
+        return new EntryKeyIndex<>(l_keyIndexes);
+    }
+
+    /**
+     * @return The number of indexed entries
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the entry with the key values of the given line
+     *
+     * Author : gandomi
+     *
+     * @param in_line
+     *        A log line
+     * @param in_offsets
+     *        The offsets of the values in the line, as returned by
+     *        {@link CompiledParsePlan#fetchOffsets(String)}
+     * @return The entry with the same key values. null if there is none
+     *
+     */
+    @SuppressWarnings("unchecked")
+    T find(String in_line, int[] in_offsets) {
+        final int l_hash = hash(in_line, in_offsets);
+        final int l_mask = slotEntries.length - 1;
+
+        for (int lt_slot = l_hash & l_mask; slotEntries[lt_slot] != null; lt_slot = (lt_slot + 1) & l_mask) {
+            if (slotHashes[lt_slot] == l_hash && matches(slotKeys[lt_slot], in_line, in_offsets)) {
+                return (T) slotEntries[lt_slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the given entry to the index, with the key values of the given
+     * line. The line should not already be in the index.
+     *
+     * Author : gandomi
+     *
+     * @param in_line
+     *        A log line
+     * @param in_offsets
+     *        The offsets of the values in the line, as returned by
+     *        {@link CompiledParsePlan#fetchOffsets(String)}
+     * @param in_entry
+     *        The entry of the line
+     *
+     */
+    void add(String in_line, int[] in_offsets, T in_entry) {
+        if ((size + 1) * 2 > slotEntries.length) {
+            resize();
+        }
+
+        String[] l_keyValues = new String[keyIndexes.length];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            final int lt_start = fetchValueStart(in_line, in_offsets, i);
+            final int lt_end = fetchValueEnd(in_line, in_offsets, i, lt_start);
+
+            l_keyValues[i] = in_line.substring(lt_start, lt_end);
+        }
+
+        insert(hash(in_line, in_offsets), l_keyValues, in_entry);
+        size++;
+    }
+
+    private void insert(int in_hash, String[] in_keyValues, Object in_entry) {
+        final int l_mask = slotEntries.length - 1;
+        int l_slot = in_hash & l_mask;
+
+        while (slotEntries[l_slot] != null) {
+            l_slot = (l_slot + 1) & l_mask;
+        }
+
+        slotHashes[l_slot] = in_hash;
+        slotKeys[l_slot] = in_keyValues;
+        slotEntries[l_slot] = in_entry;
+    }
+
+    private void resize() {
+        final int[] l_oldHashes = slotHashes;
+        final String[][] l_oldKeys = slotKeys;
+        final Object[] l_oldEntries = slotEntries;
+
+        slotHashes = new int[l_oldEntries.length * 2];
+        slotKeys = new String[l_oldEntries.length * 2][];
+        slotEntries = new Object[l_oldEntries.length * 2];
+
+        for (int i = 0; i < l_oldEntries.length; i++) {
+            if (l_oldEntries[i] != null) {
+                insert(l_oldHashes[i], l_oldKeys[i], l_oldEntries[i]);
+            }
+        }
+    }
+
+    /**
+     * Computes the hash of the trimmed key values of the given line
+     *
+     * @param in_line
+     *        A log line
+     * @param in_offsets
+     *        The offsets of the values in the line
+     * @return The hash of the key values
+     */
+    private int hash(String in_line, int[] in_offsets) {
+        int lr_hash = 1;
+
+        for (int i = 0; i < keyIndexes.length; i++) {
+            final int lt_start = fetchValueStart(in_line, in_offsets, i);
+            final int lt_end = fetchValueEnd(in_line, in_offsets, i, lt_start);
+
+            int lt_valueHash = 0;
+            for (int j = lt_start; j < lt_end; j++) {
+                lt_valueHash = 31 * lt_valueHash + in_line.charAt(j);
+            }
+            lr_hash = 31 * lr_hash + lt_valueHash;
+        }
+
+        //Spread the high bits, since we only use the lower bits for the slots
+        return lr_hash ^ (lr_hash >>> 16);
+    }
+
+    private boolean matches(String[] in_keyValues, String in_line, int[] in_offsets) {
+        for (int i = 0; i < keyIndexes.length; i++) {
+            final int lt_start = fetchValueStart(in_line, in_offsets, i);
+            final int lt_end = fetchValueEnd(in_line, in_offsets, i, lt_start);
+
+            if (lt_end - lt_start != in_keyValues[i].length()
+                    || !in_line.regionMatches(lt_start, in_keyValues[i], 0, lt_end - lt_start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the start of the trimmed value of the given key field. Same
+     * behavior as String.trim()
+     */
+    private int fetchValueStart(String in_line, int[] in_offsets, int in_keyPosition) {
+        final int l_end = in_offsets[keyIndexes[in_keyPosition] * 2 + 1];
+        int lr_start = in_offsets[keyIndexes[in_keyPosition] * 2];
+
+        while (lr_start < l_end && in_line.charAt(lr_start) <= ' ') {
+            lr_start++;
+        }
+        return lr_start;
+    }
+
+    /**
+     * Returns the end of the trimmed value of the given key field. Same
+     * behavior as String.trim()
+     */
+    private int fetchValueEnd(String in_line, int[] in_offsets, int in_keyPosition, int in_valueStart) {
+        int lr_end = in_offsets[keyIndexes[in_keyPosition] * 2 + 1];
+
+        while (lr_end > in_valueStart && in_line.charAt(lr_end - 1) <= ' ') {
+            lr_end--;
+        }
+        return lr_end;
+    }
+
+}
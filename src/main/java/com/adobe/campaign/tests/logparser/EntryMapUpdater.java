@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Updates a map of entries with the lines parsed by a compiled parse
+ * definition. When the keys of the entries are made from the key values, the
+ * entries of the lines are found with an {@link EntryKeyIndex}.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class EntryMapUpdater<T extends StdLogEntry> {
+
+    private final CompiledParsePlan parsePlan;
+    private final Map<String, T> entries;
+    private final LogEntryFactory<T> entryFactory;
+    private final EntryKeyIndex<T> keyIndex;
+    private final boolean aggregating;
+
+    /**
+     * @param in_parsePlan
+     *        The compiled parse definition
+     * @param in_entries
+     *        The map of String and StdLogEntries to update
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     */
+    EntryMapUpdater(CompiledParsePlan in_parsePlan, Map<String, T> in_entries,
+            LogEntryFactory<T> in_entryFactory) {
+        this.parsePlan = in_parsePlan;
+        this.entries = in_entries;
+        this.entryFactory = in_entryFactory;
+
+        //When possible, we find the entries of the lines directly from the key values
+        this.keyIndex = in_entryFactory.isKeyMadeFromKeyValues()
+                ? EntryKeyIndex.create(in_parsePlan, in_parsePlan.getParseDefinition().fetchKeyOrder())
+                : null;
+        this.aggregating = !in_parsePlan.getParseDefinition().getAggregatedHeaders().isEmpty();
+    }
+
+    /**
+     * @return The compiled parse definition
+     */
+    CompiledParsePlan getParsePlan() {
+        return parsePlan;
+    }
+
+    /**
+     * @return The map of entries that is updated
+     */
+    Map<String, T> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Parses the given line, and adds it to the entries if it is compliant
+     * with the parse definition
+     *
+     * Author : gandomi
+     *
+     * @param in_logLine
+     *        A string/log line which we want to parse
+     * @return true if the line was compliant with the parse definition
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    boolean updateWithLine(String in_logLine) throws InstantiationException, IllegalAccessException {
+        final int[] l_offsets = parsePlan.fetchOffsets(in_logLine);
+
+        if (l_offsets == null) {
+            return false;
+        }
+
+        final T l_indexedEntry = keyIndex == null ? null : keyIndex.find(in_logLine, l_offsets);
+
+        if (l_indexedEntry != null) {
+            l_indexedEntry.incrementUsage();
+
+            if (aggregating) {
+                l_indexedEntry.addAggregatedValues(new ParsedLine(parsePlan, in_logLine, l_offsets), 1);
+            }
+        } else {
+            final T l_entry = StringParseFactory.updateEntryMapWithParsedData(
+                    new ParsedLine(parsePlan, in_logLine, l_offsets), parsePlan.getParseDefinition(), entries,
+                    entryFactory);
+
+            if (keyIndex != null) {
+                keyIndex.add(in_logLine, l_offsets, l_entry);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the complete lines that were appended to a file since the given
+     * position, and moves the position after them. If the file has been
+     * rotated, it is parsed from the start.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePosition
+     *        The position up to which the file has been parsed
+     * @param in_charset
+     *        The charset of the file. The line feed needs to be encoded as a
+     *        single byte
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @throws IOException
+     *         When the file could not be read. A
+     *         {@link java.nio.file.NoSuchFileException} is thrown if the file
+     *         does not exist
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    void updateWithAppendedLines(FilePosition in_filePosition, Charset in_charset, ParseStatistics in_statistics)
+            throws IOException, InstantiationException, IllegalAccessException {
+        final long l_appendedEnd = in_filePosition.fetchAppendedEnd();
+
+        if (l_appendedEnd <= in_filePosition.getPosition()) {
+            return;
+        }
+
+        try (LineSource l_lineSource = new FileRangeLineSource(in_filePosition.getFilePath(),
+                in_filePosition.getPosition(), l_appendedEnd, in_charset, BufferedLineSource.DEFAULT_BUFFER_SIZE)) {
+
+            String lt_nextLine;
+            while ((lt_nextLine = l_lineSource.nextLine()) != null) {
+                if (!updateWithLine(lt_nextLine)) {
+                    in_statistics.incrementLinesSkipped();
+                }
+                in_statistics.incrementLinesRead();
+            }
+        }
+        in_filePosition.moveTo(l_appendedEnd);
+    }
+
+}
@@ -0,0 +1,140 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The position up to which a growing log file has been parsed. The identity of
+ * the file, i.e. its inode on most systems, is stored with the position. This
+ * lets us detect that a file has been rotated, either because its identity
+ * changed, or because it became smaller than the parsed position.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class FilePosition {
+    private static final Logger log = LogManager.getLogger();
+
+    private final String filePath;
+    private long position;
+    private String fileKey;
+    private long size = 0;
+
+    /**
+     * Creates the position of a file that has not been parsed yet
+     *
+     * @param in_filePath
+     *        The path of the file
+     */
+    FilePosition(String in_filePath) {
+        this(in_filePath, 0, null);
+    }
+
+    /**
+     * Creates the position of a file that has been parsed up to the given
+     * position
+     *
+     * @param in_filePath
+     *        The path of the file
+     * @param in_position
+     *        The number of bytes of the file that have been parsed
+     * @param in_fileKey
+     *        The identity of the parsed file. null if unknown
+     */
+    FilePosition(String in_filePath, long in_position, String in_fileKey) {
+        this.filePath = in_filePath;
+        this.position = in_position;
+        this.fileKey = in_fileKey;
+    }
+
+    String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * @return The number of bytes of the file that have been parsed
+     */
+    long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return The identity of the file, as given by
+     *         {@link BasicFileAttributes#fileKey()}. null if unknown
+     */
+    String getFileKey() {
+        return fileKey;
+    }
+
+    /**
+     * @return The size of the file when it was last checked
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Checks the current state of the file, and finds the end of the complete
+     * lines that were appended since the current position. If the file has
+     * been rotated, the position is moved back to the start of the file.
+     *
+     * Author : gandomi
+     *
+     * @return The position following the last complete line of the file. The
+     *         current position if no complete line has been appended
+     * @throws IOException
+     *         When the file could not be read. A
+     *         {@link java.nio.file.NoSuchFileException} is thrown if the file
+     *         does not exist
+     *
+     */
+    long fetchAppendedEnd() throws IOException {
+        final BasicFileAttributes l_attributes = Files.readAttributes(Paths.get(filePath),
+                BasicFileAttributes.class);
+        final String l_currentFileKey = l_attributes.fileKey() == null ? null
+                : l_attributes.fileKey().toString();
+
+        if ((fileKey != null && l_currentFileKey != null && !fileKey.equals(l_currentFileKey))
+                || l_attributes.size() < position) {
+            log.info("The file {} has been rotated. It is read from the start.", filePath);
+            position = 0;
+        }
+        fileKey = l_currentFileKey;
+        size = l_attributes.size();
+
+        return FileRangeLineSource.fetchLastLineEnd(filePath, position, l_attributes.size());
+    }
+
+    /**
+     * Moves the position after the bytes that have been parsed
+     *
+     * @param in_position
+     *        The new position
+     */
+    void moveTo(long in_position) {
+        this.position = in_position;
+    }
+
+    @Override
+    public String toString() {
+        return "FilePosition [filePath=" + filePath + ", position=" + position + ", fileKey=" + fileKey + "]";
+    }
+
+}
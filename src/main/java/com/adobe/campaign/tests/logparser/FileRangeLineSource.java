@@ -0,0 +1,270 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link LineSource} reading the lines between two byte positions of a
+ * file. The positions are expected to be at the start of a line, which is the
+ * case for the boundaries returned by
+ * {@link #fetchLineAlignedBoundaries(String, long)}. This allows us to parse
+ * the chunks of a large file in parallel.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+class FileRangeLineSource implements LineSource {
+
+    /**
+     * The default size of a chunk in bytes
+     */
+    static final long DEFAULT_CHUNK_SIZE = 1 << 25;
+
+    private static final int SEARCH_BUFFER_SIZE = 1 << 13;
+
+    private final LineSource lineSource;
+
+    /**
+     * Creates a line source for the bytes between the given positions
+     *
+     * @param in_filePath
+     *        The path of the file
+     * @param in_startPosition
+     *        The position of the first byte of the range
+     * @param in_endPosition
+     *        The position after the last byte of the range
+     * @param in_charset
+     *        The charset with which the file is decoded. The line feed needs
+     *        to be encoded as a single byte
+     * @param in_bufferSize
+     *        The size of the buffer in characters
+     * @throws IOException
+     *         When the file could not be opened
+     */
+    FileRangeLineSource(String in_filePath, long in_startPosition, long in_endPosition, Charset in_charset,
+            int in_bufferSize) throws IOException {
+        FileInputStream l_fileStream = new FileInputStream(in_filePath);
+
+        try {
+            l_fileStream.getChannel().position(in_startPosition);
+        } catch (IOException e) {
+            l_fileStream.close();
+            throw e;
+        }
+
+        this.lineSource = new BufferedLineSource(
+                new RangeInputStream(l_fileStream, in_endPosition - in_startPosition), in_charset,
+                in_bufferSize);
+    }
+
+    @Override
+    public String nextLine() throws IOException {
+        return lineSource.nextLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lineSource.close();
+    }
+
+    /**
+     * Splits the given file into ranges of about the given size. Each boundary
+     * is placed after a line feed, so a line is never split between two
+     * ranges. A line longer than the chunk size ends up in a larger range.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePath
+     *        The path of the file
+     * @param in_chunkSize
+     *        The approximate size of a range in bytes
+     * @return The boundaries of the ranges. The first is 0, and the last is
+     *         the length of the file. Range i is between the boundary i and
+     *         the boundary i+1
+     * @throws IOException
+     *         When the file could not be read
+     *
+     */
+    static long[] fetchLineAlignedBoundaries(String in_filePath, long in_chunkSize) throws IOException {
+        if (in_chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size needs to be a positive number.");
+        }
+
+        List<Long> l_boundaries = new ArrayList<>();
+        l_boundaries.add(0L);
+
+        try (RandomAccessFile l_file = new RandomAccessFile(in_filePath, "r")) {
+            final long l_fileLength = l_file.length();
+            final byte[] l_buffer = new byte[SEARCH_BUFFER_SIZE];
+            long l_position = in_chunkSize;
+
+            while (l_position < l_fileLength) {
+                final long lt_boundary = fetchNextLineStart(l_file, l_position - 1, l_buffer);
+
+                if (lt_boundary >= l_fileLength) {
+                    break;
+                }
+
+                l_boundaries.add(lt_boundary);
+                l_position = lt_boundary + in_chunkSize;
+            }
+
+            if (l_fileLength > 0) {
+                l_boundaries.add(l_fileLength);
+            }
+        }
+
+        return l_boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Finds the end of the last complete line between the given positions.
+     * This allows us to only read the complete lines of a file that is still
+     * being written.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePath
+     *        The path of the file
+     * @param in_fromPosition
+     *        The position from which we search
+     * @param in_toPosition
+     *        The position until which we search, usually the length of the
+     *        file
+     * @return The position following the last line feed in the given range.
+     *         in_fromPosition if the range contains no line feed
+     * @throws IOException
+     *         When the file could not be read
+     *
+     */
+    static long fetchLastLineEnd(String in_filePath, long in_fromPosition, long in_toPosition)
+            throws IOException {
+        try (RandomAccessFile l_file = new RandomAccessFile(in_filePath, "r")) {
+            final byte[] l_buffer = new byte[SEARCH_BUFFER_SIZE];
+            long l_blockEnd = Math.min(in_toPosition, l_file.length());
+
+            while (l_blockEnd > in_fromPosition) {
+                final long lt_blockStart = Math.max(in_fromPosition, l_blockEnd - l_buffer.length);
+                final int lt_blockLength = (int) (l_blockEnd - lt_blockStart);
+
+                l_file.seek(lt_blockStart);
+                l_file.readFully(l_buffer, 0, lt_blockLength);
+
+                for (int i = lt_blockLength - 1; i >= 0; i--) {
+                    if (l_buffer[i] == '\n') {
+                        return lt_blockStart + i + 1;
+                    }
+                }
+                l_blockEnd = lt_blockStart;
+            }
+        }
+        return in_fromPosition;
+    }
+
+    /**
+     * Finds the position following the first line feed found from the given
+     * position
+     *
+     * @param in_file
+     *        The file we are searching
+     * @param in_fromPosition
+     *        The position from which we search
+     * @param in_buffer
+     *        A buffer for reading the file
+     * @return The position of the start of the next line. The length of the
+     *         file if there are no more line feeds
+     * @throws IOException
+     *         When the file could not be read
+     */
+    private static long fetchNextLineStart(RandomAccessFile in_file, long in_fromPosition, byte[] in_buffer)
+            throws IOException {
+        in_file.seek(in_fromPosition);
+        long l_position = in_fromPosition;
+        int l_read;
+
+        while ((l_read = in_file.read(in_buffer)) > 0) {
+            for (int i = 0; i < l_read; i++) {
+                if (in_buffer[i] == '\n') {
+                    return l_position + i + 1;
+                }
+            }
+            l_position += l_read;
+        }
+        return in_file.length();
+    }
+
+    /**
+     * A stream that stops after a given number of bytes
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private RangeInputStream(InputStream in_inputStream, long in_length) {
+            super(in_inputStream);
+            this.remaining = in_length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            final int lr_byte = super.read();
+            if (lr_byte >= 0) {
+                remaining--;
+            }
+            return lr_byte;
+        }
+
+        @Override
+        public int read(byte[] in_buffer, int in_offset, int in_length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            final int lr_read = super.read(in_buffer, in_offset, (int) Math.min(in_length, remaining));
+            if (lr_read > 0) {
+                remaining -= lr_read;
+            }
+            return lr_read;
+        }
+
+        @Override
+        public long skip(long in_length) throws IOException {
+            final long lr_skipped = super.skip(Math.min(in_length, remaining));
+            remaining -= lr_skipped;
+            return lr_skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+}
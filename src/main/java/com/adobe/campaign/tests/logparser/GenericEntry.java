@@ -11,6 +11,7 @@
  */
 package com.adobe.campaign.tests.logparser;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -26,6 +27,9 @@ import java.util.stream.Collectors;
  */
 public class GenericEntry extends StdLogEntry {
 
+    //The view of the values map given by fetchValueMap
+    private Map<String, Object> valueMapView = null;
+
     public GenericEntry(ParseDefinition in_definition) {
         super(in_definition);
     }
@@ -44,6 +48,17 @@ public class GenericEntry extends StdLogEntry {
                 .map(e -> valuesMap.get(e).toString()).collect(Collectors.toList()));
     }
 
+    @Override
+    public LogKey makeLogKey() {
+        final List<String> l_keyOrder = getParseDefinition().fetchKeyOrder();
+        Object[] l_keyValues = new Object[l_keyOrder.size()];
+
+        for (int i = 0; i < l_keyValues.length; i++) {
+            l_keyValues[i] = valuesMap.get(l_keyOrder.get(i));
+        }
+        return LogKey.wrap(l_keyValues);
+    }
+
     @Override
     public Set<String> fetchHeaders() {
 
@@ -52,12 +67,16 @@ public class GenericEntry extends StdLogEntry {
     }
 
     /**
-     * Returns the values map as it is without any manipulation
+     * Returns the values map without any manipulation of the values. The
+     * returned map is a view of the values, so that the changes made through it
+     * are seen by the indexes of the log data containing this entry.
      */
     @Override
     public Map<String, Object> fetchValueMap() {
-
-        return valuesMap;
+        if (valueMapView == null) {
+            valueMapView = new ObservedMap<>(() -> valuesMap, this::markValuesModified);
+        }
+        return valueMapView;
     }
 
     @Override
@@ -65,4 +84,61 @@ public class GenericEntry extends StdLogEntry {
         return new GenericEntry(this);
     }
 
+    /**
+     * Returns a factory for generic entries. The factory computes the keys
+     * directly from the parsed values, the same way as {@link #makeKey()}.
+     *
+     * Author : gandomi
+     *
+     * @return A factory for generic entries
+     *
+     */
+    public static LogEntryFactory<GenericEntry> factory() {
+        return GenericEntryFactory.INSTANCE;
+    }
+
+    /**
+     * The factory for generic entries
+     */
+    private static final class GenericEntryFactory implements LogEntryFactory<GenericEntry> {
+
+        private static final GenericEntryFactory INSTANCE = new GenericEntryFactory();
+
+        @Override
+        public GenericEntry create() {
+            return new GenericEntry();
+        }
+
+        @Override
+        public GenericEntry create(ParseDefinition in_parseDefinition) {
+            return new GenericEntry(in_parseDefinition);
+        }
+
+        @Override
+        public boolean isKeyMadeFromKeyValues() {
+            return true;
+        }
+
+        @Override
+        public String makeKey(ParseDefinition in_parseDefinition, Map<String, String> in_values) {
+            final List<String> l_keyOrder = in_parseDefinition.fetchKeyOrder();
+            StringBuilder lr_key = new StringBuilder();
+
+            for (int i = 0; i < l_keyOrder.size(); i++) {
+                final String lt_value = in_values.get(l_keyOrder.get(i));
+
+                //Let the entry decide how a missing value is handled
+                if (lt_value == null) {
+                    return null;
+                }
+
+                if (i > 0) {
+                    lr_key.append(in_parseDefinition.getKeyPadding());
+                }
+                lr_key.append(lt_value);
+            }
+            return lr_key.toString();
+        }
+    }
+
 }
@@ -0,0 +1,332 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.adobe.campaign.tests.logparser.exceptions.IncorrectParseDefinitionException;
+
+/**
+ * A version of {@link LogData} where the entries are stored with a composite
+ * {@link LogKey} instead of a String key. This avoids building the String keys,
+ * and values containing the key padding can not be mixed up.
+ *
+ * The String keys are still available through {@link #get(String)}, and a
+ * {@link LogData} can be created with {@link #toLogData()}.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class KeyedLogData<T extends StdLogEntry> {
+
+    private final Map<LogKey, T> entries;
+
+    //The entries by String key, and the number of entries when it was built
+    private Map<String, T> stringKeyIndex = null;
+    private int stringKeyIndexSize = 0;
+
+    //The view of the entries returned by getEntries
+    private final Map<LogKey, T> entriesView;
+
+    public KeyedLogData() {
+        this(new HashMap<>());
+    }
+
+    /**
+     * Creates a KeyedLogData with the given entries. The map is shared with the
+     * caller. Entries that are added to or removed from it directly are seen by
+     * {@link #get(String)}, but an entry that is directly replaced by another
+     * one for the same key is not. Such changes should go through
+     * {@link #getEntries()}.
+     *
+     * @param in_entries
+     *        The entries, by composite key
+     */
+    public KeyedLogData(Map<LogKey, T> in_entries) {
+        this.entries = in_entries;
+        this.entriesView = new ObservedMap<>(() -> entries, () -> stringKeyIndex = null);
+    }
+
+    /**
+     * Creates a KeyedLogData containing the entries of the given LogData. The
+     * entries are shared between the two objects.
+     *
+     * Author : gandomi
+     *
+     * @param in_logData
+     *        A LogData object
+     * @param <T>
+     *        The type of the entries
+     * @return A KeyedLogData with the same entries
+     *
+     */
+    public static <T extends StdLogEntry> KeyedLogData<T> from(LogData<T> in_logData) {
+        KeyedLogData<T> lr_keyedLogData = new KeyedLogData<>();
+
+        for (T lt_entry : in_logData.getEntries().values()) {
+            lr_keyedLogData.addEntry(lt_entry);
+        }
+        return lr_keyedLogData;
+    }
+
+    /**
+     * Returns the entries of this log data. The returned map is a view of the
+     * entries, so that its changes are seen by {@link #get(String)}.
+     *
+     * @return The entries of this log data, by composite key
+     */
+    public Map<LogKey, T> getEntries() {
+        return entriesView;
+    }
+
+    /**
+     * This method adds an entry to the log data. If the entry already exists we
+     * just increment the frequence
+     *
+     * Author : gandomi
+     *
+     * @param in_entry
+     *        An object of the type {@link StdLogEntry}
+     *
+     */
+    public void addEntry(T in_entry) {
+        final LogKey l_candidateKey = in_entry.makeLogKey();
+        final T l_existingEntry = entries.get(l_candidateKey);
+
+        if (l_existingEntry != null) {
+            l_existingEntry.addFrequence(in_entry.fetchFrequence());
+            l_existingEntry.mergeAggregates(in_entry);
+        } else {
+            entries.put(l_candidateKey, in_entry);
+            stringKeyIndex = null;
+        }
+    }
+
+    /**
+     * This method allows you to access an entry in the log data
+     *
+     * Author : gandomi
+     *
+     * @param in_dataEntryKey
+     *        The composite key of the entry
+     * @return The StdLogEntry for the given entry. null if not found
+     *
+     */
+    public T get(LogKey in_dataEntryKey) {
+        return entries.get(in_dataEntryKey);
+    }
+
+    /**
+     * This method allows you to access an entry with its String key, as
+     * returned by {@link StdLogEntry#makeKey()}. The String keys are computed
+     * the first time this method is called after the entries have changed.
+     *
+     * Author : gandomi
+     *
+     * @param in_dataEntryKey
+     *        The String key of the entry
+     * @return The StdLogEntry for the given entry. null if not found
+     *
+     */
+    public T get(String in_dataEntryKey) {
+        Map<String, T> l_stringKeyIndex = stringKeyIndex;
+
+        if (l_stringKeyIndex == null || stringKeyIndexSize != entries.size()) {
+            l_stringKeyIndex = new HashMap<>();
+
+            for (T lt_entry : entries.values()) {
+                l_stringKeyIndex.putIfAbsent(lt_entry.makeKey(), lt_entry);
+            }
+            stringKeyIndexSize = entries.size();
+            stringKeyIndex = l_stringKeyIndex;
+        }
+
+        return l_stringKeyIndex.get(in_dataEntryKey);
+    }
+
+    /**
+     * Creates a LogData object with the String keys of these entries. If two
+     * entries have the same String key, their frequences are added. The
+     * entries of this object are not changed.
+     *
+     * Author : gandomi
+     *
+     * @return A LogData with the String keys
+     *
+     */
+    @SuppressWarnings("unchecked")
+    public LogData<T> toLogData() {
+        LogData<T> lr_logData = new LogData<>();
+
+        for (T lt_entry : entries.values()) {
+            lr_logData.addEntry((T) lt_entry.copy());
+        }
+        return lr_logData;
+    }
+
+    /**
+     * Here we create a new KeyedLogData with the given ParseDefinitionEntry
+     * keys. This method performs a groupby for the given values. The frequence
+     * will also take into account the original frequence.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @return a new KeyedLogData Object containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public KeyedLogData<GenericEntry> groupBy(List<String> in_parseDefinitionEntryKeyList)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        return groupBy(in_parseDefinitionEntryKeyList, GenericEntry.factory());
+    }
+
+    /**
+     * Here we create a new KeyedLogData with the given ParseDefinitionEntry
+     * keys. This method performs a groupby for the given values. The frequence
+     * will also take into account the original frequence.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @param in_transformationFactory
+     *        The factory creating the cube entries
+     * @param <U>
+     *        The return type of the group by cube.
+     * @return a new KeyedLogData Object containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public <U extends StdLogEntry> KeyedLogData<U> groupBy(List<String> in_parseDefinitionEntryKeyList,
+            LogEntryFactory<U> in_transformationFactory)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        return groupEntries(entries.values(), in_parseDefinitionEntryKeyList, in_transformationFactory);
+    }
+
+    /**
+     * Groups the given entries by the values of the given keys. The cube
+     * entries are stored with a LogKey made of the group by values, so no
+     * String key is created.
+     *
+     * Author : gandomi
+     *
+     * @param in_entries
+     *        The entries to group
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @param in_transformationFactory
+     *        The factory creating the cube entries
+     * @param <U>
+     *        The return type of the group by cube.
+     * @return a new KeyedLogData Object containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    static <U extends StdLogEntry> KeyedLogData<U> groupEntries(Collection<? extends StdLogEntry> in_entries,
+            List<String> in_parseDefinitionEntryKeyList, LogEntryFactory<U> in_transformationFactory)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        KeyedLogData<U> lr_cubeData = new KeyedLogData<>();
+
+        final ParseDefinition l_cubeDefinition = LogData.createCubeDefinition(in_parseDefinitionEntryKeyList);
+        final int l_nrOfKeys = in_parseDefinitionEntryKeyList.size();
+
+        //The headers are only checked once per parse definition
+        Set<ParseDefinition> l_checkedDefinitions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (StdLogEntry lt_entry : in_entries) {
+            if (l_checkedDefinitions.add(lt_entry.getParseDefinition())) {
+                final Set<String> lt_headers = lt_entry.getParseDefinition().fetchHeaders();
+
+                for (String lt_parseDefinitionEntryKey : in_parseDefinitionEntryKeyList) {
+                    if (!lt_headers.contains(lt_parseDefinitionEntryKey)) {
+                        throw new IncorrectParseDefinitionException("The given header name "
+                                + lt_parseDefinitionEntryKey + " was not among the stored data");
+                    }
+                }
+            }
+
+            Object[] lt_cubeKeyValues = new Object[l_nrOfKeys];
+
+            for (int i = 0; i < l_nrOfKeys; i++) {
+                lt_cubeKeyValues[i] = lt_entry.get(in_parseDefinitionEntryKeyList.get(i)).toString();
+            }
+
+            final LogKey lt_cubeKey = LogKey.wrap(lt_cubeKeyValues);
+            final U lt_existingCubeEntry = lr_cubeData.entries.get(lt_cubeKey);
+
+            if (lt_existingCubeEntry != null) {
+                lt_existingCubeEntry.addFrequence(lt_entry.fetchFrequence());
+                lt_existingCubeEntry.mergeAggregates(lt_entry);
+                continue;
+            }
+
+            Map<String, String> lt_cubeEntryValues = new HashMap<>();
+            for (int i = 0; i < l_nrOfKeys; i++) {
+                lt_cubeEntryValues.put(in_parseDefinitionEntryKeyList.get(i), (String) lt_cubeKeyValues[i]);
+            }
+
+            U lt_cubeEntry = in_transformationFactory.create(l_cubeDefinition);
+            lt_cubeEntry.setValuesFromMap(lt_cubeEntryValues);
+            lt_cubeEntry.setFrequence(lt_entry.fetchFrequence());
+            lt_cubeEntry.mergeAggregates(lt_entry);
+
+            lr_cubeData.entries.put(lt_cubeKey, lt_cubeEntry);
+        }
+        return lr_cubeData;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entries);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        KeyedLogData<?> other = (KeyedLogData<?>) obj;
+        return entries.equals(other.entries);
+    }
+
+}
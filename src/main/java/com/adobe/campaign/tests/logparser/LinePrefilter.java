@@ -0,0 +1,111 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+/**
+ * A cheap check that rejects the lines that can not be compliant with a
+ * compiled parse definition. All the start and end markers of a definition
+ * need to appear in a compliant line.
+ *
+ * Before parsing a line, we search for a single one of these markers, the
+ * anchor. The anchor is simply the longest marker. This is a heuristic: a
+ * longer marker is usually rarer, but we know nothing of the actual frequency
+ * of the markers in the logs. If the anchor is not found, the line is rejected
+ * without any work per parse definition entry. The other markers are only
+ * searched by the parsing itself.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class LinePrefilter {
+
+    private final String anchor;
+    private final boolean anchorCaseSensitive;
+    private final int anchorMarkerIndex;
+
+    /**
+     * Selects the anchor among the markers of the given steps
+     *
+     * @param in_steps
+     *        The parse definition entries of a compiled plan
+     */
+    LinePrefilter(ParseDefinitionEntry[] in_steps) {
+        String l_anchor = null;
+        boolean l_anchorCaseSensitive = true;
+        int l_anchorMarkerIndex = -1;
+
+        for (int i = 0; i < in_steps.length * 2; i++) {
+            final ParseDefinitionEntry lt_step = in_steps[i / 2];
+            final String lt_marker = (i % 2 == 0) ? lt_step.getStart() : lt_step.getEnd();
+
+            if (lt_marker == null || lt_marker.isEmpty()) {
+                continue;
+            }
+
+            final String lt_literal = lt_step.isCaseSensitive() ? lt_marker : lt_marker.toLowerCase();
+
+            //We pick the longest marker. For the same length, case sensitive searches are faster
+            if (l_anchor == null || lt_literal.length() > l_anchor.length()
+                    || (lt_literal.length() == l_anchor.length() && lt_step.isCaseSensitive()
+                            && !l_anchorCaseSensitive)) {
+                l_anchor = lt_literal;
+                l_anchorCaseSensitive = lt_step.isCaseSensitive();
+                l_anchorMarkerIndex = i;
+            }
+        }
+
+        this.anchor = l_anchor;
+        this.anchorCaseSensitive = l_anchorCaseSensitive;
+        this.anchorMarkerIndex = l_anchorMarkerIndex;
+    }
+
+    /**
+     * @return The marker that is searched before parsing a line. It is in
+     *         lower case for case insensitive entries. null if the parse
+     *         definition has no markers
+     */
+    String getAnchor() {
+        return anchor;
+    }
+
+    /**
+     * Returns the index of the anchor among the markers of the plan. The start
+     * marker of entry i has the index 2*i, and its end marker 2*i+1.
+     *
+     * @return The index of the anchor marker. -1 if there is no anchor
+     */
+    int getAnchorMarkerIndex() {
+        return anchorMarkerIndex;
+    }
+
+    /**
+     * Lets us know if the given line may be compliant with the parse
+     * definition. If this method returns false, the line is not compliant.
+     *
+     * Author : gandomi
+     *
+     * @param in_logLine
+     *        A string/log line which we want to check
+     * @return false if the anchor is not in the line
+     *
+     */
+    boolean mayMatch(String in_logLine) {
+        if (anchor == null) {
+            return true;
+        }
+
+        return anchorCaseSensitive ? in_logLine.indexOf(anchor) >= 0
+                : ParseDefinitionEntry.indexOfIgnoreCase(in_logLine, anchor, 0) >= 0;
+    }
+
+}
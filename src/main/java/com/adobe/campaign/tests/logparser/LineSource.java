@@ -0,0 +1,40 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A source of log lines. The log parser reads the files it is given through
+ * this interface, which allows us to change how the lines are read without
+ * changing the parsing logic.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public interface LineSource extends Closeable {
+
+    /**
+     * Returns the next line of the source without the line terminator.
+     *
+     * Author : gandomi
+     *
+     * @return the next line. null when the end of the source has been reached
+     * @throws IOException
+     *         When the source could not be read
+     *
+     */
+    String nextLine() throws IOException;
+
+}
@@ -0,0 +1,57 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.IOException;
+
+/**
+ * Creates the {@link LineSource} used for reading a log file. By providing
+ * your own factory you can change how the log files are read.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+@FunctionalInterface
+public interface LineSourceFactory {
+
+    /**
+     * Opens the given file as a source of lines
+     *
+     * Author : gandomi
+     *
+     * @param in_filePath
+     *        The path of the file to read
+     * @return A LineSource for the given file
+     * @throws IOException
+     *         When the file could not be opened. A
+     *         {@link java.io.FileNotFoundException} is thrown if the file does
+     *         not exist
+     *
+     */
+    LineSource open(String in_filePath) throws IOException;
+
+    /**
+     * The factory used by default by the log parser. It creates a
+     * {@link BufferedLineSource} with the default charset and buffer size.
+     * Files compressed with gzip are decompressed while they are read.
+     *
+     * Author : gandomi
+     *
+     * @return The default LineSourceFactory
+     *
+     */
+    static LineSourceFactory defaultFactory() {
+        return BufferedLineSource.factory(BufferedLineSource.DEFAULT_CHARSET,
+                BufferedLineSource.DEFAULT_BUFFER_SIZE);
+    }
+}
@@ -11,11 +11,18 @@
  */
 package com.adobe.campaign.tests.logparser;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,10 +37,23 @@ public class LogData<T extends StdLogEntry> {
      */
     private Map<String, T> entries = new HashMap<>();
 
+    //The indexes of the header values
+    private final EntryIndexes indexes = new EntryIndexes();
+
+    //The view of the entries returned once headers are indexed
+    private Map<String, T> entriesView = null;
+
     public LogData(T in_stdLogEnDataData) {
         this.addEntry(in_stdLogEnDataData);
     }
 
+    /**
+     * Creates a log data with the given entries. The map is shared with the
+     * caller, as described in {@link #setEntries(Map)}.
+     *
+     * @param in_logMap
+     *        The entries, by key
+     */
     public LogData(Map<String, T> in_logMap) {
         this.setEntries(in_logMap);
     }
@@ -41,12 +61,38 @@ public class LogData<T extends StdLogEntry> {
     public LogData() {
     }
 
+    /**
+     * Returns the entries of this log data. Once a header is indexed, the
+     * returned map is a view of the entries, and changing it forces the
+     * indexes to be rebuilt.
+     *
+     * @return The entries of this log data, by key
+     */
     public Map<String, T> getEntries() {
-        return entries;
+        if (indexes.isEmpty()) {
+            return entries;
+        }
+
+        if (entriesView == null) {
+            entriesView = new ObservedMap<>(() -> entries, indexes::invalidate);
+        }
+        return entriesView;
     }
 
+    /**
+     * Replaces the entries of this log data. The given map is used as is, and
+     * stays shared with the caller. When headers are indexed, the indexes
+     * notice the entries that are added to or removed from that map directly.
+     * They do not notice an entry that is directly replaced by another one for
+     * the same key. Such changes should go through {@link #getEntries()}, or
+     * be followed by a new call to this method.
+     *
+     * @param in_logMap
+     *        The new entries, by key
+     */
     public void setEntries(Map<String, T> in_logMap) {
         this.entries = in_logMap;
+        indexes.invalidate();
     }
 
     /**
@@ -64,13 +110,97 @@ public class LogData<T extends StdLogEntry> {
         final String l_candidateKey = lt_cubeEntry.makeKey();
 
         if (entries.containsKey(l_candidateKey)) {
-            entries.get(l_candidateKey).addFrequence(lt_cubeEntry.getFrequence());
+            entries.get(l_candidateKey).addFrequence(lt_cubeEntry.fetchFrequence());
+            entries.get(l_candidateKey).mergeAggregates(lt_cubeEntry);
 
         } else {
+            final boolean l_indexesUpToDate = indexes.isUpToDate(entries);
             entries.put(l_candidateKey, lt_cubeEntry);
+
+            if (l_indexesUpToDate) {
+                indexes.addRow(l_candidateKey, lt_cubeEntry);
+            }
         }
     }
 
+    /**
+     * Creates an index of the values of the given header. The index stores,
+     * for each value, a compressed bitmap of the row ids of the entries having
+     * that value. Searches on indexed headers only look at the entries in the
+     * intersection of the bitmaps of the searched values, instead of going
+     * through all the entries. Indexes are only created by this method.
+     *
+     * The index is kept up to date when entries are added with
+     * {@link #addEntry(StdLogEntry)} or changed with
+     * {@link #put(String, String, Object)}. Any other change of the entries or
+     * of their values makes the indexes rebuild themselves before the next
+     * search. The entry map stays shared with the map given to the
+     * constructor, with the restriction described in
+     * {@link #setEntries(Map)}. The indexes are
+     * only used for {@link GenericEntry} objects, as other entries can change
+     * their values without us knowing.
+     *
+     * Author : gandomi
+     *
+     * @param in_header
+     *        The header whose values we want to index
+     *
+     */
+    public void createIndex(String in_header) {
+        indexes.createIndex(in_header, entries);
+    }
+
+    /**
+     * @return true if the indexes reflect the current entries, and do not
+     *         need to be rebuilt before the next search
+     */
+    boolean areIndexesUpToDate() {
+        return indexes.isUpToDate(entries);
+    }
+
+    /**
+     * @return The headers that are currently indexed
+     */
+    public Set<String> fetchIndexedHeaders() {
+        return indexes.fetchHeaders();
+    }
+
+    /**
+     * Removes all the indexes of this log data
+     *
+     * Author : gandomi
+     *
+     */
+    public void dropIndexes() {
+        indexes.clear();
+    }
+
+    /**
+     * Returns the entries that may match the given values, using the indexes.
+     * The bitmaps of the indexed filter keys are intersected, and the entries
+     * of the resulting rows are fetched.
+     *
+     * @param in_filterKeyValues
+     *        A map of &lt;String,Object&gt; representation the values we want
+     *        to find
+     * @return The candidate entries. null if none of the filter keys are
+     *         indexed
+     */
+    private Iterator<T> fetchCandidates(Map<String, Object> in_filterKeyValues) {
+        return fetchKeyEntries(indexes.fetchKeys(in_filterKeyValues, entries));
+    }
+
+    /**
+     * Returns the entries of the given keys
+     *
+     * @param in_keys
+     *        Keys given by the indexes
+     * @return The entries of the keys. null if the given keys are null
+     */
+    private Iterator<T> fetchKeyEntries(List<String> in_keys) {
+        return in_keys == null ? null : in_keys.stream().map(entries::get).iterator();
+    }
+
     /**
      * This method allows you to access an entry in the log data. For this you
      * need the key of the Data
@@ -83,7 +213,7 @@ public class LogData<T extends StdLogEntry> {
      *
      */
     public T get(String in_dataEntryKey) {
-        return this.getEntries().get(in_dataEntryKey);
+        return entries.get(in_dataEntryKey);
     }
 
     /**
@@ -143,10 +273,16 @@ public class LogData<T extends StdLogEntry> {
                     + " could not be found. Operation failed.");
         }
 
-        final T l_foundCubeEntry = this.get(in_dataEntryKey);
+        final T l_foundCubeEntry = entries.get(in_dataEntryKey);
+        final boolean l_indexesUpToDate = indexes.isUpToDate(entries);
+        final long l_valueVersion = indexes.fetchValueVersion();
+        final Object l_oldValue = l_foundCubeEntry.get(in_valueKey);
 
         l_foundCubeEntry.fetchValueMap().put(in_valueKey, in_newValue);
 
+        if (l_indexesUpToDate) {
+            indexes.updateValue(in_dataEntryKey, in_valueKey, l_oldValue, l_foundCubeEntry, l_valueVersion);
+        }
     }
 
     @Override
@@ -232,38 +368,371 @@ public class LogData<T extends StdLogEntry> {
     public <U extends StdLogEntry> LogData<U> groupBy(List<String> in_parseDefinitionEntryKeyList,
             Class<U> in_transformationClass)
             throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
-        LogData<U> lr_cubeData = new LogData<U>();
 
-        //Creating new Definition
-        ParseDefinition l_cubeDefinition = new ParseDefinition(
-                "cube " + String.join("-", in_parseDefinitionEntryKeyList));
+        return groupBy(in_parseDefinitionEntryKeyList, LogEntryFactory.fromClass(in_transformationClass));
+    }
 
-        for (String lt_keyName : in_parseDefinitionEntryKeyList) {
-            l_cubeDefinition.addEntry(new ParseDefinitionEntry(lt_keyName));
+    /**
+     * Here we create a new LogDataObject with the given ParseDefinitionEntry.
+     * This method performs a groupby for the given value. The frequence will
+     * also take into account the original frequence. The cube entries are
+     * created by the given factory. If the factory can compute the key of a
+     * cube entry, we only create the entries of new keys.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @param in_transformationFactory
+     *        The factory creating the cube entries
+     * @param <U>
+     *        The return type of the group by cube.
+     * @return a new LogData Object containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public <U extends StdLogEntry> LogData<U> groupBy(List<String> in_parseDefinitionEntryKeyList,
+            LogEntryFactory<U> in_transformationFactory)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+
+        return groupByGroupingSets(Collections.singletonList(in_parseDefinitionEntryKeyList),
+                in_transformationFactory).get(in_parseDefinitionEntryKeyList);
+    }
+
+    /**
+     * Performs several group bys in a single pass over the entries. Each
+     * grouping set is a list of key names, and produces the same LogData as
+     * {@link #groupBy(List, LogEntryFactory)} for that list. An empty grouping
+     * set produces a single entry containing the total frequence.
+     *
+     * Author : gandomi
+     *
+     * @param in_groupingSets
+     *        The lists of key names of the group bys. For example [host],
+     *        [host, verb] and []
+     * @param in_transformationFactory
+     *        The factory creating the cube entries
+     * @param <U>
+     *        The return type of the group by cubes.
+     * @return A map with a LogData per grouping set, in the order of the given
+     *         grouping sets
+     * @throws IncorrectParseDefinitionException
+     *         If a key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public <U extends StdLogEntry> Map<List<String>, LogData<U>> groupByGroupingSets(
+            List<List<String>> in_groupingSets, LogEntryFactory<U> in_transformationFactory)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        return groupByGroupingSets(in_groupingSets, in_transformationFactory, Collections.emptyList());
+    }
+
+    /**
+     * Performs several group bys in a single pass over the entries, and
+     * aggregates the numeric values of the given headers in each group. The
+     * aggregates are available with {@link StdLogEntry#fetchAggregate(String)}
+     * on the cube entries.
+     *
+     * If an entry already has an aggregate for a header, for example because
+     * the header was aggregated while parsing, that aggregate is merged into
+     * its group. Otherwise the value of the entry is added as many times as
+     * the frequence of the entry. The aggregates already present in the
+     * entries are always merged into their groups.
+     *
+     * Author : gandomi
+     *
+     * @param in_groupingSets
+     *        The lists of key names of the group bys. For example [host],
+     *        [host, verb] and []
+     * @param in_transformationFactory
+     *        The factory creating the cube entries
+     * @param in_aggregatedHeaders
+     *        The headers whose numeric values are aggregated
+     * @param <U>
+     *        The return type of the group by cubes.
+     * @return A map with a LogData per grouping set, in the order of the given
+     *         grouping sets
+     * @throws IncorrectParseDefinitionException
+     *         If a key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public <U extends StdLogEntry> Map<List<String>, LogData<U>> groupByGroupingSets(
+            List<List<String>> in_groupingSets, LogEntryFactory<U> in_transformationFactory,
+            List<String> in_aggregatedHeaders)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        final List<List<String>> l_groupingSets = new ArrayList<>(new LinkedHashSet<>(in_groupingSets));
+        final ParseDefinition[] l_cubeDefinitions = new ParseDefinition[l_groupingSets.size()];
+        Map<List<String>, LogData<U>> lr_cubes = new LinkedHashMap<>();
+
+        //Creating new Definitions
+        Set<String> l_groupedKeys = new LinkedHashSet<>();
+        for (int i = 0; i < l_cubeDefinitions.length; i++) {
+            l_cubeDefinitions[i] = createCubeDefinition(l_groupingSets.get(i));
+            l_groupedKeys.addAll(l_groupingSets.get(i));
+            lr_cubes.put(l_groupingSets.get(i), new LogData<U>());
         }
 
+        //The headers are only checked once per parse definition
+        Set<ParseDefinition> l_checkedDefinitions = Collections.newSetFromMap(new IdentityHashMap<>());
+
         //Filling STDLogData
         for (T lt_entry : getEntries().values()) {
-            Map<String, String> lt_cubeEntryValues = new HashMap<>();
-            U lt_cubeEntry = in_transformationClass.newInstance();
-            lt_cubeEntry.setParseDefinition(l_cubeDefinition);
-
-            for (String lt_parseDefinitionEntryKey : in_parseDefinitionEntryKeyList) {
-                if (!lt_entry.getParseDefinition().fetchHeaders().contains(lt_parseDefinitionEntryKey)) {
-                    throw new IncorrectParseDefinitionException("The given header name "
-                            + lt_parseDefinitionEntryKey + " was not among the stored data");
+            if (l_checkedDefinitions.add(lt_entry.getParseDefinition())) {
+                final Set<String> lt_headers = lt_entry.getParseDefinition().fetchHeaders();
+
+                for (String lt_parseDefinitionEntryKey : l_groupedKeys) {
+                    if (!lt_headers.contains(lt_parseDefinitionEntryKey)) {
+                        throw new IncorrectParseDefinitionException("The given header name "
+                                + lt_parseDefinitionEntryKey + " was not among the stored data");
+                    }
+                }
+            }
+
+            Map<String, String> lt_entryValues = new HashMap<>();
+            for (String lt_parseDefinitionEntryKey : l_groupedKeys) {
+                lt_entryValues.put(lt_parseDefinitionEntryKey, lt_entry.get(lt_parseDefinitionEntryKey).toString());
+            }
+
+            final Map<String, NumericAggregate> lt_entryAggregates = fetchGroupedAggregates(lt_entry,
+                    in_aggregatedHeaders);
+
+            for (int i = 0; i < l_cubeDefinitions.length; i++) {
+                final List<String> lt_groupingSet = l_groupingSets.get(i);
+                final LogData<U> lt_cubeData = lr_cubes.get(lt_groupingSet);
+
+                Map<String, String> lt_cubeEntryValues = new HashMap<>();
+                for (String lt_parseDefinitionEntryKey : lt_groupingSet) {
+                    lt_cubeEntryValues.put(lt_parseDefinitionEntryKey, lt_entryValues.get(lt_parseDefinitionEntryKey));
                 }
 
-                lt_cubeEntryValues.put(lt_parseDefinitionEntryKey,
-                        lt_entry.get(lt_parseDefinitionEntryKey).toString());
+                final String lt_cubeKey = in_transformationFactory.makeKey(l_cubeDefinitions[i], lt_cubeEntryValues);
+                final U lt_existingCubeEntry = lt_cubeKey == null ? null : lt_cubeData.get(lt_cubeKey);
 
+                if (lt_existingCubeEntry != null) {
+                    lt_existingCubeEntry.addFrequence(lt_entry.fetchFrequence());
+                    mergeGroupedAggregates(lt_existingCubeEntry, lt_entryAggregates);
+                    continue;
+                }
+
+                U lt_cubeEntry = in_transformationFactory.create(l_cubeDefinitions[i]);
+                lt_cubeEntry.setValuesFromMap(lt_cubeEntryValues);
+                lt_cubeEntry.setFrequence(lt_entry.fetchFrequence());
+                mergeGroupedAggregates(lt_cubeEntry, lt_entryAggregates);
+
+                lt_cubeData.addEntry(lt_cubeEntry);
             }
-            lt_cubeEntry.setValuesFromMap(lt_cubeEntryValues);
-            lt_cubeEntry.setFrequence(lt_entry.getFrequence());
+        }
+        return lr_cubes;
+    }
 
-            lr_cubeData.addEntry(lt_cubeEntry);
+    /**
+     * Returns the aggregates that an entry adds to its groups
+     *
+     * @param in_entry
+     *        A grouped entry
+     * @param in_aggregatedHeaders
+     *        The headers whose numeric values are aggregated by the group by
+     * @return The aggregates of the entry, completed with its values for the
+     *         aggregated headers. null if there are no aggregates
+     */
+    private static Map<String, NumericAggregate> fetchGroupedAggregates(StdLogEntry in_entry,
+            List<String> in_aggregatedHeaders) {
+        if (!in_entry.hasAggregates() && in_aggregatedHeaders.isEmpty()) {
+            return null;
+        }
+
+        Map<String, NumericAggregate> lr_aggregates = in_entry.fetchAggregates();
+        for (String lt_header : in_aggregatedHeaders) {
+            final Double lt_number = lr_aggregates.containsKey(lt_header) ? null
+                    : NumericAggregate.toNumber(in_entry.get(lt_header));
+
+            if (lt_number != null) {
+                NumericAggregate lt_aggregate = new NumericAggregate();
+                lt_aggregate.add(lt_number, in_entry.fetchFrequence());
+                lr_aggregates.put(lt_header, lt_aggregate);
+            }
+        }
+        return lr_aggregates;
+    }
+
+    private static void mergeGroupedAggregates(StdLogEntry in_cubeEntry,
+            Map<String, NumericAggregate> in_aggregates) {
+        if (in_aggregates != null) {
+            for (Map.Entry<String, NumericAggregate> lt_aggregate : in_aggregates.entrySet()) {
+                in_cubeEntry.mergeAggregate(lt_aggregate.getKey(), lt_aggregate.getValue());
+            }
         }
-        return lr_cubeData;
+    }
+
+    /**
+     * Performs several group bys in a single pass over the entries. Each
+     * grouping set is a list of key names, and produces the same LogData as
+     * {@link #groupBy(List)} for that list.
+     *
+     * Author : gandomi
+     *
+     * @param in_groupingSets
+     *        The lists of key names of the group bys. For example [host],
+     *        [host, verb] and []
+     * @return A map with a LogData per grouping set, in the order of the given
+     *         grouping sets
+     * @throws IncorrectParseDefinitionException
+     *         If a key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public Map<List<String>, LogData<GenericEntry>> groupByGroupingSets(List<List<String>> in_groupingSets)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        return groupByGroupingSets(in_groupingSets, GenericEntry.factory());
+    }
+
+    /**
+     * Performs a group by, and aggregates the numeric values of the given
+     * headers in each group, the same way as
+     * {@link #groupByGroupingSets(List, LogEntryFactory, List)}
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @param in_aggregatedHeaders
+     *        The headers whose numeric values are aggregated
+     * @return a new LogData Object containing the groupBy values and their
+     *         aggregates
+     * @throws IncorrectParseDefinitionException
+     *         If a key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public LogData<GenericEntry> groupByWithAggregates(List<String> in_parseDefinitionEntryKeyList,
+            List<String> in_aggregatedHeaders)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        return groupByGroupingSets(Collections.singletonList(in_parseDefinitionEntryKeyList),
+                GenericEntry.factory(), in_aggregatedHeaders).get(in_parseDefinitionEntryKeyList);
+    }
+
+    /**
+     * Performs a rollup of the given keys in a single pass over the entries.
+     * For the keys [host, verb] we group by [host, verb], [host] and [], the
+     * last one containing the total frequence.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names, from the coarsest to the finest
+     * @return A map with a LogData per rollup level, from the finest to the
+     *         total
+     * @throws IncorrectParseDefinitionException
+     *         If a key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public Map<List<String>, LogData<GenericEntry>> rollup(List<String> in_parseDefinitionEntryKeyList)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+        List<List<String>> l_groupingSets = new ArrayList<>();
+
+        for (int i = in_parseDefinitionEntryKeyList.size(); i >= 0; i--) {
+            l_groupingSets.add(new ArrayList<>(in_parseDefinitionEntryKeyList.subList(0, i)));
+        }
+        return groupByGroupingSets(l_groupingSets);
+    }
+
+    /**
+     * Here we create a new KeyedLogData with the given ParseDefinitionEntry
+     * keys. This method performs a groupby for the given values, the same way
+     * as {@link #groupBy(List, LogEntryFactory)}, but the cube entries are
+     * stored with a composite {@link LogKey}, which avoids building the String
+     * keys.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @param in_transformationFactory
+     *        The factory creating the cube entries
+     * @param <U>
+     *        The return type of the group by cube.
+     * @return a new KeyedLogData Object containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public <U extends StdLogEntry> KeyedLogData<U> groupByLogKey(List<String> in_parseDefinitionEntryKeyList,
+            LogEntryFactory<U> in_transformationFactory)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+
+        return KeyedLogData.groupEntries(getEntries().values(), in_parseDefinitionEntryKeyList,
+                in_transformationFactory);
+    }
+
+    /**
+     * Here we create a new KeyedLogData with the given ParseDefinitionEntry
+     * keys. The cube entries are {@link GenericEntry} objects stored with a
+     * composite {@link LogKey}.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the parse definition perform the GroupBy
+     *        on
+     * @return a new KeyedLogData Object containing the groupBy values
+     * @throws IncorrectParseDefinitionException
+     *         If the key is not in the ParseDefinitions of the Log data entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     *
+     */
+    public KeyedLogData<GenericEntry> groupByLogKey(List<String> in_parseDefinitionEntryKeyList)
+            throws IncorrectParseDefinitionException, InstantiationException, IllegalAccessException {
+
+        return groupByLogKey(in_parseDefinitionEntryKeyList, GenericEntry.factory());
+    }
+
+    /**
+     * Creates the parse definition of the cube entries of a group by
+     *
+     * @param in_parseDefinitionEntryKeyList
+     *        The list of key names of the group by
+     * @return A parse definition with one entry per key
+     */
+    static ParseDefinition createCubeDefinition(List<String> in_parseDefinitionEntryKeyList) {
+        ParseDefinition lr_cubeDefinition = new ParseDefinition(
+                "cube " + String.join("-", in_parseDefinitionEntryKeyList));
+
+        for (String lt_keyName : in_parseDefinitionEntryKeyList) {
+            lr_cubeDefinition.addEntry(new ParseDefinitionEntry(lt_keyName));
+        }
+        return lr_cubeDefinition;
     }
 
     /**
@@ -320,7 +789,9 @@ public class LogData<T extends StdLogEntry> {
     }
 
     /**
-     * This method filters the LogData with the given properties
+     * This method filters the LogData with the given properties. If some of
+     * the filter keys are indexed, only the entries found in the intersection
+     * of their indexes are checked. Otherwise all the entries are checked.
      *
      * Author : gandomi
      *
@@ -332,16 +803,84 @@ public class LogData<T extends StdLogEntry> {
      */
     public LogData<T> filterBy(Map<String, Object> in_filterKeyValues) {
         LogData<T> lr_filteredLogData = new LogData<>();
+        final Iterator<T> l_candidates = fetchCandidates(in_filterKeyValues);
+
+        if (l_candidates != null) {
+            while (l_candidates.hasNext()) {
+                final T lt_entry = l_candidates.next();
+
+                if (lt_entry != null && lt_entry.matches(in_filterKeyValues)) {
+                    lr_filteredLogData.addEntry(lt_entry);
+                }
+            }
+            return lr_filteredLogData;
+        }
 
-        for (String lt_logDataKey : this.getEntries().keySet()) {
-            if (this.get(lt_logDataKey).matches(in_filterKeyValues)) {
-                lr_filteredLogData.addEntry(this.get(lt_logDataKey));
+        for (T lt_entry : entries.values()) {
+            if (lt_entry.matches(in_filterKeyValues)) {
+                lr_filteredLogData.addEntry(lt_entry);
             }
         }
 
         return lr_filteredLogData;
     }
 
+    /**
+     * This method filters the LogData with the given query. The query is
+     * first optimized, so that its cheapest conditions are checked first. If
+     * the query uses indexed headers, only the entries found with the indexes
+     * are checked. Otherwise all the entries are checked.
+     *
+     * Author : gandomi
+     *
+     * @param in_query
+     *        A query created with the methods of {@link LogQuery}
+     * @return a new LogDataObject containing only the entries fulfilling the
+     *         query
+     *
+     */
+    public LogData<T> filterBy(LogQuery in_query) {
+        LogData<T> lr_filteredLogData = new LogData<>();
+        final LogQuery l_query = in_query.optimize();
+        final Iterator<T> l_candidates = fetchKeyEntries(indexes.fetchKeys(l_query, entries));
+        final Iterator<T> l_entries = l_candidates == null ? entries.values().iterator() : l_candidates;
+
+        while (l_entries.hasNext()) {
+            final T lt_entry = l_entries.next();
+
+            if (lt_entry != null && l_query.matches(lt_entry)) {
+                lr_filteredLogData.addEntry(lt_entry);
+            }
+        }
+        return lr_filteredLogData;
+    }
+
+    /**
+     * Lets us know if an entry fulfills the given query. We stop at the first
+     * entry fulfilling the query.
+     *
+     * Author : gandomi
+     *
+     * @param in_query
+     *        A query created with the methods of {@link LogQuery}
+     * @return true if an entry fulfills the query. Otherwise false
+     *
+     */
+    public boolean isEntryPresent(LogQuery in_query) {
+        final LogQuery l_query = in_query.optimize();
+        final Iterator<T> l_candidates = fetchKeyEntries(indexes.fetchKeys(l_query, entries));
+        final Iterator<T> l_entries = l_candidates == null ? entries.values().iterator() : l_candidates;
+
+        while (l_entries.hasNext()) {
+            final T lt_entry = l_entries.next();
+
+            if (lt_entry != null && l_query.matches(lt_entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * This method searches the LogData for an enry with a specific value for a
      * parse definition entry name
@@ -360,11 +899,12 @@ public class LogData<T extends StdLogEntry> {
         Map<String, Object> l_filterProperties = new HashMap<>();
         l_filterProperties.put(in_parseDefinitionName, in_searchValue);
 
-        return this.filterBy(l_filterProperties);
+        return this.searchEntries(l_filterProperties);
     }
 
     /**
-     * This method searches the LogData with the given properties
+     * This method searches the LogData with the given properties. The indexed
+     * search keys are searched with their indexes.
      *
      * Author : gandomi
      *
@@ -375,7 +915,6 @@ public class LogData<T extends StdLogEntry> {
      *
      */
     public LogData<T> searchEntries(Map<String, Object> in_searchKeyValues) {
-
         return filterBy(in_searchKeyValues);
     }
 
@@ -400,7 +939,9 @@ public class LogData<T extends StdLogEntry> {
     }
 
     /**
-     * Lets us know if the given search terms could be found.
+     * Lets us know if the given search terms could be found. Like
+     * {@link #searchEntries(Map)} the indexed search keys are searched with
+     * their indexes, and we stop at the first matching entry.
      *
      * Author : gandomi
      *
@@ -410,7 +951,20 @@ public class LogData<T extends StdLogEntry> {
      *
      */
     public boolean isEntryPresent(Map<String, Object> in_searchKeyValues) {
-        return searchEntries(in_searchKeyValues).getEntries().size() > 0;
+        final Iterator<T> l_candidates = fetchCandidates(in_searchKeyValues);
+
+        if (l_candidates == null) {
+            return searchEntries(in_searchKeyValues).getEntries().size() > 0;
+        }
+
+        while (l_candidates.hasNext()) {
+            final T lt_entry = l_candidates.next();
+
+            if (lt_entry != null && lt_entry.matches(in_searchKeyValues)) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -14,8 +14,23 @@
  */
 package com.adobe.campaign.tests.logparser;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.adobe.campaign.tests.logparser.exceptions.LogDataImportExportException;
 import com.adobe.campaign.tests.logparser.exceptions.ParseDefinitionImportExportException;
 import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
 
@@ -26,6 +41,7 @@ import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
  *
  */
 public class LogDataFactory {
+    protected static final Logger log = LogManager.getLogger();
 
     protected LogDataFactory() {
         throw new IllegalStateException("Utility class");
@@ -98,6 +114,523 @@ public class LogDataFactory {
                 StringParseFactory.extractLogEntryMap(in_filePathList, in_parseDefinition, in_logEntryClass));
     }
 
+    /**
+     * A factory method for LogData. Given a list of files, a ParseDefinition,
+     * and a LogEntryFactory it generates a LogDataObject containing all the
+     * data the log parser finds. The entries are created by the given factory
+     * instead of through reflection.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_logEntryFactory
+     *        A factory creating the log entries in which the found data is
+     *        stored
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A LogData Object containing the found entries from the logs
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry> LogData<T> generateLogData(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, LogEntryFactory<T> in_logEntryFactory)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return new LogData<>(
+                StringParseFactory.extractLogEntryMap(in_filePathList, in_parseDefinition, in_logEntryFactory));
+    }
+
+    /**
+     * A factory method for ColumnarLogData. Given a list of files and a
+     * ParseDefinition it generates a ColumnarLogData containing all the data
+     * the log parser finds. The values are stored in columns, and no entries
+     * are created.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @return A ColumnarLogData Object containing the found entries from the
+     *         logs
+     *
+     */
+    public static ColumnarLogData generateColumnarLogData(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition) {
+
+        return StringParseFactory.extractColumnarLogData(in_filePathList, in_parseDefinition);
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, a ParseDefinition,
+     * a LogEntryClass and a LineSourceFactory it generates a LogDataObject
+     * containing all the data the log parser finds. The LineSourceFactory lets
+     * you define how the files are read, for example their charset and the
+     * buffer size.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_logEntryClass
+     *        A log entry class that defines how the found data is to be
+     *        transformed
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files. See
+     *        {@link BufferedLineSource#factory}
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A LogData Object containing the found entries from the logs
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry> LogData<T> generateLogData(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, Class<T> in_logEntryClass,
+            LineSourceFactory in_lineSourceFactory)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return new LogData<>(StringParseFactory.extractLogEntryMap(in_filePathList, in_parseDefinition,
+                in_logEntryClass, in_lineSourceFactory));
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, a ParseDefinition,
+     * and a LogEntryClass it generates a LogDataObject containing all the data
+     * the log parser finds. The files are parsed in parallel, using at most
+     * the given number of threads. The result is the same as when the files
+     * are parsed sequentially.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_logEntryClass
+     *        A log entry class that defines how the found data is to be
+     *        transformed
+     * @param in_parallelism
+     *        The maximum number of files that are parsed at the same time
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A LogData Object containing the found entries from the logs
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry> LogData<T> generateLogDataInParallel(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, Class<T> in_logEntryClass, int in_parallelism)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return new LogData<>(StringParseFactory.extractLogEntryMapInParallel(in_filePathList, in_parseDefinition,
+                in_logEntryClass, in_parallelism));
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, a ParseDefinition,
+     * and a LogEntryClass it generates a LogDataObject containing all the data
+     * the log parser finds. Each file is parsed as a separate task of the
+     * given executor. The result is the same as when the files are parsed
+     * sequentially.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_logEntryClass
+     *        A log entry class that defines how the found data is to be
+     *        transformed
+     * @param in_executor
+     *        The executor in which the files are parsed
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A LogData Object containing the found entries from the logs
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry> LogData<T> generateLogDataInParallel(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, Class<T> in_logEntryClass, Executor in_executor)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return new LogData<>(StringParseFactory.extractLogEntryMapInParallel(in_filePathList, in_parseDefinition,
+                in_logEntryClass, in_executor));
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, and several
+     * ParseDefinitions it generates a LogDataObject for each ParseDefinition.
+     * The files are only read once, and each line is tested against every
+     * ParseDefinition. By default we create GenericEntries.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinitions
+     *        The ParseDefinitions defining the parsing rules
+     * @return The LogData Objects containing the entries of each
+     *         ParseDefinition, in the order of the given ParseDefinitions
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    public static List<LogData<GenericEntry>> generateLogDataForDefinitions(
+            List<String> in_filePathList, Collection<ParseDefinition> in_parseDefinitions)
+            throws InstantiationException, IllegalAccessException {
+
+        return generateLogDataForDefinitions(in_filePathList, in_parseDefinitions, GenericEntry.class);
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, several
+     * ParseDefinitions, and a LogEntryClass it generates a LogDataObject for
+     * each ParseDefinition. The files are only read once, and each line is
+     * tested against every ParseDefinition.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinitions
+     *        The ParseDefinitions defining the parsing rules
+     * @param in_logEntryClass
+     *        A log entry class that defines how the found data is to be
+     *        transformed
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return The LogData Objects containing the entries of each
+     *         ParseDefinition, in the order of the given ParseDefinitions
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    public static <T extends StdLogEntry> List<LogData<T>> generateLogDataForDefinitions(
+            List<String> in_filePathList, Collection<ParseDefinition> in_parseDefinitions,
+            Class<T> in_logEntryClass) throws InstantiationException, IllegalAccessException {
+
+        List<LogData<T>> lr_logDataList = new ArrayList<>();
+
+        for (Map<String, T> lt_entryMap : StringParseFactory.extractLogEntryMaps(in_filePathList,
+                in_parseDefinitions, in_logEntryClass)) {
+            lr_logDataList.add(new LogData<>(lt_entryMap));
+        }
+        return lr_logDataList;
+    }
+
+    /**
+     * A factory method for LogData, which parses growing log files
+     * incrementally. If the given checkpoint file exists, the LogData stored in
+     * it is restored, and only the bytes appended to the files since the
+     * checkpoint are parsed. Files that have been rotated since the checkpoint
+     * are parsed from the start. Only complete lines are parsed. The new state
+     * is then stored in the checkpoint file.
+     *
+     * The checkpoint is only used if it was created with the same
+     * ParseDefinition, including its keys and aggregated headers. Otherwise the
+     * files are parsed from the start. As the checkpoints do not store the
+     * aggregates of the entries, the files are also parsed from the start when
+     * the ParseDefinition has aggregated headers.
+     *
+     * The files are decoded with the default charset. Compressed files are
+     * not supported.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_checkpointFilePath
+     *        The path of the JSON file in which the checkpoint is stored
+     * @return A LogData Object containing the entries found since the first
+     *         checkpoint
+     * @throws InstantiationException
+     *         if the entries could not be instantiated
+     * @throws IllegalAccessException
+     *         if the entries could not be instantiated
+     * @throws LogDataImportExportException
+     *         when the checkpoint could not be read or written
+     *
+     */
+    public static LogData<GenericEntry> generateLogDataFromCheckpoint(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, String in_checkpointFilePath)
+            throws InstantiationException, IllegalAccessException, LogDataImportExportException {
+
+        final File l_checkpointFile = new File(in_checkpointFilePath);
+        ParseCheckpoint l_checkpoint = l_checkpointFile.exists() ? ParseCheckpoint.importCheckpoint(l_checkpointFile)
+                : null;
+
+        if (l_checkpoint != null && !l_checkpoint.isCreatedFor(in_parseDefinition)) {
+            log.warn("The checkpoint {} was created for another ParseDefinition. The files are parsed from the start.",
+                    in_checkpointFilePath);
+            l_checkpoint = null;
+        }
+
+        if (l_checkpoint != null && !in_parseDefinition.getAggregatedHeaders().isEmpty()) {
+            log.warn(
+                    "The checkpoint {} does not store the aggregates of the headers {}. The files are parsed from the start.",
+                    in_checkpointFilePath, in_parseDefinition.getAggregatedHeaders());
+            l_checkpoint = null;
+        }
+
+        LogData<GenericEntry> lr_logData = l_checkpoint == null ? new LogData<>() : l_checkpoint.fetchLogData();
+        final EntryMapUpdater<GenericEntry> l_updater = new EntryMapUpdater<>(in_parseDefinition.compile(),
+                lr_logData.getEntries(), GenericEntry.factory());
+        final ParseStatistics l_statistics = new ParseStatistics();
+        List<FilePosition> l_filePositions = new ArrayList<>();
+
+        for (String lt_filePath : in_filePathList) {
+            final FilePosition lt_filePosition = l_checkpoint == null ? new FilePosition(lt_filePath)
+                    : l_checkpoint.fetchFilePosition(lt_filePath);
+            l_filePositions.add(lt_filePosition);
+
+            try {
+                l_updater.updateWithAppendedLines(lt_filePosition, BufferedLineSource.DEFAULT_CHARSET, l_statistics);
+            } catch (NoSuchFileException e) {
+                log.error("The given file {} could not be found.", lt_filePath);
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", lt_filePath, e);
+            }
+        }
+
+        log.debug("Parsed {} new lines since the checkpoint {}.", l_statistics.getLinesRead(),
+                in_checkpointFilePath);
+
+        new ParseCheckpoint(in_parseDefinition, l_filePositions, lr_logData).exportCheckpoint(l_checkpointFile);
+
+        return lr_logData;
+    }
+
+    /**
+     * A factory method for ConcurrentLogData. Given a list of files, a
+     * ParseDefinition, and a LogEntryFactory it generates a ConcurrentLogData
+     * containing all the data the log parser finds. Each file is parsed as a
+     * separate task of the given executor, and all the tasks add their entries
+     * directly to the same ConcurrentLogData.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_executor
+     *        The executor in which the files are parsed
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A ConcurrentLogData Object containing the found entries from the
+     *         logs
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry> ConcurrentLogData<T> generateConcurrentLogData(
+            List<String> in_filePathList, ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory,
+            Executor in_executor) throws InstantiationException, IllegalAccessException, StringParseException {
+
+        ConcurrentLogData<T> lr_logData = new ConcurrentLogData<>();
+        List<CompletableFuture<Void>> l_tasks = new ArrayList<>();
+
+        for (String l_currentLogFile : in_filePathList) {
+            l_tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    lr_logData.addLogFiles(Arrays.asList(l_currentLogFile), in_parseDefinition, in_entryFactory);
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new CompletionException(e);
+                }
+            }, in_executor));
+        }
+
+        for (CompletableFuture<Void> lt_task : l_tasks) {
+            StringParseFactory.fetchPartialResult(lt_task);
+        }
+
+        return lr_logData;
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, a ParseDefinition,
+     * and a LogEntryClass it generates a LogDataObject containing all the data
+     * the log parser finds. Each file is split into line aligned chunks which
+     * are parsed in parallel in the given pool. The result is the same as when
+     * the files are parsed sequentially.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_logEntryClass
+     *        A log entry class that defines how the found data is to be
+     *        transformed
+     * @param in_pool
+     *        The pool in which the chunks are parsed
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A LogData Object containing the found entries from the logs
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry> LogData<T> generateLogDataInChunks(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, Class<T> in_logEntryClass, ForkJoinPool in_pool)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return new LogData<>(StringParseFactory.extractLogEntryMapInChunks(in_filePathList, in_parseDefinition,
+                in_logEntryClass, in_pool));
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, a ParseDefinition,
+     * and a LogEntryClass it generates a LogDataObject containing all the data
+     * the log parser finds. Each file is split into line aligned chunks of
+     * about the given size, which are parsed in parallel in the given pool.
+     * The result is the same as when the files are parsed sequentially.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_logEntryClass
+     *        A log entry class that defines how the found data is to be
+     *        transformed
+     * @param in_pool
+     *        The pool in which the chunks are parsed
+     * @param in_chunkSize
+     *        The approximate size of a chunk in bytes
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A LogData Object containing the found entries from the logs
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry> LogData<T> generateLogDataInChunks(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, Class<T> in_logEntryClass, ForkJoinPool in_pool,
+            long in_chunkSize, ParseStatistics in_statistics)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return new LogData<>(StringParseFactory.extractLogEntryMapInChunks(in_filePathList, in_parseDefinition,
+                in_logEntryClass, in_pool, in_chunkSize, BufferedLineSource.DEFAULT_CHARSET, in_statistics));
+    }
+
+    /**
+     * A factory method for LogData. Given a list of files, and a
+     * ParseDefinition, and a LogEntryClass it generates a LogDataObject
+     * containing all the data the log parser finds. The files are
+     * memory-mapped and parsed at the byte level. This is meant for very
+     * large files encoded with the default charset, as long as it encodes
+     * the ASCII characters as single bytes.
+     *
+     * Author : gandomi
+     *
+     * @param in_filePathList
+     *        A list of file paths containing log/generated data
+     * @param in_parseDefinition
+     *        A ParseDefinition Object defining the parsing rules
+     * @param in_logEntryClass
+     *        A log entry class that defines how the found data is to be
+     *        transformed
+     * @param <T>
+     *        The type of entry we want to be generated while parsing logs. The
+     *        type should be a child of {@link StdLogEntry}
+     * @return A LogData Object containing the found entries from the logs
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    public static <T extends StdLogEntry> LogData<T> generateLogDataFromMappedFiles(List<String> in_filePathList,
+            ParseDefinition in_parseDefinition, Class<T> in_logEntryClass)
+            throws InstantiationException, IllegalAccessException {
+
+        return new LogData<>(StringParseFactory.extractLogEntryMapFromMappedFiles(in_filePathList,
+                in_parseDefinition, in_logEntryClass));
+    }
+
     /**
      * A factory method for LogData. By default we create GenricEntries. Given a
      * list of files, and a ParseDefinition, it generates a LogDataObject
@@ -0,0 +1,368 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.adobe.campaign.tests.logparser.exceptions.LogDataImportExportException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Stores a LogData of {@link GenericEntry} in a compact binary file, and loads
+ * it back. The data is stored by column: each header has a dictionary of its
+ * distinct values, and each row only stores the codes of its values in those
+ * dictionaries. This makes the snapshot much smaller than a JSON or CSV export
+ * of the same data, and fast to reload.
+ *
+ * The file has the following layout (all numbers are big-endian):
+ * <ol>
+ * <li>The magic number "LPSS" and the version of the format</li>
+ * <li>The ParseDefinition, as a JSON document</li>
+ * <li>The headers</li>
+ * <li>For each header, the dictionary of its values</li>
+ * <li>The keys of the rows</li>
+ * <li>For each header, the codes of the values of each row</li>
+ * <li>The frequence of each row</li>
+ * </ol>
+ *
+ * A snapshot can be read in a single sequential read, or by mapping the file
+ * in memory. The snapshots do not store the aggregates of the entries (see
+ * {@link ParseDefinition#defineAggregates(java.util.List)}). A warning is logged when
+ * they are lost.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public final class LogDataSnapshot {
+
+    protected static Logger log = LogManager.getLogger();
+
+    static final int MAGIC = 0x4C505353; //LPSS
+    static final int VERSION = 1;
+
+    //Length stored for null values
+    private static final int NULL_LENGTH = -1;
+
+    private LogDataSnapshot() {
+    }
+
+    /**
+     * Writes the given LogData to a snapshot file. The aggregates of the
+     * entries are not stored.
+     *
+     * Author : gandomi
+     *
+     * @param in_logData
+     *        A LogData of GenericEntries
+     * @param in_parseDefinition
+     *        The ParseDefinition with which the data was created
+     * @param in_snapshotFile
+     *        The file in which the snapshot is stored
+     * @return The file containing the snapshot
+     * @throws LogDataImportExportException
+     *         when we face problems writing the file
+     *
+     */
+    public static File write(LogData<GenericEntry> in_logData, ParseDefinition in_parseDefinition,
+            File in_snapshotFile) throws LogDataImportExportException {
+        if (!in_parseDefinition.getAggregatedHeaders().isEmpty()
+                || in_logData.getEntries().values().stream().anyMatch(StdLogEntry::hasAggregates)) {
+            log.warn("The snapshot {} does not store the aggregates of the entries. They will not be restored.",
+                    in_snapshotFile.getPath());
+        }
+        return write(ColumnarLogData.from(in_parseDefinition, in_logData), in_snapshotFile);
+    }
+
+    /**
+     * Writes the given columnar log data to a snapshot file. The snapshot is
+     * first written to a temporary file, which then replaces the given file.
+     *
+     * Author : gandomi
+     *
+     * @param in_logData
+     *        A columnar log data
+     * @param in_snapshotFile
+     *        The file in which the snapshot is stored
+     * @return The file containing the snapshot
+     * @throws LogDataImportExportException
+     *         when we face problems writing the file
+     *
+     */
+    public static File write(ColumnarLogData in_logData, File in_snapshotFile) throws LogDataImportExportException {
+        ParseDefinitionFactory.createParents(in_snapshotFile);
+        final File l_temporaryFile = new File(in_snapshotFile.getPath() + ".tmp");
+
+        try (DataOutputStream l_output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(l_temporaryFile)))) {
+            writeContent(in_logData, l_output);
+        } catch (IOException e) {
+            throw new LogDataImportExportException(
+                    "Error while writing the snapshot to file " + in_snapshotFile.getPath(), e);
+        }
+
+        try {
+            Files.move(l_temporaryFile.toPath(), in_snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new LogDataImportExportException(
+                    "Error while writing the snapshot to file " + in_snapshotFile.getPath(), e);
+        }
+        return in_snapshotFile;
+    }
+
+    private static void writeContent(ColumnarLogData in_logData, DataOutputStream in_output) throws IOException {
+        in_output.writeInt(MAGIC);
+        in_output.writeInt(VERSION);
+
+        final byte[] l_definition = new ObjectMapper().writeValueAsBytes(in_logData.getParseDefinition());
+        in_output.writeInt(l_definition.length);
+        in_output.write(l_definition);
+
+        final String[] l_headers = in_logData.fetchColumnHeaders();
+        in_output.writeInt(l_headers.length);
+        for (String lt_header : l_headers) {
+            writeString(in_output, lt_header);
+        }
+
+        for (int i = 0; i < l_headers.length; i++) {
+            final ValueDictionary lt_dictionary = in_logData.fetchDictionary(i);
+            in_output.writeInt(lt_dictionary.size());
+            for (int lt_code = 0; lt_code < lt_dictionary.size(); lt_code++) {
+                final Object lt_value = lt_dictionary.decode(lt_code);
+                writeString(in_output, lt_value == null ? null : lt_value.toString());
+            }
+        }
+
+        final String[] l_keys = in_logData.fetchRowKeys();
+        in_output.writeInt(l_keys.length);
+        for (String lt_key : l_keys) {
+            writeString(in_output, lt_key);
+        }
+
+        for (int i = 0; i < l_headers.length; i++) {
+            for (int lt_row = 0; lt_row < l_keys.length; lt_row++) {
+                in_output.writeInt(in_logData.fetchCode(i, lt_row));
+            }
+        }
+
+        for (int lt_row = 0; lt_row < l_keys.length; lt_row++) {
+            in_output.writeLong(in_logData.fetchFrequence(lt_row));
+        }
+    }
+
+    private static void writeString(DataOutputStream in_output, String in_value) throws IOException {
+        if (in_value == null) {
+            in_output.writeInt(NULL_LENGTH);
+            return;
+        }
+        final byte[] l_bytes = in_value.getBytes(StandardCharsets.UTF_8);
+        in_output.writeInt(l_bytes.length);
+        in_output.write(l_bytes);
+    }
+
+    /**
+     * Loads the LogData stored in the given snapshot file. The file is loaded
+     * in a single sequential read.
+     *
+     * Author : gandomi
+     *
+     * @param in_snapshotFile
+     *        A file created by {@link #write(LogData, ParseDefinition, File)}
+     * @return The LogData stored in the snapshot
+     * @throws LogDataImportExportException
+     *         when the file can not be read, or is not a valid snapshot
+     *
+     */
+    public static LogData<GenericEntry> read(File in_snapshotFile) throws LogDataImportExportException {
+        return readColumnar(in_snapshotFile, false).toLogData();
+    }
+
+    /**
+     * Loads the LogData stored in the given snapshot file by mapping the file
+     * in memory
+     *
+     * Author : gandomi
+     *
+     * @param in_snapshotFile
+     *        A file created by {@link #write(LogData, ParseDefinition, File)}
+     * @return The LogData stored in the snapshot
+     * @throws LogDataImportExportException
+     *         when the file can not be read, or is not a valid snapshot
+     *
+     */
+    public static LogData<GenericEntry> readMapped(File in_snapshotFile) throws LogDataImportExportException {
+        return readColumnar(in_snapshotFile, true).toLogData();
+    }
+
+    /**
+     * Loads the data stored in the given snapshot file as a columnar log data
+     *
+     * Author : gandomi
+     *
+     * @param in_snapshotFile
+     *        A file created by {@link #write(LogData, ParseDefinition, File)}
+     * @param in_mapped
+     *        If true the file is mapped in memory. Otherwise it is loaded in a
+     *        single read
+     * @return The columnar log data stored in the snapshot
+     * @throws LogDataImportExportException
+     *         when the file can not be read, or is not a valid snapshot
+     *
+     */
+    public static ColumnarLogData readColumnar(File in_snapshotFile, boolean in_mapped)
+            throws LogDataImportExportException {
+        if (!in_snapshotFile.exists()) {
+            throw new LogDataImportExportException(
+                    "The provided snapshot file " + in_snapshotFile.getPath() + " does not exist.");
+        }
+
+        final ByteBuffer l_buffer;
+        try {
+            l_buffer = in_mapped ? mapFile(in_snapshotFile)
+                    : ByteBuffer.wrap(Files.readAllBytes(in_snapshotFile.toPath()));
+        } catch (IOException e) {
+            throw new LogDataImportExportException("Error when reading the snapshot file " + in_snapshotFile, e);
+        }
+
+        try {
+            return readContent(l_buffer);
+        } catch (BufferUnderflowException e) {
+            throw new LogDataImportExportException("The snapshot file " + in_snapshotFile + " is truncated.", e);
+        } catch (JsonProcessingException e) {
+            throw new LogDataImportExportException(
+                    "The parse definition in the snapshot file " + in_snapshotFile + " could not be read.", e);
+        } catch (IOException e) {
+            throw new LogDataImportExportException("The snapshot file " + in_snapshotFile + " is not valid.", e);
+        }
+    }
+
+    private static ByteBuffer mapFile(File in_snapshotFile) throws IOException {
+        try (FileChannel l_channel = FileChannel.open(in_snapshotFile.toPath(), StandardOpenOption.READ)) {
+            if (l_channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The snapshot file " + in_snapshotFile + " is too large to be mapped.");
+            }
+            //The mapping stays valid after the channel is closed
+            return l_channel.map(FileChannel.MapMode.READ_ONLY, 0, l_channel.size());
+        }
+    }
+
+    private static ColumnarLogData readContent(ByteBuffer in_buffer) throws IOException {
+        if (in_buffer.getInt() != MAGIC) {
+            throw new IOException("The file is not a log data snapshot.");
+        }
+
+        final int l_version = in_buffer.getInt();
+        if (l_version != VERSION) {
+            throw new IOException("The snapshot version " + l_version + " is not supported. Expected version "
+                    + VERSION + ".");
+        }
+
+        final byte[] l_definition = new byte[readLength(in_buffer)];
+        in_buffer.get(l_definition);
+        final ParseDefinition l_parseDefinition = new ObjectMapper().readValue(l_definition, ParseDefinition.class);
+        ColumnarLogData lr_logData = new ColumnarLogData(l_parseDefinition);
+
+        final String[] l_headers = lr_logData.fetchColumnHeaders();
+        final int l_headerCount = readLength(in_buffer);
+        if (l_headerCount != l_headers.length) {
+            throw new IOException("The snapshot contains " + l_headerCount
+                    + " headers, whereas its parse definition has " + l_headers.length + " headers.");
+        }
+        for (String lt_header : l_headers) {
+            final String lt_storedHeader = readString(in_buffer);
+            if (!lt_header.equals(lt_storedHeader)) {
+                throw new IOException("The header " + lt_storedHeader
+                        + " of the snapshot does not match the header " + lt_header + " of its parse definition.");
+            }
+        }
+
+        //The stored codes are translated to the codes of the new dictionaries
+        int[][] l_codeTranslations = new int[l_headers.length][];
+        for (int i = 0; i < l_headers.length; i++) {
+            final ValueDictionary lt_dictionary = lr_logData.fetchDictionary(i);
+            l_codeTranslations[i] = new int[readLength(in_buffer)];
+
+            for (int lt_code = 0; lt_code < l_codeTranslations[i].length; lt_code++) {
+                l_codeTranslations[i][lt_code] = lt_dictionary.encode(readString(in_buffer));
+            }
+        }
+
+        final String[] l_keys = new String[readLength(in_buffer)];
+        for (int lt_row = 0; lt_row < l_keys.length; lt_row++) {
+            l_keys[lt_row] = readString(in_buffer);
+        }
+
+        int[][] l_columns = new int[l_headers.length][l_keys.length];
+        for (int i = 0; i < l_headers.length; i++) {
+            for (int lt_row = 0; lt_row < l_keys.length; lt_row++) {
+                final int lt_code = in_buffer.getInt();
+                if (lt_code < 0 || lt_code >= l_codeTranslations[i].length) {
+                    throw new IOException("The code " + lt_code + " of the header " + l_headers[i]
+                            + " is not in its dictionary.");
+                }
+                l_columns[i][lt_row] = l_codeTranslations[i][lt_code];
+            }
+        }
+
+        final int[] l_rowCodes = new int[l_headers.length];
+        for (int lt_row = 0; lt_row < l_keys.length; lt_row++) {
+            for (int i = 0; i < l_headers.length; i++) {
+                l_rowCodes[i] = l_columns[i][lt_row];
+            }
+            lr_logData.addEncodedRow(l_keys[lt_row], l_rowCodes, in_buffer.getLong());
+        }
+
+        log.debug("Loaded {} entries from the snapshot.", l_keys.length);
+        return lr_logData;
+    }
+
+    private static int readLength(ByteBuffer in_buffer) throws IOException {
+        final int lr_length = in_buffer.getInt();
+        if (lr_length < 0 || lr_length > in_buffer.remaining()) {
+            throw new IOException("The length " + lr_length + " is not valid at position "
+                    + (in_buffer.position() - Integer.BYTES) + ".");
+        }
+        return lr_length;
+    }
+
+    private static String readString(ByteBuffer in_buffer) throws IOException {
+        final int l_length = in_buffer.getInt();
+        if (l_length == NULL_LENGTH) {
+            return null;
+        }
+        if (l_length < 0 || l_length > in_buffer.remaining()) {
+            throw new IOException("The string length " + l_length + " is not valid at position "
+                    + (in_buffer.position() - Integer.BYTES) + ".");
+        }
+
+        final byte[] l_bytes = new byte[l_length];
+        in_buffer.get(l_bytes);
+        return new String(l_bytes, StandardCharsets.UTF_8);
+    }
+
+}
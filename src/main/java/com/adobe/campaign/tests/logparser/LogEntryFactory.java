@@ -0,0 +1,156 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Creates the log entries in which the parsed values are stored. Using a
+ * factory instead of a class avoids creating the entries through reflection.
+ *
+ * A factory can also compute the key of an entry directly from the parsed
+ * values. This allows us to find an existing entry without creating a new one,
+ * which is what happens for most of the lines of a log file.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+@FunctionalInterface
+public interface LogEntryFactory<T extends StdLogEntry> {
+
+    /**
+     * Creates a new, empty, log entry
+     *
+     * Author : gandomi
+     *
+     * @return A new log entry
+     * @throws InstantiationException
+     *         if the entry could not be instantiated
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    T create() throws InstantiationException, IllegalAccessException;
+
+    /**
+     * Creates a new, empty, log entry for the given parse definition
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinition
+     *        The parse definition of the entry
+     * @return A new log entry
+     * @throws InstantiationException
+     *         if the entry could not be instantiated
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    default T create(ParseDefinition in_parseDefinition) throws InstantiationException, IllegalAccessException {
+        T lr_entry = create();
+        lr_entry.setParseDefinition(in_parseDefinition);
+        return lr_entry;
+    }
+
+    /**
+     * Computes the key of the entry that would be created for the given values.
+     * The key needs to be the same as the one returned by
+     * {@link StdLogEntry#makeKey()}. By default we return null, which means
+     * that the entry needs to be created in order to know its key.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinition
+     *        The parse definition of the entry
+     * @param in_values
+     *        The parsed values
+     * @return The key of the entry. null if the key can only be computed by
+     *         the entry
+     *
+     */
+    default String makeKey(ParseDefinition in_parseDefinition, Map<String, String> in_values) {
+        return null;
+    }
+
+    /**
+     * Lets us know if the keys of the entries only depend on the values of the
+     * key fields defined by {@link ParseDefinition#fetchKeyOrder()}. In that
+     * case, lines with the same key values can be matched to their entry
+     * without creating any String. By default we return false.
+     *
+     * Author : gandomi
+     *
+     * @return true if two entries with the same key values have the same key
+     *
+     */
+    default boolean isKeyMadeFromKeyValues() {
+        return false;
+    }
+
+    /**
+     * Creates a factory using the nullary constructor of the given class. For
+     * {@link GenericEntry} we return {@link GenericEntry#factory()}. A missing
+     * constructor, or an exception thrown by it, is reported as an
+     * {@link InstantiationException} when the entry is created.
+     *
+     * Author : gandomi
+     *
+     * @param in_classTarget
+     *        The class of the entries
+     * @param <T>
+     *        The type of the entries
+     * @return A factory for the given class
+     *
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends StdLogEntry> LogEntryFactory<T> fromClass(Class<T> in_classTarget) {
+        if (GenericEntry.class.equals(in_classTarget)) {
+            return (LogEntryFactory<T>) GenericEntry.factory();
+        }
+
+        return () -> {
+            try {
+                return in_classTarget.getDeclaredConstructor().newInstance();
+            } catch (NoSuchMethodException e) {
+                InstantiationException lr_exception = new InstantiationException(
+                        "The class " + in_classTarget.getName() + " has no nullary constructor.");
+                lr_exception.initCause(e);
+                throw lr_exception;
+            } catch (InvocationTargetException e) {
+                InstantiationException lr_exception = new InstantiationException(
+                        "The nullary constructor of " + in_classTarget.getName() + " threw an exception.");
+                lr_exception.initCause(e.getCause());
+                throw lr_exception;
+            }
+        };
+    }
+
+    /**
+     * Creates a factory from the given supplier
+     *
+     * Author : gandomi
+     *
+     * @param in_supplier
+     *        A supplier of new entries
+     * @param <T>
+     *        The type of the entries
+     * @return A factory using the given supplier
+     *
+     */
+    static <T extends StdLogEntry> LogEntryFactory<T> fromSupplier(Supplier<T> in_supplier) {
+        return in_supplier::get;
+    }
+
+}
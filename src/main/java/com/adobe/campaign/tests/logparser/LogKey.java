@@ -0,0 +1,113 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * A composite key made of the values of the key fields of an entry. Unlike the
+ * String keys, which are the values joined with the key padding, a LogKey does
+ * not need to be built by concatenation, and two different sets of values can
+ * not have the same key. The hash is computed once, when the key is created.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public final class LogKey {
+
+    private final Object[] values;
+    private final int hash;
+
+    /**
+     * Creates a key with the given values. The order of the values is
+     * significant.
+     *
+     * @param in_values
+     *        The values of the key fields
+     */
+    public LogKey(Object... in_values) {
+        this(in_values.clone(), Arrays.hashCode(in_values));
+    }
+
+    private LogKey(Object[] in_values, int in_hash) {
+        this.values = in_values;
+        this.hash = in_hash;
+    }
+
+    /**
+     * Creates a key using the given array as is. The array should not be
+     * changed afterwards.
+     *
+     * @param in_values
+     *        The values of the key fields
+     * @return A key for the given values
+     */
+    static LogKey wrap(Object[] in_values) {
+        return new LogKey(in_values, Arrays.hashCode(in_values));
+    }
+
+    /**
+     * @return The number of values in this key
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * @param in_index
+     *        The position of the value
+     * @return The value at the given position
+     */
+    public Object get(int in_index) {
+        return values[in_index];
+    }
+
+    /**
+     * Returns the String version of this key, i.e. the values joined by the
+     * given padding. This is the key used by {@link LogData}.
+     *
+     * Author : gandomi
+     *
+     * @param in_keyPadding
+     *        The padding between the values
+     * @return The values of the key joined by the padding
+     *
+     */
+    public String fetchKeyString(String in_keyPadding) {
+        return Arrays.stream(values).map(String::valueOf).collect(Collectors.joining(in_keyPadding));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        LogKey other = (LogKey) obj;
+        return hash == other.hash && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public String toString() {
+        return "LogKey " + Arrays.toString(values);
+    }
+
+}
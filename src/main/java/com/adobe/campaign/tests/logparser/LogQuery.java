@@ -0,0 +1,553 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A condition on the values of the entries of a {@link LogData}. Queries are
+ * created with the static methods of this class, and can be combined with
+ * {@link #and(LogQuery...)}, {@link #or(LogQuery...)} and
+ * {@link #not(LogQuery)}. They are evaluated with
+ * {@link LogData#filterBy(LogQuery)}.
+ *
+ * Before a query is evaluated, it is optimized: the nested ANDs and ORs are
+ * flattened, and their conditions are sorted so that the cheapest ones are
+ * checked first. The conditions on indexed headers are answered from the
+ * indexes, and only the resulting entries are checked against the full query.
+ *
+ * As in {@link StdLogEntry#matches(java.util.Map)}, an entry that does not have
+ * the header of a condition does not fulfill that condition.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public abstract class LogQuery {
+
+    //The relative costs of checking a condition on an entry
+    static final int COST_EQUALS = 1;
+    static final int COST_PREFIX = 2;
+    static final int COST_RANGE = 4;
+    static final int COST_REGEX = 16;
+
+    LogQuery() {
+    }
+
+    /**
+     * Creates a condition where the value of the header equals the given value
+     *
+     * @param in_header
+     *        The header of the value
+     * @param in_value
+     *        The expected value
+     * @return A query
+     */
+    public static LogQuery eq(String in_header, Object in_value) {
+        return new ValueCondition(in_header, "= " + in_value, COST_EQUALS, v -> Objects.equals(v, in_value),
+                in_value);
+    }
+
+    /**
+     * Creates a condition where the value of the header is one of the given
+     * values
+     *
+     * @param in_header
+     *        The header of the value
+     * @param in_values
+     *        The accepted values
+     * @return A query
+     */
+    public static LogQuery in(String in_header, Collection<?> in_values) {
+        final Set<Object> l_values = new HashSet<>(in_values);
+
+        return new ValueCondition(in_header, "IN " + in_values, COST_EQUALS, l_values::contains, null) {
+            @Override
+            RowBitmap fetchRows(EntryIndexes in_indexes) {
+                final ValueIndex l_index = in_indexes.fetchIndex(getHeader());
+                if (l_index == null) {
+                    return null;
+                }
+
+                RowBitmap lr_rows = new RowBitmap();
+                for (Object lt_value : l_values) {
+                    lr_rows = lr_rows.or(l_index.fetchRows(lt_value));
+                }
+                return lr_rows;
+            }
+        };
+    }
+
+    /**
+     * Creates a condition where the value of the header is one of the given
+     * values
+     *
+     * @param in_header
+     *        The header of the value
+     * @param in_values
+     *        The accepted values
+     * @return A query
+     */
+    public static LogQuery in(String in_header, Object... in_values) {
+        return in(in_header, Arrays.asList(in_values));
+    }
+
+    /**
+     * Creates a condition where the value of the header starts with the given
+     * prefix
+     *
+     * @param in_header
+     *        The header of the value
+     * @param in_prefix
+     *        The expected start of the value
+     * @return A query
+     */
+    public static LogQuery prefix(String in_header, String in_prefix) {
+        return new ValueCondition(in_header, "STARTS WITH " + in_prefix, COST_PREFIX,
+                v -> v != null && v.toString().startsWith(in_prefix), null);
+    }
+
+    /**
+     * Creates a condition where the value of the header is between the given
+     * bounds. The bounds are included, and a null bound means that the range
+     * is open on that side.
+     *
+     * When a bound is a {@link Number}, the values are compared as numbers,
+     * and values that are not numbers are not in the range. When a bound is a
+     * String, the values are compared as Strings. Otherwise the values need to
+     * be of the same class as the bounds.
+     *
+     * @param in_header
+     *        The header of the value
+     * @param in_min
+     *        The lowest accepted value. null for no lower bound
+     * @param in_max
+     *        The highest accepted value. null for no upper bound
+     * @return A query
+     */
+    public static LogQuery range(String in_header, Comparable<?> in_min, Comparable<?> in_max) {
+        return new ValueCondition(in_header, "IN [" + in_min + ", " + in_max + "]", COST_RANGE,
+                v -> isInRange(v, in_min, in_max), null);
+    }
+
+    /**
+     * Creates a condition where the value of the header matches the given
+     * regular expression. The whole value needs to match.
+     *
+     * @param in_header
+     *        The header of the value
+     * @param in_regex
+     *        A regular expression
+     * @return A query
+     */
+    public static LogQuery regex(String in_header, String in_regex) {
+        final Pattern l_pattern = Pattern.compile(in_regex);
+
+        return new ValueCondition(in_header, "MATCHES " + in_regex, COST_REGEX,
+                v -> v != null && l_pattern.matcher(v.toString()).matches(), null);
+    }
+
+    /**
+     * Creates a query fulfilled by the entries that do not fulfill the given
+     * query
+     *
+     * @param in_query
+     *        A query
+     * @return A query
+     */
+    public static LogQuery not(LogQuery in_query) {
+        return new Not(in_query);
+    }
+
+    /**
+     * Creates a query fulfilled by the entries fulfilling all the given
+     * queries
+     *
+     * @param in_queries
+     *        Some queries
+     * @return A query
+     */
+    public static LogQuery and(LogQuery... in_queries) {
+        return new Combination(true, Arrays.asList(in_queries));
+    }
+
+    /**
+     * Creates a query fulfilled by the entries fulfilling at least one of the
+     * given queries
+     *
+     * @param in_queries
+     *        Some queries
+     * @return A query
+     */
+    public static LogQuery or(LogQuery... in_queries) {
+        return new Combination(false, Arrays.asList(in_queries));
+    }
+
+    /**
+     * Lets us know if the given entry fulfills this query
+     *
+     * @param in_entry
+     *        A log entry
+     * @return true if the entry fulfills the query
+     */
+    public abstract boolean matches(StdLogEntry in_entry);
+
+    /**
+     * @return The relative cost of checking this query on an entry
+     */
+    abstract int fetchCost();
+
+    /**
+     * Adds the headers used by this query to the given set
+     *
+     * @param in_headers
+     *        The set of headers to fill
+     */
+    abstract void collectHeaders(Set<String> in_headers);
+
+    /**
+     * Returns the rows of the entries that may fulfill this query, using the
+     * given indexes. All the entries fulfilling the query are in the returned
+     * rows.
+     *
+     * @param in_indexes
+     *        The up to date indexes of a log data
+     * @return The candidate rows. null if the query can not be answered with
+     *         the indexes
+     */
+    abstract RowBitmap fetchRows(EntryIndexes in_indexes);
+
+    /**
+     * Creates an equivalent query that is cheaper to evaluate
+     *
+     * @return An optimized version of this query
+     */
+    LogQuery optimize() {
+        return this;
+    }
+
+    /**
+     * @return The headers used by this query
+     */
+    Set<String> fetchHeaders() {
+        Set<String> lr_headers = new HashSet<>();
+        collectHeaders(lr_headers);
+        return lr_headers;
+    }
+
+    private static boolean isInRange(Object in_value, Comparable<?> in_min, Comparable<?> in_max) {
+        final Integer l_minComparison = in_min == null ? Integer.valueOf(0) : compare(in_value, in_min);
+        final Integer l_maxComparison = in_max == null ? Integer.valueOf(0) : compare(in_value, in_max);
+
+        return l_minComparison != null && l_maxComparison != null && l_minComparison >= 0
+                && l_maxComparison <= 0;
+    }
+
+    /**
+     * Compares a value with a bound of a range
+     *
+     * @param in_value
+     *        The value of an entry
+     * @param in_bound
+     *        A bound of a range
+     * @return The result of the comparison. null if the value can not be
+     *         compared with the bound
+     */
+    private static Integer compare(Object in_value, Comparable<?> in_bound) {
+        if (in_value == null) {
+            return null;
+        }
+
+        if (in_bound instanceof Number) {
+            try {
+                return Double.compare(Double.parseDouble(in_value.toString()), ((Number) in_bound).doubleValue());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        if (in_bound instanceof String) {
+            return in_value.toString().compareTo((String) in_bound);
+        }
+
+        if (!in_bound.getClass().isInstance(in_value)) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        final Comparable<Object> l_value = (Comparable<Object>) in_value;
+        return l_value.compareTo(in_bound);
+    }
+
+    /**
+     * Whether a header is defined for the entries of a given class and parse
+     * definition
+     */
+    private static final class HeaderCheck {
+        private final Class<?> entryClass;
+        private final ParseDefinition parseDefinition;
+        private final boolean defined;
+
+        private HeaderCheck(StdLogEntry in_entry, boolean in_defined) {
+            this.entryClass = in_entry.getClass();
+            this.parseDefinition = in_entry.getParseDefinition();
+            this.defined = in_defined;
+        }
+
+        private boolean isFor(StdLogEntry in_entry) {
+            return entryClass == in_entry.getClass() && parseDefinition == in_entry.getParseDefinition();
+        }
+    }
+
+    /**
+     * A condition on the value of a single header
+     */
+    private static class ValueCondition extends LogQuery {
+        private final String header;
+        private final String description;
+        private final int cost;
+        private final Predicate<Object> valueCondition;
+        private final Object equalValue;
+
+        //The last checked kind of entry, and whether it defines the header
+        private volatile HeaderCheck headerCheck = null;
+
+        /**
+         * @param in_header
+         *        The header of the value
+         * @param in_description
+         *        The description of the condition, used in toString
+         * @param in_cost
+         *        The cost of the condition
+         * @param in_valueCondition
+         *        The condition on the value
+         * @param in_equalValue
+         *        For equality conditions, the expected value. Otherwise null
+         */
+        private ValueCondition(String in_header, String in_description, int in_cost,
+                Predicate<Object> in_valueCondition, Object in_equalValue) {
+            this.header = in_header;
+            this.description = in_description;
+            this.cost = in_cost;
+            this.valueCondition = in_valueCondition;
+            this.equalValue = in_equalValue;
+        }
+
+        String getHeader() {
+            return header;
+        }
+
+        @Override
+        public boolean matches(StdLogEntry in_entry) {
+            return isHeaderDefined(in_entry) && valueCondition.test(in_entry.get(header));
+        }
+
+        /**
+         * Lets us know if the header is defined for the given entry. The
+         * headers of an entry only depend on its class and its parse
+         * definition, so we only fetch them when one of these changes. A
+         * parse definition should not be changed while it is being queried.
+         *
+         * @param in_entry
+         *        A log entry
+         * @return true if the header is among the headers of the entry
+         */
+        private boolean isHeaderDefined(StdLogEntry in_entry) {
+            HeaderCheck l_check = headerCheck;
+
+            if (l_check == null || !l_check.isFor(in_entry)) {
+                l_check = new HeaderCheck(in_entry, in_entry.fetchHeaders().contains(header));
+                headerCheck = l_check;
+            }
+            return l_check.defined;
+        }
+
+        @Override
+        int fetchCost() {
+            return cost;
+        }
+
+        @Override
+        void collectHeaders(Set<String> in_headers) {
+            in_headers.add(header);
+        }
+
+        @Override
+        RowBitmap fetchRows(EntryIndexes in_indexes) {
+            final ValueIndex l_index = in_indexes.fetchIndex(header);
+            if (l_index == null) {
+                return null;
+            }
+
+            //An equality is a single lookup. Other conditions are checked on the distinct values
+            return equalValue != null ? l_index.fetchRows(equalValue) : l_index.fetchRows(valueCondition);
+        }
+
+        @Override
+        public String toString() {
+            return header + " " + description;
+        }
+    }
+
+    /**
+     * The negation of a query
+     */
+    private static final class Not extends LogQuery {
+        private final LogQuery query;
+
+        private Not(LogQuery in_query) {
+            this.query = in_query;
+        }
+
+        @Override
+        public boolean matches(StdLogEntry in_entry) {
+            return !query.matches(in_entry);
+        }
+
+        @Override
+        int fetchCost() {
+            return query.fetchCost();
+        }
+
+        @Override
+        void collectHeaders(Set<String> in_headers) {
+            query.collectHeaders(in_headers);
+        }
+
+        @Override
+        RowBitmap fetchRows(EntryIndexes in_indexes) {
+            //The complement of the rows would contain nearly all the entries
+            return null;
+        }
+
+        @Override
+        LogQuery optimize() {
+            if (query instanceof Not) {
+                return ((Not) query).query.optimize();
+            }
+            return new Not(query.optimize());
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + query;
+        }
+    }
+
+    /**
+     * An AND or an OR of several queries
+     */
+    private static final class Combination extends LogQuery {
+        private final boolean conjunction;
+        private final List<LogQuery> queries;
+
+        private Combination(boolean in_conjunction, List<LogQuery> in_queries) {
+            this.conjunction = in_conjunction;
+            this.queries = Collections.unmodifiableList(new ArrayList<>(in_queries));
+        }
+
+        @Override
+        public boolean matches(StdLogEntry in_entry) {
+            for (LogQuery lt_query : queries) {
+                if (lt_query.matches(in_entry) != conjunction) {
+                    return !conjunction;
+                }
+            }
+            return conjunction;
+        }
+
+        @Override
+        int fetchCost() {
+            return queries.stream().mapToInt(LogQuery::fetchCost).sum();
+        }
+
+        @Override
+        void collectHeaders(Set<String> in_headers) {
+            for (LogQuery lt_query : queries) {
+                lt_query.collectHeaders(in_headers);
+            }
+        }
+
+        @Override
+        RowBitmap fetchRows(EntryIndexes in_indexes) {
+            List<RowBitmap> l_bitmaps = new ArrayList<>();
+
+            for (LogQuery lt_query : queries) {
+                final RowBitmap lt_rows = lt_query.fetchRows(in_indexes);
+
+                if (lt_rows != null) {
+                    l_bitmaps.add(lt_rows);
+                } else if (!conjunction) {
+                    //The entries of this query could be anywhere
+                    return null;
+                }
+            }
+
+            if (l_bitmaps.isEmpty()) {
+                return conjunction ? null : new RowBitmap();
+            }
+
+            l_bitmaps.sort(Comparator.comparingInt(RowBitmap::cardinality));
+            RowBitmap lr_rows = l_bitmaps.get(0);
+            for (int i = 1; i < l_bitmaps.size(); i++) {
+                if (conjunction && lr_rows.cardinality() == 0) {
+                    break;
+                }
+                lr_rows = conjunction ? lr_rows.and(l_bitmaps.get(i)) : lr_rows.or(l_bitmaps.get(i));
+            }
+            return lr_rows;
+        }
+
+        @Override
+        LogQuery optimize() {
+            List<LogQuery> l_queries = new ArrayList<>();
+
+            for (LogQuery lt_query : queries) {
+                final LogQuery lt_optimized = lt_query.optimize();
+
+                //Nested combinations of the same kind are merged into this one
+                if (lt_optimized instanceof Combination
+                        && ((Combination) lt_optimized).conjunction == conjunction) {
+                    l_queries.addAll(((Combination) lt_optimized).queries);
+                } else {
+                    l_queries.add(lt_optimized);
+                }
+            }
+
+            if (l_queries.size() == 1) {
+                return l_queries.get(0);
+            }
+
+            //The cheapest queries are checked first, as they may be enough to decide
+            l_queries.sort(Comparator.comparingInt(LogQuery::fetchCost));
+            return new Combination(conjunction, l_queries);
+        }
+
+        @Override
+        public String toString() {
+            return queries.stream().map(LogQuery::toString)
+                    .collect(Collectors.joining(conjunction ? " AND " : " OR ", "(", ")"));
+        }
+    }
+
+}
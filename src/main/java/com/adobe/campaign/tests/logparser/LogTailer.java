@@ -0,0 +1,242 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Follows growing log files, and keeps a {@link LogData} up to date with their
+ * new lines. Each poll only reads the bytes appended since the previous poll,
+ * and only complete lines are parsed. A line that is still being written is
+ * parsed by a later poll.
+ *
+ * Rotations are detected by checking the identity (inode) and the size of the
+ * files. A rotated file is read from the start. Lines appended to the old file
+ * after the last poll are not read.
+ *
+ * The files are polled, either by calling {@link #poll()}, or periodically
+ * after calling {@link #start(long, TimeUnit)}. While the files are polled
+ * periodically, the entries should be read from a copy given by
+ * {@link #fetchSnapshot()}. The LogData given by {@link #getLogData()} should
+ * only be read between polls.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class LogTailer<T extends StdLogEntry> implements Closeable {
+    protected static Logger log = LogManager.getLogger();
+
+    private final ConcurrentLogData<T> logData = new ConcurrentLogData<>();
+    private final EntryMapUpdater<T> entryMapUpdater;
+    private final Charset charset;
+    private final List<FilePosition> filePositions = new ArrayList<>();
+    private final ParseStatistics statistics = new ParseStatistics();
+
+    private ScheduledExecutorService ownExecutor = null;
+    private ScheduledFuture<?> scheduledPoll = null;
+
+    /**
+     * Creates a tailer using the default charset
+     *
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     */
+    public LogTailer(ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory) {
+        this(in_parseDefinition, in_entryFactory, BufferedLineSource.DEFAULT_CHARSET);
+    }
+
+    /**
+     * Creates a tailer
+     *
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_charset
+     *        The charset of the files. The ASCII characters need to be encoded
+     *        as single bytes
+     */
+    public LogTailer(ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory, Charset in_charset) {
+        if (!ByteParsePlan.isASCIICompatible(in_charset)) {
+            throw new IllegalArgumentException("The charset " + in_charset
+                    + " is not supported for following files. Only charsets that encode ASCII characters as single bytes can be used.");
+        }
+
+        this.entryMapUpdater = new EntryMapUpdater<>(in_parseDefinition.compile(), logData.getEntries(),
+                in_entryFactory);
+        this.charset = in_charset;
+    }
+
+    /**
+     * Adds a file to follow. The existing contents of the file are parsed by
+     * the next poll.
+     *
+     * @param in_filePath
+     *        The path of the file
+     */
+    public synchronized void addFile(String in_filePath) {
+        filePositions.add(new FilePosition(in_filePath));
+    }
+
+    /**
+     * Returns the LogData which is updated by the polls. Like any
+     * {@link ConcurrentLogData}, it should only be queried once the polls
+     * adding entries have finished, i.e. between calls to {@link #poll()}. Use
+     * {@link #fetchSnapshot()} while the files are polled periodically.
+     *
+     * @return The LogData containing the entries found so far
+     */
+    public ConcurrentLogData<T> getLogData() {
+        return logData;
+    }
+
+    /**
+     * Creates a copy of the entries found so far. The copy is made between two
+     * polls, and is not changed by the following polls, so it can be queried
+     * while the files are polled periodically.
+     *
+     * Author : gandomi
+     *
+     * @return A LogData containing copies of the entries found so far
+     *
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized LogData<T> fetchSnapshot() {
+        LogData<T> lr_snapshot = new LogData<>();
+
+        for (T lt_entry : logData.getEntries().values()) {
+            lr_snapshot.addEntry((T) lt_entry.copy());
+        }
+        return lr_snapshot;
+    }
+
+    /**
+     * @return The number of lines read and skipped so far
+     */
+    public synchronized ParseStatistics getStatistics() {
+        ParseStatistics lr_statistics = new ParseStatistics();
+        lr_statistics.addStatistics(statistics);
+        return lr_statistics;
+    }
+
+    /**
+     * Reads the complete lines appended to the files since the previous poll,
+     * and adds them to the LogData. Files that do not exist are ignored until
+     * they are created.
+     *
+     * Author : gandomi
+     *
+     * @return The number of lines read by this poll
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    public synchronized long poll() throws InstantiationException, IllegalAccessException {
+        final long l_linesReadBefore = statistics.getLinesRead();
+
+        for (FilePosition lt_filePosition : filePositions) {
+            try {
+                entryMapUpdater.updateWithAppendedLines(lt_filePosition, charset, statistics);
+            } catch (NoSuchFileException e) {
+                log.debug("The file {} does not exist yet.", lt_filePosition.getFilePath());
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", lt_filePosition.getFilePath(), e);
+            }
+        }
+
+        return statistics.getLinesRead() - l_linesReadBefore;
+    }
+
+    /**
+     * Polls the files periodically in a separate daemon thread, until the
+     * tailer is closed
+     *
+     * @param in_period
+     *        The delay between the end of a poll and the start of the next one
+     * @param in_unit
+     *        The unit of the period
+     */
+    public synchronized void start(long in_period, TimeUnit in_unit) {
+        if (scheduledPoll != null) {
+            throw new IllegalStateException("The tailer has already been started.");
+        }
+
+        ownExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread lr_thread = new Thread(r, "log-parser-tailer");
+            lr_thread.setDaemon(true);
+            return lr_thread;
+        });
+        start(ownExecutor, in_period, in_unit);
+    }
+
+    /**
+     * Polls the files periodically in the given executor, until the tailer is
+     * closed. Errors of a poll are logged, and do not stop the following polls.
+     *
+     * @param in_executor
+     *        The executor in which the polls are done
+     * @param in_period
+     *        The delay between the end of a poll and the start of the next one
+     * @param in_unit
+     *        The unit of the period
+     */
+    public synchronized void start(ScheduledExecutorService in_executor, long in_period, TimeUnit in_unit) {
+        if (scheduledPoll != null) {
+            throw new IllegalStateException("The tailer has already been started.");
+        }
+
+        scheduledPoll = in_executor.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (InstantiationException | IllegalAccessException e) {
+                log.error("Error while creating the entries of the followed files.", e);
+            } catch (RuntimeException e) {
+                //An exception leaving the task would cancel all the following polls
+                log.error("Error while polling the followed files. Polling continues.", e);
+            }
+        }, 0, in_period, in_unit);
+    }
+
+    /**
+     * Stops the periodic polls
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduledPoll != null) {
+            scheduledPoll.cancel(false);
+            scheduledPoll = null;
+        }
+
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+            ownExecutor = null;
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Iterates over the lines of a file by memory-mapping it. The lines are not
+ * decoded, instead we give access to the mapped buffer, and to the start and
+ * end indexes of the current line in that buffer.
+ *
+ * Since a mapping cannot exceed 2GB, the file is mapped in windows. Each
+ * window ends at a line feed, so a line is never split between two windows.
+ * Lines are terminated by a line feed. A carriage return preceding the line
+ * feed is not included in the line.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+class MappedLineReader implements Closeable {
+
+    /**
+     * The default size of the mapped windows in bytes
+     */
+    static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    private static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer buffer;
+    private long windowPosition = 0;
+    private int windowLimit = 0;
+    private int cursor = 0;
+
+    private int lineStart;
+    private int lineEnd;
+
+    /**
+     * Opens the given file for reading
+     *
+     * @param in_filePath
+     *        The path of the file
+     * @param in_windowSize
+     *        The size of the mapped windows. Windows are enlarged if a line is
+     *        longer than this size
+     * @throws IOException
+     *         When the file could not be opened. A FileNotFoundException is
+     *         thrown if the file does not exist
+     */
+    MappedLineReader(String in_filePath, int in_windowSize) throws IOException {
+        if (in_windowSize <= 0) {
+            throw new IllegalArgumentException("The window size needs to be a positive number.");
+        }
+
+        final Path l_path = Paths.get(in_filePath);
+        if (!Files.isRegularFile(l_path)) {
+            throw new FileNotFoundException("The file " + in_filePath + " could not be found.");
+        }
+
+        this.channel = FileChannel.open(l_path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = in_windowSize;
+    }
+
+    /**
+     * Moves to the next line of the file
+     *
+     * @return false if there are no more lines
+     * @throws IOException
+     *         When the file could not be mapped
+     */
+    boolean nextLine() throws IOException {
+        while (cursor >= windowLimit) {
+            final long l_nextPosition = windowPosition + cursor;
+
+            if (l_nextPosition >= fileSize) {
+                return false;
+            }
+            mapWindow(l_nextPosition);
+        }
+
+        lineStart = cursor;
+        int l_index = cursor;
+        while (l_index < windowLimit && buffer.get(l_index) != '\n') {
+            l_index++;
+        }
+
+        cursor = l_index + 1;
+        lineEnd = (l_index > lineStart && buffer.get(l_index - 1) == '\r') ? l_index - 1 : l_index;
+        return true;
+    }
+
+    /**
+     * @return The buffer containing the current line
+     */
+    MappedByteBuffer fetchBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return The index of the first byte of the current line in the buffer
+     */
+    int fetchLineStart() {
+        return lineStart;
+    }
+
+    /**
+     * @return The index following the last byte of the current line in the
+     *         buffer
+     */
+    int fetchLineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Maps a window of the file, starting at the given position, and ending
+     * with the last line feed of the window.
+     *
+     * @param in_position
+     *        The position in the file from which we map
+     * @throws IOException
+     *         When the file could not be mapped
+     */
+    private void mapWindow(long in_position) throws IOException {
+        long l_size = Math.min(windowSize, fileSize - in_position);
+
+        while (true) {
+            buffer = channel.map(MapMode.READ_ONLY, in_position, l_size);
+
+            if (in_position + l_size == fileSize) {
+                windowLimit = (int) l_size;
+                break;
+            }
+
+            int l_lastLineFeed = (int) l_size - 1;
+            while (l_lastLineFeed >= 0 && buffer.get(l_lastLineFeed) != '\n') {
+                l_lastLineFeed--;
+            }
+
+            if (l_lastLineFeed >= 0) {
+                windowLimit = l_lastLineFeed + 1;
+                break;
+            }
+
+            if (l_size >= MAX_WINDOW_SIZE) {
+                throw new IOException("The line at position " + in_position + " is longer than "
+                        + MAX_WINDOW_SIZE + " bytes, and cannot be mapped.");
+            }
+
+            //The line does not fit in the window
+            l_size = Math.min(Math.min(l_size * 2, MAX_WINDOW_SIZE), fileSize - in_position);
+        }
+
+        windowPosition = in_position;
+        cursor = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
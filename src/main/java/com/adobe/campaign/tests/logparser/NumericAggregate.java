@@ -0,0 +1,201 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+/**
+ * The aggregation of the numeric values of a header: their count, sum,
+ * minimum, maximum and average, as well as estimated percentiles. The
+ * percentiles are estimated with a sketch with a relative accuracy of 1%.
+ * Aggregates can be merged, so that the aggregates of parallel partitions, or
+ * of grouped entries, can be combined.
+ *
+ * This class is not thread safe. The aggregates of a {@link StdLogEntry} are
+ * updated while holding the lock of the entry.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public final class NumericAggregate {
+
+    private long count = 0;
+    private double sum = 0;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private final PercentileSketch sketch = new PercentileSketch();
+
+    /**
+     * Adds a value to the aggregate
+     *
+     * Author : gandomi
+     *
+     * @param in_value
+     *        A value
+     *
+     */
+    public void add(double in_value) {
+        add(in_value, 1);
+    }
+
+    /**
+     * Adds a value several times to the aggregate. Values that are not finite,
+     * such as NaN or infinities, are ignored.
+     *
+     * Author : gandomi
+     *
+     * @param in_value
+     *        A value
+     * @param in_weight
+     *        The number of times the value is added
+     *
+     */
+    public void add(double in_value, long in_weight) {
+        if (in_weight <= 0 || !Double.isFinite(in_value)) {
+            return;
+        }
+
+        min = count == 0 ? in_value : Math.min(min, in_value);
+        max = count == 0 ? in_value : Math.max(max, in_value);
+        count += in_weight;
+        sum += in_value * in_weight;
+        sketch.add(in_value, in_weight);
+    }
+
+    /**
+     * Adds the values of the given aggregate to this one
+     *
+     * Author : gandomi
+     *
+     * @param in_other
+     *        Another aggregate
+     *
+     */
+    public void merge(NumericAggregate in_other) {
+        if (in_other.count == 0) {
+            return;
+        }
+
+        min = count == 0 ? in_other.min : Math.min(min, in_other.min);
+        max = count == 0 ? in_other.max : Math.max(max, in_other.max);
+        count += in_other.count;
+        sum += in_other.sum;
+        sketch.merge(in_other.sketch);
+    }
+
+    /**
+     * @return A copy of this aggregate
+     */
+    public NumericAggregate copy() {
+        NumericAggregate lr_copy = new NumericAggregate();
+        lr_copy.merge(this);
+        return lr_copy;
+    }
+
+    /**
+     * @return The number of aggregated values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The sum of the values
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return The smallest value. NaN if there are no values
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return The largest value. NaN if there are no values
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return The average of the values. NaN if there are no values
+     */
+    public double getAverage() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Estimates a percentile of the values. The estimation is within 1% of the
+     * exact value, and is never outside of the minimum and maximum.
+     *
+     * Author : gandomi
+     *
+     * @param in_percentile
+     *        A percentile between 0 and 100, for example 95 for the p95
+     * @return The estimated percentile. NaN if there are no values
+     *
+     */
+    public double fetchPercentile(double in_percentile) {
+        if (in_percentile < 0 || in_percentile > 100) {
+            throw new IllegalArgumentException(
+                    "The percentile " + in_percentile + " should be between 0 and 100.");
+        }
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        //The extremes are known exactly
+        if (in_percentile == 0) {
+            return min;
+        }
+        if (in_percentile == 100) {
+            return max;
+        }
+        return Math.max(min, Math.min(max, sketch.fetchQuantile(in_percentile / 100)));
+    }
+
+    /**
+     * Transforms a value into a finite number
+     *
+     * @param in_value
+     *        A number, or a String representing a number
+     * @return The number. null if the value is not a number, or if it is not
+     *         finite, like "Infinity" or "1e400"
+     */
+    static Double toNumber(Object in_value) {
+        if (in_value == null) {
+            return null;
+        }
+
+        double l_number;
+        if (in_value instanceof Number) {
+            l_number = ((Number) in_value).doubleValue();
+        } else {
+            try {
+                l_number = Double.parseDouble(in_value.toString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return Double.isFinite(l_number) ? l_number : null;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", avg=" + getAverage()
+                + ", p50=" + fetchPercentile(50) + ", p95=" + fetchPercentile(95) + ", p99=" + fetchPercentile(99);
+    }
+
+}
@@ -0,0 +1,186 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A view of a map which reports every change made through it. Reading the
+ * view reads the underlying map, and changing it changes the underlying map,
+ * after having called the given listener. This lets the indexes of a
+ * {@link LogData} know when the values they were built for may have changed.
+ *
+ *
+ * Author : gandomi
+ *
+ * @param <K>
+ *        The type of the keys
+ * @param <V>
+ *        The type of the values
+ */
+final class ObservedMap<K, V> extends AbstractMap<K, V> {
+
+    private final Supplier<Map<K, V>> delegate;
+    private final Runnable changeListener;
+
+    /**
+     * @param in_delegate
+     *        Gives the map we are viewing. It is called at each access, so the
+     *        viewed map can be replaced
+     * @param in_changeListener
+     *        Called before each change of the map
+     */
+    ObservedMap(Supplier<Map<K, V>> in_delegate, Runnable in_changeListener) {
+        this.delegate = in_delegate;
+        this.changeListener = in_changeListener;
+    }
+
+    @Override
+    public int size() {
+        return delegate.get().size();
+    }
+
+    @Override
+    public boolean containsKey(Object in_key) {
+        return delegate.get().containsKey(in_key);
+    }
+
+    @Override
+    public boolean containsValue(Object in_value) {
+        return delegate.get().containsValue(in_value);
+    }
+
+    @Override
+    public V get(Object in_key) {
+        return delegate.get().get(in_key);
+    }
+
+    @Override
+    public V put(K in_key, V in_value) {
+        changeListener.run();
+        return delegate.get().put(in_key, in_value);
+    }
+
+    @Override
+    public V remove(Object in_key) {
+        changeListener.run();
+        return delegate.get().remove(in_key);
+    }
+
+    @Override
+    public void clear() {
+        changeListener.run();
+        delegate.get().clear();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public int size() {
+                return delegate.get().size();
+            }
+
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                final Iterator<Entry<K, V>> l_iterator = delegate.get().entrySet().iterator();
+
+                return new Iterator<Entry<K, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return l_iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        return new ObservedEntry(l_iterator.next());
+                    }
+
+                    @Override
+                    public void remove() {
+                        changeListener.run();
+                        l_iterator.remove();
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object in_object) {
+        return delegate.get().equals(in_object);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.get().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.get().toString();
+    }
+
+    /**
+     * An entry of the viewed map, reporting the changes of its value
+     */
+    private final class ObservedEntry implements Entry<K, V> {
+
+        private final Entry<K, V> entry;
+
+        private ObservedEntry(Entry<K, V> in_entry) {
+            this.entry = in_entry;
+        }
+
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public V setValue(V in_value) {
+            changeListener.run();
+            return entry.setValue(in_value);
+        }
+
+        @Override
+        public boolean equals(Object in_object) {
+            if (!(in_object instanceof Map.Entry)) {
+                return false;
+            }
+            final Entry<?, ?> l_other = (Entry<?, ?>) in_object;
+            return Objects.equals(getKey(), l_other.getKey()) && Objects.equals(getValue(), l_other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+
+}
@@ -0,0 +1,302 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.adobe.campaign.tests.logparser.exceptions.LogDataImportExportException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The state of an incremental parsing of growing log files. A checkpoint
+ * contains the ParseDefinition, the position up to which each file was parsed,
+ * together with the identity (inode) and size of the file, and the entries
+ * found so far. A later parsing can then start from the stored positions, and
+ * only parse the bytes that were appended since.
+ *
+ * The aggregates of the entries are not stored. Definitions with aggregated
+ * headers are therefore always parsed from the start.
+ *
+ * Checkpoints are stored as JSON files. See
+ * {@link LogDataFactory#generateLogDataFromCheckpoint(List, ParseDefinition, String)}.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class ParseCheckpoint {
+
+    private ParseDefinition parseDefinition;
+    private List<FileState> files = new ArrayList<>();
+    private List<EntryState> entries = new ArrayList<>();
+
+    public ParseCheckpoint() {
+    }
+
+    /**
+     * Creates a checkpoint for the given state
+     *
+     * @param in_parseDefinition
+     *        The ParseDefinition used for parsing the files
+     * @param in_filePositions
+     *        The positions up to which the files were parsed
+     * @param in_logData
+     *        The entries found so far
+     */
+    ParseCheckpoint(ParseDefinition in_parseDefinition, List<FilePosition> in_filePositions,
+            LogData<GenericEntry> in_logData) {
+        this.parseDefinition = in_parseDefinition;
+
+        for (FilePosition lt_filePosition : in_filePositions) {
+            files.add(new FileState(lt_filePosition));
+        }
+
+        for (GenericEntry lt_entry : in_logData.getEntries().values()) {
+            entries.add(new EntryState(lt_entry));
+        }
+    }
+
+    public ParseDefinition getParseDefinition() {
+        return parseDefinition;
+    }
+
+    public void setParseDefinition(ParseDefinition parseDefinition) {
+        this.parseDefinition = parseDefinition;
+    }
+
+    public List<FileState> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<FileState> files) {
+        this.files = files;
+    }
+
+    public List<EntryState> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<EntryState> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Recreates the LogData stored in this checkpoint
+     *
+     * Author : gandomi
+     *
+     * @return A LogData with the stored entries and frequences
+     *
+     */
+    public LogData<GenericEntry> fetchLogData() {
+        LogData<GenericEntry> lr_logData = new LogData<>();
+
+        for (EntryState lt_entryState : entries) {
+            GenericEntry lt_entry = new GenericEntry(parseDefinition);
+            lt_entry.fetchValueMap().putAll(lt_entryState.getValues());
+            lt_entry.setFrequence(lt_entryState.getFrequence());
+            lr_logData.addEntry(lt_entry);
+        }
+        return lr_logData;
+    }
+
+    /**
+     * Lets us know if this checkpoint was created with the given
+     * ParseDefinition. Unlike {@link ParseDefinition#equals(Object)}, the
+     * whole serialized definitions are compared, including their keys and
+     * aggregated headers.
+     *
+     * Author : gandomi
+     *
+     * @param in_parseDefinition
+     *        A ParseDefinition
+     * @return true if the checkpoint was created with the same definition
+     *
+     */
+    boolean isCreatedFor(ParseDefinition in_parseDefinition) {
+        final ObjectMapper l_mapper = new ObjectMapper();
+
+        return l_mapper.valueToTree(in_parseDefinition).equals(l_mapper.valueToTree(parseDefinition));
+    }
+
+    /**
+     * Returns the position up to which the given file was parsed
+     *
+     * @param in_filePath
+     *        The path of a file
+     * @return The stored position. A position at the start of the file if the
+     *         file is not in the checkpoint
+     */
+    FilePosition fetchFilePosition(String in_filePath) {
+        for (FileState lt_fileState : files) {
+            if (lt_fileState.getFilePath().equals(in_filePath)) {
+                return new FilePosition(in_filePath, lt_fileState.getPosition(), lt_fileState.getFileKey());
+            }
+        }
+        return new FilePosition(in_filePath);
+    }
+
+    /**
+     * Imports a checkpoint from a JSON file
+     *
+     * Author : gandomi
+     *
+     * @param in_jsonFile
+     *        The file containing the checkpoint
+     * @return The checkpoint stored in the file
+     * @throws LogDataImportExportException
+     *         Whenever we encounter problem while reading the file
+     *
+     */
+    public static ParseCheckpoint importCheckpoint(File in_jsonFile) throws LogDataImportExportException {
+        if (!in_jsonFile.exists()) {
+            throw new LogDataImportExportException(
+                    "The provided checkpoint file " + in_jsonFile.getPath() + " does not exist.");
+        }
+
+        try {
+            return new ObjectMapper().readValue(in_jsonFile, ParseCheckpoint.class);
+        } catch (IOException e) {
+            throw new LogDataImportExportException("Error when importing the checkpoint file " + in_jsonFile, e);
+        }
+    }
+
+    /**
+     * Exports this checkpoint to a JSON file. The checkpoint is first written
+     * to a temporary file, which then replaces the given file. This way an
+     * interrupted export does not corrupt an existing checkpoint.
+     *
+     * Author : gandomi
+     *
+     * @param in_jsonFile
+     *        The file in which the checkpoint is stored
+     * @return The file containing the exported checkpoint
+     * @throws LogDataImportExportException
+     *         when we face problems managing the export
+     *
+     */
+    public File exportCheckpoint(File in_jsonFile) throws LogDataImportExportException {
+        ParseDefinitionFactory.createParents(in_jsonFile);
+        final File l_temporaryFile = new File(in_jsonFile.getPath() + ".tmp");
+
+        try {
+            new ObjectMapper().writeValue(l_temporaryFile, this);
+            Files.move(l_temporaryFile.toPath(), in_jsonFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new LogDataImportExportException(
+                    "Error while exporting the checkpoint to file " + in_jsonFile.getPath(), e);
+        }
+        return in_jsonFile;
+    }
+
+    /**
+     * The state of a parsed file
+     */
+    public static class FileState {
+        private String filePath;
+        private long position;
+        private String fileKey;
+        private long size;
+
+        public FileState() {
+        }
+
+        FileState(FilePosition in_filePosition) {
+            this.filePath = in_filePosition.getFilePath();
+            this.position = in_filePosition.getPosition();
+            this.fileKey = in_filePosition.getFileKey();
+            this.size = in_filePosition.getSize();
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public void setFilePath(String filePath) {
+            this.filePath = filePath;
+        }
+
+        /**
+         * @return The number of bytes of the file that were parsed
+         */
+        public long getPosition() {
+            return position;
+        }
+
+        public void setPosition(long position) {
+            this.position = position;
+        }
+
+        /**
+         * @return The identity (inode) of the file. null if unknown
+         */
+        public String getFileKey() {
+            return fileKey;
+        }
+
+        public void setFileKey(String fileKey) {
+            this.fileKey = fileKey;
+        }
+
+        /**
+         * @return The size of the file when it was last checked
+         */
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * The state of an entry
+     */
+    public static class EntryState {
+        private Map<String, Object> values = new HashMap<>();
+        private long frequence;
+
+        public EntryState() {
+        }
+
+        EntryState(StdLogEntry in_entry) {
+            this.values = new HashMap<>(in_entry.fetchValueMap());
+            this.frequence = in_entry.fetchFrequence();
+        }
+
+        public Map<String, Object> getValues() {
+            return values;
+        }
+
+        public void setValues(Map<String, Object> values) {
+            this.values = values;
+        }
+
+        public long getFrequence() {
+            return frequence;
+        }
+
+        public void setFrequence(long frequence) {
+            this.frequence = frequence;
+        }
+    }
+
+}
@@ -39,12 +39,17 @@ public class ParseDefinition {
     private List<ParseDefinitionEntry> definitionEntries;
     private String keyPadding = "#";
     private List<String> keyOrder;
+    private List<String> aggregatedHeaders;
     private String printOutPadding = ";";
 
+    //The plan used by the per line methods of StringParseFactory
+    private volatile CompiledParsePlan compiledPlan = null;
+
     public ParseDefinition() {
         super();
         definitionEntries = new ArrayList<>();
         keyOrder = new ArrayList<>();
+        aggregatedHeaders = new ArrayList<>();
     }
 
     /**
@@ -59,6 +64,7 @@ public class ParseDefinition {
         setTitle(in_title);
         definitionEntries = new ArrayList<>();
         keyOrder = new ArrayList<>();
+        aggregatedHeaders = new ArrayList<>();
     }
 
     public ParseDefinition(ParseDefinition in_oldParseDefinition) {
@@ -67,6 +73,7 @@ public class ParseDefinition {
         this.definitionEntries = in_oldParseDefinition.definitionEntries;
         this.keyPadding = in_oldParseDefinition.keyPadding;
         this.keyOrder = in_oldParseDefinition.keyOrder;
+        this.aggregatedHeaders = in_oldParseDefinition.aggregatedHeaders;
         this.printOutPadding = in_oldParseDefinition.printOutPadding;
     }
 
@@ -206,6 +213,50 @@ public class ParseDefinition {
 
     }
 
+    /**
+     * Defines the definition entries whose numeric values are aggregated. When
+     * several lines are stored in the same entry, the count, sum, minimum,
+     * maximum and percentiles of these values are kept in a
+     * {@link NumericAggregate} of the entry.
+     *
+     * Author : gandomi
+     *
+     * @param in_aggregatedDefinitions
+     *        A list of DefinitionEntries containing numeric values
+     *
+     */
+    public void defineAggregates(List<ParseDefinitionEntry> in_aggregatedDefinitions) {
+        if (in_aggregatedDefinitions.stream().anyMatch(e -> !e.isToPreserve())) {
+            throw new IllegalArgumentException(
+                    "One of the aggregated entries is flagged as 'not preserved' during log parsing, so this will not work.");
+        }
+
+        for (ParseDefinitionEntry lt_pdEntry : in_aggregatedDefinitions) {
+
+            if (getDefinitionEntries().contains(lt_pdEntry)) {
+                this.aggregatedHeaders.add(lt_pdEntry.getTitle());
+
+            } else {
+                throw new IllegalArgumentException("The definition entry with the title "
+                        + lt_pdEntry.getTitle() + " was not defined for this parse definition.");
+
+            }
+        }
+    }
+
+    /**
+     * Defines a definition entry whose numeric values are aggregated
+     *
+     * Author : gandomi
+     *
+     * @param in_aggregatedDefinition
+     *        A {@link ParseDefinitionEntry} containing numeric values
+     *
+     */
+    public void defineAggregates(ParseDefinitionEntry in_aggregatedDefinition) {
+        defineAggregates(Arrays.asList(in_aggregatedDefinition));
+    }
+
     @JsonIgnore
     public String getPrintOutPadding() {
         return printOutPadding;
@@ -232,10 +283,53 @@ public class ParseDefinition {
         return (Set<String>) l_definedHeaders;
     }
 
+    /**
+     * Compiles the current state of this definition into an immutable plan
+     * which allows us to check and parse a line in a single pass. Changes made
+     * to this definition after the compilation are not reflected in the plan.
+     *
+     * Author : gandomi
+     *
+     * @return A {@link CompiledParsePlan} for this parse definition
+     *
+     */
+    public CompiledParsePlan compile() {
+        return new CompiledParsePlan(this);
+    }
+
+    /**
+     * Returns a compiled plan of the current state of this definition. The
+     * plan is kept, and is only compiled again when the definition entries
+     * have changed since the last compilation. This is used by the methods
+     * that parse a single line, so that they do not compile the definition for
+     * every line.
+     *
+     * Author : gandomi
+     *
+     * @return A {@link CompiledParsePlan} reflecting the current entries
+     *
+     */
+    CompiledParsePlan fetchCompiledPlan() {
+        CompiledParsePlan lr_plan = compiledPlan;
+
+        if (lr_plan == null || !lr_plan.isCompiledFrom(getDefinitionEntries())) {
+            lr_plan = compile();
+            compiledPlan = lr_plan;
+        }
+        return lr_plan;
+    }
+
     /**
      * @return the keyOrder
      */
     public List<String> getKeyOrder() {
         return keyOrder;
     }
+
+    /**
+     * @return the titles of the entries whose values are aggregated
+     */
+    public List<String> getAggregatedHeaders() {
+        return aggregatedHeaders;
+    }
 }
@@ -30,6 +30,10 @@ public class ParseDefinitionEntry {
     private boolean trimQuotes = false;
     private boolean toPreserve = true;
 
+    //The lower case versions of the markers, used for case insensitive searches
+    private String startLowerCase;
+    private String endLowerCase;
+
     public ParseDefinitionEntry(String in_title) {
         this.title = in_title;
     }
@@ -42,6 +46,8 @@ public class ParseDefinitionEntry {
         this.title = in_oldDefinitionEntry.title;
         this.start = in_oldDefinitionEntry.start;
         this.end = in_oldDefinitionEntry.end;
+        this.startLowerCase = in_oldDefinitionEntry.startLowerCase;
+        this.endLowerCase = in_oldDefinitionEntry.endLowerCase;
         this.caseSensitive = in_oldDefinitionEntry.caseSensitive;
         this.trimQuotes = in_oldDefinitionEntry.trimQuotes;
         this.toPreserve = in_oldDefinitionEntry.toPreserve;
@@ -61,6 +67,7 @@ public class ParseDefinitionEntry {
 
     public void setStart(String start) {
         this.start = start;
+        this.startLowerCase = toLowerCase(start);
     }
 
     public String getEnd() {
@@ -81,6 +88,7 @@ public class ParseDefinitionEntry {
      */
     public void setEnd(String end) {
         this.end = end;
+        this.endLowerCase = toLowerCase(end);
     }
 
     /**
@@ -97,12 +105,33 @@ public class ParseDefinitionEntry {
      *
      */
     public int fetchStartPosition(String in_stringValue) {
+        return fetchStartPosition(in_stringValue, 0);
+    }
+
+    /**
+     * Provides the start position of the 'start' string in the given string,
+     * when searching from the given index. This allows us to parse a line by
+     * moving a cursor over it instead of creating substrings. This returns -1
+     * if there is no occurence of the start string.
+     *
+     * Author : gandomi
+     *
+     * @param in_stringValue
+     *        A string that is to be parsed using the current
+     *        ParseDenfinitionEntry
+     * @param in_fromIndex
+     *        The index from which we start searching
+     * @return the index following the first occurrence of the start string
+     *         after in_fromIndex, or -1 if there is no such occurrence.
+     *
+     */
+    protected int fetchStartPosition(String in_stringValue, int in_fromIndex) {
         if (isStartStartOfLine()) {
-            return 0;
+            return in_fromIndex;
         }
 
-        int l_startLocation = fetchAppliedSensitivity(in_stringValue)
-                .indexOf(fetchAppliedSensitivity(this.getStart()));
+        int l_startLocation = isCaseSensitive() ? in_stringValue.indexOf(this.getStart(), in_fromIndex)
+                : indexOfIgnoreCase(in_stringValue, startLowerCase, in_fromIndex);
 
         if (l_startLocation < 0) {
             return l_startLocation;
@@ -111,7 +140,8 @@ public class ParseDefinitionEntry {
             int lr_startPosition = l_startLocation + this.getStart().length();
 
             if (isTrimQuotes()) {
-                while (in_stringValue.indexOf('"', lr_startPosition) == lr_startPosition) {
+                while (lr_startPosition < in_stringValue.length()
+                        && in_stringValue.charAt(lr_startPosition) == '"') {
                     lr_startPosition++;
                 }
             }
@@ -137,12 +167,35 @@ public class ParseDefinitionEntry {
             return in_stringValue.length();
         }
 
-        int lr_endPosition = fetchAppliedSensitivity(in_stringValue)
-                .indexOf(fetchAppliedSensitivity(this.getEnd()), this.fetchStartPosition(in_stringValue));
+        return fetchEndPosition(in_stringValue, this.fetchStartPosition(in_stringValue));
+    }
+
+    /**
+     * Provides the end position of the 'end' string in the given string, when
+     * the start position has already been calculated. This avoids searching
+     * for the start string a second time.
+     *
+     * Author : gandomi
+     *
+     * @param in_stringValue
+     *        A string to look for, and for which we return the last index of
+     * @param in_startPosition
+     *        The start position as returned by
+     *        {@link #fetchStartPosition(String)}
+     * @return the index of the first occurrence of the specified substring, or
+     *         -1 if there is no such occurrence.
+     *
+     */
+    protected int fetchEndPosition(String in_stringValue, int in_startPosition) {
+        if (this.isEndEOL()) {
+            return in_stringValue.length();
+        }
+
+        int lr_endPosition = isCaseSensitive() ? in_stringValue.indexOf(this.getEnd(), in_startPosition)
+                : indexOfIgnoreCase(in_stringValue, endLowerCase, in_startPosition);
 
         if ((lr_endPosition >= 0) && isTrimQuotes()) {
-            while (in_stringValue.substring(this.fetchStartPosition(in_stringValue), lr_endPosition)
-                    .endsWith("\"")) {
+            while (lr_endPosition > in_startPosition && in_stringValue.charAt(lr_endPosition - 1) == '"') {
                 lr_endPosition--;
             }
         }
@@ -181,7 +234,7 @@ public class ParseDefinitionEntry {
      *
      */
     public void setEndEOL() {
-        end = null;
+        setEnd(null);
 
     }
 
@@ -225,6 +278,52 @@ public class ParseDefinitionEntry {
         return isCaseSensitive() ? in_string : in_string.toLowerCase();
     }
 
+    /**
+     * Searches for the given lower case string in the given string, ignoring
+     * the case of the characters. Unlike applying
+     * {@link #fetchAppliedSensitivity(String)} on the searched string, this
+     * does not create a lower case copy of the searched string.
+     *
+     * Author : gandomi
+     *
+     * @param in_string
+     *        The string in which we search
+     * @param in_lowerCaseSearch
+     *        The lower case string we are looking for
+     * @param in_fromIndex
+     *        The index from which to start the search
+     * @return the index of the first occurrence of the searched string, or -1
+     *         if there is no such occurrence.
+     *
+     */
+    static int indexOfIgnoreCase(String in_string, String in_lowerCaseSearch, int in_fromIndex) {
+        final int l_searchLength = in_lowerCaseSearch.length();
+        final int l_fromIndex = Math.max(in_fromIndex, 0);
+
+        if (l_searchLength == 0) {
+            return Math.min(l_fromIndex, in_string.length());
+        }
+
+        final char l_firstLower = in_lowerCaseSearch.charAt(0);
+        final char l_firstUpper = Character.toUpperCase(l_firstLower);
+        final int l_lastCandidate = in_string.length() - l_searchLength;
+
+        for (int i = l_fromIndex; i <= l_lastCandidate; i++) {
+            final char lt_char = in_string.charAt(i);
+
+            if ((lt_char == l_firstLower || lt_char == l_firstUpper
+                    || Character.toLowerCase(lt_char) == l_firstLower)
+                    && in_string.regionMatches(true, i, in_lowerCaseSearch, 0, l_searchLength)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String toLowerCase(String in_string) {
+        return in_string == null ? null : in_string.toLowerCase();
+    }
+
     /**
      * This method lets us know if the definition starts at the beginning of the
      * line
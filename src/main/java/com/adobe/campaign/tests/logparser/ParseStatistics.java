@@ -0,0 +1,84 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+/**
+ * Keeps track of the number of lines that were read and skipped while
+ * extracting the entries of log files. A line is skipped when it is not
+ * compliant with the parse definition.
+ *
+ * This class is not thread-safe. When the files are parsed in parallel, each
+ * task keeps its own statistics, which are then added to the final result.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class ParseStatistics {
+
+    private long linesRead = 0;
+    private long linesSkipped = 0;
+
+    /**
+     * @return The number of lines that were read
+     */
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    /**
+     * @return The number of lines that were not compliant with the parse
+     *         definition
+     */
+    public long getLinesSkipped() {
+        return linesSkipped;
+    }
+
+    /**
+     * @return The number of lines that were compliant with the parse
+     *         definition
+     */
+    public long getLinesParsed() {
+        return linesRead - linesSkipped;
+    }
+
+    /**
+     * Registers a line that was read
+     */
+    void incrementLinesRead() {
+        linesRead++;
+    }
+
+    /**
+     * Registers a line that was not compliant with the parse definition
+     */
+    void incrementLinesSkipped() {
+        linesSkipped++;
+    }
+
+    /**
+     * Adds the counts of the given statistics to these statistics
+     *
+     * @param in_statistics
+     *        The statistics of another extraction
+     */
+    void addStatistics(ParseStatistics in_statistics) {
+        linesRead += in_statistics.linesRead;
+        linesSkipped += in_statistics.linesSkipped;
+    }
+
+    @Override
+    public String toString() {
+        return "ParseStatistics [linesRead=" + linesRead + ", linesSkipped=" + linesSkipped + "]";
+    }
+
+}
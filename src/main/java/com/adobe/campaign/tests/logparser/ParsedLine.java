@@ -0,0 +1,134 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of parsing a line with a {@link CompiledParsePlan}. Instead of
+ * storing the values, we store the start and end offsets of each parse
+ * definition entry in the original line. A value is only transformed into a
+ * String when it is read.
+ *
+ * This class is a read-only map of the preserved values, so it can be used
+ * wherever the results of {@link StringParseFactory#parseString} are expected.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public final class ParsedLine extends AbstractMap<String, String> {
+
+    private final CompiledParsePlan parsePlan;
+    private final String line;
+    private final int[] offsets;
+    private final String[] values;
+
+    ParsedLine(CompiledParsePlan in_parsePlan, String in_line, int[] in_offsets) {
+        this.parsePlan = in_parsePlan;
+        this.line = in_line;
+        this.offsets = in_offsets;
+        this.values = new String[in_offsets.length / 2];
+    }
+
+    /**
+     * @return The line that was parsed
+     */
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * Returns the start offset, in the original line, of the value of the
+     * parse definition entry with the given index
+     *
+     * @param in_entryIndex
+     *        The index of the parse definition entry
+     * @return The start offset of the value
+     */
+    public int fetchStartOffset(int in_entryIndex) {
+        return offsets[in_entryIndex * 2];
+    }
+
+    /**
+     * Returns the end offset, in the original line, of the value of the parse
+     * definition entry with the given index
+     *
+     * @param in_entryIndex
+     *        The index of the parse definition entry
+     * @return The end offset (exclusive) of the value
+     */
+    public int fetchEndOffset(int in_entryIndex) {
+        return offsets[in_entryIndex * 2 + 1];
+    }
+
+    /**
+     * Returns the trimmed value of the parse definition entry with the given
+     * index. The String is only created the first time it is requested.
+     *
+     * Author : gandomi
+     *
+     * @param in_entryIndex
+     *        The index of the parse definition entry
+     * @return The value found for the entry
+     *
+     */
+    public String fetchValue(int in_entryIndex) {
+        if (values[in_entryIndex] == null) {
+            int l_start = fetchStartOffset(in_entryIndex);
+            int l_end = fetchEndOffset(in_entryIndex);
+
+            //Same behavior as String.trim() without the intermediate substring
+            while (l_start < l_end && line.charAt(l_start) <= ' ') {
+                l_start++;
+            }
+            while (l_end > l_start && line.charAt(l_end - 1) <= ' ') {
+                l_end--;
+            }
+
+            values[in_entryIndex] = line.substring(l_start, l_end);
+        }
+        return values[in_entryIndex];
+    }
+
+    @Override
+    public String get(Object in_title) {
+        final int l_index = parsePlan.fetchPreservedIndex(in_title);
+
+        return l_index < 0 ? null : fetchValue(l_index);
+    }
+
+    @Override
+    public boolean containsKey(Object in_title) {
+        return parsePlan.fetchPreservedIndex(in_title) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return parsePlan.fetchPreservedTitles().size();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Map<String, String> lr_values = new LinkedHashMap<>();
+
+        for (String lt_title : parsePlan.fetchPreservedTitles()) {
+            lr_values.put(lt_title, get(lt_title));
+        }
+        return Collections.unmodifiableMap(lr_values).entrySet();
+    }
+
+}
@@ -0,0 +1,192 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.Arrays;
+
+/**
+ * A mergeable sketch of a distribution of numbers, from which percentiles can
+ * be estimated. The values are counted in logarithmic buckets, as in a
+ * DDSketch: the bucket of a value v is ceil(log(v) / log(gamma)), where gamma
+ * is (1 + accuracy) / (1 - accuracy). Each bucket covers values within
+ * {@value #RELATIVE_ACCURACY} relative distance of its representative value,
+ * so the estimated percentiles have that relative accuracy whatever the range
+ * of the values. The size of the sketch only depends on that range, and two
+ * sketches are merged by adding their bucket counts.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class PercentileSketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    //Values closer to zero are counted as zero
+    private static final double MIN_INDEXABLE_VALUE = 1e-9;
+
+    private final BucketStore positiveBuckets = new BucketStore();
+    private final BucketStore negativeBuckets = new BucketStore();
+    private long zeroCount = 0;
+    private long count = 0;
+
+    /**
+     * Adds a value to the sketch
+     *
+     * @param in_value
+     *        A finite value
+     * @param in_weight
+     *        The number of times the value is added
+     * @throws IllegalArgumentException
+     *         if the value is not finite, as it has no bucket
+     */
+    void add(double in_value, long in_weight) {
+        if (!Double.isFinite(in_value)) {
+            throw new IllegalArgumentException("The value " + in_value + " can not be added to a sketch.");
+        }
+
+        if (in_value >= MIN_INDEXABLE_VALUE) {
+            positiveBuckets.add(fetchIndex(in_value), in_weight);
+        } else if (in_value <= -MIN_INDEXABLE_VALUE) {
+            negativeBuckets.add(fetchIndex(-in_value), in_weight);
+        } else {
+            zeroCount += in_weight;
+        }
+        count += in_weight;
+    }
+
+    /**
+     * Adds the values of the given sketch to this one
+     *
+     * @param in_other
+     *        Another sketch
+     */
+    void merge(PercentileSketch in_other) {
+        positiveBuckets.merge(in_other.positiveBuckets);
+        negativeBuckets.merge(in_other.negativeBuckets);
+        zeroCount += in_other.zeroCount;
+        count += in_other.count;
+    }
+
+    /**
+     * @return The number of values in the sketch
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Estimates the value below which the given fraction of the values are
+     *
+     * @param in_quantile
+     *        A number between 0 and 1
+     * @return The estimated value. NaN if the sketch is empty
+     */
+    double fetchQuantile(double in_quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        final long l_rank = (long) Math.floor(in_quantile * (count - 1));
+        long l_seen = 0;
+
+        //The negative values are read from the largest magnitude to the smallest
+        for (int i = negativeBuckets.fetchMaxIndex(); i >= negativeBuckets.fetchMinIndex(); i--) {
+            l_seen += negativeBuckets.fetchCount(i);
+            if (l_seen > l_rank) {
+                return -fetchValue(i);
+            }
+        }
+
+        l_seen += zeroCount;
+        if (l_seen > l_rank) {
+            return 0;
+        }
+
+        for (int i = positiveBuckets.fetchMinIndex(); i <= positiveBuckets.fetchMaxIndex(); i++) {
+            l_seen += positiveBuckets.fetchCount(i);
+            if (l_seen > l_rank) {
+                return fetchValue(i);
+            }
+        }
+        return fetchValue(positiveBuckets.fetchMaxIndex());
+    }
+
+    private static int fetchIndex(double in_value) {
+        return (int) Math.ceil(Math.log(in_value) / LOG_GAMMA);
+    }
+
+    /**
+     * @return The representative value of a bucket, which is within the
+     *         relative accuracy of all the values of the bucket
+     */
+    private static double fetchValue(int in_index) {
+        return 2 * Math.pow(GAMMA, in_index) / (GAMMA + 1);
+    }
+
+    /**
+     * The counts of contiguous bucket indexes
+     */
+    private static final class BucketStore {
+        private long[] counts = new long[0];
+        private int offset = 0;
+
+        private void add(int in_index, long in_weight) {
+            ensureIndex(in_index);
+            counts[in_index - offset] += in_weight;
+        }
+
+        private void merge(BucketStore in_other) {
+            if (in_other.counts.length == 0) {
+                return;
+            }
+            ensureIndex(in_other.offset);
+            ensureIndex(in_other.offset + in_other.counts.length - 1);
+
+            for (int i = 0; i < in_other.counts.length; i++) {
+                counts[in_other.offset + i - offset] += in_other.counts[i];
+            }
+        }
+
+        private void ensureIndex(int in_index) {
+            if (counts.length == 0) {
+                counts = new long[16];
+                offset = in_index - 8;
+            } else if (in_index < offset) {
+                final int l_shift = Math.max(offset - in_index, counts.length / 2);
+                long[] l_counts = new long[counts.length + l_shift];
+                System.arraycopy(counts, 0, l_counts, l_shift, counts.length);
+                counts = l_counts;
+                offset -= l_shift;
+            } else if (in_index >= offset + counts.length) {
+                counts = Arrays.copyOf(counts,
+                        Math.max(in_index - offset + 1, counts.length + counts.length / 2));
+            }
+        }
+
+        private int fetchMinIndex() {
+            return offset;
+        }
+
+        private int fetchMaxIndex() {
+            return offset + counts.length - 1;
+        }
+
+        private long fetchCount(int in_index) {
+            return counts[in_index - offset];
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An input stream that reads another stream in a separate thread. The blocks
+ * that are read are passed to the reader of this stream through a bounded
+ * queue. This allows the decompression of a file to be done at the same time
+ * as the parsing of its lines.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class PipelinedInputStream extends InputStream {
+
+    static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    static final int DEFAULT_QUEUE_SIZE = 4;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final InputStream source;
+    private final BlockingQueue<byte[]> blocks;
+    private final Thread readerThread;
+
+    //Any error of the reading thread, rethrown to the reader of this stream
+    private volatile Throwable readError = null;
+    private volatile boolean closed = false;
+
+    private byte[] currentBlock = null;
+    private int currentPosition = 0;
+
+    /**
+     * Starts reading the given stream in a separate thread
+     *
+     * @param in_source
+     *        The stream to read. It is closed when this stream is closed
+     * @param in_threadName
+     *        The name of the reading thread
+     * @param in_blockSize
+     *        The maximum size of the blocks that are read
+     * @param in_queueSize
+     *        The number of blocks that can be read in advance
+     */
+    PipelinedInputStream(InputStream in_source, String in_threadName, int in_blockSize, int in_queueSize) {
+        if (in_blockSize <= 0 || in_queueSize <= 0) {
+            throw new IllegalArgumentException("The block size and the queue size need to be positive numbers.");
+        }
+
+        this.source = in_source;
+        this.blocks = new ArrayBlockingQueue<>(in_queueSize);
+        this.readerThread = new Thread(() -> readSource(in_blockSize), in_threadName);
+        this.readerThread.setDaemon(true);
+        this.readerThread.start();
+    }
+
+    /**
+     * Reads the source into the queue until the end of the source is reached,
+     * or this stream is closed. Whatever happens, the end of the stream is
+     * queued, unless the stream has been closed, so that the reader never
+     * waits forever. Any error is recorded and rethrown to the reader.
+     *
+     * @param in_blockSize
+     *        The maximum size of the blocks that are read
+     */
+    private void readSource(int in_blockSize) {
+        try {
+            byte[] lt_buffer = new byte[in_blockSize];
+            int lt_read;
+            while (!closed && (lt_read = source.read(lt_buffer)) >= 0) {
+                if (lt_read > 0) {
+                    blocks.put(Arrays.copyOf(lt_buffer, lt_read));
+                }
+            }
+        } catch (InterruptedException e) {
+            //The stream has been closed
+        } catch (Throwable e) {
+            readError = e;
+        } finally {
+            if (!closed) {
+                try {
+                    blocks.put(END_OF_STREAM);
+                } catch (InterruptedException e) {
+                    //The stream has been closed
+                }
+            }
+        }
+    }
+
+    /**
+     * Fetches the block from which we are reading
+     *
+     * @return false if the end of the stream has been reached
+     * @throws IOException
+     *         When the source could not be read. Unchecked errors of the
+     *         reading thread are rethrown as they are
+     */
+    private boolean fetchCurrentBlock() throws IOException {
+        if (closed) {
+            throw new IOException("The stream has been closed.");
+        }
+
+        while (currentBlock == null || (currentBlock != END_OF_STREAM && currentPosition == currentBlock.length)) {
+            try {
+                currentBlock = blocks.take();
+                currentPosition = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the source to be read.");
+            }
+        }
+
+        if (currentBlock == END_OF_STREAM) {
+            if (readError instanceof IOException) {
+                throw (IOException) readError;
+            }
+            if (readError instanceof RuntimeException) {
+                throw (RuntimeException) readError;
+            }
+            if (readError instanceof Error) {
+                throw (Error) readError;
+            }
+            if (readError != null) {
+                throw new IOException("The source could not be read.", readError);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fetchCurrentBlock()) {
+            return -1;
+        }
+        return currentBlock[currentPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] in_bytes, int in_offset, int in_length) throws IOException {
+        if (in_length == 0) {
+            return 0;
+        }
+
+        if (!fetchCurrentBlock()) {
+            return -1;
+        }
+
+        final int lr_read = Math.min(in_length, currentBlock.length - currentPosition);
+        System.arraycopy(currentBlock, currentPosition, in_bytes, in_offset, lr_read);
+        currentPosition += lr_read;
+
+        return lr_read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        readerThread.interrupt();
+
+        try {
+            readerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        source.close();
+    }
+
+}
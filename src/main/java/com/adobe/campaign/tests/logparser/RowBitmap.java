@@ -0,0 +1,464 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A compressed set of row ids. The ids are split by their 16 high bits in
+ * containers. A container stores the 16 low bits of its ids in a sorted array
+ * while it is sparse, and in a bitmap of 2^16 bits once it contains more than
+ * {@value #ARRAY_LIMIT} ids. Intersections and unions are done container by
+ * container: sorted arrays are merged, and bitmaps are combined word by word.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class RowBitmap {
+
+    static final int ARRAY_LIMIT = 4096;
+
+    private static final int BITMAP_WORDS = (1 << 16) / Long.SIZE;
+
+    private int[] highKeys = new int[0];
+    private Container[] containers = new Container[0];
+    private int size = 0;
+
+    /**
+     * Adds the given row id to the set
+     *
+     * @param in_row
+     *        A positive row id
+     */
+    void add(int in_row) {
+        final int l_high = in_row >>> 16;
+        int l_index = Arrays.binarySearch(highKeys, 0, size, l_high);
+
+        if (l_index < 0) {
+            l_index = -l_index - 1;
+            if (size == highKeys.length) {
+                highKeys = Arrays.copyOf(highKeys, Math.max(4, size * 2));
+                containers = Arrays.copyOf(containers, highKeys.length);
+            }
+            System.arraycopy(highKeys, l_index, highKeys, l_index + 1, size - l_index);
+            System.arraycopy(containers, l_index, containers, l_index + 1, size - l_index);
+            highKeys[l_index] = l_high;
+            containers[l_index] = new ArrayContainer();
+            size++;
+        }
+        containers[l_index] = containers[l_index].add((char) in_row);
+    }
+
+    /**
+     * Removes the given row id from the set
+     *
+     * @param in_row
+     *        A positive row id
+     */
+    void remove(int in_row) {
+        final int l_index = Arrays.binarySearch(highKeys, 0, size, in_row >>> 16);
+
+        if (l_index < 0) {
+            return;
+        }
+
+        containers[l_index] = containers[l_index].remove((char) in_row);
+        if (containers[l_index].cardinality() == 0) {
+            System.arraycopy(highKeys, l_index + 1, highKeys, l_index, size - l_index - 1);
+            System.arraycopy(containers, l_index + 1, containers, l_index, size - l_index - 1);
+            size--;
+            containers[size] = null;
+        }
+    }
+
+    /**
+     * @param in_row
+     *        A row id
+     * @return true if the row id is in the set
+     */
+    boolean contains(int in_row) {
+        final int l_index = Arrays.binarySearch(highKeys, 0, size, in_row >>> 16);
+
+        return l_index >= 0 && containers[l_index].contains((char) in_row);
+    }
+
+    /**
+     * @return The number of row ids in the set
+     */
+    int cardinality() {
+        int lr_cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            lr_cardinality += containers[i].cardinality();
+        }
+        return lr_cardinality;
+    }
+
+    /**
+     * Creates the intersection of this set and the given set
+     *
+     * @param in_other
+     *        Another set of row ids
+     * @return A new set containing the row ids present in both sets
+     */
+    RowBitmap and(RowBitmap in_other) {
+        RowBitmap lr_result = new RowBitmap();
+        lr_result.highKeys = new int[Math.min(size, in_other.size)];
+        lr_result.containers = new Container[lr_result.highKeys.length];
+
+        int i = 0;
+        int j = 0;
+        while (i < size && j < in_other.size) {
+            if (highKeys[i] < in_other.highKeys[j]) {
+                i++;
+            } else if (highKeys[i] > in_other.highKeys[j]) {
+                j++;
+            } else {
+                final Container lt_intersection = containers[i].and(in_other.containers[j]);
+
+                if (lt_intersection.cardinality() > 0) {
+                    lr_result.highKeys[lr_result.size] = highKeys[i];
+                    lr_result.containers[lr_result.size++] = lt_intersection;
+                }
+                i++;
+                j++;
+            }
+        }
+        return lr_result;
+    }
+
+    /**
+     * Creates the union of this set and the given set
+     *
+     * @param in_other
+     *        Another set of row ids
+     * @return A new set containing the row ids present in at least one of the
+     *         sets
+     */
+    RowBitmap or(RowBitmap in_other) {
+        RowBitmap lr_result = new RowBitmap();
+        lr_result.highKeys = new int[size + in_other.size];
+        lr_result.containers = new Container[lr_result.highKeys.length];
+
+        int i = 0;
+        int j = 0;
+        while (i < size || j < in_other.size) {
+            if (j >= in_other.size || (i < size && highKeys[i] < in_other.highKeys[j])) {
+                lr_result.highKeys[lr_result.size] = highKeys[i];
+                lr_result.containers[lr_result.size++] = containers[i++].copy();
+            } else if (i >= size || highKeys[i] > in_other.highKeys[j]) {
+                lr_result.highKeys[lr_result.size] = in_other.highKeys[j];
+                lr_result.containers[lr_result.size++] = in_other.containers[j++].copy();
+            } else {
+                lr_result.highKeys[lr_result.size] = highKeys[i];
+                lr_result.containers[lr_result.size++] = containers[i++].or(in_other.containers[j++]);
+            }
+        }
+        return lr_result;
+    }
+
+    /**
+     * @return An iterator over the row ids, in increasing order
+     */
+    PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int containerIndex = -1;
+            private char[] lows = new char[0];
+            private int lowCount = 0;
+            private int lowIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (lowIndex >= lowCount) {
+                    if (++containerIndex >= size) {
+                        return false;
+                    }
+                    lows = containers[containerIndex].fetchLows();
+                    lowCount = containers[containerIndex].cardinality();
+                    lowIndex = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (highKeys[containerIndex] << 16) | lows[lowIndex++];
+            }
+        };
+    }
+
+    /**
+     * The ids sharing the same 16 high bits
+     */
+    private abstract static class Container {
+
+        abstract Container add(char in_low);
+
+        abstract Container remove(char in_low);
+
+        abstract boolean contains(char in_low);
+
+        abstract int cardinality();
+
+        abstract Container and(Container in_other);
+
+        abstract Container or(Container in_other);
+
+        abstract Container copy();
+
+        abstract char[] toArray();
+
+        /**
+         * @return The sorted low bits of the ids, in the first
+         *         {@link #cardinality()} cells of the array. The array may be
+         *         the storage of the container, and should not be modified
+         */
+        abstract char[] fetchLows();
+    }
+
+    /**
+     * A sparse container, storing the sorted low bits of its ids
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality = 0;
+
+        private ArrayContainer() {
+            this.values = new char[4];
+        }
+
+        private ArrayContainer(char[] in_values, int in_cardinality) {
+            this.values = in_values;
+            this.cardinality = in_cardinality;
+        }
+
+        @Override
+        Container add(char in_low) {
+            int l_index = Arrays.binarySearch(values, 0, cardinality, in_low);
+            if (l_index >= 0) {
+                return this;
+            }
+
+            if (cardinality >= ARRAY_LIMIT) {
+                return toBitmap().add(in_low);
+            }
+
+            l_index = -l_index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, l_index, values, l_index + 1, cardinality - l_index);
+            values[l_index] = in_low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char in_low) {
+            final int l_index = Arrays.binarySearch(values, 0, cardinality, in_low);
+            if (l_index >= 0) {
+                System.arraycopy(values, l_index + 1, values, l_index, cardinality - l_index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char in_low) {
+            return Arrays.binarySearch(values, 0, cardinality, in_low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container in_other) {
+            char[] l_values = new char[cardinality];
+            int l_cardinality = 0;
+
+            for (int i = 0; i < cardinality; i++) {
+                if (in_other.contains(values[i])) {
+                    l_values[l_cardinality++] = values[i];
+                }
+            }
+            return new ArrayContainer(l_values, l_cardinality);
+        }
+
+        @Override
+        Container or(Container in_other) {
+            if (in_other instanceof BitmapContainer) {
+                return in_other.or(this);
+            }
+
+            final ArrayContainer l_other = (ArrayContainer) in_other;
+            char[] l_values = new char[cardinality + l_other.cardinality];
+            int l_cardinality = 0;
+            int i = 0;
+            int j = 0;
+
+            while (i < cardinality && j < l_other.cardinality) {
+                if (values[i] < l_other.values[j]) {
+                    l_values[l_cardinality++] = values[i++];
+                } else if (values[i] > l_other.values[j]) {
+                    l_values[l_cardinality++] = l_other.values[j++];
+                } else {
+                    l_values[l_cardinality++] = values[i++];
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                l_values[l_cardinality++] = values[i++];
+            }
+            while (j < l_other.cardinality) {
+                l_values[l_cardinality++] = l_other.values[j++];
+            }
+
+            final ArrayContainer lr_result = new ArrayContainer(l_values, l_cardinality);
+            return l_cardinality > ARRAY_LIMIT ? lr_result.toBitmap() : lr_result;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(toArray(), cardinality);
+        }
+
+        @Override
+        char[] toArray() {
+            return Arrays.copyOf(values, cardinality);
+        }
+
+        @Override
+        char[] fetchLows() {
+            return values;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer lr_bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                lr_bitmap.add(values[i]);
+            }
+            return lr_bitmap;
+        }
+    }
+
+    /**
+     * A dense container, storing one bit per possible id
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality = 0;
+
+        @Override
+        Container add(char in_low) {
+            final long l_previous = words[in_low >>> 6];
+            words[in_low >>> 6] = l_previous | (1L << in_low);
+            if (l_previous != words[in_low >>> 6]) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char in_low) {
+            final long l_previous = words[in_low >>> 6];
+            words[in_low >>> 6] = l_previous & ~(1L << in_low);
+            if (l_previous != words[in_low >>> 6]) {
+                cardinality--;
+            }
+            return cardinality > ARRAY_LIMIT ? this : new ArrayContainer(toArray(), cardinality);
+        }
+
+        @Override
+        boolean contains(char in_low) {
+            return (words[in_low >>> 6] & (1L << in_low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container in_other) {
+            if (in_other instanceof ArrayContainer) {
+                return in_other.and(this);
+            }
+
+            final long[] l_otherWords = ((BitmapContainer) in_other).words;
+            BitmapContainer lr_result = new BitmapContainer();
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                lr_result.words[i] = words[i] & l_otherWords[i];
+                lr_result.cardinality += Long.bitCount(lr_result.words[i]);
+            }
+
+            return lr_result.cardinality > ARRAY_LIMIT ? lr_result
+                    : new ArrayContainer(lr_result.toArray(), lr_result.cardinality);
+        }
+
+        @Override
+        Container or(Container in_other) {
+            final BitmapContainer lr_result = (BitmapContainer) copy();
+
+            if (in_other instanceof ArrayContainer) {
+                final ArrayContainer l_other = (ArrayContainer) in_other;
+                for (int i = 0; i < l_other.cardinality; i++) {
+                    lr_result.add(l_other.values[i]);
+                }
+                return lr_result;
+            }
+
+            final long[] l_otherWords = ((BitmapContainer) in_other).words;
+            lr_result.cardinality = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                lr_result.words[i] |= l_otherWords[i];
+                lr_result.cardinality += Long.bitCount(lr_result.words[i]);
+            }
+            return lr_result;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer lr_copy = new BitmapContainer();
+            System.arraycopy(words, 0, lr_copy.words, 0, BITMAP_WORDS);
+            lr_copy.cardinality = cardinality;
+            return lr_copy;
+        }
+
+        @Override
+        char[] fetchLows() {
+            return toArray();
+        }
+
+        @Override
+        char[] toArray() {
+            char[] lr_values = new char[cardinality];
+            int l_index = 0;
+
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long lt_word = words[i];
+                while (lt_word != 0) {
+                    lr_values[l_index++] = (char) ((i << 6) + Long.numberOfTrailingZeros(lt_word));
+                    lt_word &= lt_word - 1;
+                }
+            }
+            return lr_values;
+        }
+    }
+
+}
@@ -12,11 +12,15 @@
 package com.adobe.campaign.tests.logparser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -32,18 +36,54 @@ import org.apache.logging.log4j.Logger;
  */
 public abstract class StdLogEntry {
     protected static Logger log = LogManager.getLogger();
-    
-    private Integer frequence = 1;
+
+    private static final AtomicLongFieldUpdater<StdLogEntry> FREQUENCE_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(StdLogEntry.class, "frequence");
+
+    /**
+     * The frequence is stored as a primitive long, and is updated atomically
+     * through {@link #FREQUENCE_UPDATER}. This allows parallel parsers to
+     * accumulate the frequence of a shared entry without locking it.
+     */
+    private volatile long frequence = 1;
     private ParseDefinition parseDefinition;
 
     Map<String, Object> valuesMap = new HashMap<>();
 
+    private static final AtomicLong[] NO_VALUE_VERSIONS = new AtomicLong[0];
+
+    /**
+     * The versions of the indexes containing this entry. A change of the
+     * values of this entry increments them, so that the indexes of a
+     * {@link LogData} know they are outdated. An entry that is not indexed has
+     * no versions to increment. The array is replaced, never modified.
+     */
+    private volatile AtomicLong[] valueVersions = NO_VALUE_VERSIONS;
+
+    //The aggregates of the numeric values, created when the first value is aggregated
+    private volatile Map<String, NumericAggregate> aggregates = null;
+
     protected static final String STD_DATA_KEY = "key";
 
     protected static final String STD_DATA_FREQUENCE = "frequence";
 
     public abstract String makeKey();
 
+    /**
+     * Creates the composite key of this entry, which is used by
+     * {@link KeyedLogData}. By default the key contains the String key
+     * returned by {@link #makeKey()}. Entries that are keyed by their values
+     * should override this method, and avoid creating the String key.
+     *
+     * Author : gandomi
+     *
+     * @return The composite key of this entry
+     *
+     */
+    public LogKey makeLogKey() {
+        return new LogKey(makeKey());
+    }
+
     public StdLogEntry(ParseDefinition in_definition) {
         this.parseDefinition = in_definition;
     }
@@ -53,6 +93,7 @@ public abstract class StdLogEntry {
         this.frequence = in_oldLogEntry.frequence;
         this.parseDefinition = in_oldLogEntry.parseDefinition;
         this.valuesMap = in_oldLogEntry.valuesMap;
+        this.mergeAggregates(in_oldLogEntry);
     }
 
     public StdLogEntry() {
@@ -89,7 +130,7 @@ public abstract class StdLogEntry {
 
             l_printOutList.add(l_valueMap.get(lt_header).toString());
         }
-        l_printOutList.add(getFrequence().toString());
+        l_printOutList.add(Long.toString(fetchFrequence()));
         return StringUtils.join(l_printOutList, this.getParseDefinition().getPrintOutPadding());
     }
 
@@ -129,7 +170,8 @@ public abstract class StdLogEntry {
     }
 
     /**
-     * Adds the usage of the current entry by the given value
+     * Adds the usage of the current entry by the given value. The addition is
+     * atomic, so it can be called by several threads on the same entry.
      *
      * Author : gandomi
      *
@@ -137,21 +179,64 @@ public abstract class StdLogEntry {
      *        The amount we should add to the frequence
      *
      */
-    public void addFrequence(int in_addedFrequence) {
-        frequence += in_addedFrequence;
+    public void addFrequence(long in_addedFrequence) {
+        FREQUENCE_UPDATER.addAndGet(this, in_addedFrequence);
 
     }
 
+    /**
+     * Adds the usage of the current entry by the given value. This method is
+     * kept for binary compatibility, and delegates to
+     * {@link #addFrequence(long)}.
+     *
+     * Author : gandomi
+     *
+     * @param in_addedFrequence
+     *        The amount we should add to the frequence
+     *
+     */
+    public void addFrequence(int in_addedFrequence) {
+        addFrequence((long) in_addedFrequence);
+    }
+
+    /**
+     * Returns the frequence as an Integer. This method is kept for
+     * compatibility. Use {@link #fetchFrequence()} for frequences that can
+     * exceed {@link Integer#MAX_VALUE}.
+     *
+     * @return The frequence of this entry
+     * @throws ArithmeticException
+     *         if the frequence does not fit in an int. Callers that used to
+     *         receive an overflowed value now get this exception
+     */
     public Integer getFrequence() {
+        return Math.toIntExact(frequence);
+    }
+
+    /**
+     * Author : gandomi
+     *
+     * @return The frequence of this entry
+     *
+     */
+    public long fetchFrequence() {
         return frequence;
     }
 
     /**
      * @param frequence
-     *        the frequence to set
+     *        the frequence to set. A null value is stored as 0
      */
     protected void setFrequence(Integer frequence) {
-        this.frequence = frequence;
+        setFrequence(frequence == null ? 0L : frequence.longValue());
+    }
+
+    /**
+     * @param in_frequence
+     *        the frequence to set
+     */
+    protected void setFrequence(long in_frequence) {
+        this.frequence = in_frequence;
     }
 
     /**
@@ -159,9 +244,38 @@ public abstract class StdLogEntry {
      *        the valuesMap to set
      */
     protected void setValuesMap(Map<String, Object> valuesMap) {
+        markValuesModified();
         this.valuesMap = valuesMap;
     }
 
+    /**
+     * Asks this entry to increment the given version whenever its values
+     * change. This is called by the indexes containing this entry.
+     *
+     * @param in_valueVersion
+     *        The version of the indexes of a log data
+     */
+    synchronized void watchValues(AtomicLong in_valueVersion) {
+        for (AtomicLong lt_version : valueVersions) {
+            if (lt_version == in_valueVersion) {
+                return;
+            }
+        }
+
+        AtomicLong[] l_versions = Arrays.copyOf(valueVersions, valueVersions.length + 1);
+        l_versions[valueVersions.length] = in_valueVersion;
+        valueVersions = l_versions;
+    }
+
+    /**
+     * Records that the values of this entry are being changed
+     */
+    void markValuesModified() {
+        for (AtomicLong lt_version : valueVersions) {
+            lt_version.incrementAndGet();
+        }
+    }
+
     public ParseDefinition getParseDefinition() {
         return parseDefinition;
     }
@@ -190,6 +304,7 @@ public abstract class StdLogEntry {
                     "You need to set the Parse Definition in order to fetch the values from the map.");
         }
 
+        markValuesModified();
         for (ParseDefinitionEntry lt_definition : getParseDefinition().getDefinitionEntries().stream()
                 .filter(ParseDefinitionEntry::isToPreserve).collect(Collectors.toList())) {
 
@@ -198,6 +313,131 @@ public abstract class StdLogEntry {
 
     }
 
+    /**
+     * Adds the values of the aggregated headers of the parse definition to the
+     * aggregates of this entry. Values that are not numbers are ignored.
+     *
+     * Author : gandomi
+     *
+     * @param in_valueMap
+     *        The values of a line, or of an entry
+     * @param in_weight
+     *        The number of times the values are added
+     *
+     */
+    public void addAggregatedValues(Map<String, ?> in_valueMap, long in_weight) {
+        if (getParseDefinition() == null || getParseDefinition().getAggregatedHeaders().isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            for (String lt_header : getParseDefinition().getAggregatedHeaders()) {
+                addAggregatedValue(lt_header, in_valueMap.get(lt_header), in_weight);
+            }
+        }
+    }
+
+    /**
+     * Adds the given value to the aggregate of the given header. Values that
+     * are not numbers are ignored.
+     *
+     * Author : gandomi
+     *
+     * @param in_header
+     *        The header of the value
+     * @param in_value
+     *        A number, or a String representing a number
+     * @param in_weight
+     *        The number of times the value is added
+     *
+     */
+    public synchronized void addAggregatedValue(String in_header, Object in_value, long in_weight) {
+        final Double l_number = NumericAggregate.toNumber(in_value);
+
+        if (l_number == null) {
+            log.debug("The value {} of {} is not a number, and is not aggregated.", in_value, in_header);
+            return;
+        }
+
+        if (aggregates == null) {
+            aggregates = new LinkedHashMap<>();
+        }
+        aggregates.computeIfAbsent(in_header, k -> new NumericAggregate()).add(l_number, in_weight);
+    }
+
+    /**
+     * Adds the aggregates of the given entry to the aggregates of this entry
+     *
+     * Author : gandomi
+     *
+     * @param in_otherEntry
+     *        Another entry
+     *
+     */
+    public void mergeAggregates(StdLogEntry in_otherEntry) {
+        if (in_otherEntry.aggregates == null) {
+            return;
+        }
+
+        for (Map.Entry<String, NumericAggregate> lt_aggregate : in_otherEntry.fetchAggregates().entrySet()) {
+            mergeAggregate(lt_aggregate.getKey(), lt_aggregate.getValue());
+        }
+    }
+
+    /**
+     * @return true if values were aggregated in this entry
+     */
+    boolean hasAggregates() {
+        return aggregates != null;
+    }
+
+    /**
+     * Adds the given aggregate to the aggregate of the given header
+     *
+     * @param in_header
+     *        The header of the aggregated values
+     * @param in_aggregate
+     *        An aggregate of values
+     */
+    synchronized void mergeAggregate(String in_header, NumericAggregate in_aggregate) {
+        if (aggregates == null) {
+            aggregates = new LinkedHashMap<>();
+        }
+        aggregates.computeIfAbsent(in_header, k -> new NumericAggregate()).merge(in_aggregate);
+    }
+
+    /**
+     * Author : gandomi
+     *
+     * @param in_header
+     *        A header whose values are aggregated
+     * @return A copy of the aggregate of the given header. null if no value
+     *         was aggregated for that header
+     *
+     */
+    public synchronized NumericAggregate fetchAggregate(String in_header) {
+        final NumericAggregate l_aggregate = aggregates == null ? null : aggregates.get(in_header);
+
+        return l_aggregate == null ? null : l_aggregate.copy();
+    }
+
+    /**
+     * Author : gandomi
+     *
+     * @return A copy of the aggregates of this entry, by header
+     *
+     */
+    public synchronized Map<String, NumericAggregate> fetchAggregates() {
+        Map<String, NumericAggregate> lr_aggregates = new LinkedHashMap<>();
+
+        if (aggregates != null) {
+            for (Map.Entry<String, NumericAggregate> lt_aggregate : aggregates.entrySet()) {
+                lr_aggregates.put(lt_aggregate.getKey(), lt_aggregate.getValue().copy());
+            }
+        }
+        return lr_aggregates;
+    }
+
     public void put(String in_dataTitle, String in_value) {
         this.fetchValueMap().put(in_dataTitle, in_value);
 
@@ -243,10 +483,7 @@ public abstract class StdLogEntry {
         if (getClass() != obj.getClass())
             return false;
         StdLogEntry other = (StdLogEntry) obj;
-        if (frequence == null) {
-            if (other.frequence != null)
-                return false;
-        } else if (!frequence.equals(other.frequence))
+        if (frequence != other.frequence)
             return false;
         if (parseDefinition == null) {
             if (other.parseDefinition != null)
@@ -11,14 +11,24 @@
  */
 package com.adobe.campaign.tests.logparser;
 
-import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -26,15 +36,733 @@ import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
 
 public class StringParseFactory {
 
-    protected static final Logger log = LogManager.getLogger();
+    protected static final Logger log = LogManager.getLogger();
+
+    private StringParseFactory() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMap(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return extractLogEntryMap(in_logFiles, in_parseDefinition, in_classTarget,
+                LineSourceFactory.defaultFactory());
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. The entries are created by the given factory
+     * instead of through reflection.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMap(
+            final V in_logFiles, ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return extractLogEntryMap(in_logFiles, in_parseDefinition, in_entryFactory,
+                LineSourceFactory.defaultFactory(), new ParseStatistics());
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. The files are read using the given
+     * {@link LineSourceFactory}
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMap(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget,
+            LineSourceFactory in_lineSourceFactory)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return extractLogEntryMap(in_logFiles, in_parseDefinition, in_classTarget, in_lineSourceFactory,
+                new ParseStatistics());
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. The files are read using the given
+     * {@link LineSourceFactory}, and the number of read and skipped lines are
+     * added to the given statistics.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMap(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget,
+            LineSourceFactory in_lineSourceFactory, ParseStatistics in_statistics)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return extractLogEntryMap(in_logFiles, in_parseDefinition, LogEntryFactory.fromClass(in_classTarget),
+                in_lineSourceFactory, in_statistics);
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. The files are read using the given
+     * {@link LineSourceFactory}, and the number of read and skipped lines are
+     * added to the given statistics.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMap(
+            final V in_logFiles, ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory,
+            LineSourceFactory in_lineSourceFactory, ParseStatistics in_statistics)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        if (in_logFiles.isEmpty()) {
+            log.warn(
+                    "The given list of log files 'in_logFiles' was empty. There will be no results available for the ParseDefinition '{}'",
+                    in_parseDefinition.getTitle());
+        }
+
+        Map<String, T> lr_entries = new HashMap<>();
+
+        updateEntryMapWithFiles(in_logFiles, in_parseDefinition.compile(), lr_entries, in_entryFactory,
+                in_lineSourceFactory, in_statistics);
+
+        return lr_entries;
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults for each of the given ParseDefinitions. Each line
+     * is only read once, and is tested against every ParseDefinition.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinitions
+     *        The ParseDefinitions which are applied to each line
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return The entry maps of the ParseDefinitions, in the order of the
+     *         given ParseDefinitions
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> List<Map<String, T>> extractLogEntryMaps(
+            final V in_logFiles, Collection<ParseDefinition> in_parseDefinitions, Class<T> in_classTarget)
+            throws InstantiationException, IllegalAccessException {
+
+        return extractLogEntryMaps(in_logFiles, in_parseDefinitions, LogEntryFactory.fromClass(in_classTarget),
+                LineSourceFactory.defaultFactory());
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults for each of the given ParseDefinitions. Each line
+     * is only read once, and is tested against every ParseDefinition. A line
+     * can be compliant with several ParseDefinitions.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinitions
+     *        The ParseDefinitions which are applied to each line
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return The entry maps of the ParseDefinitions, in the order of the
+     *         given ParseDefinitions. A ParseDefinition given twice gets two
+     *         entry maps
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> List<Map<String, T>> extractLogEntryMaps(
+            final V in_logFiles, Collection<ParseDefinition> in_parseDefinitions, LogEntryFactory<T> in_entryFactory,
+            LineSourceFactory in_lineSourceFactory) throws InstantiationException, IllegalAccessException {
+
+        if (in_logFiles.isEmpty()) {
+            log.warn(
+                    "The given list of log files 'in_logFiles' was empty. There will be no results available for the {} ParseDefinitions",
+                    in_parseDefinitions.size());
+        }
+
+        //The results are not keyed by ParseDefinition, as its equality ignores the keys and aggregates
+        List<Map<String, T>> lr_entryMaps = new ArrayList<>();
+        List<EntryMapUpdater<T>> l_updaters = new ArrayList<>();
+
+        for (ParseDefinition lt_parseDefinition : in_parseDefinitions) {
+            Map<String, T> lt_entries = new HashMap<>();
+            lr_entryMaps.add(lt_entries);
+            l_updaters.add(new EntryMapUpdater<>(lt_parseDefinition.compile(), lt_entries, in_entryFactory));
+        }
+
+        //Fetch File
+        for (String l_currentLogFile : in_logFiles) {
+
+            try (LineSource l_lineSource = in_lineSourceFactory.open(l_currentLogFile)) {
+
+                String lt_nextLine;
+                while ((lt_nextLine = l_lineSource.nextLine()) != null) {
+                    for (EntryMapUpdater<T> lt_updater : l_updaters) {
+                        lt_updater.updateWithLine(lt_nextLine);
+                    }
+                }
+
+            } catch (FileNotFoundException e) {
+                log.error("The given file {} could not be found.", l_currentLogFile);
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", l_currentLogFile, e);
+            }
+        }
+
+        return lr_entryMaps;
+    }
+
+    /**
+     * This method updates the given entry map with all the lines of the given
+     * log files. If the given map is a {@link ConcurrentMap}, several threads
+     * can update it at the same time.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parsePlan
+     *        The compiled parse definition
+     * @param in_entries
+     *        The map of String and StdLogEntries
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    static <T extends StdLogEntry> void updateEntryMapWithFiles(final Collection<String> in_logFiles,
+            CompiledParsePlan in_parsePlan, Map<String, T> in_entries, LogEntryFactory<T> in_entryFactory,
+            LineSourceFactory in_lineSourceFactory, ParseStatistics in_statistics)
+            throws InstantiationException, IllegalAccessException {
+
+        //Fetch File
+        for (String l_currentLogFile : in_logFiles) {
+
+            try (LineSource l_lineSource = in_lineSourceFactory.open(l_currentLogFile)) {
+
+                updateEntryMapWithLines(l_lineSource, in_parsePlan, in_entries, in_entryFactory, in_statistics);
+
+            } catch (FileNotFoundException e) {
+                log.error("The given file {} could not be found.", l_currentLogFile);
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", l_currentLogFile, e);
+            }
+        }
+    }
+
+    /**
+     * This method updates the given entry map with all the lines of the given
+     * line source
+     *
+     * Author : gandomi
+     *
+     * @param in_lineSource
+     *        The source of the lines to parse
+     * @param in_parsePlan
+     *        The compiled parse definition
+     * @param in_entries
+     *        The map of String and StdLogEntries
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @throws IOException
+     *         When the line source could not be read
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    static <T extends StdLogEntry> void updateEntryMapWithLines(LineSource in_lineSource,
+            CompiledParsePlan in_parsePlan, Map<String, T> in_entries, LogEntryFactory<T> in_entryFactory,
+            ParseStatistics in_statistics) throws IOException, InstantiationException, IllegalAccessException {
+
+        final EntryMapUpdater<T> l_updater = new EntryMapUpdater<>(in_parsePlan, in_entries, in_entryFactory);
+
+        String lt_nextLine;
+        while ((lt_nextLine = in_lineSource.nextLine()) != null) {
+
+            //Activate only if the log is not enough. Here we list each line we consider
+            //log.debug("{}  -  {}", in_statistics.getLinesRead(), lt_nextLine);
+            if (!l_updater.updateWithLine(lt_nextLine)) {
+                log.debug("Skipping line {} - {}", in_statistics.getLinesRead(), lt_nextLine);
+                in_statistics.incrementLinesSkipped();
+            }
+            in_statistics.incrementLinesRead();
+        }
+    }
+
+    /**
+     * This method transforms the contents of a list of log file into a
+     * {@link ColumnarLogData}. The values of the lines are stored directly in
+     * the columns, without creating any entry.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A ColumnarLogData containing the found entries
+     *
+     */
+    public static <V extends Collection<String>> ColumnarLogData extractColumnarLogData(final V in_logFiles,
+            ParseDefinition in_parseDefinition) {
+
+        return extractColumnarLogData(in_logFiles, in_parseDefinition, LineSourceFactory.defaultFactory(),
+                new ParseStatistics());
+    }
+
+    /**
+     * This method transforms the contents of a list of log file into a
+     * {@link ColumnarLogData}. The values of the lines are stored directly in
+     * the columns, without creating any entry. The files are read using the
+     * given {@link LineSourceFactory}, and the number of read and skipped lines
+     * are added to the given statistics.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_lineSourceFactory
+     *        The factory used for reading the lines of the log files
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A ColumnarLogData containing the found entries
+     *
+     */
+    public static <V extends Collection<String>> ColumnarLogData extractColumnarLogData(final V in_logFiles,
+            ParseDefinition in_parseDefinition, LineSourceFactory in_lineSourceFactory,
+            ParseStatistics in_statistics) {
+
+        if (in_logFiles.isEmpty()) {
+            log.warn(
+                    "The given list of log files 'in_logFiles' was empty. There will be no results available for the ParseDefinition '{}'",
+                    in_parseDefinition.getTitle());
+        }
+
+        ColumnarLogData lr_logData = new ColumnarLogData(in_parseDefinition);
+        final CompiledParsePlan l_parsePlan = in_parseDefinition.compile();
+
+        for (String l_currentLogFile : in_logFiles) {
+
+            try (LineSource l_lineSource = in_lineSourceFactory.open(l_currentLogFile)) {
+
+                String lt_nextLine;
+                while ((lt_nextLine = l_lineSource.nextLine()) != null) {
+
+                    final int[] lt_offsets = l_parsePlan.fetchOffsets(lt_nextLine);
+                    if (lt_offsets != null) {
+                        lr_logData.addParsedLine(l_parsePlan, lt_nextLine, lt_offsets);
+
+                    } else {
+                        log.debug("Skipping line {} - {}", in_statistics.getLinesRead(), lt_nextLine);
+                        in_statistics.incrementLinesSkipped();
+                    }
+                    in_statistics.incrementLinesRead();
+                }
+            } catch (FileNotFoundException e) {
+                log.error("The given file {} could not be found.", l_currentLogFile);
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", l_currentLogFile, e);
+            }
+        }
+
+        return lr_logData;
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. Each file is split into chunks of about
+     * {@value FileRangeLineSource#DEFAULT_CHUNK_SIZE} bytes, which are parsed
+     * in parallel in the given pool. The files are decoded using the default
+     * charset.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param in_pool
+     *        The pool in which the chunks are parsed
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapInChunks(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget,
+            ForkJoinPool in_pool) throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return extractLogEntryMapInChunks(in_logFiles, in_parseDefinition, in_classTarget, in_pool,
+                FileRangeLineSource.DEFAULT_CHUNK_SIZE, BufferedLineSource.DEFAULT_CHARSET, new ParseStatistics());
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. Each file is split into chunks of about the given
+     * size. The chunks always start at the beginning of a line. They are parsed
+     * in parallel in the given pool, and the results of the chunks are merged
+     * in the order of the file, so the results and the statistics are the
+     * same as when the files are parsed sequentially. Gzip compressed files
+     * can not be split, and are parsed as a single chunk.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param in_pool
+     *        The pool in which the chunks are parsed
+     * @param in_chunkSize
+     *        The approximate size of a chunk in bytes
+     * @param in_charset
+     *        The charset of the files. The ASCII characters need to be encoded
+     *        as single bytes
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapInChunks(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget,
+            ForkJoinPool in_pool, long in_chunkSize, Charset in_charset, ParseStatistics in_statistics)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return extractLogEntryMapInChunks(in_logFiles, in_parseDefinition,
+                LogEntryFactory.fromClass(in_classTarget), in_pool, in_chunkSize, in_charset, in_statistics);
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. Each file is split into chunks of about the given
+     * size. The chunks always start at the beginning of a line. They are parsed
+     * in parallel in the given pool, and the results of the chunks are merged
+     * in the order of the file, so the results and the statistics are the
+     * same as when the files are parsed sequentially.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_pool
+     *        The pool in which the chunks are parsed
+     * @param in_chunkSize
+     *        The approximate size of a chunk in bytes
+     * @param in_charset
+     *        The charset of the files. The ASCII characters need to be encoded
+     *        as single bytes
+     * @param in_statistics
+     *        The statistics to which the read and skipped lines are added
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapInChunks(
+            final V in_logFiles, ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory,
+            ForkJoinPool in_pool, long in_chunkSize, Charset in_charset, ParseStatistics in_statistics)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        if (!ByteParsePlan.isASCIICompatible(in_charset)) {
+            throw new IllegalArgumentException("The charset " + in_charset
+                    + " is not supported for splitting files. Only charsets that encode ASCII characters as single bytes can be used.");
+        }
+
+        if (in_logFiles.isEmpty()) {
+            log.warn(
+                    "The given list of log files 'in_logFiles' was empty. There will be no results available for the ParseDefinition '{}'",
+                    in_parseDefinition.getTitle());
+        }
+
+        final CompiledParsePlan l_parsePlan = in_parseDefinition.compile();
+        List<CompletableFuture<Map<String, T>>> l_partialResults = new ArrayList<>();
+        List<ParseStatistics> l_partialStatistics = new ArrayList<>();
+
+        for (String l_currentLogFile : in_logFiles) {
+            final long[] lt_boundaries;
+            final boolean lt_compressed;
+
+            try {
+                //Compressed files can not be split, so they are parsed as a single chunk
+                lt_compressed = CompressedFiles.fetchFormat(l_currentLogFile) != CompressedFiles.Format.NONE;
+                lt_boundaries = lt_compressed ? new long[] { 0, 0 }
+                        : FileRangeLineSource.fetchLineAlignedBoundaries(l_currentLogFile, in_chunkSize);
+            } catch (FileNotFoundException e) {
+                log.error("The given file {} could not be found.", l_currentLogFile);
+                continue;
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", l_currentLogFile, e);
+                continue;
+            }
+
+            for (int i = 0; i < lt_boundaries.length - 1; i++) {
+                final long lt_chunkStart = lt_boundaries[i];
+                final long lt_chunkEnd = lt_boundaries[i + 1];
+                final ParseStatistics lt_chunkStatistics = new ParseStatistics();
+
+                l_partialStatistics.add(lt_chunkStatistics);
+                l_partialResults.add(CompletableFuture.supplyAsync(() -> {
+                    Map<String, T> lr_chunkEntries = new HashMap<>();
+
+                    try (LineSource l_lineSource = lt_compressed
+                            ? new BufferedLineSource(CompressedFiles.open(l_currentLogFile), in_charset,
+                                    BufferedLineSource.DEFAULT_BUFFER_SIZE)
+                            : new FileRangeLineSource(l_currentLogFile, lt_chunkStart, lt_chunkEnd, in_charset,
+                                    BufferedLineSource.DEFAULT_BUFFER_SIZE)) {
+
+                        updateEntryMapWithLines(l_lineSource, l_parsePlan, lr_chunkEntries, in_entryFactory,
+                                lt_chunkStatistics);
+
+                    } catch (IOException e) {
+                        log.error("Error while reading the bytes {} to {} of the file {}.", lt_chunkStart,
+                                lt_chunkEnd, l_currentLogFile, e);
+                    } catch (InstantiationException | IllegalAccessException e) {
+                        throw new CompletionException(e);
+                    }
+                    return lr_chunkEntries;
+                }, in_pool));
+            }
+        }
+
+        Map<String, T> lr_entries = new HashMap<>();
+
+        for (int i = 0; i < l_partialResults.size(); i++) {
+            mergeEntryMaps(lr_entries, fetchPartialResult(l_partialResults.get(i)));
+            in_statistics.addStatistics(l_partialStatistics.get(i));
+        }
+
+        return lr_entries;
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. The files are parsed in parallel using the given
+     * number of threads. Each file is parsed into its own map, and the maps
+     * are merged in the order of the given files, so the results are the same
+     * as when the files are parsed sequentially.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param in_parallelism
+     *        The maximum number of files that are parsed at the same time
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapInParallel(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget, int in_parallelism)
+            throws InstantiationException, IllegalAccessException, StringParseException {
+
+        if (in_parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism needs to be a positive number.");
+        }
 
-    private StringParseFactory() {
-        throw new IllegalStateException("Utility class");
+        final ExecutorService l_executor = Executors
+                .newFixedThreadPool(Math.max(1, Math.min(in_parallelism, in_logFiles.size())));
+        try {
+            return extractLogEntryMapInParallel(in_logFiles, in_parseDefinition, in_classTarget, l_executor);
+        } finally {
+            l_executor.shutdown();
+        }
     }
 
     /**
      * This method transforms the contents of a list of log file and returns a
-     * map of LogEntryResults
+     * map of LogEntryResults. Each file is parsed as a separate task of the
+     * given executor. Each file is parsed into its own map, and the maps are
+     * merged in the order of the given files, so the results are the same as
+     * when the files are parsed sequentially.
      *
      * Author : gandomi
      *
@@ -44,6 +772,8 @@ public class StringParseFactory {
      *        The parsing rules as defined in the class ParseDefinition
      * @param in_classTarget
      *        The target class that will be storing the results
+     * @param in_executor
+     *        The executor in which the files are parsed
      * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
      * @param <V> The collection type with which we receive the parameter in_logFiles
      * @return A map of String and a Sub-class of {@link StdLogEntry}
@@ -58,9 +788,253 @@ public class StringParseFactory {
      *         When there are logical rules when parsing the given string
      *
      */
-    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMap(
-            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget)
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapInParallel(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget,
+            Executor in_executor) throws InstantiationException, IllegalAccessException, StringParseException {
+
+        return extractLogEntryMapInParallel(in_logFiles, in_parseDefinition,
+                LogEntryFactory.fromClass(in_classTarget), in_executor);
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. Each file is parsed as a separate task of the
+     * given executor. Each file is parsed into its own map, and the maps are
+     * merged in the order of the given files, so the results are the same as
+     * when the files are parsed sequentially.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_executor
+     *        The executor in which the files are parsed
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapInParallel(
+            final V in_logFiles, ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory,
+            Executor in_executor) throws InstantiationException, IllegalAccessException, StringParseException {
+
+        if (in_logFiles.isEmpty()) {
+            log.warn(
+                    "The given list of log files 'in_logFiles' was empty. There will be no results available for the ParseDefinition '{}'",
+                    in_parseDefinition.getTitle());
+        }
+
+        List<CompletableFuture<Map<String, T>>> l_partialResults = new ArrayList<>();
+
+        for (String l_currentLogFile : in_logFiles) {
+            l_partialResults.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return extractLogEntryMap(Arrays.asList(l_currentLogFile), in_parseDefinition,
+                            in_entryFactory);
+                } catch (InstantiationException | IllegalAccessException | StringParseException e) {
+                    throw new CompletionException(e);
+                }
+            }, in_executor));
+        }
+
+        Map<String, T> lr_entries = new HashMap<>();
+
+        for (CompletableFuture<Map<String, T>> lt_partialResult : l_partialResults) {
+            mergeEntryMaps(lr_entries, fetchPartialResult(lt_partialResult));
+        }
+
+        return lr_entries;
+    }
+
+    /**
+     * Waits for the given partial result, and rethrows the exception it may
+     * have thrown.
+     *
+     * @param in_partialResult
+     *        A future result
+     * @return The result
+     * @throws InstantiationException
+     *         if the entries could not be instantiated
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     * @throws StringParseException
+     *         When there are logical rules when parsing the given string
+     */
+    static <R> R fetchPartialResult(CompletableFuture<R> in_partialResult)
             throws InstantiationException, IllegalAccessException, StringParseException {
+        try {
+            return in_partialResult.join();
+        } catch (CompletionException e) {
+            final Throwable l_cause = e.getCause();
+
+            if (l_cause instanceof InstantiationException) {
+                throw (InstantiationException) l_cause;
+            }
+            if (l_cause instanceof IllegalAccessException) {
+                throw (IllegalAccessException) l_cause;
+            }
+            if (l_cause instanceof StringParseException) {
+                throw (StringParseException) l_cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Merges the entries of the source map into the target map. If an entry
+     * already exists in the target map we just increment its frequence, the
+     * same way as {@link LogData#addEntry(StdLogEntry)}.
+     *
+     * Author : gandomi
+     *
+     * @param in_targetEntries
+     *        The map into which the entries are merged
+     * @param in_sourceEntries
+     *        The map of entries to add
+     *
+     */
+    static <T extends StdLogEntry> void mergeEntryMaps(Map<String, T> in_targetEntries,
+            Map<String, T> in_sourceEntries) {
+
+        for (Map.Entry<String, T> lt_sourceEntry : in_sourceEntries.entrySet()) {
+            final T lt_existingEntry = in_targetEntries.get(lt_sourceEntry.getKey());
+
+            if (lt_existingEntry == null) {
+                in_targetEntries.put(lt_sourceEntry.getKey(), lt_sourceEntry.getValue());
+            } else {
+                lt_existingEntry.addFrequence(lt_sourceEntry.getValue().fetchFrequence());
+                lt_existingEntry.mergeAggregates(lt_sourceEntry.getValue());
+            }
+        }
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. Instead of decoding each line, the files are
+     * memory-mapped, and the start and end markers of the parse definition
+     * entries are searched as bytes. Only the values that are preserved are
+     * decoded. The files are decoded using the default charset.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapFromMappedFiles(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget)
+            throws InstantiationException, IllegalAccessException {
+
+        return extractLogEntryMapFromMappedFiles(in_logFiles, in_parseDefinition, in_classTarget,
+                BufferedLineSource.DEFAULT_CHARSET, MappedLineReader.DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. Instead of decoding each line, the files are
+     * memory-mapped, and the start and end markers of the parse definition
+     * entries are searched as bytes. Only the values that are preserved are
+     * decoded.
+     *
+     * The files are mapped in windows of the given size, which allows us to
+     * parse files that are larger than 2GB. Lines are terminated by a line
+     * feed. Gzip compressed files are not mapped. Their lines are read while
+     * they are decompressed.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @param in_charset
+     *        The charset of the files. It needs to encode ASCII characters as
+     *        single bytes, like UTF-8 or ISO-8859-1
+     * @param in_windowSize
+     *        The size in bytes of the mapped windows
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapFromMappedFiles(
+            final V in_logFiles, ParseDefinition in_parseDefinition, Class<T> in_classTarget, Charset in_charset,
+            int in_windowSize) throws InstantiationException, IllegalAccessException {
+
+        return extractLogEntryMapFromMappedFiles(in_logFiles, in_parseDefinition,
+                LogEntryFactory.fromClass(in_classTarget), in_charset, in_windowSize);
+    }
+
+    /**
+     * This method transforms the contents of a list of log file and returns a
+     * map of LogEntryResults. Instead of decoding each line, the files are
+     * memory-mapped, and the start and end markers of the parse definition
+     * entries are searched as bytes. Only the values that are preserved are
+     * decoded.
+     *
+     * The files are mapped in windows of the given size, which allows us to
+     * parse files that are larger than 2GB. Lines are terminated by a line
+     * feed.
+     *
+     * Author : gandomi
+     *
+     * @param in_logFiles
+     *        A collection of log file paths
+     * @param in_parseDefinition
+     *        The parsing rules as defined in the class ParseDefinition
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @param in_charset
+     *        The charset of the files. It needs to encode ASCII characters as
+     *        single bytes, like UTF-8 or ISO-8859-1
+     * @param in_windowSize
+     *        The size in bytes of the mapped windows
+     * @param <T> The type of data (subclass of {@link StdLogEntry}) we want to create and store
+     * @param <V> The collection type with which we receive the parameter in_logFiles
+     * @return A map of String and a Sub-class of {@link StdLogEntry}
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    public static <T extends StdLogEntry, V extends Collection<String>> Map<String, T> extractLogEntryMapFromMappedFiles(
+            final V in_logFiles, ParseDefinition in_parseDefinition, LogEntryFactory<T> in_entryFactory,
+            Charset in_charset,
+            int in_windowSize) throws InstantiationException, IllegalAccessException {
 
         if (in_logFiles.isEmpty()) {
             log.warn(
@@ -69,30 +1043,62 @@ public class StringParseFactory {
         }
 
         Map<String, T> lr_entries = new HashMap<>();
+        final CompiledParsePlan l_parsePlan = in_parseDefinition.compile();
+        final ByteParsePlan l_byteParsePlan = l_parsePlan.compileForBytes(in_charset);
         int i = 0;
 
-        //Fetch File
         for (String l_currentLogFile : in_logFiles) {
 
-            try (Scanner scanner = new Scanner(new File(l_currentLogFile))) {
+            try {
+                //Compressed files can not be mapped, so their lines are read from a decompressed stream
+                if (CompressedFiles.fetchFormat(l_currentLogFile) != CompressedFiles.Format.NONE) {
+                    try (LineSource l_lineSource = new BufferedLineSource(CompressedFiles.open(l_currentLogFile),
+                            in_charset, BufferedLineSource.DEFAULT_BUFFER_SIZE)) {
+                        updateEntryMapWithLines(l_lineSource, l_parsePlan, lr_entries, in_entryFactory,
+                                new ParseStatistics());
+                    }
+                    continue;
+                }
+            } catch (FileNotFoundException e) {
+                log.error("The given file {} could not be found.", l_currentLogFile);
+                continue;
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", l_currentLogFile, e);
+                continue;
+            }
+
+            try (MappedLineReader l_lineReader = new MappedLineReader(l_currentLogFile, in_windowSize)) {
 
-                while (scanner.hasNextLine()) {
+                while (l_lineReader.nextLine()) {
+                    final ByteBuffer lt_buffer = l_lineReader.fetchBuffer();
+                    final int lt_lineStart = l_lineReader.fetchLineStart();
+                    final int lt_lineEnd = l_lineReader.fetchLineEnd();
 
-                    final String lt_nextLine = scanner.nextLine();
-                    //Activate only if the log is not enough. Here we list each line we consider
-                    //log.debug("{}  -  {}", i, lt_nextLine);
-                    if (isStringCompliant(lt_nextLine, in_parseDefinition)) {
-                        updateEntryMapWithParsedData(lt_nextLine, in_parseDefinition, lr_entries,
-                                in_classTarget);
+                    Map<String, String> lt_lineResult = null;
+                    if (l_byteParsePlan.isByteParsable()) {
+                        final int[] lt_offsets = l_byteParsePlan.fetchOffsets(lt_buffer, lt_lineStart, lt_lineEnd);
 
+                        if (lt_offsets != null) {
+                            lt_lineResult = l_byteParsePlan.fetchValues(lt_buffer, lt_offsets);
+                        }
                     } else {
-                        log.debug("Skipping line {} - {}", i, lt_nextLine);
+                        lt_lineResult = l_parsePlan
+                                .parse(l_byteParsePlan.decode(lt_buffer, lt_lineStart, lt_lineEnd));
                     }
-                    i++;
 
+                    if (lt_lineResult != null) {
+                        updateEntryMapWithParsedData(lt_lineResult, in_parseDefinition, lr_entries,
+                                in_entryFactory);
+                    } else if (log.isDebugEnabled()) {
+                        log.debug("Skipping line {} - {}", i,
+                                l_byteParsePlan.decode(lt_buffer, lt_lineStart, lt_lineEnd));
+                    }
+                    i++;
                 }
             } catch (FileNotFoundException e) {
                 log.error("The given file {} could not be found.", l_currentLogFile);
+            } catch (IOException e) {
+                log.error("Error while reading the file {}.", l_currentLogFile, e);
             }
         }
 
@@ -128,23 +1134,100 @@ public class StringParseFactory {
             throws InstantiationException, IllegalAccessException, StringParseException {
         Map<String, String> lt_lineResult = StringParseFactory.parseString(in_logLine, in_parseDefinition);
 
-        T lt_entry = in_classTarget.newInstance();
+        updateEntryMapWithParsedData(lt_lineResult, in_parseDefinition, in_entries, in_classTarget);
+    }
+
+    /**
+     * This method updates the given entry map with the values of an already
+     * parsed log line
+     *
+     * Author : gandomi
+     *
+     * @param in_lineResult
+     *        The values of a parsed log line
+     * @param in_parseDefinition
+     *        The ParseDefinition rules used for parsing the string
+     * @param in_entries
+     *        The map of String and StdLogEntries
+     * @param in_classTarget
+     *        The target class that will be storing the results
+     * @throws InstantiationException
+     *         if this {@code Class} represents an abstract class, an interface,
+     *         an array class, a primitive type, or void; or if the class has no
+     *         nullary constructor; or if the instantiation fails for some other
+     *         reason.
+     * @throws IllegalAccessException
+     *         if the class or its nullary constructor is not accessible.
+     *
+     */
+    static <T extends StdLogEntry> void updateEntryMapWithParsedData(final Map<String, String> in_lineResult,
+            ParseDefinition in_parseDefinition, Map<String, T> in_entries, Class<T> in_classTarget)
+            throws InstantiationException, IllegalAccessException {
+
+        updateEntryMapWithParsedData(in_lineResult, in_parseDefinition, in_entries,
+                LogEntryFactory.fromClass(in_classTarget));
+    }
+
+    /**
+     * This method updates the given entry map with the values of an already
+     * parsed log line. If the factory can compute the key from the values, we
+     * only create an entry when the key is not yet in the map.
+     *
+     * Author : gandomi
+     *
+     * @param in_lineResult
+     *        The values of a parsed log line
+     * @param in_parseDefinition
+     *        The ParseDefinition rules used for parsing the string
+     * @param in_entries
+     *        The map of String and StdLogEntries
+     * @param in_entryFactory
+     *        The factory creating the entries that will be storing the results
+     * @return The entry in which the line was counted
+     * @throws InstantiationException
+     *         if the entry factory could not instantiate an entry
+     * @throws IllegalAccessException
+     *         if the entry factory could not access the entry constructor
+     *
+     */
+    static <T extends StdLogEntry> T updateEntryMapWithParsedData(final Map<String, String> in_lineResult,
+            ParseDefinition in_parseDefinition, Map<String, T> in_entries, LogEntryFactory<T> in_entryFactory)
+            throws InstantiationException, IllegalAccessException {
+
+        String lt_currentKey = in_entryFactory.makeKey(in_parseDefinition, in_lineResult);
 
-        lt_entry.setParseDefinition(in_parseDefinition);
-        lt_entry.setValuesFromMap(lt_lineResult);
+        if (lt_currentKey != null) {
+            final T lt_existingEntry = in_entries.get(lt_currentKey);
 
-        final String lt_currentKey = lt_entry.makeKey();
+            if (lt_existingEntry != null) {
+                lt_existingEntry.incrementUsage();
+                lt_existingEntry.addAggregatedValues(in_lineResult, 1);
+                return lt_existingEntry;
+            }
+        }
+
+        T lt_entry = in_entryFactory.create(in_parseDefinition);
+        lt_entry.setValuesFromMap(in_lineResult);
+        lt_entry.addAggregatedValues(in_lineResult, 1);
+
+        if (lt_currentKey == null) {
+            lt_currentKey = lt_entry.makeKey();
+        }
 
-        if (in_entries.containsKey(lt_currentKey)) {
-            in_entries.get(lt_currentKey).incrementUsage();
+        final T lt_existingEntry = in_entries.putIfAbsent(lt_currentKey, lt_entry);
 
-        } else {
-            in_entries.put(lt_currentKey, lt_entry);
+        if (lt_existingEntry != null) {
+            lt_existingEntry.incrementUsage();
+            lt_existingEntry.addAggregatedValues(in_lineResult, 1);
+            return lt_existingEntry;
         }
+        return lt_entry;
     }
 
     /**
-     * This method parses a string given a definition
+     * This method parses a string given a definition. The compiled plan of the
+     * definition is kept by the definition until its entries change. Empty
+     * values are accepted, even for the preserved entries.
      *
      * Author : gandomi
      *
@@ -160,7 +1243,54 @@ public class StringParseFactory {
     public static Map<String, String> parseString(String in_logString, ParseDefinition in_parseDefinition)
             throws StringParseException {
 
-        return parseString(in_logString, in_parseDefinition.getDefinitionEntries());
+        return parseString(in_logString, in_parseDefinition.fetchCompiledPlan(),
+                in_parseDefinition.getDefinitionEntries());
+    }
+
+    /**
+     * Parses a string with the given plan. Empty values are accepted, and a
+     * missing marker is reported with the title of its entry.
+     *
+     * Author : gandomi
+     *
+     * @param in_logString
+     *        A string that is to be parsed
+     * @param in_parsePlan
+     *        The compiled plan of the given entries
+     * @param in_parsRuleList
+     *        The entries of the plan
+     * @return A Map of strings containing the parse results of one parsed line
+     * @throws StringParseException
+     *         When the start or end marker of an entry is not found
+     *
+     */
+    private static Map<String, String> parseString(String in_logString, CompiledParsePlan in_parsePlan,
+            List<ParseDefinitionEntry> in_parsRuleList) throws StringParseException {
+        final int[] l_offsets = in_parsePlan.fetchLenientOffsets(in_logString);
+        Map<String, String> lr_stringParseResult = new HashMap<>();
+        int l_cursor = 0;
+
+        for (int i = 0; i < in_parsRuleList.size(); i++) {
+            final String lt_title = in_parsRuleList.get(i).getTitle();
+
+            if (l_offsets[i * 2] < 0) {
+                throw new StringParseException("Could not find the start location for " + lt_title + " \n"
+                        + in_logString.substring(l_cursor) + ".");
+            }
+
+            if (l_offsets[i * 2 + 1] < 0) {
+                throw new StringParseException("Could not find the end location for " + lt_title
+                        + " in string \n" + in_logString.substring(l_cursor) + ".");
+            }
+
+            lr_stringParseResult.put(lt_title,
+                    in_logString.substring(l_offsets[i * 2], l_offsets[i * 2 + 1]).trim());
+
+            //The following rule is applied from the end of the current one
+            l_cursor = l_offsets[i * 2 + 1];
+        }
+
+        return lr_stringParseResult;
     }
 
     /**
@@ -184,7 +1314,9 @@ public class StringParseFactory {
     }
 
     /**
-     * This method parses a string given a definition
+     * This method parses a string given a definition. The entries are compiled
+     * for every call. Parsing many lines should be done with a plan compiled
+     * once by {@link ParseDefinition#compile()}.
      *
      * Author : gandomi
      *
@@ -200,16 +1332,7 @@ public class StringParseFactory {
     protected static Map<String, String> parseString(String in_logString,
             List<ParseDefinitionEntry> in_parsRuleList) throws StringParseException {
 
-        Map<String, String> lr_stringParseResult = new HashMap<>();
-        String l_currentStringState = in_logString;
-
-        for (ParseDefinitionEntry lt_parseRule : in_parsRuleList) {
-
-            lr_stringParseResult.put(lt_parseRule.getTitle(), fetchValue(l_currentStringState, lt_parseRule));
-            l_currentStringState = lt_parseRule.fetchFollowingSubstring(l_currentStringState);
-        }
-
-        return lr_stringParseResult;
+        return parseString(in_logString, new CompiledParsePlan(null, in_parsRuleList), in_parsRuleList);
     }
 
     /**
@@ -251,7 +1374,7 @@ public class StringParseFactory {
 
     /**
      * This method lets us know if the given string is compliant with the given
-     * definitions
+     * definitions. The entries are compiled for every call.
      *
      * Author : gandomi
      *
@@ -266,30 +1389,7 @@ public class StringParseFactory {
      */
     protected static boolean isStringCompliant(String in_logString,
             List<ParseDefinitionEntry> in_definitionList) {
-        String l_workingString = in_logString;
-        //For every definition start and end. Check that the index follows
-        for (ParseDefinitionEntry lt_parseDefinitionItem : in_definitionList) {
-
-            final int lt_startPosition = lt_parseDefinitionItem.fetchStartPosition(l_workingString);
-
-            if (lt_startPosition < 0) {
-                return false;
-            }
-
-            final int lt_endPosition = lt_parseDefinitionItem.fetchEndPosition(l_workingString);
-            if (lt_endPosition < 0) {
-                return false;
-            }
-
-            //The delta is only relevant if we are preserving the value
-            if ((lt_startPosition >= lt_endPosition) && lt_parseDefinitionItem.isToPreserve()) {
-                return false;
-            }
-
-            l_workingString = lt_parseDefinitionItem.fetchFollowingSubstring(l_workingString);
-
-        }
-        return true;
+        return new CompiledParsePlan(null, in_definitionList).fetchOffsets(in_logString) != null;
     }
 
     /**
@@ -308,7 +1408,7 @@ public class StringParseFactory {
      *
      */
     public static boolean isStringCompliant(String in_logString, ParseDefinition in_parseDefinition) {
-        return isStringCompliant(in_logString, in_parseDefinition.getDefinitionEntries());
+        return in_parseDefinition.fetchCompiledPlan().fetchOffsets(in_logString) != null;
     }
 
 }
@@ -0,0 +1,211 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.Arrays;
+
+/**
+ * A dictionary giving an int code to each distinct value of a field. The
+ * values are stored once, and the data only stores their codes. Values found
+ * in a log line can be encoded directly from their position in the line, so
+ * that a String is only created the first time a value is found.
+ *
+ * The codes are given in the order in which the values are added, starting at
+ * 0.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class ValueDictionary {
+
+    /**
+     * The code returned when a value is not in the dictionary
+     */
+    static final int NO_CODE = -1;
+
+    private static final int INITIAL_CAPACITY = 1 << 4;
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int[] valueHashes = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private int nullCode = NO_CODE;
+
+    //The slots contain the code + 1 of the values. 0 is an empty slot
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * @return The number of distinct values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value with the given code
+     *
+     * @param in_code
+     *        The code of a value
+     * @return The value with that code
+     */
+    Object decode(int in_code) {
+        return values[in_code];
+    }
+
+    /**
+     * Returns the code of the given value
+     *
+     * @param in_value
+     *        A value
+     * @return The code of the value. {@link #NO_CODE} if the value is not in
+     *         the dictionary
+     */
+    int fetchCode(Object in_value) {
+        if (in_value == null) {
+            return nullCode;
+        }
+
+        final int l_hash = in_value.hashCode();
+        final int l_mask = slots.length - 1;
+
+        for (int lt_slot = spread(l_hash) & l_mask; slots[lt_slot] != 0; lt_slot = (lt_slot + 1) & l_mask) {
+            final int lt_code = slots[lt_slot] - 1;
+
+            if (valueHashes[lt_code] == l_hash && in_value.equals(values[lt_code])) {
+                return lt_code;
+            }
+        }
+        return NO_CODE;
+    }
+
+    /**
+     * Returns the code of the given value, and adds it to the dictionary if
+     * needed
+     *
+     * @param in_value
+     *        A value
+     * @return The code of the value
+     */
+    int encode(Object in_value) {
+        final int l_code = fetchCode(in_value);
+
+        if (l_code != NO_CODE) {
+            return l_code;
+        }
+
+        if (in_value == null) {
+            nullCode = add(null, 0);
+            return nullCode;
+        }
+
+        final int lr_code = add(in_value, in_value.hashCode());
+        insertSlot(lr_code);
+        return lr_code;
+    }
+
+    /**
+     * Returns the code of the trimmed value between the given positions of a
+     * line, and adds it to the dictionary if needed. The value is only
+     * transformed into a String when it is not yet in the dictionary.
+     *
+     * Author : gandomi
+     *
+     * @param in_line
+     *        A log line
+     * @param in_start
+     *        The start of the value in the line
+     * @param in_end
+     *        The end (exclusive) of the value in the line
+     * @return The code of the value
+     *
+     */
+    int encode(String in_line, int in_start, int in_end) {
+        int l_start = in_start;
+        int l_end = in_end;
+
+        //Same behavior as String.trim()
+        while (l_start < l_end && in_line.charAt(l_start) <= ' ') {
+            l_start++;
+        }
+        while (l_end > l_start && in_line.charAt(l_end - 1) <= ' ') {
+            l_end--;
+        }
+
+        //Same hash as String.hashCode()
+        int l_hash = 0;
+        for (int i = l_start; i < l_end; i++) {
+            l_hash = 31 * l_hash + in_line.charAt(i);
+        }
+
+        final int l_length = l_end - l_start;
+        final int l_mask = slots.length - 1;
+
+        for (int lt_slot = spread(l_hash) & l_mask; slots[lt_slot] != 0; lt_slot = (lt_slot + 1) & l_mask) {
+            final int lt_code = slots[lt_slot] - 1;
+
+            if (valueHashes[lt_code] == l_hash && values[lt_code] instanceof String) {
+                final String lt_value = (String) values[lt_code];
+
+                if (lt_value.length() == l_length && in_line.regionMatches(l_start, lt_value, 0, l_length)) {
+                    return lt_code;
+                }
+            }
+        }
+
+        final int lr_code = add(in_line.substring(l_start, l_end), l_hash);
+        insertSlot(lr_code);
+        return lr_code;
+    }
+
+    private int add(Object in_value, int in_hash) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            valueHashes = Arrays.copyOf(valueHashes, size * 2);
+        }
+
+        values[size] = in_value;
+        valueHashes[size] = in_hash;
+        return size++;
+    }
+
+    private void insertSlot(int in_code) {
+        if (size * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+
+            for (int i = 0; i < size; i++) {
+                if (i != nullCode && i != in_code) {
+                    placeSlot(i);
+                }
+            }
+        }
+        placeSlot(in_code);
+    }
+
+    private void placeSlot(int in_code) {
+        final int l_mask = slots.length - 1;
+        int l_slot = spread(valueHashes[in_code]) & l_mask;
+
+        while (slots[l_slot] != 0) {
+            l_slot = (l_slot + 1) & l_mask;
+        }
+        slots[l_slot] = in_code + 1;
+    }
+
+    /**
+     * Spreads the high bits, since we only use the lower bits for the slots
+     */
+    private static int spread(int in_hash) {
+        return in_hash ^ (in_hash >>> 16);
+    }
+
+}
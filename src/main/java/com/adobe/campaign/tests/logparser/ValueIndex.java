@@ -0,0 +1,111 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An index of the values of a header in a {@link LogData}. For each value of
+ * the header, the index stores a {@link RowBitmap} of the row ids of the
+ * entries having that value. Entries that do not have the header are not
+ * indexed.
+ *
+ *
+ * Author : gandomi
+ *
+ */
+final class ValueIndex {
+
+    private static final RowBitmap NO_ROWS = new RowBitmap();
+
+    private final String header;
+    private final Map<Object, RowBitmap> rowsByValue = new HashMap<>();
+
+    /**
+     * Creates an empty index of the given header
+     *
+     * @param in_header
+     *        The header whose values are indexed
+     */
+    ValueIndex(String in_header) {
+        this.header = in_header;
+    }
+
+    /**
+     * Adds the value of the given entry to the index
+     *
+     * @param in_row
+     *        The row id of the entry
+     * @param in_entry
+     *        An entry
+     */
+    void add(int in_row, StdLogEntry in_entry) {
+        if (in_entry.fetchHeaders().contains(header)) {
+            rowsByValue.computeIfAbsent(in_entry.get(header), k -> new RowBitmap()).add(in_row);
+        }
+    }
+
+    /**
+     * Removes the given row id from the rows of the given value
+     *
+     * @param in_row
+     *        The row id of an entry
+     * @param in_value
+     *        The value under which the entry was indexed
+     */
+    void remove(int in_row, Object in_value) {
+        final RowBitmap l_rows = rowsByValue.get(in_value);
+
+        if (l_rows != null) {
+            l_rows.remove(in_row);
+            if (l_rows.cardinality() == 0) {
+                rowsByValue.remove(in_value);
+            }
+        }
+    }
+
+    /**
+     * Returns the row ids of the entries having the given value. The returned
+     * bitmap should not be modified.
+     *
+     * @param in_value
+     *        A value of the header
+     * @return The row ids of the entries having that value. An empty bitmap if
+     *         there are none
+     */
+    RowBitmap fetchRows(Object in_value) {
+        return rowsByValue.getOrDefault(in_value, NO_ROWS);
+    }
+
+    /**
+     * Returns the row ids of the entries whose value fulfills the given
+     * condition. The condition is checked once per distinct value.
+     *
+     * @param in_valueCondition
+     *        A condition on the values of the header
+     * @return The row ids of the entries having a value fulfilling the
+     *         condition
+     */
+    RowBitmap fetchRows(Predicate<Object> in_valueCondition) {
+        RowBitmap lr_rows = new RowBitmap();
+
+        for (Map.Entry<Object, RowBitmap> lt_value : rowsByValue.entrySet()) {
+            if (in_valueCondition.test(lt_value.getKey())) {
+                lr_rows = lr_rows.or(lt_value.getValue());
+            }
+        }
+        return lr_rows;
+    }
+
+}
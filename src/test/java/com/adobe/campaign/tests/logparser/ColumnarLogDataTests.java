@@ -0,0 +1,255 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testng.Assert.assertThrows;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.adobe.campaign.tests.logparser.exceptions.IncorrectParseDefinitionException;
+import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
+
+/**
+ * Tests for the column based storage of the log data
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class ColumnarLogDataTests {
+
+    private static LogData<GenericEntry> fetchLogData() {
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+        l_definition.addEntry(new ParseDefinitionEntry("AAZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("BAU"));
+        l_definition.addEntry(new ParseDefinitionEntry("DAT"));
+
+        LogData<GenericEntry> lr_logData = new LogData<GenericEntry>();
+        String[][] l_values = { { "12", "13", "AA" }, { "112", "113", "AAA" }, { "120", "13", "AA" },
+                { "121", "13", "AB" } };
+
+        for (String[] lt_values : l_values) {
+            GenericEntry lt_inputData = new GenericEntry(l_definition);
+            lt_inputData.fetchValueMap().put("AAZ", lt_values[0]);
+            lt_inputData.fetchValueMap().put("BAU", lt_values[1]);
+            lt_inputData.fetchValueMap().put("DAT", lt_values[2]);
+            lr_logData.addEntry(lt_inputData);
+        }
+        lr_logData.get("120#13#AA").addFrequence(3);
+
+        return lr_logData;
+    }
+
+    @Test
+    public void testColumnarExtraction() throws InstantiationException, IllegalAccessException,
+            StringParseException {
+        ParseDefinition l_pDefinition = LogFileReadingTests.fetchApacheDefinition();
+        List<String> l_files = Arrays.asList(LogFileReadingTests.APACHE_LOG_FILE,
+                LogFileReadingTests.APACHE_LOG_FILE);
+
+        LogData<GenericEntry> l_expectedLogData = LogDataFactory.generateLogData(l_files, l_pDefinition,
+                GenericEntry.class);
+
+        ParseStatistics l_statistics = new ParseStatistics();
+        ColumnarLogData l_columnarLogData = StringParseFactory.extractColumnarLogData(l_files, l_pDefinition,
+                LineSourceFactory.defaultFactory(), l_statistics);
+
+        assertThat(l_columnarLogData.size(), is(equalTo(l_expectedLogData.getEntries().size())));
+        assertThat(l_statistics.getLinesParsed(), is(greaterThan(0L)));
+        assertThat("The columns should contain the same data", l_columnarLogData.toLogData(),
+                is(equalTo(l_expectedLogData)));
+
+        final String l_key = l_expectedLogData.getEntries().keySet().iterator().next();
+        assertThat("The created entry should be the same as the stored one", l_columnarLogData.get(l_key),
+                is(equalTo(l_expectedLogData.get(l_key))));
+
+        assertThat(LogDataFactory.generateColumnarLogData(l_files, l_pDefinition).fetchKeys(),
+                is(equalTo(l_expectedLogData.getEntries().keySet())));
+    }
+
+    @Test
+    public void testColumnarAccess() throws IncorrectParseDefinitionException {
+        LogData<GenericEntry> l_logData = fetchLogData();
+        ParseDefinition l_definition = l_logData.get("12#13#AA").getParseDefinition();
+
+        ColumnarLogData l_columnarLogData = ColumnarLogData.from(l_definition, l_logData);
+
+        assertThat(l_columnarLogData.size(), is(equalTo(4)));
+        assertThat(l_columnarLogData.toLogData(), is(equalTo(l_logData)));
+        assertThat(l_columnarLogData.get("120#13#AA").getFrequence(), is(equalTo(4)));
+        assertThat(l_columnarLogData.get("120#13#AA", "DAT"), is(equalTo("AA")));
+        assertThat(l_columnarLogData.get("NONE"), is(nullValue()));
+        assertThat(l_columnarLogData.get("NONE", "DAT"), is(nullValue()));
+        assertThrows(IncorrectParseDefinitionException.class, () -> l_columnarLogData.get("120#13#AA", "KAU"));
+
+        l_columnarLogData.put("120#13#AA", "DAT", "AC");
+        assertThat("Changing a key value should change the key", l_columnarLogData.get("120#13#AA"),
+                is(nullValue()));
+        assertThat(l_columnarLogData.get("120#13#AC", "DAT"), is(equalTo("AC")));
+        assertThrows(IncorrectParseDefinitionException.class, () -> l_columnarLogData.put("NONE", "DAT", "AC"));
+
+        l_columnarLogData.put("120#13#AC", "DAT", "AA");
+        assertThrows(IllegalArgumentException.class, () -> l_columnarLogData.put("120#13#AA", "AAZ", "12"));
+        assertThat(l_columnarLogData.get("120#13#AA", "AAZ"), is(equalTo("120")));
+
+        //Adding an existing entry increments its frequence
+        l_columnarLogData.addEntry(l_logData.get("12#13#AA"));
+        assertThat(l_columnarLogData.get("12#13#AA").getFrequence(), is(equalTo(2)));
+        assertThat(l_columnarLogData.size(), is(equalTo(4)));
+    }
+
+    @Test
+    public void testColumnarSearch() {
+        LogData<GenericEntry> l_logData = fetchLogData();
+        ColumnarLogData l_columnarLogData = ColumnarLogData
+                .from(l_logData.get("12#13#AA").getParseDefinition(), l_logData);
+
+        Map<String, Object> l_filter = new HashMap<>();
+        l_filter.put("BAU", "13");
+        l_filter.put("DAT", "AA");
+
+        assertThat("We should have the same results as LogData",
+                l_columnarLogData.filterBy(l_filter).toLogData(), is(equalTo(l_logData.filterBy(l_filter))));
+        assertThat(l_columnarLogData.filterBy(l_filter).fetchKeys(),
+                containsInAnyOrder("12#13#AA", "120#13#AA"));
+
+        assertThat(l_columnarLogData.searchEntries("BAU", "113").toLogData(),
+                is(equalTo(l_logData.searchEntries("BAU", "113"))));
+        assertThat(l_columnarLogData.searchEntries(l_filter).size(), is(equalTo(2)));
+
+        assertThat(l_columnarLogData.isEntryPresent("DAT", "AB"), is(equalTo(true)));
+        assertThat(l_columnarLogData.isEntryPresent("DAT", "ZZ"), is(equalTo(false)));
+        assertThat(l_columnarLogData.isEntryPresent(l_filter), is(equalTo(true)));
+
+        assertThat("An unknown header should not match anything",
+                l_columnarLogData.searchEntries("KAU", "13").size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testColumnarGroupBy() throws IncorrectParseDefinitionException, InstantiationException,
+            IllegalAccessException {
+        LogData<GenericEntry> l_logData = fetchLogData();
+        ColumnarLogData l_columnarLogData = ColumnarLogData
+                .from(l_logData.get("12#13#AA").getParseDefinition(), l_logData);
+
+        ColumnarLogData l_cube = l_columnarLogData.groupBy(Arrays.asList("BAU", "DAT"));
+
+        assertThat("We should have the same results as LogData", l_cube.toLogData(),
+                is(equalTo(l_logData.groupBy(Arrays.asList("BAU", "DAT")))));
+        assertThat(l_cube.get("13#AA").getFrequence(), is(equalTo(5)));
+
+        assertThat(l_columnarLogData.groupBy("DAT").toLogData(), is(equalTo(l_logData.groupBy("DAT"))));
+        assertThat("We should be able to group a cube", l_cube.groupBy("BAU").get("13").getFrequence(),
+                is(equalTo(6)));
+
+        assertThrows(IncorrectParseDefinitionException.class, () -> l_columnarLogData.groupBy("KAU"));
+    }
+
+    @Test
+    public void testValueDictionary() {
+        ValueDictionary l_dictionary = new ValueDictionary();
+
+        assertThat(l_dictionary.encode("GET"), is(equalTo(0)));
+        assertThat(l_dictionary.encode("POST"), is(equalTo(1)));
+        assertThat(l_dictionary.encode("GET"), is(equalTo(0)));
+
+        final String l_line = "verb= GET |verb=POST|verb=PUT";
+        assertThat("The trimmed values of a line should be found", l_dictionary.encode(l_line, 5, 10),
+                is(equalTo(0)));
+        assertThat(l_dictionary.encode(l_line, 16, 20), is(equalTo(1)));
+        assertThat(l_dictionary.encode(l_line, 26, 29), is(equalTo(2)));
+        assertThat(l_dictionary.decode(2), is(equalTo("PUT")));
+        assertThat(l_dictionary.fetchCode("PUT"), is(equalTo(2)));
+
+        assertThat(l_dictionary.fetchCode("DELETE"), is(equalTo(ValueDictionary.NO_CODE)));
+        assertThat(l_dictionary.fetchCode(null), is(equalTo(ValueDictionary.NO_CODE)));
+        assertThat(l_dictionary.encode(null), is(equalTo(3)));
+        assertThat(l_dictionary.fetchCode(null), is(equalTo(3)));
+        assertThat(l_dictionary.decode(3), is(nullValue()));
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(l_dictionary.encode("value" + i), is(equalTo(i + 4)));
+        }
+
+        final String l_line2 = "value500";
+        assertThat("The values should be found after growing", l_dictionary.encode(l_line2, 0, 8),
+                is(equalTo(504)));
+        assertThat(l_dictionary.fetchCode("GET"), is(equalTo(0)));
+        assertThat(l_dictionary.fetchCode(null), is(equalTo(3)));
+        assertThat(l_dictionary.size(), is(equalTo(1004)));
+    }
+
+    @Test
+    public void testColumnarDictionaries() throws IncorrectParseDefinitionException {
+        LogData<GenericEntry> l_logData = fetchLogData();
+        ColumnarLogData l_columnarLogData = ColumnarLogData
+                .from(l_logData.get("12#13#AA").getParseDefinition(), l_logData);
+
+        assertThat("A value that was never stored should not match",
+                l_columnarLogData.isEntryPresent("BAU", "14"), is(equalTo(false)));
+        assertThat("Values of another type should not match", l_columnarLogData.isEntryPresent("BAU", null),
+                is(equalTo(false)));
+
+        l_columnarLogData.put("12#13#AA", "BAU", "14");
+        assertThat(l_columnarLogData.isEntryPresent("BAU", "14"), is(equalTo(true)));
+        assertThat(l_columnarLogData.get("12#14#AA", "BAU"), is(equalTo("14")));
+        assertThat(l_columnarLogData.searchEntries("BAU", "13").size(), is(equalTo(2)));
+
+        ColumnarLogData l_filteredData = l_columnarLogData.searchEntries("DAT", "AA");
+        assertThat("The filtered data should have the values of the rows",
+                l_filteredData.get("120#13#AA", "BAU"), is(equalTo("13")));
+    }
+
+    @Test
+    public void testColumnarPutKeyValue() throws IncorrectParseDefinitionException {
+        ParseDefinitionEntry l_aDefinition = new ParseDefinitionEntry("A");
+        l_aDefinition.setStart("a=");
+        l_aDefinition.setEnd(";");
+        ParseDefinitionEntry l_bDefinition = new ParseDefinitionEntry("B");
+        l_bDefinition.setStart("b=");
+        l_bDefinition.setEnd(";");
+
+        ParseDefinition l_definition = new ParseDefinition("keys");
+        l_definition.addEntry(l_aDefinition);
+        l_definition.addEntry(l_bDefinition);
+        CompiledParsePlan l_plan = l_definition.compile();
+
+        ColumnarLogData l_columnarLogData = new ColumnarLogData(l_definition);
+        final String l_line = "a=1;b=2;";
+        l_columnarLogData.addParsedLine(l_plan, l_line, l_plan.fetchOffsets(l_line));
+
+        l_columnarLogData.put("1#2", "B", "3");
+
+        l_columnarLogData.addParsedLine(l_plan, l_line, l_plan.fetchOffsets(l_line));
+        assertThat("A line with the old key values should create a new row", l_columnarLogData.size(),
+                is(equalTo(2)));
+        assertThat(l_columnarLogData.get("1#2").getFrequence(), is(equalTo(1)));
+
+        final String l_changedLine = "a=1;b=3;";
+        l_columnarLogData.addParsedLine(l_plan, l_changedLine, l_plan.fetchOffsets(l_changedLine));
+        assertThat("A line with the new key values should find the changed row",
+                l_columnarLogData.get("1#3").getFrequence(), is(equalTo(2)));
+        assertThat(l_columnarLogData.searchEntries("B", "3").size(), is(equalTo(1)));
+    }
+
+}
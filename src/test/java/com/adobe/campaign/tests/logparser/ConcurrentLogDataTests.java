@@ -0,0 +1,145 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.adobe.campaign.tests.logparser.exceptions.IncorrectParseDefinitionException;
+import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
+
+/**
+ * Tests for the LogData that can be shared between threads
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class ConcurrentLogDataTests {
+
+    private static final int NR_OF_THREADS = 8;
+
+    @Test
+    public void testConcurrentAddEntry() throws Exception {
+        final ParseDefinition l_definition = new ParseDefinition("Concurrent");
+        final ParseDefinitionEntry l_keyEntry = new ParseDefinitionEntry("AAZ");
+        l_definition.addEntry(l_keyEntry);
+        l_definition.defineKeys(l_keyEntry);
+
+        final int l_nrOfKeys = 16;
+        final int l_entriesPerThread = 20000;
+
+        ConcurrentLogData<GenericEntry> l_logData = new ConcurrentLogData<>();
+        CountDownLatch l_start = new CountDownLatch(1);
+
+        ExecutorService l_executor = Executors.newFixedThreadPool(NR_OF_THREADS);
+        try {
+            List<Future<?>> l_tasks = new ArrayList<>();
+            for (int t = 0; t < NR_OF_THREADS; t++) {
+                l_tasks.add(l_executor.submit(() -> {
+                    l_start.await();
+                    for (int i = 0; i < l_entriesPerThread; i++) {
+                        GenericEntry lt_entry = new GenericEntry(l_definition);
+                        lt_entry.put("AAZ", "key" + (i % l_nrOfKeys));
+                        l_logData.addEntry(lt_entry);
+                    }
+                    return null;
+                }));
+            }
+            l_start.countDown();
+
+            for (Future<?> lt_task : l_tasks) {
+                lt_task.get();
+            }
+        } finally {
+            l_executor.shutdown();
+        }
+
+        assertThat("We should have one entry per key", l_logData.getEntries().size(), is(equalTo(l_nrOfKeys)));
+
+        long l_total = 0;
+        for (GenericEntry lt_entry : l_logData.getEntries().values()) {
+            assertThat("Each key should have the exact frequence", lt_entry.fetchFrequence(),
+                    is(equalTo((long) NR_OF_THREADS * l_entriesPerThread / l_nrOfKeys)));
+            l_total += lt_entry.fetchFrequence();
+        }
+        assertThat("No additions should be lost", l_total, is(equalTo((long) NR_OF_THREADS * l_entriesPerThread)));
+    }
+
+    @Test
+    public void testConcurrentFileIngestion()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = LogFileReadingTests.fetchACCDefinition();
+        List<String> l_files = new ArrayList<>();
+        for (int i = 0; i < NR_OF_THREADS * 4; i++) {
+            l_files.add(LogFileReadingTests.ACC_LOG_FILE);
+        }
+
+        LogData<GenericEntry> l_expectedLogData = LogDataFactory.generateLogData(l_files, l_pDefinition,
+                GenericEntry.class);
+
+        ExecutorService l_executor = Executors.newFixedThreadPool(NR_OF_THREADS);
+        try {
+            ConcurrentLogData<GenericEntry> l_logData = LogDataFactory.generateConcurrentLogData(l_files,
+                    l_pDefinition, GenericEntry.factory(), l_executor);
+
+            assertThat("We should have the same entries", l_logData.getEntries().keySet(),
+                    is(equalTo(l_expectedLogData.getEntries().keySet())));
+
+            for (String lt_key : l_expectedLogData.getEntries().keySet()) {
+                assertThat("The frequences should be exact", l_logData.get(lt_key).fetchFrequence(),
+                        is(equalTo(l_expectedLogData.get(lt_key).fetchFrequence())));
+            }
+        } finally {
+            l_executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSetEntries()
+            throws InstantiationException, IllegalAccessException, IncorrectParseDefinitionException {
+        final ParseDefinition l_definition = new ParseDefinition("Concurrent");
+        final ParseDefinitionEntry l_keyEntry = new ParseDefinitionEntry("AAZ");
+        l_definition.addEntry(l_keyEntry);
+        l_definition.defineKeys(l_keyEntry);
+
+        Map<String, GenericEntry> l_entries = new HashMap<>();
+        GenericEntry l_entry = new GenericEntry(l_definition);
+        l_entry.put("AAZ", "12");
+        l_entries.put("12", l_entry);
+
+        ConcurrentLogData<GenericEntry> l_logData = new ConcurrentLogData<>(l_entries);
+
+        assertThat("The entries should be stored in a concurrent map", l_logData.getEntries(),
+                instanceOf(ConcurrentMap.class));
+        assertThat("The entries should be copied", l_logData.get("12"), is(equalTo(l_entry)));
+
+        LogData<GenericEntry> l_groupBy = l_logData.groupBy(Arrays.asList("AAZ"));
+        assertThat("The query methods should be available", l_groupBy.getEntries().size(), is(equalTo(1)));
+    }
+
+}
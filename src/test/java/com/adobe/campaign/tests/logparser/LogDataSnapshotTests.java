@@ -0,0 +1,115 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testng.Assert.assertThrows;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+import com.adobe.campaign.tests.logparser.exceptions.LogDataImportExportException;
+import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
+
+/**
+ * Tests for the binary snapshots of log data
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class LogDataSnapshotTests {
+
+    private static File createSnapshotFile() throws IOException {
+        File lr_snapshotFile = File.createTempFile("logData", ".snapshot");
+        lr_snapshotFile.delete();
+        lr_snapshotFile.deleteOnExit();
+        return lr_snapshotFile;
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException, InstantiationException, IllegalAccessException,
+            StringParseException, LogDataImportExportException {
+        final ParseDefinition l_definition = LogFileReadingTests.fetchACCDefinition();
+        LogData<GenericEntry> l_logData = LogDataFactory
+                .generateLogData(Arrays.asList(LogFileReadingTests.ACC_LOG_FILE), l_definition);
+
+        File l_snapshotFile = LogDataSnapshot.write(l_logData, l_definition, createSnapshotFile());
+
+        assertThat("The snapshot should be smaller than the log file", l_snapshotFile.length(),
+                is(lessThan(new File(LogFileReadingTests.ACC_LOG_FILE).length())));
+
+        LogData<GenericEntry> l_read = LogDataSnapshot.read(l_snapshotFile);
+        assertThat(l_read.getEntries().size(), is(equalTo(l_logData.getEntries().size())));
+        assertThat("The read data should be the same as the written data", l_read, is(equalTo(l_logData)));
+
+        LogData<GenericEntry> l_mapped = LogDataSnapshot.readMapped(l_snapshotFile);
+        assertThat("The mapped data should be the same as the written data", l_mapped, is(equalTo(l_logData)));
+
+        ColumnarLogData l_columnar = LogDataSnapshot.readColumnar(l_snapshotFile, true);
+        assertThat(l_columnar.getParseDefinition().getTitle(), is(equalTo(l_definition.getTitle())));
+        assertThat(l_columnar.size(), is(equalTo(l_logData.getEntries().size())));
+    }
+
+    @Test
+    public void testNullValues() throws IOException, LogDataImportExportException {
+        final ParseDefinition l_definition = LogFileReadingTests.fetchACCDefinition();
+        l_definition.defineKeys(l_definition.getDefinitionEntries().get(0));
+
+        GenericEntry l_entry = new GenericEntry(l_definition);
+        l_entry.put("path", "/rest/head/session");
+        l_entry.setFrequence(5L);
+
+        LogData<GenericEntry> l_logData = new LogData<>(l_entry);
+
+        File l_snapshotFile = LogDataSnapshot.write(l_logData, l_definition, createSnapshotFile());
+        LogData<GenericEntry> l_read = LogDataSnapshot.readMapped(l_snapshotFile);
+
+        GenericEntry l_readEntry = l_read.get("/rest/head/session");
+        assertThat(l_readEntry.fetchFrequence(), is(equalTo(5L)));
+        assertThat(l_readEntry.get("verb"), is(nullValue()));
+    }
+
+    @Test
+    public void testInvalidSnapshots() throws IOException {
+        File l_snapshotFile = createSnapshotFile();
+
+        assertThrows(LogDataImportExportException.class, () -> LogDataSnapshot.read(l_snapshotFile));
+
+        Files.write(l_snapshotFile.toPath(), "not a snapshot".getBytes());
+        assertThrows(LogDataImportExportException.class, () -> LogDataSnapshot.read(l_snapshotFile));
+
+        try (DataOutputStream l_output = new DataOutputStream(new FileOutputStream(l_snapshotFile))) {
+            l_output.writeInt(LogDataSnapshot.MAGIC);
+            l_output.writeInt(LogDataSnapshot.VERSION + 1);
+        }
+        assertThrows(LogDataImportExportException.class, () -> LogDataSnapshot.readMapped(l_snapshotFile));
+
+        try (DataOutputStream l_output = new DataOutputStream(new FileOutputStream(l_snapshotFile))) {
+            l_output.writeInt(LogDataSnapshot.MAGIC);
+            l_output.writeInt(LogDataSnapshot.VERSION);
+            l_output.writeInt(1000);
+        }
+        assertThrows(LogDataImportExportException.class, () -> LogDataSnapshot.read(l_snapshotFile));
+    }
+
+}
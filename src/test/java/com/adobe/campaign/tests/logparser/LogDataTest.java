@@ -13,6 +13,7 @@ package com.adobe.campaign.tests.logparser;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
@@ -20,8 +21,12 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.testng.Assert.assertThrows;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.Matchers;
 import org.testng.Assert;
@@ -29,6 +34,7 @@ import org.testng.annotations.Test;
 
 import com.adobe.campaign.tests.logparser.LogData;
 import com.adobe.campaign.tests.logparser.GenericEntry;
+import com.adobe.campaign.tests.logparser.LogEntryFactory;
 import com.adobe.campaign.tests.logparser.ParseDefinition;
 import com.adobe.campaign.tests.logparser.ParseDefinitionEntry;
 import com.adobe.campaign.tests.logparser.exceptions.IncorrectParseDefinitionException;
@@ -516,6 +522,122 @@ public class LogDataTest {
 
     }
 
+    @Test
+    public void testgroupByWithFactory()
+            throws InstantiationException, IllegalAccessException, IncorrectParseDefinitionException {
+
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+        l_definition.addEntry(new ParseDefinitionEntry("AAZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("ZZZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("BAU"));
+        l_definition.addEntry(new ParseDefinitionEntry("DAT"));
+
+        LogData<GenericEntry> l_cubeData = new LogData<GenericEntry>();
+        String[][] l_values = { { "12", "14", "13", "AA" }, { "112", "114", "113", "AAA" },
+                { "120", "14", "13", "AA" }, { "121", "14", "13", "AA" } };
+
+        for (String[] lt_values : l_values) {
+            GenericEntry lt_inputData = new GenericEntry(l_definition);
+            lt_inputData.fetchValueMap().put("AAZ", lt_values[0]);
+            lt_inputData.fetchValueMap().put("ZZZ", lt_values[1]);
+            lt_inputData.fetchValueMap().put("BAU", lt_values[2]);
+            lt_inputData.fetchValueMap().put("DAT", lt_values[3]);
+            l_cubeData.addEntry(lt_inputData);
+        }
+        l_cubeData.get("121#14#13#AA").addFrequence(2);
+
+        LogData<GenericEntry> l_expectedCube = l_cubeData.groupBy(Arrays.asList("BAU", "DAT"),
+                GenericEntry.class);
+
+        AtomicInteger l_nrOfCreatedEntries = new AtomicInteger();
+        LogData<GenericEntry> l_myCube = l_cubeData.groupBy(Arrays.asList("BAU", "DAT"),
+                new LogEntryFactory<GenericEntry>() {
+
+                    @Override
+                    public GenericEntry create() {
+                        l_nrOfCreatedEntries.incrementAndGet();
+                        return new GenericEntry();
+                    }
+
+                    @Override
+                    public String makeKey(ParseDefinition in_parseDefinition, Map<String, String> in_values) {
+                        return GenericEntry.factory().makeKey(in_parseDefinition, in_values);
+                    }
+                });
+
+        assertThat("The factory should give the same results", l_myCube, is(equalTo(l_expectedCube)));
+        assertThat("The entry 13#AA should have the added frequences", l_myCube.get("13#AA").getFrequence(),
+                is(equalTo(5)));
+        assertThat("We should only create one entry per key", l_nrOfCreatedEntries.get(), is(equalTo(2)));
+
+        assertThat("A supplier should give the same results",
+                l_cubeData.groupBy(Arrays.asList("BAU", "DAT"), LogEntryFactory.fromSupplier(GenericEntry::new)),
+                is(equalTo(l_expectedCube)));
+
+        assertThrows(IncorrectParseDefinitionException.class,
+                () -> l_cubeData.groupBy(Arrays.asList("KAU"), GenericEntry.factory()));
+    }
+
+    @Test
+    public void testgroupByLogKey()
+            throws InstantiationException, IllegalAccessException, IncorrectParseDefinitionException {
+
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+        l_definition.addEntry(new ParseDefinitionEntry("AAZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("BAU"));
+        l_definition.addEntry(new ParseDefinitionEntry("DAT"));
+
+        LogData<GenericEntry> l_cubeData = new LogData<GenericEntry>();
+        String[][] l_values = { { "1", "13", "AA" }, { "2", "113", "AAA" }, { "3", "13", "AA" },
+                { "4", "13#AA", "B" }, { "5", "13", "AA#B" } };
+
+        for (String[] lt_values : l_values) {
+            GenericEntry lt_inputData = new GenericEntry(l_definition);
+            lt_inputData.fetchValueMap().put("AAZ", lt_values[0]);
+            lt_inputData.fetchValueMap().put("BAU", lt_values[1]);
+            lt_inputData.fetchValueMap().put("DAT", lt_values[2]);
+            l_cubeData.addEntry(lt_inputData);
+        }
+
+        LogData<GenericEntry> l_stringCube = l_cubeData.groupBy(Arrays.asList("BAU", "DAT"));
+        KeyedLogData<GenericEntry> l_keyedCube = l_cubeData.groupByLogKey(Arrays.asList("BAU", "DAT"));
+
+        assertThat("The String keys mix up values containing the padding", l_stringCube.getEntries().size(),
+                is(equalTo(3)));
+        assertThat("The LogKeys keep the values apart", l_keyedCube.getEntries().size(), is(equalTo(4)));
+
+        assertThat(l_keyedCube.get(new LogKey("13", "AA")).getFrequence(), is(equalTo(2)));
+        assertThat(l_keyedCube.get(new LogKey("13#AA", "B")).getFrequence(), is(equalTo(1)));
+        assertThat(l_keyedCube.get(new LogKey("13", "AA#B")).getFrequence(), is(equalTo(1)));
+        assertThat("We should be able to use the String keys", l_keyedCube.get("113#AAA").getFrequence(),
+                is(equalTo(1)));
+        assertThat(l_keyedCube.get("113#AAA").makeLogKey(), is(equalTo(new LogKey("113", "AAA"))));
+
+        LogData<GenericEntry> l_convertedCube = l_keyedCube.toLogData();
+        assertThat("Converting to LogData should give the same keys as the String group by",
+                l_convertedCube.getEntries().keySet(), is(equalTo(l_stringCube.getEntries().keySet())));
+        assertThat("The frequences of the mixed up entries should be added",
+                l_convertedCube.get("13#AA#B").getFrequence(), is(equalTo(2)));
+        assertThat(l_convertedCube.get("13#AA"), is(equalTo(l_stringCube.get("13#AA"))));
+        assertThat("The conversion should not change the keyed entries",
+                l_keyedCube.get(new LogKey("13#AA", "B")).getFrequence(), is(equalTo(1)));
+
+        KeyedLogData<GenericEntry> l_keyedData = KeyedLogData.from(l_cubeData);
+        assertThat(l_keyedData.getEntries().size(), is(equalTo(5)));
+        assertThat(l_keyedData.groupBy(Arrays.asList("BAU", "DAT")), is(equalTo(l_keyedCube)));
+
+        final LogKey l_otherKey = new LogKey("113", "AAA");
+        GenericEntry l_replacement = l_keyedCube.get(l_otherKey).copy();
+        l_keyedCube.getEntries().put(l_otherKey, l_replacement);
+        assertThat("Changes through getEntries should be seen by the String keys", l_keyedCube.get("113#AAA"),
+                is(sameInstance(l_replacement)));
+        l_keyedCube.getEntries().remove(l_otherKey);
+        assertThat(l_keyedCube.get("113#AAA"), is(nullValue()));
+
+        assertThrows(IncorrectParseDefinitionException.class,
+                () -> l_cubeData.groupByLogKey(Arrays.asList("KAU")));
+    }
+
     /**
      * Testing that we can do a group by with two values
      *
@@ -1135,4 +1257,379 @@ public class LogDataTest {
 
         assertThat("We should state that an entry is NOT  present", !l_cubeData.isEntryPresent("BAU","999"));
     }
+
+    /**
+     * Testing that the searches use and maintain the indexes of the headers
+     *
+     * Author : gandomi
+     *
+     * @throws IncorrectParseDefinitionException
+     *
+     */
+    @Test
+    public void testIndexes() throws IncorrectParseDefinitionException {
+
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+
+        final ParseDefinitionEntry l_parseDefinitionEntryKey = new ParseDefinitionEntry("AAZ");
+        l_definition.addEntry(l_parseDefinitionEntryKey);
+        l_definition.addEntry(new ParseDefinitionEntry("ZZZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("BAU"));
+        l_definition.defineKeys(l_parseDefinitionEntryKey);
+
+        GenericEntry l_inputData = new GenericEntry(l_definition);
+        l_inputData.fetchValueMap().put("AAZ", "12");
+        l_inputData.fetchValueMap().put("ZZZ", "14");
+        l_inputData.fetchValueMap().put("BAU", "13");
+
+        GenericEntry l_inputData2 = new GenericEntry(l_definition);
+        l_inputData2.fetchValueMap().put("AAZ", "112");
+        l_inputData2.fetchValueMap().put("ZZZ", "114");
+        l_inputData2.fetchValueMap().put("BAU", "13");
+
+        LogData<GenericEntry> l_cubeData = new LogData<GenericEntry>();
+        l_cubeData.createIndex("ZZZ");
+        l_cubeData.addEntry(l_inputData);
+        l_cubeData.addEntry(l_inputData2);
+
+        assertThat(l_cubeData.fetchIndexedHeaders(), Matchers.contains("ZZZ"));
+        assertThat("We should find the entry through the index", l_cubeData.isEntryPresent("ZZZ", "114"));
+        assertThat(l_cubeData.searchEntries("ZZZ", "14").getEntries().keySet(), Matchers.contains("12"));
+
+        //The searches do not create indexes
+        assertThat(l_cubeData.searchEntries("BAU", "13").getEntries().size(), is(equalTo(2)));
+        assertThat(l_cubeData.fetchIndexedHeaders(), Matchers.contains("ZZZ"));
+        l_cubeData.createIndex("BAU");
+
+        Map<String, Object> l_filterProperties = new HashMap<>();
+        l_filterProperties.put("ZZZ", "114");
+        l_filterProperties.put("BAU", "13");
+        assertThat(l_cubeData.filterBy(l_filterProperties).getEntries().keySet(), Matchers.contains("112"));
+
+        //Changing a value updates the index
+        l_cubeData.put("112", "ZZZ", "14");
+        assertThat("The old value should no longer be found", !l_cubeData.isEntryPresent("ZZZ", "114"));
+        assertThat(l_cubeData.searchEntries("ZZZ", "14").getEntries().size(), is(equalTo(2)));
+
+        //Entries added directly to the map are found once the indexes are rebuilt
+        GenericEntry l_inputData3 = new GenericEntry(l_definition);
+        l_inputData3.fetchValueMap().put("AAZ", "120");
+        l_inputData3.fetchValueMap().put("ZZZ", "140");
+        l_inputData3.fetchValueMap().put("BAU", "13");
+        l_cubeData.getEntries().put(l_inputData3.makeKey(), l_inputData3);
+
+        assertThat("The index should be rebuilt", l_cubeData.isEntryPresent("ZZZ", "140"));
+        assertThat(l_cubeData.searchEntries("BAU", "13").getEntries().size(), is(equalTo(3)));
+
+        //Values changed directly in the entries are found
+        l_cubeData.get("12").put("ZZZ", "15");
+        assertThat("The changed value should be found", l_cubeData.isEntryPresent("ZZZ", "15"));
+        assertThat(l_cubeData.filterBy(LogQuery.eq("ZZZ", "15")).getEntries().keySet(), Matchers.contains("12"));
+
+        final Map<String, Object> l_valueMap = l_inputData2.fetchValueMap();
+        assertThat(l_cubeData.isEntryPresent("ZZZ", "14"), is(equalTo(true)));
+        l_valueMap.put("ZZZ", "16");
+        assertThat("The value changed through a value map should be found", l_cubeData.isEntryPresent("ZZZ", "16"));
+        assertThat(l_cubeData.isEntryPresent("ZZZ", "14"), is(equalTo(false)));
+
+        //Entries replaced in the map are found
+        GenericEntry l_replacingData = new GenericEntry(l_definition);
+        l_replacingData.fetchValueMap().put("AAZ", "12");
+        l_replacingData.fetchValueMap().put("ZZZ", "17");
+        l_replacingData.fetchValueMap().put("BAU", "13");
+        assertThat(l_cubeData.isEntryPresent("ZZZ", "15"), is(equalTo(true)));
+        l_cubeData.getEntries().put("12", l_replacingData);
+        assertThat("The replacing entry should be found", l_cubeData.isEntryPresent("ZZZ", "17"));
+        assertThat(l_cubeData.isEntryPresent("ZZZ", "15"), is(equalTo(false)));
+
+        l_cubeData.dropIndexes();
+        assertThat(l_cubeData.fetchIndexedHeaders().isEmpty(), is(equalTo(true)));
+        assertThat(l_cubeData.filterBy(l_filterProperties).getEntries().size(), is(equalTo(0)));
+    }
+
+    /**
+     * Testing that the indexes stop sharing the map given to the constructor,
+     * and that they are not supported by the concurrent log data
+     *
+     * Author : gandomi
+     *
+     */
+    @Test
+    public void testIndexes_SharedMap() {
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+
+        final ParseDefinitionEntry l_parseDefinitionEntryKey = new ParseDefinitionEntry("verb");
+        l_definition.addEntry(l_parseDefinitionEntryKey);
+        l_definition.defineKeys(l_parseDefinitionEntryKey);
+
+        GenericEntry l_inputData = new GenericEntry(l_definition);
+        l_inputData.fetchValueMap().put("verb", "GET");
+
+        Map<String, GenericEntry> l_entries = new HashMap<>();
+        l_entries.put("1", l_inputData);
+        LogData<GenericEntry> l_cubeData = new LogData<>(l_entries);
+
+        assertThat(l_cubeData.isEntryPresent("verb", "GET"), is(equalTo(true)));
+        assertThat("Searches should not create indexes", l_cubeData.fetchIndexedHeaders().isEmpty());
+
+        l_cubeData.createIndex("verb");
+        assertThat(l_cubeData.isEntryPresent("verb", "GET"), is(equalTo(true)));
+
+        GenericEntry l_otherData = new GenericEntry(l_definition);
+        l_otherData.fetchValueMap().put("verb", "POST");
+        l_entries.put("2", l_otherData);
+        assertThat("The indexed log data should still share the given map",
+                l_cubeData.isEntryPresent("verb", "POST"), is(equalTo(true)));
+        assertThat(l_cubeData.getEntries(), is(sameInstance(l_cubeData.getEntries())));
+
+        l_entries.remove("2");
+        l_entries.put("1", l_otherData);
+        l_cubeData.setEntries(l_entries);
+        assertThat(l_cubeData.isEntryPresent("verb", "POST"), is(equalTo(true)));
+        assertThat(l_cubeData.filterBy(LogQuery.eq("verb", "GET")).getEntries().size(), is(equalTo(0)));
+
+        assertThrows(UnsupportedOperationException.class, () -> new ConcurrentLogData<>().createIndex("verb"));
+    }
+
+    /**
+     * Testing that new entries are added to the indexes without rebuilding
+     * them, even when other entries are created in the meantime
+     *
+     * Author : gandomi
+     *
+     */
+    @Test
+    public void testIndexes_Incremental() {
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+
+        final ParseDefinitionEntry l_parseDefinitionEntryKey = new ParseDefinitionEntry("verb");
+        l_definition.addEntry(l_parseDefinitionEntryKey);
+        l_definition.defineKeys(l_parseDefinitionEntryKey);
+
+        LogData<GenericEntry> l_cubeData = new LogData<>();
+        l_cubeData.createIndex("verb");
+
+        for (int i = 0; i < 100; i++) {
+            Map<String, String> lt_values = new HashMap<>();
+            lt_values.put("verb", "V" + i);
+
+            GenericEntry lt_entry = new GenericEntry(l_definition);
+            lt_entry.setValuesFromMap(lt_values);
+            l_cubeData.addEntry(lt_entry);
+
+            assertThat("The new entry should be indexed when it is added", l_cubeData.areIndexesUpToDate());
+            assertThat(l_cubeData.isEntryPresent("verb", "V" + i), is(equalTo(true)));
+        }
+
+        LogData<GenericEntry> l_otherData = new LogData<>();
+        l_otherData.createIndex("verb");
+        l_otherData.addEntry(l_cubeData.get("V1"));
+        l_otherData.isEntryPresent("verb", "V1");
+
+        l_cubeData.get("V2").fetchValueMap().put("verb", "V200");
+        assertThat("An entry that is not in the log data should not change its indexes",
+                l_otherData.areIndexesUpToDate());
+        assertThat("A change of an indexed entry should be seen", !l_cubeData.areIndexesUpToDate());
+        assertThat(l_cubeData.isEntryPresent("verb", "V200"), is(equalTo(true)));
+
+        l_cubeData.get("V1").fetchValueMap().put("verb", "V100");
+        assertThat("An entry indexed by both log data should change both indexes",
+                !l_otherData.areIndexesUpToDate());
+        assertThat(l_otherData.isEntryPresent("verb", "V100"), is(equalTo(true)));
+    }
+
+    /**
+     * Testing that filterBy intersects the bitmaps of the indexed keys, and
+     * checks the keys that are not indexed
+     *
+     * Author : gandomi
+     *
+     */
+    @Test
+    public void testIndexes_MultipleKeys() {
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+
+        final ParseDefinitionEntry l_parseDefinitionEntryKey = new ParseDefinitionEntry("id");
+        l_definition.addEntry(l_parseDefinitionEntryKey);
+        l_definition.addEntry(new ParseDefinitionEntry("host"));
+        l_definition.addEntry(new ParseDefinitionEntry("verb"));
+        l_definition.addEntry(new ParseDefinitionEntry("status"));
+        l_definition.defineKeys(l_parseDefinitionEntryKey);
+
+        LogData<GenericEntry> l_cubeData = new LogData<GenericEntry>();
+        l_cubeData.createIndex("host");
+        l_cubeData.createIndex("verb");
+
+        for (int i = 0; i < 10000; i++) {
+            GenericEntry lt_entry = new GenericEntry(l_definition);
+            lt_entry.fetchValueMap().put("id", "id" + i);
+            lt_entry.fetchValueMap().put("host", "host" + (i % 10));
+            lt_entry.fetchValueMap().put("verb", i % 2 == 0 ? "GET" : "POST");
+            lt_entry.fetchValueMap().put("status", i % 4 == 0 ? "200" : "500");
+            l_cubeData.addEntry(lt_entry);
+        }
+
+        Map<String, Object> l_filterProperties = new HashMap<>();
+        l_filterProperties.put("host", "host2");
+        l_filterProperties.put("verb", "GET");
+        assertThat(l_cubeData.filterBy(l_filterProperties).getEntries().size(), is(equalTo(1000)));
+
+        //status is not indexed, and is checked on the candidates
+        l_filterProperties.put("status", "200");
+        assertThat(l_cubeData.filterBy(l_filterProperties).getEntries().size(), is(equalTo(500)));
+        assertThat(l_cubeData.fetchIndexedHeaders(), Matchers.containsInAnyOrder("host", "verb"));
+
+        l_filterProperties.put("verb", "POST");
+        assertThat(l_cubeData.filterBy(l_filterProperties).getEntries().size(), is(equalTo(0)));
+        assertThat("No entry should be found", !l_cubeData.isEntryPresent(l_filterProperties));
+
+        l_filterProperties.remove("verb");
+        l_filterProperties.remove("host");
+        assertThat("The scan is used when no key is indexed",
+                l_cubeData.filterBy(l_filterProperties).getEntries().size(), is(equalTo(2500)));
+    }
+
+    /**
+     * Testing the compressed bitmaps used by the indexes, in their sparse and
+     * dense forms
+     *
+     * Author : gandomi
+     *
+     */
+    @Test
+    public void testRowBitmap() {
+        RowBitmap l_evens = new RowBitmap();
+        RowBitmap l_thirds = new RowBitmap();
+
+        for (int i = 0; i < 200000; i++) {
+            if (i % 2 == 0) {
+                l_evens.add(i);
+            }
+            if (i % 3 == 0) {
+                l_thirds.add(i);
+            }
+        }
+        l_evens.add(4);
+
+        assertThat(l_evens.cardinality(), is(equalTo(100000)));
+        assertThat(l_evens.contains(199998), is(equalTo(true)));
+        assertThat(l_evens.contains(199999), is(equalTo(false)));
+
+        RowBitmap l_sixths = l_evens.and(l_thirds);
+        assertThat(l_sixths.cardinality(), is(equalTo(33334)));
+
+        int l_expected = 0;
+        for (PrimitiveIterator.OfInt lt_iterator = l_sixths.iterator(); lt_iterator.hasNext();) {
+            assertThat(lt_iterator.nextInt(), is(equalTo(l_expected)));
+            l_expected += 6;
+        }
+        assertThat(l_expected, is(equalTo(200004)));
+
+        RowBitmap l_union = l_evens.or(l_thirds);
+        assertThat(l_union.cardinality(), is(equalTo(133333)));
+        assertThat(l_union.contains(9), is(equalTo(true)));
+        assertThat(l_union.contains(7), is(equalTo(false)));
+
+        RowBitmap l_lowEvens = new RowBitmap();
+        RowBitmap l_lowOdds = new RowBitmap();
+        for (int i = 0; i < 6000; i++) {
+            (i % 2 == 0 ? l_lowEvens : l_lowOdds).add(i);
+        }
+        l_lowOdds.add(1 << 20);
+        RowBitmap l_merged = l_lowEvens.or(l_lowOdds);
+        assertThat("Merged arrays should become a bitmap", l_merged.cardinality(), is(equalTo(6001)));
+        l_expected = 0;
+        for (PrimitiveIterator.OfInt lt_iterator = l_merged.iterator(); l_expected < 6000;) {
+            assertThat(lt_iterator.nextInt(), is(equalTo(l_expected++)));
+        }
+        assertThat(l_lowEvens.or(l_thirds).cardinality(), is(equalTo(66667 + 2000)));
+
+        l_merged.add(6000);
+        assertThat("The union should not share its containers", l_lowEvens.contains(6000), is(equalTo(false)));
+
+        for (int i = 0; i < 70000; i += 2) {
+            l_evens.remove(i);
+        }
+        assertThat(l_evens.cardinality(), is(equalTo(65000)));
+        assertThat(l_evens.contains(69998), is(equalTo(false)));
+        assertThat(l_evens.contains(70000), is(equalTo(true)));
+
+        RowBitmap l_sparse = new RowBitmap();
+        l_sparse.add(3);
+        l_sparse.add(1 << 20);
+        assertThat(l_sparse.and(l_thirds).cardinality(), is(equalTo(1)));
+        l_sparse.remove(3);
+        assertThat(l_sparse.iterator().nextInt(), is(equalTo(1 << 20)));
+    }
+
+    /**
+     * Testing that several group bys can be performed in one pass
+     *
+     * Author : gandomi
+     *
+     * @throws IncorrectParseDefinitionException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     *
+     */
+    @Test
+    public void testGroupByGroupingSets()
+            throws InstantiationException, IllegalAccessException, IncorrectParseDefinitionException {
+        ParseDefinition l_definition = new ParseDefinition("tmp");
+
+        final ParseDefinitionEntry l_parseDefinitionEntryKey = new ParseDefinitionEntry("AAZ");
+        l_definition.addEntry(l_parseDefinitionEntryKey);
+        l_definition.addEntry(new ParseDefinitionEntry("ZZZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("BAU"));
+        l_definition.addEntry(new ParseDefinitionEntry("DAT"));
+        l_definition.defineKeys(l_parseDefinitionEntryKey);
+
+        GenericEntry l_inputData = new GenericEntry(l_definition);
+        l_inputData.fetchValueMap().put("AAZ", "12");
+        l_inputData.fetchValueMap().put("ZZZ", "14");
+        l_inputData.fetchValueMap().put("BAU", "13");
+        l_inputData.fetchValueMap().put("DAT", "AA");
+        l_inputData.setFrequence(2L);
+
+        GenericEntry l_inputData2 = new GenericEntry(l_definition);
+        l_inputData2.fetchValueMap().put("AAZ", "112");
+        l_inputData2.fetchValueMap().put("ZZZ", "114");
+        l_inputData2.fetchValueMap().put("BAU", "113");
+        l_inputData2.fetchValueMap().put("DAT", "AAA");
+
+        GenericEntry l_inputData3 = new GenericEntry(l_definition);
+        l_inputData3.fetchValueMap().put("AAZ", "120");
+        l_inputData3.fetchValueMap().put("ZZZ", "14");
+        l_inputData3.fetchValueMap().put("BAU", "13");
+        l_inputData3.fetchValueMap().put("DAT", "AAA");
+
+        LogData<GenericEntry> l_cubeData = new LogData<GenericEntry>();
+        l_cubeData.addEntry(l_inputData);
+        l_cubeData.addEntry(l_inputData2);
+        l_cubeData.addEntry(l_inputData3);
+
+        final List<String> l_zzz = Arrays.asList("ZZZ");
+        final List<String> l_zzzDat = Arrays.asList("ZZZ", "DAT");
+        Map<List<String>, LogData<GenericEntry>> l_cubes = l_cubeData
+                .groupByGroupingSets(Arrays.asList(l_zzz, l_zzzDat, Collections.emptyList()));
+
+        assertThat(l_cubes.keySet(), Matchers.contains(l_zzz, l_zzzDat, Collections.emptyList()));
+        assertThat("The grouping sets should be the same as the group bys", l_cubes.get(l_zzz),
+                is(equalTo(l_cubeData.groupBy(l_zzz))));
+        assertThat(l_cubes.get(l_zzzDat), is(equalTo(l_cubeData.groupBy(l_zzzDat))));
+        assertThat(l_cubes.get(l_zzz).get("14").fetchFrequence(), is(equalTo(3L)));
+        assertThat(l_cubes.get(l_zzzDat).getEntries().size(), is(equalTo(3)));
+
+        LogData<GenericEntry> l_total = l_cubes.get(Collections.emptyList());
+        assertThat(l_total.getEntries().size(), is(equalTo(1)));
+        assertThat(l_total.getEntries().values().iterator().next().fetchFrequence(), is(equalTo(4L)));
+
+        Map<List<String>, LogData<GenericEntry>> l_rollup = l_cubeData.rollup(Arrays.asList("ZZZ", "DAT"));
+        assertThat(l_rollup.keySet(), Matchers.contains(l_zzzDat, l_zzz, Collections.emptyList()));
+        assertThat(l_rollup.get(l_zzz), is(equalTo(l_cubes.get(l_zzz))));
+        assertThat(l_rollup.get(Collections.emptyList()), is(equalTo(l_total)));
+
+        assertThrows(IncorrectParseDefinitionException.class,
+                () -> l_cubeData.groupByGroupingSets(Arrays.asList(l_zzz, Arrays.asList("NONE"))));
+    }
 }
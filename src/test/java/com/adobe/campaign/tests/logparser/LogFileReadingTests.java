@@ -0,0 +1,532 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testng.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+
+import org.testng.annotations.Test;
+
+import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
+
+/**
+ * Tests for the different ways of reading the log files
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class LogFileReadingTests {
+
+    static final String ACC_LOG_FILE = "src/test/resources/logTests/acc/acc_integro_jenkins_log_exerpt.txt";
+    static final String APACHE_LOG_FILE = "src/test/resources/logTests/apache/ssl_accessSmall.log";
+
+    static ParseDefinition fetchACCDefinition() {
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart("HEADER ACTION ");
+        l_apiDefinition.setEnd("#");
+
+        ParseDefinitionEntry l_verbDefinition = new ParseDefinitionEntry();
+
+        l_verbDefinition.setTitle("verb");
+        l_verbDefinition.setStart("#");
+        l_verbDefinition.setEnd(null);
+
+        ParseDefinition l_pDefinition = new ParseDefinition("ACC Coverage");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_apiDefinition, l_verbDefinition));
+        return l_pDefinition;
+    }
+
+    @Test
+    public void testBufferedLineSource() throws IOException {
+        String l_content = "line1\nline2\r\nline3\rline4";
+
+        try (LineSource l_lineSource = new BufferedLineSource(
+                new ByteArrayInputStream(l_content.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8,
+                2)) {
+            assertThat(l_lineSource.nextLine(), is(equalTo("line1")));
+            assertThat(l_lineSource.nextLine(), is(equalTo("line2")));
+            assertThat(l_lineSource.nextLine(), is(equalTo("line3")));
+            assertThat(l_lineSource.nextLine(), is(equalTo("line4")));
+            assertThat("We should have reached the end", l_lineSource.nextLine(), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void testBufferedLineSource_Negative() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BufferedLineSource.factory(StandardCharsets.UTF_8, 0));
+    }
+
+    @Test
+    public void testExtractWithConfiguredLineSource()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+
+        Map<String, GenericEntry> l_defaultEntries = StringParseFactory
+                .extractLogEntryMap(Arrays.asList(ACC_LOG_FILE), l_pDefinition, GenericEntry.class);
+
+        Map<String, GenericEntry> l_entries = StringParseFactory.extractLogEntryMap(Arrays.asList(ACC_LOG_FILE),
+                l_pDefinition, GenericEntry.class, BufferedLineSource.factory(StandardCharsets.UTF_8, 16));
+
+        assertThat("We should have the correct nr of entries", l_entries.size(), is(equalTo(5)));
+        assertThat(l_entries.get("xtk:persist#NewInstance").getFrequence(), is(equalTo(2)));
+        assertThat("The buffer size should not change the results", l_entries, is(equalTo(l_defaultEntries)));
+    }
+
+    @Test
+    public void testExtractWithCustomLineSource()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+
+        String l_content = "HEADER ACTION xtk:persist#NewInstance\nnothing\nHEADER ACTION xtk:persist#NewInstance";
+
+        LogData<GenericEntry> l_logData = LogDataFactory.generateLogData(Arrays.asList("inMemory"),
+                l_pDefinition, GenericEntry.class,
+                f -> new BufferedLineSource(new ByteArrayInputStream(l_content.getBytes(StandardCharsets.UTF_8)),
+                        StandardCharsets.UTF_8, BufferedLineSource.DEFAULT_BUFFER_SIZE));
+
+        assertThat(l_logData.getEntries().size(), is(equalTo(1)));
+        assertThat(l_logData.get("xtk:persist#NewInstance").getFrequence(), is(equalTo(2)));
+    }
+
+    static ParseDefinition fetchApacheDefinition() {
+        ParseDefinitionEntry l_verbDefinition2 = new ParseDefinitionEntry();
+
+        l_verbDefinition2.setTitle("verb");
+        l_verbDefinition2.setStart("\"");
+        l_verbDefinition2.setEnd(" /");
+
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart(" /rest/head/");
+        l_apiDefinition.setEnd(" ");
+
+        ParseDefinition l_pDefinition = new ParseDefinition("SSL Log");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_verbDefinition2, l_apiDefinition));
+        l_pDefinition.defineKeys(Arrays.asList(l_apiDefinition, l_verbDefinition2));
+        return l_pDefinition;
+    }
+
+    @Test
+    public void testMappedFiles() throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+
+        Map<String, GenericEntry> l_expectedEntries = StringParseFactory
+                .extractLogEntryMap(Arrays.asList(ACC_LOG_FILE), l_pDefinition, GenericEntry.class);
+
+        Map<String, GenericEntry> l_entries = StringParseFactory
+                .extractLogEntryMapFromMappedFiles(Arrays.asList(ACC_LOG_FILE), l_pDefinition, GenericEntry.class);
+
+        assertThat("We should have the correct nr of entries", l_entries.size(), is(equalTo(5)));
+        assertThat("The mapped files should give the same results", l_entries, is(equalTo(l_expectedEntries)));
+    }
+
+    @Test
+    public void testMappedFilesInSmallWindows()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchApacheDefinition();
+
+        Map<String, GenericEntry> l_expectedEntries = StringParseFactory
+                .extractLogEntryMap(Arrays.asList(APACHE_LOG_FILE), l_pDefinition, GenericEntry.class);
+
+        //The window is smaller than the lines, so it has to be enlarged
+        Map<String, GenericEntry> l_entries = StringParseFactory.extractLogEntryMapFromMappedFiles(
+                Arrays.asList(APACHE_LOG_FILE), l_pDefinition, GenericEntry.class,
+                StandardCharsets.UTF_8, 64);
+
+        assertThat("We should have entries", l_entries.size(), is(greaterThan(0)));
+        assertThat("The windows should not change the results", l_entries, is(equalTo(l_expectedEntries)));
+    }
+
+    @Test
+    public void testMappedFilesWithWindowsLineEndings() throws IOException, InstantiationException,
+            IllegalAccessException, StringParseException {
+        File l_logFile = File.createTempFile("windowsLineEndings", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(),
+                "HEADER ACTION xtk:persist#NewInstance\r\nHEADER ACTION xtk:persist#NewInstance\r\nnothing\r\n"
+                        .getBytes(StandardCharsets.UTF_8));
+
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+
+        Map<String, GenericEntry> l_entries = StringParseFactory.extractLogEntryMapFromMappedFiles(
+                Arrays.asList(l_logFile.getPath()), l_pDefinition, GenericEntry.class);
+
+        assertThat("The carriage return should not be part of the value", l_entries.keySet(),
+                contains("xtk:persist#NewInstance"));
+        assertThat(l_entries.get("xtk:persist#NewInstance").getFrequence(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testMappedFilesCaseInsensitive() throws IOException, InstantiationException,
+            IllegalAccessException, StringParseException {
+        File l_logFile = File.createTempFile("caseInsensitive", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), Arrays.asList("J_BfmC8mfw==|SOAPACTION:xtk%3aqueryDef#ExecuteQuery|",
+                "J_BfmC8mfw==|soapAction:xtk%3aqueryDef#ExecuteQuery|", "J_BfmC8mfw==|Content-Length:591",
+                "J_BfmC8mfw==|ÉvénementAction:nms%3adelivery#Prepare|"), StandardCharsets.UTF_8);
+
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart("soapaction:");
+        l_apiDefinition.setEnd("#");
+        l_apiDefinition.setCaseSensitive(false);
+
+        ParseDefinition l_pDefinition = new ParseDefinition("Case insensitive");
+        l_pDefinition.addEntry(l_apiDefinition);
+
+        Map<String, GenericEntry> l_entries = StringParseFactory.extractLogEntryMapFromMappedFiles(
+                Arrays.asList(l_logFile.getPath()), l_pDefinition, GenericEntry.class, StandardCharsets.UTF_8,
+                MappedLineReader.DEFAULT_WINDOW_SIZE);
+
+        assertThat(l_entries.keySet(), contains("xtk%3aqueryDef"));
+        assertThat(l_entries.get("xtk%3aqueryDef").getFrequence(), is(equalTo(2)));
+
+        //Non ASCII markers are searched in the decoded line
+        l_apiDefinition.setStart("éVénementaction:");
+        Map<String, GenericEntry> l_entries2 = StringParseFactory.extractLogEntryMapFromMappedFiles(
+                Arrays.asList(l_logFile.getPath()), l_pDefinition, GenericEntry.class, StandardCharsets.UTF_8,
+                MappedLineReader.DEFAULT_WINDOW_SIZE);
+
+        assertThat(l_entries2.keySet(), contains("nms%3adelivery"));
+    }
+
+    @Test
+    public void testMappedFiles_Negative() throws InstantiationException, IllegalAccessException {
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StringParseFactory.extractLogEntryMapFromMappedFiles(Arrays.asList(ACC_LOG_FILE),
+                        l_pDefinition, GenericEntry.class, StandardCharsets.UTF_16, 1024));
+
+        Map<String, GenericEntry> l_entries = StringParseFactory.extractLogEntryMapFromMappedFiles(
+                Arrays.asList("src/test/resources/logTests/apache/NonExistant.log"), l_pDefinition,
+                GenericEntry.class);
+
+        assertThat("We should have no entries", l_entries.size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testParallelFiles() throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+        List<String> l_files = Arrays.asList(ACC_LOG_FILE, ACC_LOG_FILE,
+                "src/test/resources/logTests/apache/NonExistant.log", ACC_LOG_FILE);
+
+        LogData<GenericEntry> l_expectedLogData = LogDataFactory.generateLogData(l_files, l_pDefinition,
+                GenericEntry.class);
+
+        LogData<GenericEntry> l_logData = LogDataFactory.generateLogDataInParallel(l_files, l_pDefinition,
+                GenericEntry.class, 3);
+
+        assertThat("We should have the correct nr of entries", l_logData.getEntries().size(), is(equalTo(5)));
+        assertThat("The frequences should be added", l_logData.get("xtk:persist#NewInstance").getFrequence(),
+                is(equalTo(l_expectedLogData.get("xtk:persist#NewInstance").getFrequence())));
+        assertThat("The parallel parsing should give the same results", l_logData,
+                is(equalTo(l_expectedLogData)));
+    }
+
+    @Test
+    public void testParallelFilesWithExecutor()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchApacheDefinition();
+        List<String> l_files = Arrays.asList(APACHE_LOG_FILE, APACHE_LOG_FILE);
+
+        LogData<GenericEntry> l_expectedLogData = LogDataFactory.generateLogData(l_files, l_pDefinition,
+                GenericEntry.class);
+
+        ExecutorService l_executor = Executors.newFixedThreadPool(2);
+        try {
+            LogData<GenericEntry> l_logData = LogDataFactory.generateLogDataInParallel(l_files, l_pDefinition,
+                    GenericEntry.class, l_executor);
+
+            assertThat("The parallel parsing should give the same results", l_logData,
+                    is(equalTo(l_expectedLogData)));
+        } finally {
+            l_executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelFiles_Negative() {
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+
+        assertThrows(IllegalArgumentException.class, () -> LogDataFactory
+                .generateLogDataInParallel(Arrays.asList(ACC_LOG_FILE), l_pDefinition, GenericEntry.class, 0));
+
+        assertThrows(InstantiationException.class, () -> LogDataFactory.generateLogDataInParallel(
+                Arrays.asList(ACC_LOG_FILE), l_pDefinition, StdLogEntry.class, 2));
+    }
+
+    @Test
+    public void testLineAlignedBoundaries() throws IOException {
+        File l_logFile = File.createTempFile("boundaries", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), "a\nbb\r\nccccccc\nd\n\ne".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(FileRangeLineSource.fetchLineAlignedBoundaries(l_logFile.getPath(), 2),
+                is(equalTo(new long[] { 0, 2, 6, 14, 16, 18 })));
+
+        assertThat("A single chunk should cover the file",
+                FileRangeLineSource.fetchLineAlignedBoundaries(l_logFile.getPath(), 1000),
+                is(equalTo(new long[] { 0, 18 })));
+
+        try (LineSource l_lineSource = new FileRangeLineSource(l_logFile.getPath(), 2, 14,
+                StandardCharsets.UTF_8, 4)) {
+            assertThat(l_lineSource.nextLine(), is(equalTo("bb")));
+            assertThat(l_lineSource.nextLine(), is(equalTo("ccccccc")));
+            assertThat("We should stop at the end of the range", l_lineSource.nextLine(), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void testChunkedFile() throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchApacheDefinition();
+        List<String> l_files = Arrays.asList(APACHE_LOG_FILE, ACC_LOG_FILE);
+
+        ParseStatistics l_expectedStatistics = new ParseStatistics();
+        Map<String, GenericEntry> l_expectedEntries = StringParseFactory.extractLogEntryMap(l_files,
+                l_pDefinition, GenericEntry.class, LineSourceFactory.defaultFactory(), l_expectedStatistics);
+
+        assertThat("Some lines should have been skipped", l_expectedStatistics.getLinesSkipped(),
+                is(greaterThan(0L)));
+
+        ParseStatistics l_statistics = new ParseStatistics();
+        LogData<GenericEntry> l_logData = LogDataFactory.generateLogDataInChunks(l_files, l_pDefinition,
+                GenericEntry.class, ForkJoinPool.commonPool(), 500, l_statistics);
+
+        assertThat("The chunks should give the same results", l_logData.getEntries(),
+                is(equalTo(l_expectedEntries)));
+        assertThat(l_statistics.getLinesRead(), is(equalTo(l_expectedStatistics.getLinesRead())));
+        assertThat(l_statistics.getLinesSkipped(), is(equalTo(l_expectedStatistics.getLinesSkipped())));
+        assertThat(l_statistics.getLinesParsed(), is(equalTo(l_expectedStatistics.getLinesParsed())));
+
+        assertThat("The default chunks should give the same results",
+                LogDataFactory.generateLogDataInChunks(l_files, l_pDefinition, GenericEntry.class,
+                        ForkJoinPool.commonPool()).getEntries(),
+                is(equalTo(l_expectedEntries)));
+    }
+
+    @Test
+    public void testChunkedFile_Negative() throws InstantiationException, IllegalAccessException,
+            StringParseException {
+        ParseDefinition l_pDefinition = fetchACCDefinition();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> StringParseFactory.extractLogEntryMapInChunks(Arrays.asList(ACC_LOG_FILE), l_pDefinition,
+                        GenericEntry.class, ForkJoinPool.commonPool(), 100, StandardCharsets.UTF_16,
+                        new ParseStatistics()));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> LogDataFactory.generateLogDataInChunks(Arrays.asList(ACC_LOG_FILE), l_pDefinition,
+                        GenericEntry.class, ForkJoinPool.commonPool(), 0, new ParseStatistics()));
+
+        assertThrows(InstantiationException.class,
+                () -> LogDataFactory.generateLogDataInChunks(Arrays.asList(ACC_LOG_FILE), l_pDefinition,
+                        StdLogEntry.class, ForkJoinPool.commonPool()));
+
+        ParseStatistics l_statistics = new ParseStatistics();
+        LogData<GenericEntry> l_logData = LogDataFactory.generateLogDataInChunks(
+                Arrays.asList("src/test/resources/logTests/apache/NonExistant.log"), l_pDefinition,
+                GenericEntry.class, ForkJoinPool.commonPool(), 100, l_statistics);
+
+        assertThat("We should have no entries", l_logData.getEntries().size(), is(equalTo(0)));
+        assertThat(l_statistics.getLinesRead(), is(equalTo(0L)));
+    }
+
+    @Test
+    public void testMultipleDefinitions()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_accDefinition = fetchACCDefinition();
+        ParseDefinition l_apacheDefinition = fetchApacheDefinition();
+        List<String> l_files = Arrays.asList(ACC_LOG_FILE, APACHE_LOG_FILE,
+                "src/test/resources/logTests/apache/NonExistant.log");
+
+        List<LogData<GenericEntry>> l_logDataList = LogDataFactory
+                .generateLogDataForDefinitions(l_files, Arrays.asList(l_accDefinition, l_apacheDefinition));
+
+        assertThat("We should have one result per definition", l_logDataList.size(), is(equalTo(2)));
+
+        assertThat("The ACC results should be the same as with a single definition", l_logDataList.get(0),
+                is(equalTo(LogDataFactory.generateLogData(l_files, l_accDefinition))));
+
+        assertThat("The Apache results should be the same as with a single definition", l_logDataList.get(1),
+                is(equalTo(LogDataFactory.generateLogData(l_files, l_apacheDefinition))));
+    }
+
+    /**
+     * Testing that two definitions which are only different by their keys get
+     * their own results
+     *
+     * Author : gandomi
+     *
+     */
+    @Test
+    public void testMultipleDefinitions_SameTitle()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pathDefinition = fetchApacheDefinition();
+        ParseDefinition l_verbDefinition = new ParseDefinition(l_pathDefinition.getTitle());
+        l_verbDefinition.setDefinitionEntries(l_pathDefinition.getDefinitionEntries());
+        l_verbDefinition.defineKeys(l_verbDefinition.getDefinitionEntries().get(0));
+
+        assertThat("ParseDefinition equality ignores the keys", l_pathDefinition, is(equalTo(l_verbDefinition)));
+
+        List<String> l_files = Arrays.asList(APACHE_LOG_FILE);
+        List<LogData<GenericEntry>> l_logDataList = LogDataFactory.generateLogDataForDefinitions(l_files,
+                Arrays.asList(l_pathDefinition, l_verbDefinition));
+
+        assertThat(l_logDataList.size(), is(equalTo(2)));
+        assertThat("The first definition keeps its keys", l_logDataList.get(0),
+                is(equalTo(LogDataFactory.generateLogData(l_files, l_pathDefinition))));
+        assertThat("The second definition is not dropped", l_logDataList.get(1),
+                is(equalTo(LogDataFactory.generateLogData(l_files, l_verbDefinition))));
+        assertThat(l_logDataList.get(1).getEntries().keySet(), containsInAnyOrder("GET", "POST", "PATCH"));
+    }
+
+    /**
+     * Creates a gzip compressed copy of the given file
+     *
+     * @param in_filePath
+     *        The file to compress
+     * @return The path of the compressed file
+     * @throws IOException
+     *         When the files could not be read or written
+     */
+    private static String createGzipCopy(String in_filePath) throws IOException {
+        File l_compressedFile = File.createTempFile("compressed", ".log.gz");
+        l_compressedFile.deleteOnExit();
+
+        try (OutputStream l_outputStream = new GZIPOutputStream(new FileOutputStream(l_compressedFile))) {
+            Files.copy(new File(in_filePath).toPath(), l_outputStream);
+        }
+        return l_compressedFile.getPath();
+    }
+
+    @Test
+    public void testGzipFiles()
+            throws IOException, InstantiationException, IllegalAccessException, StringParseException {
+        ParseDefinition l_pDefinition = fetchApacheDefinition();
+        final String l_compressedFile = createGzipCopy(APACHE_LOG_FILE);
+
+        assertThat(CompressedFiles.fetchFormat(l_compressedFile), is(equalTo(CompressedFiles.Format.GZIP)));
+        assertThat(CompressedFiles.fetchFormat(APACHE_LOG_FILE), is(equalTo(CompressedFiles.Format.NONE)));
+
+        LogData<GenericEntry> l_expectedLogData = LogDataFactory.generateLogData(Arrays.asList(APACHE_LOG_FILE),
+                l_pDefinition);
+
+        assertThat("We should have entries", l_expectedLogData.getEntries().size(), is(greaterThan(0)));
+
+        assertThat("The compressed file should give the same results",
+                LogDataFactory.generateLogData(Arrays.asList(l_compressedFile), l_pDefinition),
+                is(equalTo(l_expectedLogData)));
+
+        assertThat("Compressed files should be parsed as a single chunk",
+                LogDataFactory.generateLogDataInChunks(Arrays.asList(l_compressedFile), l_pDefinition,
+                        GenericEntry.class, ForkJoinPool.commonPool(), 500, new ParseStatistics()),
+                is(equalTo(l_expectedLogData)));
+
+        assertThat("Compressed files should not be mapped",
+                LogDataFactory.generateLogDataFromMappedFiles(Arrays.asList(l_compressedFile), l_pDefinition,
+                        GenericEntry.class),
+                is(equalTo(l_expectedLogData)));
+    }
+
+    @Test
+    public void testUnsupportedCompression()
+            throws IOException, InstantiationException, IllegalAccessException, StringParseException {
+        File l_logFile = File.createTempFile("unsupported", ".log.bz2");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), "BZh91AY&SY".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(CompressedFiles.fetchFormat(l_logFile.getPath()), is(equalTo(CompressedFiles.Format.BZIP2)));
+        assertThat(CompressedFiles.fetchFormat(new byte[] { 0x28, (byte) 0xB5, 0x2F, (byte) 0xFD }, 4),
+                is(equalTo(CompressedFiles.Format.ZSTD)));
+        assertThat("Short files are not compressed", CompressedFiles.fetchFormat(new byte[] { 0x1F, 0 }, 1),
+                is(equalTo(CompressedFiles.Format.NONE)));
+
+        assertThrows(IOException.class, () -> CompressedFiles.open(l_logFile.getPath()));
+
+        LogData<GenericEntry> l_logData = LogDataFactory.generateLogData(Arrays.asList(l_logFile.getPath()),
+                fetchACCDefinition());
+        assertThat("Unsupported files should be skipped", l_logData.getEntries().size(), is(equalTo(0)));
+    }
+
+    @Test
+    public void testPipelinedInputStream() throws IOException {
+        byte[] l_bytes = new byte[100000];
+        for (int i = 0; i < l_bytes.length; i++) {
+            l_bytes[i] = (byte) i;
+        }
+
+        try (InputStream l_inputStream = new PipelinedInputStream(new ByteArrayInputStream(l_bytes), "test", 1000,
+                2)) {
+            ByteArrayOutputStream l_outputStream = new ByteArrayOutputStream();
+            byte[] l_buffer = new byte[777];
+            int l_read;
+            while ((l_read = l_inputStream.read(l_buffer)) >= 0) {
+                l_outputStream.write(l_buffer, 0, l_read);
+            }
+
+            assertThat("All the bytes should be passed in order", l_outputStream.toByteArray(),
+                    is(equalTo(l_bytes)));
+            assertThat(l_inputStream.read(), is(equalTo(-1)));
+        }
+
+        InputStream l_failingStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Corrupt input");
+            }
+        };
+        try (InputStream l_inputStream = new PipelinedInputStream(l_failingStream, "test", 1000, 2)) {
+            assertThrows(IOException.class, () -> l_inputStream.read());
+        }
+
+        InputStream l_brokenStream = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException("Broken decoder");
+            }
+        };
+        try (InputStream l_inputStream = new PipelinedInputStream(l_brokenStream, "test", 1000, 2)) {
+            assertThrows(IllegalStateException.class, () -> l_inputStream.read());
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the queries on log data
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class LogQueryTests {
+
+    private static LogData<GenericEntry> fetchLogData() {
+        ParseDefinition l_definition = new ParseDefinition("queries");
+
+        final ParseDefinitionEntry l_parseDefinitionEntryKey = new ParseDefinitionEntry("id");
+        l_definition.addEntry(l_parseDefinitionEntryKey);
+        l_definition.addEntry(new ParseDefinitionEntry("path"));
+        l_definition.addEntry(new ParseDefinitionEntry("verb"));
+        l_definition.addEntry(new ParseDefinitionEntry("status"));
+        l_definition.defineKeys(l_parseDefinitionEntryKey);
+
+        final String[][] l_values = { { "1", "/rest/head/session", "GET", "200" },
+                { "2", "/rest/head/session", "POST", "500" }, { "3", "/rest/profile", "GET", "404" },
+                { "4", "/soap/xtk:session#Logon", "POST", "503" }, { "5", "/soap/nms:delivery#Send", "POST", "200" },
+                { "6", "/rest/profile", "DELETE", "unknown" } };
+
+        LogData<GenericEntry> lr_logData = new LogData<>();
+        for (String[] lt_values : l_values) {
+            GenericEntry lt_entry = new GenericEntry(l_definition);
+            lt_entry.fetchValueMap().put("id", lt_values[0]);
+            lt_entry.fetchValueMap().put("path", lt_values[1]);
+            lt_entry.fetchValueMap().put("verb", lt_values[2]);
+            lt_entry.fetchValueMap().put("status", lt_values[3]);
+            lr_logData.addEntry(lt_entry);
+        }
+        return lr_logData;
+    }
+
+    private static void checkQuery(LogQuery in_query, String... in_expectedKeys) {
+        LogData<GenericEntry> l_logData = fetchLogData();
+        assertThat("Scanning " + in_query, l_logData.filterBy(in_query).getEntries().keySet(),
+                containsInAnyOrder(in_expectedKeys));
+        assertThat(l_logData.isEntryPresent(in_query), is(equalTo(in_expectedKeys.length > 0)));
+
+        LogData<GenericEntry> l_indexedLogData = fetchLogData();
+        l_indexedLogData.createIndex("path");
+        l_indexedLogData.createIndex("verb");
+        l_indexedLogData.createIndex("status");
+        assertThat("Using the indexes for " + in_query, l_indexedLogData.filterBy(in_query).getEntries().keySet(),
+                containsInAnyOrder(in_expectedKeys));
+        assertThat(l_indexedLogData.isEntryPresent(in_query), is(equalTo(in_expectedKeys.length > 0)));
+    }
+
+    @Test
+    public void testConditions() {
+        checkQuery(LogQuery.eq("verb", "GET"), "1", "3");
+        checkQuery(LogQuery.eq("verb", "PUT"));
+        checkQuery(LogQuery.eq("unknownHeader", "GET"));
+        checkQuery(LogQuery.in("verb", "GET", "DELETE"), "1", "3", "6");
+        checkQuery(LogQuery.prefix("path", "/soap/"), "4", "5");
+        checkQuery(LogQuery.range("status", 500, null), "2", "4");
+        checkQuery(LogQuery.range("status", null, 404), "1", "3", "5");
+        checkQuery(LogQuery.range("path", "/rest/i", "/rest/q"), "3", "6");
+        checkQuery(LogQuery.regex("path", ".*#(Logon|Send)"), "4", "5");
+    }
+
+    @Test
+    public void testMixedDefinitions() {
+        ParseDefinition l_otherDefinition = new ParseDefinition("others");
+        final ParseDefinitionEntry l_parseDefinitionEntryKey = new ParseDefinitionEntry("id");
+        l_otherDefinition.addEntry(l_parseDefinitionEntryKey);
+        l_otherDefinition.defineKeys(l_parseDefinitionEntryKey);
+
+        GenericEntry l_otherEntry = new GenericEntry(l_otherDefinition);
+        l_otherEntry.fetchValueMap().put("id", "7");
+        l_otherEntry.fetchValueMap().put("verb", "GET");
+
+        LogData<GenericEntry> l_logData = fetchLogData();
+        l_logData.addEntry(l_otherEntry);
+
+        final LogQuery l_query = LogQuery.eq("verb", "GET");
+        assertThat("The header check should follow the definition of each entry",
+                l_logData.filterBy(l_query).getEntries().keySet(), containsInAnyOrder("1", "3"));
+        assertThat(l_query.matches(l_otherEntry), is(equalTo(false)));
+        assertThat(l_query.matches(l_logData.get("1")), is(equalTo(true)));
+    }
+
+    @Test
+    public void testCombinations() {
+        checkQuery(LogQuery.not(LogQuery.eq("verb", "POST")), "1", "3", "6");
+        checkQuery(LogQuery.not(LogQuery.not(LogQuery.eq("verb", "POST"))), "2", "4", "5");
+        checkQuery(LogQuery.and(LogQuery.eq("verb", "POST"), LogQuery.range("status", 500, 599)), "2", "4");
+        checkQuery(LogQuery.or(LogQuery.prefix("path", "/soap/"), LogQuery.eq("status", "404")), "3", "4", "5");
+        checkQuery(LogQuery.and(LogQuery.prefix("path", "/rest/"),
+                LogQuery.or(LogQuery.eq("verb", "DELETE"), LogQuery.not(LogQuery.eq("status", "200")))), "2", "3",
+                "6");
+        checkQuery(LogQuery.or(LogQuery.regex("id", "[12]"), LogQuery.eq("verb", "DELETE")), "1", "2", "6");
+        checkQuery(LogQuery.and(), "1", "2", "3", "4", "5", "6");
+        checkQuery(LogQuery.or());
+    }
+
+    @Test
+    public void testOptimize() {
+        LogQuery l_query = LogQuery.and(LogQuery.regex("path", "/rest/.*"),
+                LogQuery.and(LogQuery.range("status", 200, 299), LogQuery.eq("verb", "GET")));
+
+        assertThat("The nested ANDs should be merged, and the cheapest conditions come first",
+                l_query.optimize().toString(),
+                is(equalTo("(verb = GET AND status IN [200, 299] AND path MATCHES /rest/.*)")));
+
+        assertThat(LogQuery.or(LogQuery.eq("verb", "GET")).optimize().toString(), is(equalTo("verb = GET")));
+        assertThat(LogQuery.not(LogQuery.not(LogQuery.eq("verb", "GET"))).optimize().toString(),
+                is(equalTo("verb = GET")));
+        assertThat(LogQuery.in("verb", Arrays.asList("GET")).fetchHeaders(), containsInAnyOrder("verb"));
+    }
+
+}
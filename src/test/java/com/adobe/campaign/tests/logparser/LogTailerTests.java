@@ -0,0 +1,173 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testng.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests for following growing log files
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class LogTailerTests {
+
+    private static ParseDefinition fetchDefinition() {
+        ParseDefinitionEntry l_verb = new ParseDefinitionEntry("verb");
+        l_verb.setStart("verb=");
+        l_verb.setEnd(";");
+
+        ParseDefinition l_definition = new ParseDefinition("Tailing");
+        l_definition.addEntry(l_verb);
+        l_definition.defineKeys(l_verb);
+        return l_definition;
+    }
+
+    private static void append(File in_file, String in_content) throws IOException {
+        Files.write(in_file.toPath(), in_content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void testFollowGrowingFile() throws IOException, InstantiationException, IllegalAccessException {
+        File l_logFile = File.createTempFile("tailed", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), "verb=GET;\nnoise\nverb=PUT;\n".getBytes(StandardCharsets.UTF_8));
+
+        try (LogTailer<GenericEntry> l_tailer = new LogTailer<>(fetchDefinition(), GenericEntry.factory())) {
+            l_tailer.addFile(l_logFile.getPath());
+
+            assertThat("The existing lines should be read", l_tailer.poll(), is(equalTo(3L)));
+            assertThat(l_tailer.getLogData().get("GET").fetchFrequence(), is(equalTo(1L)));
+            assertThat(l_tailer.getStatistics().getLinesSkipped(), is(equalTo(1L)));
+
+            assertThat("Nothing should be read if the file did not change", l_tailer.poll(), is(equalTo(0L)));
+
+            append(l_logFile, "verb=GET;\nverb=DEL");
+            assertThat("Only the complete lines should be read", l_tailer.poll(), is(equalTo(1L)));
+            assertThat(l_tailer.getLogData().get("GET").fetchFrequence(), is(equalTo(2L)));
+            assertThat(l_tailer.getLogData().get("DEL"), is(nullValue()));
+
+            append(l_logFile, "ETE;\r\n");
+            assertThat("The line should be read once complete", l_tailer.poll(), is(equalTo(1L)));
+            assertThat(l_tailer.getLogData().get("DELETE").fetchFrequence(), is(equalTo(1L)));
+
+            assertThat(l_tailer.getStatistics().getLinesRead(), is(equalTo(5L)));
+        }
+    }
+
+    @Test
+    public void testRotation() throws IOException, InstantiationException, IllegalAccessException {
+        File l_logFile = File.createTempFile("rotated", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), "verb=GET;\nverb=GET;\nverb=GET;\n".getBytes(StandardCharsets.UTF_8));
+
+        try (LogTailer<GenericEntry> l_tailer = new LogTailer<>(fetchDefinition(), GenericEntry.factory())) {
+            l_tailer.addFile(l_logFile.getPath());
+            l_tailer.poll();
+
+            //The file is rotated, and replaced by a new smaller file
+            File l_rotatedFile = new File(l_logFile.getPath() + ".1");
+            l_rotatedFile.deleteOnExit();
+            assertThat(l_logFile.renameTo(l_rotatedFile), is(true));
+
+            assertThat("Missing files should be ignored", l_tailer.poll(), is(equalTo(0L)));
+
+            Files.write(l_logFile.toPath(), "verb=PUT;\n".getBytes(StandardCharsets.UTF_8));
+
+            assertThat("The new file should be read from the start", l_tailer.poll(), is(equalTo(1L)));
+            assertThat(l_tailer.getLogData().get("GET").fetchFrequence(), is(equalTo(3L)));
+            assertThat(l_tailer.getLogData().get("PUT").fetchFrequence(), is(equalTo(1L)));
+        }
+    }
+
+    @Test
+    public void testPeriodicPolls() throws IOException, InterruptedException {
+        File l_logFile = File.createTempFile("periodic", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), "verb=GET;\n".getBytes(StandardCharsets.UTF_8));
+
+        try (LogTailer<GenericEntry> l_tailer = new LogTailer<>(fetchDefinition(), GenericEntry.factory())) {
+            l_tailer.addFile(l_logFile.getPath());
+            l_tailer.start(10, TimeUnit.MILLISECONDS);
+
+            assertThrows(IllegalStateException.class, () -> l_tailer.start(10, TimeUnit.MILLISECONDS));
+
+            append(l_logFile, "verb=GET;\n");
+
+            for (int i = 0; i < 500 && l_tailer.getStatistics().getLinesRead() < 2; i++) {
+                Thread.sleep(10);
+            }
+
+            final LogData<GenericEntry> l_snapshot = l_tailer.fetchSnapshot();
+            assertThat("The periodic polls should read the new lines", l_snapshot.get("GET").fetchFrequence(),
+                    is(equalTo(2L)));
+
+            append(l_logFile, "verb=GET;\n");
+            for (int i = 0; i < 500 && l_tailer.getStatistics().getLinesRead() < 3; i++) {
+                Thread.sleep(10);
+            }
+
+            assertThat("The snapshot should not be changed by the polls", l_snapshot.get("GET").fetchFrequence(),
+                    is(equalTo(2L)));
+            assertThat(l_tailer.fetchSnapshot().get("GET").fetchFrequence(), is(equalTo(3L)));
+        }
+    }
+
+    @Test
+    public void testPeriodicPollsAfterError() throws IOException, InterruptedException {
+        File l_logFile = File.createTempFile("periodicError", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), "verb=PUT;\n".getBytes(StandardCharsets.UTF_8));
+
+        AtomicBoolean l_failed = new AtomicBoolean(false);
+        LogEntryFactory<GenericEntry> l_failingFactory = () -> {
+            if (l_failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Failing the first poll");
+            }
+            return new GenericEntry();
+        };
+
+        try (LogTailer<GenericEntry> l_tailer = new LogTailer<>(fetchDefinition(), l_failingFactory)) {
+            l_tailer.addFile(l_logFile.getPath());
+            l_tailer.start(10, TimeUnit.MILLISECONDS);
+
+            for (int i = 0; i < 500 && !l_failed.get(); i++) {
+                Thread.sleep(10);
+            }
+            append(l_logFile, "verb=GET;\n");
+
+            for (int i = 0; i < 500 && l_tailer.fetchSnapshot().get("GET") == null; i++) {
+                Thread.sleep(10);
+            }
+
+            assertThat("The polls should continue after an error", l_failed.get(), is(equalTo(true)));
+            assertThat(l_tailer.fetchSnapshot().get("GET"), is(notNullValue()));
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testng.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.Test;
+
+import com.adobe.campaign.tests.logparser.exceptions.IncorrectParseDefinitionException;
+import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
+
+/**
+ * Tests for the aggregation of numeric values
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class NumericAggregateTests {
+
+    @Test
+    public void testAggregate() {
+        NumericAggregate l_aggregate = new NumericAggregate();
+
+        assertThat(Double.isNaN(l_aggregate.getAverage()), is(equalTo(true)));
+        assertThat(Double.isNaN(l_aggregate.fetchPercentile(50)), is(equalTo(true)));
+
+        for (int i = 1; i <= 10000; i++) {
+            l_aggregate.add(i);
+        }
+        l_aggregate.add(42, 0);
+        l_aggregate.add(Double.NaN);
+
+        assertThat(l_aggregate.getCount(), is(equalTo(10000L)));
+        assertThat(l_aggregate.getSum(), is(equalTo(50005000.0)));
+        assertThat(l_aggregate.getMin(), is(equalTo(1.0)));
+        assertThat(l_aggregate.getMax(), is(equalTo(10000.0)));
+        assertThat(l_aggregate.getAverage(), is(equalTo(5000.5)));
+
+        assertThat(l_aggregate.fetchPercentile(50), is(closeTo(5000, 5000 * PercentileSketch.RELATIVE_ACCURACY)));
+        assertThat(l_aggregate.fetchPercentile(95), is(closeTo(9500, 9500 * PercentileSketch.RELATIVE_ACCURACY)));
+        assertThat(l_aggregate.fetchPercentile(99), is(closeTo(9900, 9900 * PercentileSketch.RELATIVE_ACCURACY)));
+        assertThat(l_aggregate.fetchPercentile(0), is(equalTo(1.0)));
+        assertThat(l_aggregate.fetchPercentile(100), is(equalTo(10000.0)));
+
+        assertThrows(IllegalArgumentException.class, () -> l_aggregate.fetchPercentile(101));
+    }
+
+    @Test
+    public void testNegativeAndWeightedValues() {
+        NumericAggregate l_aggregate = new NumericAggregate();
+        l_aggregate.add(-100, 10);
+        l_aggregate.add(0, 80);
+        l_aggregate.add(250, 10);
+
+        assertThat(l_aggregate.getCount(), is(equalTo(100L)));
+        assertThat(l_aggregate.getSum(), is(equalTo(1500.0)));
+        assertThat(l_aggregate.fetchPercentile(5), is(closeTo(-100, 1)));
+        assertThat(l_aggregate.fetchPercentile(50), is(equalTo(0.0)));
+        assertThat(l_aggregate.fetchPercentile(95), is(closeTo(250, 2.5)));
+    }
+
+    @Test
+    public void testNonFiniteValues() {
+        NumericAggregate l_aggregate = new NumericAggregate();
+        l_aggregate.add(Double.parseDouble("Infinity"));
+        l_aggregate.add(Double.NEGATIVE_INFINITY, 3);
+        l_aggregate.add(100);
+
+        assertThat("Only the finite value is aggregated", l_aggregate.getCount(), is(equalTo(1L)));
+        assertThat(l_aggregate.getMax(), is(equalTo(100.0)));
+        assertThat(l_aggregate.fetchPercentile(50), is(equalTo(100.0)));
+
+        assertThat(NumericAggregate.toNumber("Infinity"), is(nullValue()));
+        assertThat(NumericAggregate.toNumber("1e400"), is(nullValue()));
+        assertThat(NumericAggregate.toNumber(Double.NaN), is(nullValue()));
+        assertThat(NumericAggregate.toNumber(" 12.5 "), is(equalTo(12.5)));
+
+        GenericEntry l_entry = new GenericEntry();
+        l_entry.addAggregatedValue("bytes", "1e400", 1);
+        l_entry.addAggregatedValue("bytes", "-Infinity", 1);
+        assertThat("Values that are not finite are ignored", l_entry.fetchAggregate("bytes"), is(nullValue()));
+        l_entry.addAggregatedValue("bytes", "7", 1);
+        assertThat(l_entry.fetchAggregate("bytes").getSum(), is(equalTo(7.0)));
+    }
+
+    @Test
+    public void testMerge() {
+        NumericAggregate l_whole = new NumericAggregate();
+        NumericAggregate l_firstPartition = new NumericAggregate();
+        NumericAggregate l_secondPartition = new NumericAggregate();
+
+        for (int i = 1; i <= 5000; i++) {
+            final double lt_value = i * 0.37;
+            l_whole.add(lt_value);
+            (i % 3 == 0 ? l_firstPartition : l_secondPartition).add(lt_value);
+        }
+
+        NumericAggregate l_merged = l_firstPartition.copy();
+        l_merged.merge(l_secondPartition);
+        l_merged.merge(new NumericAggregate());
+
+        assertThat(l_merged.getCount(), is(equalTo(l_whole.getCount())));
+        assertThat(l_merged.getSum(), is(closeTo(l_whole.getSum(), 0.001)));
+        assertThat(l_merged.getMin(), is(equalTo(l_whole.getMin())));
+        assertThat(l_merged.getMax(), is(equalTo(l_whole.getMax())));
+        for (double lt_percentile : new double[] { 1, 50, 95, 99 }) {
+            assertThat("The merged sketch should give the same percentiles",
+                    l_merged.fetchPercentile(lt_percentile), is(equalTo(l_whole.fetchPercentile(lt_percentile))));
+        }
+        assertThat("The partitions should not be changed", l_firstPartition.getCount(), is(equalTo(1666L)));
+    }
+
+    /**
+     * Aggregates the sizes of the responses while parsing the Apache log, and
+     * compares them with the sizes read directly from the file
+     */
+    @Test
+    public void testAggregatesWhileParsing() throws IOException, InstantiationException, IllegalAccessException,
+            StringParseException, IncorrectParseDefinitionException {
+        ParseDefinitionEntry l_status = new ParseDefinitionEntry("status");
+        l_status.setStart("HTTP/1.1\" ");
+        l_status.setEnd(" ");
+
+        ParseDefinitionEntry l_bytes = new ParseDefinitionEntry("bytes");
+        l_bytes.setStart(" ");
+        l_bytes.setEnd(" ");
+
+        ParseDefinition l_apacheDefinition = LogFileReadingTests.fetchApacheDefinition();
+        ParseDefinition l_definition = new ParseDefinition("SSL Log with sizes");
+        l_definition.setDefinitionEntries(new ArrayList<>(l_apacheDefinition.getDefinitionEntries()));
+        l_definition.addEntry(l_status);
+        l_definition.addEntry(l_bytes);
+        l_definition.defineKeys(l_definition.getDefinitionEntries().subList(0, 2));
+        l_definition.defineAggregates(l_bytes);
+
+        Map<String, NumericAggregate> l_expected = new HashMap<>();
+        final Pattern l_linePattern = Pattern.compile("\"(\\S+) /rest/head/\\S+ HTTP/1.1\" \\d+ (\\d+) ");
+        for (String lt_line : Files.readAllLines(Paths.get(LogFileReadingTests.APACHE_LOG_FILE))) {
+            final Matcher lt_matcher = l_linePattern.matcher(lt_line);
+            if (lt_matcher.find()) {
+                l_expected.computeIfAbsent(lt_matcher.group(1), k -> new NumericAggregate())
+                        .add(Double.parseDouble(lt_matcher.group(2)));
+            }
+        }
+
+        final List<String> l_files = Arrays.asList(LogFileReadingTests.APACHE_LOG_FILE);
+        LogData<GenericEntry> l_logData = LogDataFactory.generateLogData(l_files, l_definition);
+        LogData<GenericEntry> l_mappedLogData = new LogData<>(StringParseFactory
+                .extractLogEntryMapFromMappedFiles(l_files, l_definition, GenericEntry.factory(),
+                        java.nio.charset.StandardCharsets.UTF_8, 1024));
+
+        for (LogData<GenericEntry> lt_logData : Arrays.asList(l_logData, l_mappedLogData)) {
+            LogData<GenericEntry> lt_perVerb = lt_logData.groupBy("verb");
+
+            assertThat(lt_perVerb.getEntries().size(), is(equalTo(l_expected.size())));
+            for (GenericEntry lt_entry : lt_perVerb.getEntries().values()) {
+                final NumericAggregate lt_expected = l_expected.get(lt_entry.get("verb"));
+                final NumericAggregate lt_bytes = lt_entry.fetchAggregate("bytes");
+
+                assertThat(lt_bytes.getCount(), is(equalTo(lt_entry.fetchFrequence())));
+                assertThat(lt_bytes.getCount(), is(equalTo(lt_expected.getCount())));
+                assertThat(lt_bytes.getSum(), is(equalTo(lt_expected.getSum())));
+                assertThat(lt_bytes.getMin(), is(equalTo(lt_expected.getMin())));
+                assertThat(lt_bytes.getMax(), is(equalTo(lt_expected.getMax())));
+                assertThat(lt_bytes.fetchPercentile(95), is(equalTo(lt_expected.fetchPercentile(95))));
+            }
+        }
+    }
+
+    @Test
+    public void testGroupByWithAggregates()
+            throws InstantiationException, IllegalAccessException, IncorrectParseDefinitionException {
+        ParseDefinition l_definition = new ParseDefinition("latencies");
+
+        final ParseDefinitionEntry l_host = new ParseDefinitionEntry("host");
+        final ParseDefinitionEntry l_latency = new ParseDefinitionEntry("latency");
+        l_definition.addEntry(l_host);
+        l_definition.addEntry(l_latency);
+        l_definition.defineKeys(Arrays.asList(l_host, l_latency));
+
+        LogData<GenericEntry> l_logData = new LogData<>();
+        final String[][] l_values = { { "a", "10" }, { "a", "30" }, { "a", "30" }, { "b", "5" }, { "b", "n/a" } };
+        for (String[] lt_values : l_values) {
+            GenericEntry lt_entry = new GenericEntry(l_definition);
+            lt_entry.fetchValueMap().put("host", lt_values[0]);
+            lt_entry.fetchValueMap().put("latency", lt_values[1]);
+            l_logData.addEntry(lt_entry);
+        }
+
+        LogData<GenericEntry> l_perHost = l_logData.groupByWithAggregates(Arrays.asList("host"),
+                Arrays.asList("latency"));
+
+        final NumericAggregate l_latencyOfA = l_perHost.get("a").fetchAggregate("latency");
+        assertThat(l_latencyOfA.getCount(), is(equalTo(3L)));
+        assertThat(l_latencyOfA.getSum(), is(equalTo(70.0)));
+        assertThat(l_latencyOfA.getMax(), is(equalTo(30.0)));
+
+        final NumericAggregate l_latencyOfB = l_perHost.get("b").fetchAggregate("latency");
+        assertThat("Values that are not numbers are ignored", l_latencyOfB.getCount(), is(equalTo(1L)));
+        assertThat(l_perHost.get("b").fetchFrequence(), is(equalTo(2L)));
+
+        assertThat("The aggregates are kept when grouping again",
+                l_perHost.groupBy(Arrays.asList()).getEntries().values().iterator().next()
+                        .fetchAggregate("latency").getSum(),
+                is(equalTo(75.0)));
+        assertThat(l_logData.groupBy("host").get("a").fetchAggregate("latency"), is(nullValue()));
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * MIT License
+ *
+ * © Copyright 2020 Adobe. All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.adobe.campaign.tests.logparser;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.testng.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.adobe.campaign.tests.logparser.exceptions.IncorrectParseDefinitionException;
+import com.adobe.campaign.tests.logparser.exceptions.LogDataImportExportException;
+import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
+
+/**
+ * Tests for the incremental parsing of growing files
+ *
+ *
+ * Author : gandomi
+ *
+ */
+public class ParseCheckpointTests {
+
+    private static ParseDefinition fetchDefinition() {
+        ParseDefinitionEntry l_verb = new ParseDefinitionEntry("verb");
+        l_verb.setStart("verb=");
+        l_verb.setEnd(";");
+
+        ParseDefinitionEntry l_path = new ParseDefinitionEntry("path");
+        l_path.setStart("path=");
+        l_path.setEnd(";");
+
+        ParseDefinition l_definition = new ParseDefinition("Checkpoint");
+        l_definition.setDefinitionEntries(Arrays.asList(l_verb, l_path));
+        l_definition.defineKeys(l_verb);
+        return l_definition;
+    }
+
+    @Test
+    public void testIncrementalParsing() throws IOException, InstantiationException, IllegalAccessException,
+            LogDataImportExportException, StringParseException, IncorrectParseDefinitionException {
+        File l_logFile = File.createTempFile("growing", ".log");
+        l_logFile.deleteOnExit();
+        File l_checkpointFile = File.createTempFile("checkpoint", ".json");
+        l_checkpointFile.delete();
+        l_checkpointFile.deleteOnExit();
+
+        Files.write(l_logFile.toPath(), "verb=GET;path=/a;\nverb=PUT;path=/b;\nverb=GET;pa"
+                .getBytes(StandardCharsets.UTF_8));
+        final List<String> l_files = Arrays.asList(l_logFile.getPath(), "nonExistant.log");
+
+        LogData<GenericEntry> l_firstRun = LogDataFactory.generateLogDataFromCheckpoint(l_files, fetchDefinition(),
+                l_checkpointFile.getPath());
+
+        assertThat("The incomplete line should not be parsed", l_firstRun.get("GET").fetchFrequence(),
+                is(equalTo(1L)));
+        assertThat("The checkpoint should be written", l_checkpointFile.exists());
+
+        ParseCheckpoint l_checkpoint = ParseCheckpoint.importCheckpoint(l_checkpointFile);
+        assertThat(l_checkpoint.getFiles().get(0).getPosition(), is(equalTo(36L)));
+        assertThat(l_checkpoint.getFiles().get(0).getSize(), is(equalTo(47L)));
+        assertThat(l_checkpoint.getFiles().get(1).getPosition(), is(equalTo(0L)));
+        assertThat(l_checkpoint.fetchLogData(), is(equalTo(l_firstRun)));
+
+        Files.write(l_logFile.toPath(), "th=/a;\nverb=DEL;path=/c;\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        LogData<GenericEntry> l_secondRun = LogDataFactory.generateLogDataFromCheckpoint(l_files,
+                fetchDefinition(), l_checkpointFile.getPath());
+
+        assertThat("The second run should give the same results as a full parsing", l_secondRun,
+                is(equalTo(LogDataFactory.generateLogData(l_files, fetchDefinition()))));
+        assertThat(l_secondRun.get("GET").fetchFrequence(), is(equalTo(2L)));
+        assertThat(l_secondRun.get("DEL", "path"), is(equalTo("/c")));
+
+        LogData<GenericEntry> l_thirdRun = LogDataFactory.generateLogDataFromCheckpoint(l_files,
+                fetchDefinition(), l_checkpointFile.getPath());
+        assertThat("Nothing should change if the files did not grow", l_thirdRun, is(equalTo(l_secondRun)));
+    }
+
+    @Test
+    public void testCheckpointWithRotation() throws IOException, InstantiationException, IllegalAccessException,
+            LogDataImportExportException {
+        File l_logFile = File.createTempFile("rotated", ".log");
+        l_logFile.deleteOnExit();
+        File l_checkpointFile = File.createTempFile("checkpoint", ".json");
+        l_checkpointFile.delete();
+        l_checkpointFile.deleteOnExit();
+        final List<String> l_files = Arrays.asList(l_logFile.getPath());
+
+        Files.write(l_logFile.toPath(), "verb=GET;path=/a;\nverb=GET;path=/a;\n".getBytes(StandardCharsets.UTF_8));
+        LogDataFactory.generateLogDataFromCheckpoint(l_files, fetchDefinition(), l_checkpointFile.getPath());
+
+        //The file is truncated, and written again
+        Files.write(l_logFile.toPath(), "verb=PUT;path=/b;\n".getBytes(StandardCharsets.UTF_8));
+        LogData<GenericEntry> l_logData = LogDataFactory.generateLogDataFromCheckpoint(l_files, fetchDefinition(),
+                l_checkpointFile.getPath());
+
+        assertThat("The previous entries should be kept", l_logData.get("GET").fetchFrequence(), is(equalTo(2L)));
+        assertThat("The rotated file should be parsed from the start", l_logData.get("PUT").fetchFrequence(),
+                is(equalTo(1L)));
+
+        ParseDefinition l_otherDefinition = fetchDefinition();
+        l_otherDefinition.setTitle("Other");
+        LogData<GenericEntry> l_otherLogData = LogDataFactory.generateLogDataFromCheckpoint(l_files,
+                l_otherDefinition, l_checkpointFile.getPath());
+
+        assertThat("A checkpoint of another definition should be ignored", l_otherLogData.get("GET"),
+                is(nullValue()));
+        assertThat(l_otherLogData.get("PUT").fetchFrequence(), is(equalTo(1L)));
+    }
+
+    /**
+     * Testing that a checkpoint is not used when the keys or the aggregates of
+     * the definition change
+     *
+     * Author : gandomi
+     *
+     */
+    @Test
+    public void testCheckpointWithChangedDefinition() throws IOException, InstantiationException,
+            IllegalAccessException, LogDataImportExportException {
+        File l_logFile = File.createTempFile("changed", ".log");
+        l_logFile.deleteOnExit();
+        File l_checkpointFile = File.createTempFile("checkpoint", ".json");
+        l_checkpointFile.delete();
+        l_checkpointFile.deleteOnExit();
+        final List<String> l_files = Arrays.asList(l_logFile.getPath());
+
+        Files.write(l_logFile.toPath(), "verb=GET;path=/a;\nverb=GET;path=/b;\n".getBytes(StandardCharsets.UTF_8));
+        LogDataFactory.generateLogDataFromCheckpoint(l_files, fetchDefinition(), l_checkpointFile.getPath());
+
+        //The same definition, keyed by path
+        ParseDefinition l_pathDefinition = new ParseDefinition(fetchDefinition().getTitle());
+        l_pathDefinition.setDefinitionEntries(fetchDefinition().getDefinitionEntries());
+        l_pathDefinition.defineKeys(l_pathDefinition.getDefinitionEntries().get(1));
+        assertThat("ParseDefinition equality ignores the keys", l_pathDefinition, is(equalTo(fetchDefinition())));
+
+        LogData<GenericEntry> l_pathLogData = LogDataFactory.generateLogDataFromCheckpoint(l_files,
+                l_pathDefinition, l_checkpointFile.getPath());
+        assertThat("The entries should be keyed by path", l_pathLogData.getEntries().keySet(),
+                containsInAnyOrder("/a", "/b"));
+
+        //Aggregating definitions are always parsed from the start
+        ParseDefinition l_aggregatingDefinition = new ParseDefinition(fetchDefinition().getTitle());
+        l_aggregatingDefinition.setDefinitionEntries(fetchDefinition().getDefinitionEntries());
+        l_aggregatingDefinition.defineKeys(l_aggregatingDefinition.getDefinitionEntries().get(0));
+        l_aggregatingDefinition.defineAggregates(l_aggregatingDefinition.getDefinitionEntries().get(1));
+
+        LogDataFactory.generateLogDataFromCheckpoint(l_files, l_aggregatingDefinition, l_checkpointFile.getPath());
+        Files.write(l_logFile.toPath(), "verb=GET;path=3;\nverb=GET;path=4;\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        LogData<GenericEntry> l_aggregatedLogData = LogDataFactory.generateLogDataFromCheckpoint(l_files,
+                l_aggregatingDefinition, l_checkpointFile.getPath());
+
+        assertThat(l_aggregatedLogData.get("GET").fetchFrequence(), is(equalTo(4L)));
+        assertThat("The aggregates should cover all the lines",
+                l_aggregatedLogData.get("GET").fetchAggregate("path").getSum(), is(equalTo(7.0)));
+    }
+
+    @Test
+    public void testImportCheckpoint_Negative() {
+        assertThrows(LogDataImportExportException.class,
+                () -> ParseCheckpoint.importCheckpoint(new File("nonExistantCheckpoint.json")));
+    }
+
+}
@@ -14,6 +14,7 @@ package com.adobe.campaign.tests.logparser;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.expectThrows;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -964,4 +965,296 @@ public class ParseTesting {
         assertThat("We should have values", l_parseResult.size(), is(equalTo(3)));
     }
 
+    @Test
+    public void testCompiledParsePlan() throws StringParseException {
+        String l_apacheLogString = "afthost32.qa.campaign.adobe.com:443 10.10.247.85 - - [02/Apr/2020:08:08:28 +0200] \"GET /rest/head/workflow/WKF193 HTTP/1.1\" 200 20951 \"-\" \"Apache-HttpClient/4.5.2 (Java/1.8.0_242)\"";
+
+        ParseDefinitionEntry l_verbDefinition2 = new ParseDefinitionEntry();
+
+        l_verbDefinition2.setTitle("verb");
+        l_verbDefinition2.setStart("\"");
+        l_verbDefinition2.setEnd(" /");
+
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart(" /rest/head/");
+        l_apiDefinition.setEnd(" ");
+
+        ParseDefinition l_pDefinition = new ParseDefinition("SSL Log");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_verbDefinition2, l_apiDefinition));
+
+        CompiledParsePlan l_plan = l_pDefinition.compile();
+
+        Map<String, String> l_result = l_plan.parse(l_apacheLogString);
+
+        assertThat("We should have a result", l_result, is(notNullValue()));
+        assertThat("The plan should give the same results as parseString", l_result,
+                is(equalTo(StringParseFactory.parseString(l_apacheLogString, l_pDefinition))));
+        assertThat("The line should be compliant", l_plan.isStringCompliant(l_apacheLogString));
+    }
+
+    @Test
+    public void testCompiledParsePlanNegative() {
+        String l_apacheLogString = "-:443 10.10.247.65 - - [02/Apr/2020:07:11:04 +0200] \"-\" 408 4640 \"-\" \"-\"";
+
+        ParseDefinitionEntry l_verbDefinition2 = new ParseDefinitionEntry();
+
+        l_verbDefinition2.setTitle("verb");
+        l_verbDefinition2.setStart("\"");
+        l_verbDefinition2.setEnd(" /");
+
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart(" /rest/head/");
+        l_apiDefinition.setEnd("/");
+
+        ParseDefinition l_pDefinition = new ParseDefinition("SSL Log");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_verbDefinition2, l_apiDefinition));
+
+        CompiledParsePlan l_plan = l_pDefinition.compile();
+
+        assertThat("A non-compliant line should return null", l_plan.parse(l_apacheLogString),
+                is(nullValue()));
+        assertThat("The compiled plan should agree with isStringCompliant",
+                l_plan.isStringCompliant(l_apacheLogString),
+                is(equalTo(StringParseFactory.isStringCompliant(l_apacheLogString, l_pDefinition))));
+    }
+
+    @Test
+    public void testCompiledParsePlanIsASnapshot() {
+        String l_line = "                <soapCall name=\"resetServiceMobileAppsCustomHook\" service=\"nms:mobileApp\">";
+
+        ParseDefinitionEntry l_lineFinder = new ParseDefinitionEntry();
+
+        l_lineFinder.setTitle("lineBeginning");
+        l_lineFinder.setStart("<soapCall");
+        l_lineFinder.setEnd(" ");
+        l_lineFinder.setCaseSensitive(false);
+        l_lineFinder.setToPreserve(false);
+
+        ParseDefinitionEntry l_verb = new ParseDefinitionEntry();
+
+        l_verb.setTitle("verb");
+        l_verb.setStart("name=\"");
+        l_verb.setEnd("\"");
+        l_verb.setCaseSensitive(false);
+
+        ParseDefinition l_pDefinition = new ParseDefinition("Soap Calls");
+        l_pDefinition.addEntry(l_lineFinder);
+        l_pDefinition.addEntry(l_verb);
+
+        CompiledParsePlan l_plan = l_pDefinition.compile();
+
+        l_verb.setStart("nonExistant=\"");
+
+        Map<String, String> l_result = l_plan.parse(l_line);
+        assertThat("Changes to the definition should not affect the compiled plan", l_result,
+                is(notNullValue()));
+        assertThat("Only preserved values should be returned", l_result.size(), is(equalTo(1)));
+        assertThat(l_result.get("verb"), is(equalTo("resetServiceMobileAppsCustomHook")));
+    }
+
+    @Test
+    public void testParsedLineOffsets() {
+        String l_apacheLogString = "afthost32.qa.campaign.adobe.com:443 10.10.247.85 - - [02/Apr/2020:08:08:28 +0200] \"GET /rest/head/workflow/WKF193 HTTP/1.1\" 200 20951 \"-\" \"Apache-HttpClient/4.5.2 (Java/1.8.0_242)\"";
+
+        ParseDefinitionEntry l_dateDefinition = new ParseDefinitionEntry();
+
+        l_dateDefinition.setTitle("logDate");
+        l_dateDefinition.setStart("[");
+        l_dateDefinition.setEnd("]");
+        l_dateDefinition.setToPreserve(false);
+
+        ParseDefinitionEntry l_verbDefinition2 = new ParseDefinitionEntry();
+
+        l_verbDefinition2.setTitle("verb");
+        l_verbDefinition2.setStart("\"");
+        l_verbDefinition2.setEnd(" /");
+
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart(" /rest/head/");
+        l_apiDefinition.setEnd(" ");
+
+        ParseDefinition l_pDefinition = new ParseDefinition("SSL Log");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_dateDefinition, l_verbDefinition2, l_apiDefinition));
+
+        ParsedLine l_parsedLine = l_pDefinition.compile().parse(l_apacheLogString);
+
+        assertThat("We should have a result", l_parsedLine, is(notNullValue()));
+        assertThat("The verb should start after the quote", l_parsedLine.fetchStartOffset(1), is(equalTo(83)));
+        assertThat("The verb should end before the path", l_parsedLine.fetchEndOffset(1), is(equalTo(86)));
+        assertThat(l_parsedLine.fetchValue(1), is(equalTo("GET")));
+        assertThat(l_parsedLine.get("path"), is(equalTo("workflow/WKF193")));
+
+        assertThat("Non preserved values should not be visible", l_parsedLine.containsKey("logDate"),
+                is(equalTo(false)));
+        assertThat(l_parsedLine.get("logDate"), is(nullValue()));
+        assertThat(l_parsedLine.size(), is(equalTo(2)));
+        assertThat(l_parsedLine.keySet(), contains("verb", "path"));
+    }
+
+    @Test
+    public void testParsedLineTrimming() throws StringParseException {
+        String l_line = "INFO | 25-May-2020 03:29:28:097 | - (SOAPutils.java:434) - HEADER ACTION   xtk:persist  #NewInstance ";
+
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("API");
+        l_apiDefinition.setStart("HEADER ACTION ");
+        l_apiDefinition.setEnd("#");
+
+        ParseDefinitionEntry l_verbDefinition = new ParseDefinitionEntry();
+
+        l_verbDefinition.setTitle("verb");
+        l_verbDefinition.setStart("#");
+        l_verbDefinition.setEnd(null);
+
+        ParseDefinition l_pDefinition = new ParseDefinition("Soap Call");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_apiDefinition, l_verbDefinition));
+
+        ParsedLine l_parsedLine = l_pDefinition.compile().parse(l_line);
+
+        assertThat(l_parsedLine.get("API"), is(equalTo("xtk:persist")));
+        assertThat(l_parsedLine.get("verb"), is(equalTo("NewInstance")));
+        assertThat("The values should be the same as those of parseString", l_parsedLine,
+                is(equalTo(StringParseFactory.parseString(l_line, l_pDefinition))));
+    }
+
+    /**
+     * Testing that parseString accepts empty values, names the missing
+     * markers, and reuses the compiled plan of the definition
+     *
+     * Author : gandomi
+     *
+     * @throws StringParseException
+     */
+    @Test
+    public void testParseStringWithCachedPlan() throws StringParseException {
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+        l_apiDefinition.setTitle("API");
+        l_apiDefinition.setStart("HEADER ACTION ");
+        l_apiDefinition.setEnd("#");
+
+        ParseDefinitionEntry l_verbDefinition = new ParseDefinitionEntry();
+        l_verbDefinition.setTitle("verb");
+        l_verbDefinition.setStart("#");
+        l_verbDefinition.setEnd(";");
+
+        ParseDefinition l_pDefinition = new ParseDefinition("Soap Call");
+        l_pDefinition.setDefinitionEntries(new ArrayList<>(Arrays.asList(l_apiDefinition, l_verbDefinition)));
+
+        final String l_emptyLine = "HEADER ACTION xtk:persist #;";
+        assertThat("An empty value is not compliant",
+                StringParseFactory.isStringCompliant(l_emptyLine, l_pDefinition), is(false));
+        assertThat("parseString should still return empty values",
+                StringParseFactory.parseString(l_emptyLine, l_pDefinition).get("verb"), is(equalTo("")));
+
+        StringParseException l_exception = expectThrows(StringParseException.class,
+                () -> StringParseFactory.parseString("HEADER ACTION xtk:persist #NewInstance", l_pDefinition));
+        assertThat(l_exception.getMessage(),
+                is(equalTo("Could not find the end location for verb in string \n#NewInstance.")));
+
+        l_exception = expectThrows(StringParseException.class,
+                () -> StringParseFactory.parseString("ACTION xtk:persist #NewInstance;", l_pDefinition));
+        assertThat(l_exception.getMessage(), startsWith("Could not find the start location for API"));
+
+        CompiledParsePlan l_plan = l_pDefinition.fetchCompiledPlan();
+        assertThat(l_pDefinition.fetchCompiledPlan(), is(sameInstance(l_plan)));
+
+        l_verbDefinition.setEnd(null);
+        assertThat("A change of an entry should compile the definition again",
+                l_pDefinition.fetchCompiledPlan(), is(not(sameInstance(l_plan))));
+        assertThat(StringParseFactory.parseString("HEADER ACTION xtk:persist #NewInstance", l_pDefinition)
+                .get("verb"), is(equalTo("NewInstance")));
+    }
+
+    @Test
+    public void testIndexOfIgnoreCase() {
+        String logString = "J_BfmC8mfw==|SoapAction:xtk%3aqueryDef#ExecuteQuery|Content-Length:591|soapACTION:nms%3adelivery#Prepare";
+
+        assertThat("We should find the first occurence regardless of the case",
+                ParseDefinitionEntry.indexOfIgnoreCase(logString, "soapaction:", 0),
+                is(equalTo(logString.toLowerCase().indexOf("soapaction:"))));
+
+        assertThat("We should find the second occurence when searching from an index",
+                ParseDefinitionEntry.indexOfIgnoreCase(logString, "soapaction:", 14),
+                is(equalTo(logString.toLowerCase().indexOf("soapaction:", 14))));
+
+        assertThat("We should not find a missing string",
+                ParseDefinitionEntry.indexOfIgnoreCase(logString, "notthere", 0), is(equalTo(-1)));
+
+        assertThat("An empty search string is found at the start index",
+                ParseDefinitionEntry.indexOfIgnoreCase(logString, "", 3), is(equalTo(3)));
+    }
+
+    @Test
+    public void testCaseInsensitiveMarkersAreUpdated() throws StringParseException {
+        String logString = "J_BfmC8mfw==|SOAPACTION:xtk%3aqueryDef#ExecuteQuery|Content-Length:591";
+
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart("Content-Length:");
+        l_apiDefinition.setEnd("#");
+        l_apiDefinition.setCaseSensitive(false);
+
+        l_apiDefinition.setStart("soapAction:");
+
+        assertThat("The values should be fetched with the new start marker",
+                StringParseFactory.fetchValue(logString, l_apiDefinition), is(equalTo("xtk%3aqueryDef")));
+
+        ParseDefinitionEntry l_copy = new ParseDefinitionEntry(l_apiDefinition);
+        assertThat("The copy should behave like the original", StringParseFactory.fetchValue(logString, l_copy),
+                is(equalTo("xtk%3aqueryDef")));
+    }
+
+    @Test
+    public void testPrefilter() {
+        ParseDefinitionEntry l_dateDefinition = new ParseDefinitionEntry("logDate");
+        l_dateDefinition.setStart("[");
+        l_dateDefinition.setEnd("]");
+
+        ParseDefinitionEntry l_errorDefinition = new ParseDefinitionEntry("error");
+        l_errorDefinition.setStart("ERROR CODE:");
+        l_errorDefinition.setEnd(";");
+        l_errorDefinition.setCaseSensitive(false);
+
+        ParseDefinition l_pDefinition = new ParseDefinition("Errors");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_dateDefinition, l_errorDefinition));
+
+        CompiledParsePlan l_plan = l_pDefinition.compile();
+        LinePrefilter l_prefilter = l_plan.getPrefilter();
+
+        assertThat("The longest marker should be the anchor", l_prefilter.getAnchor(),
+                is(equalTo("error code:")));
+        assertThat(l_prefilter.getAnchorMarkerIndex(), is(equalTo(2)));
+
+        final String l_infoLine = "[02/Apr/2020:08:08:28] INFO everything is fine;";
+        assertThat("Lines without the anchor should be rejected", l_prefilter.mayMatch(l_infoLine),
+                is(false));
+        assertThat(l_plan.parse(l_infoLine), is(nullValue()));
+
+        final String l_errorLine = "[02/Apr/2020:08:08:28] Error Code: 42;";
+        assertThat("The anchor should respect the case sensitivity", l_prefilter.mayMatch(l_errorLine),
+                is(true));
+        assertThat(l_plan.parse(l_errorLine).get("error"), is(equalTo("42")));
+
+        final String l_unorderedLine = "Error Code: 42; [02/Apr/2020:08:08:28]";
+        assertThat("The prefilter is only a first check", l_prefilter.mayMatch(l_unorderedLine), is(true));
+        assertThat(l_plan.parse(l_unorderedLine), is(nullValue()));
+
+        ParseDefinition l_emptyDefinition = new ParseDefinition("No markers");
+        ParseDefinitionEntry l_fullLine = new ParseDefinitionEntry("line");
+        l_fullLine.setStartStartOfLine();
+        l_fullLine.setEndEOL();
+        l_emptyDefinition.addEntry(l_fullLine);
+
+        assertThat("Without markers every line should be accepted",
+                l_emptyDefinition.compile().getPrefilter().mayMatch("anything"), is(true));
+    }
+
 }
@@ -18,6 +18,10 @@ import static org.hamcrest.Matchers.not;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.testng.annotations.Test;
 
 public class StdLogEntryTests {
@@ -172,4 +176,45 @@ public class StdLogEntryTests {
                 !l_inputData.matches(l_filterMap3));
 
     }
+
+    @Test
+    public void testLongFrequence() {
+        GenericEntry l_inputData = new GenericEntry();
+
+        l_inputData.addFrequence(Integer.MAX_VALUE);
+        l_inputData.addFrequence(Integer.MAX_VALUE);
+
+        assertThat("The frequence should go past the int limit", l_inputData.fetchFrequence(),
+                is(equalTo(2L * Integer.MAX_VALUE + 1)));
+
+        assertThat("The print out should contain the long frequence",
+                l_inputData.fetchPrintOut().endsWith(Long.toString(2L * Integer.MAX_VALUE + 1)));
+    }
+
+    @Test(expectedExceptions = ArithmeticException.class)
+    public void testLongFrequence_IntegerOverflow() {
+        GenericEntry l_inputData = new GenericEntry();
+
+        l_inputData.addFrequence(Integer.MAX_VALUE);
+
+        l_inputData.getFrequence();
+    }
+
+    @Test
+    public void testConcurrentFrequence() throws InterruptedException {
+        GenericEntry l_inputData = new GenericEntry();
+
+        ExecutorService l_executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            l_executor.execute(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    l_inputData.incrementUsage();
+                }
+            });
+        }
+        l_executor.shutdown();
+        assertThat("The threads should finish", l_executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertThat("No increments should be lost", l_inputData.fetchFrequence(), is(equalTo(40001L)));
+    }
 }
@@ -15,19 +15,27 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.expectThrows;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.Matchers;
 import org.testng.annotations.Test;
 
 import com.adobe.campaign.tests.logparser.GenericEntry;
+import com.adobe.campaign.tests.logparser.LogEntryFactory;
+import com.adobe.campaign.tests.logparser.ParseDefinition;
 import com.adobe.campaign.tests.logparser.ParseDefinitionEntry;
 import com.adobe.campaign.tests.logparser.StringParseFactory;
 import com.adobe.campaign.tests.logparser.exceptions.StringParseException;
@@ -737,4 +745,181 @@ public class TestLogParsing {
 
         assertThat("We should have the correct key", l_entry.fetchHeaders(), Matchers.contains("API"));
     }
+    @Test
+    public void testExtractWithEntryFactory()
+            throws InstantiationException, IllegalAccessException, StringParseException {
+        //Create a parse definition
+        ParseDefinitionEntry l_apiDefinition = new ParseDefinitionEntry();
+
+        l_apiDefinition.setTitle("path");
+        l_apiDefinition.setStart("HEADER ACTION ");
+        l_apiDefinition.setEnd("#");
+
+        ParseDefinitionEntry l_verbDefinition = new ParseDefinitionEntry();
+
+        l_verbDefinition.setTitle("verb");
+        l_verbDefinition.setStart("#");
+        l_verbDefinition.setEnd(null);
+
+        ParseDefinition l_pDefinition = new ParseDefinition("ACC Coverage");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_apiDefinition, l_verbDefinition));
+
+        List<String> l_files = Arrays.asList("src/test/resources/logTests/acc/acc_integro_jenkins_log_exerpt.txt");
+
+        Map<String, GenericEntry> l_expectedEntries = StringParseFactory.extractLogEntryMap(l_files,
+                l_pDefinition, GenericEntry.class);
+
+        AtomicInteger l_nrOfCreatedEntries = new AtomicInteger();
+        LogEntryFactory<GenericEntry> l_countingFactory = new LogEntryFactory<GenericEntry>() {
+
+            @Override
+            public GenericEntry create() {
+                l_nrOfCreatedEntries.incrementAndGet();
+                return new GenericEntry();
+            }
+
+            @Override
+            public String makeKey(ParseDefinition in_parseDefinition, Map<String, String> in_values) {
+                return GenericEntry.factory().makeKey(in_parseDefinition, in_values);
+            }
+        };
+
+        Map<String, GenericEntry> l_entries = StringParseFactory.extractLogEntryMap(l_files, l_pDefinition,
+                l_countingFactory);
+
+        assertThat("The factory should give the same results", l_entries, is(equalTo(l_expectedEntries)));
+        assertThat("We should only create one entry per key", l_nrOfCreatedEntries.get(),
+                is(equalTo(l_expectedEntries.size())));
+
+        assertThat("A supplier should give the same results", StringParseFactory.extractLogEntryMap(l_files,
+                l_pDefinition, LogEntryFactory.fromSupplier(GenericEntry::new)), is(equalTo(l_expectedEntries)));
+    }
+
+    @Test
+    public void testGenericEntryFactoryKey() throws InstantiationException, IllegalAccessException {
+        ParseDefinition l_definition = new ParseDefinition("Keys");
+        l_definition.addEntry(new ParseDefinitionEntry("AAZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("ZZZ"));
+        l_definition.addEntry(new ParseDefinitionEntry("BAU"));
+        l_definition.defineKeys(Arrays.asList(l_definition.getDefinitionEntries().get(2),
+                l_definition.getDefinitionEntries().get(0)));
+
+        Map<String, String> l_values = new HashMap<>();
+        l_values.put("AAZ", "12");
+        l_values.put("ZZZ", "14");
+        l_values.put("BAU", "13");
+
+        GenericEntry l_entry = GenericEntry.factory().create(l_definition);
+        l_entry.setValuesFromMap(l_values);
+
+        assertThat("The factory should compute the same key as the entry",
+                GenericEntry.factory().makeKey(l_definition, l_values), is(equalTo(l_entry.makeKey())));
+        assertThat(l_entry.getParseDefinition(), is(equalTo(l_definition)));
+
+        l_values.remove("AAZ");
+        assertThat("Without a key value the entry should decide",
+                GenericEntry.factory().makeKey(l_definition, l_values), is(nullValue()));
+
+        assertThat(LogEntryFactory.fromClass(GenericEntry.class), is(equalTo(GenericEntry.factory())));
+    }
+
+    /**
+     * An entry class without a nullary constructor
+     */
+    public static class DefinedEntry extends GenericEntry {
+        public DefinedEntry(ParseDefinition in_definition) {
+            super(in_definition);
+        }
+    }
+
+    @Test
+    public void testClassFactory() throws InstantiationException, IllegalAccessException {
+        LogEntryFactory<GenericEntry> l_factory = LogEntryFactory.fromClass(GenericEntry.class);
+        assertThat(l_factory.create(), is(notNullValue()));
+
+        LogEntryFactory<DefinedEntry> l_definedFactory = LogEntryFactory.fromClass(DefinedEntry.class);
+        InstantiationException l_exception = expectThrows(InstantiationException.class,
+                () -> l_definedFactory.create());
+        assertThat(l_exception.getCause(), is(Matchers.instanceOf(NoSuchMethodException.class)));
+    }
+
+    @Test
+    public void testKeyFirstExtraction() throws IOException, InstantiationException, IllegalAccessException,
+            StringParseException {
+        ParseDefinitionEntry l_aDefinition = new ParseDefinitionEntry();
+        l_aDefinition.setTitle("A");
+        l_aDefinition.setStart("A=");
+        l_aDefinition.setEnd("|");
+
+        ParseDefinitionEntry l_bDefinition = new ParseDefinitionEntry();
+        l_bDefinition.setTitle("B");
+        l_bDefinition.setStart("B=");
+        l_bDefinition.setEnd("|");
+
+        ParseDefinition l_pDefinition = new ParseDefinition("Key first");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_aDefinition, l_bDefinition));
+
+        List<String> l_lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            l_lines.add("A=x" + (i % 100) + "|B=y|");
+        }
+        //Trimmed values are the same, and values with the key padding end up in the same entry
+        l_lines.add("A= x1 |B=y |");
+        l_lines.add("A=x#y|B=z|");
+        l_lines.add("A=x|B=y#z|");
+        l_lines.add("not compliant");
+
+        File l_logFile = File.createTempFile("keyFirst", ".log");
+        l_logFile.deleteOnExit();
+        Files.write(l_logFile.toPath(), l_lines);
+
+        Map<String, GenericEntry> l_expectedEntries = StringParseFactory.extractLogEntryMap(
+                Arrays.asList(l_logFile.getPath()), l_pDefinition, LogEntryFactory.fromSupplier(GenericEntry::new));
+
+        Map<String, GenericEntry> l_entries = StringParseFactory
+                .extractLogEntryMap(Arrays.asList(l_logFile.getPath()), l_pDefinition, GenericEntry.class);
+
+        assertThat("The key first extraction should give the same results", l_entries,
+                is(equalTo(l_expectedEntries)));
+        assertThat(l_entries.size(), is(equalTo(101)));
+        assertThat(l_entries.get("x1#y").getFrequence(), is(equalTo(3)));
+        assertThat(l_entries.get("x#y#z").getFrequence(), is(equalTo(2)));
+    }
+
+    @Test
+    public void testEntryKeyIndex() {
+        ParseDefinition l_pDefinition = new ParseDefinition("Index");
+        ParseDefinitionEntry l_aDefinition = new ParseDefinitionEntry("A");
+        l_aDefinition.setStart("A=");
+        l_aDefinition.setEnd("|");
+        ParseDefinitionEntry l_bDefinition = new ParseDefinitionEntry("B");
+        l_bDefinition.setStart("B=");
+        l_bDefinition.setEnd("|");
+        l_pDefinition.setDefinitionEntries(Arrays.asList(l_aDefinition, l_bDefinition));
+        l_pDefinition.defineKeys(l_bDefinition);
+
+        CompiledParsePlan l_plan = l_pDefinition.compile();
+        EntryKeyIndex<GenericEntry> l_index = EntryKeyIndex.create(l_plan, l_pDefinition.fetchKeyOrder());
+
+        for (int i = 0; i < 1000; i++) {
+            final String lt_line = "A=a|B=" + i + "|";
+            final int[] lt_offsets = l_plan.fetchOffsets(lt_line);
+
+            assertThat(l_index.find(lt_line, lt_offsets), is(nullValue()));
+            l_index.add(lt_line, lt_offsets, new GenericEntry(l_pDefinition));
+        }
+
+        assertThat(l_index.size(), is(equalTo(1000)));
+
+        final String l_line = "A=other|B= 999 |";
+        assertThat("Only the key values should be compared", l_index.find(l_line, l_plan.fetchOffsets(l_line)),
+                is(notNullValue()));
+
+        final String l_line2 = "A=a|B=1000|";
+        assertThat(l_index.find(l_line2, l_plan.fetchOffsets(l_line2)), is(nullValue()));
+
+        assertThat("Keys that are not preserved can not be indexed",
+                EntryKeyIndex.create(l_plan, Arrays.asList("C")), is(nullValue()));
+    }
+
 }